@@ -74,4 +74,28 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Dedicated pool for FCM HTTP sends. Push fan-out is pure network I/O, so it must
+     * not run on the common ForkJoin pool or share {@code taskExecutor} with audit and
+     * integration work. The bounded queue plus CallerRunsPolicy throttles a large
+     * announcement to the pool's throughput instead of queueing thousands of sends.
+     */
+    @Bean(name = "pushExecutor")
+    public Executor pushExecutor(
+            @Value("${async.push-executor.core-size:16}") int coreSize,
+            @Value("${async.push-executor.max-size:64}") int maxSize,
+            @Value("${async.push-executor.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setKeepAliveSeconds(60);
+        executor.setThreadNamePrefix("push-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
 }
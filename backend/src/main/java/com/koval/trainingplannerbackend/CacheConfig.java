@@ -23,11 +23,8 @@ public class CacheConfig {
     public CacheManager cacheManager() {
         SimpleCacheManager manager = new SimpleCacheManager();
         manager.setCaches(List.of(
-                // Per-race cached document — high read fan-out, evicted on race mutation.
+                // Per-race cached document (GPX stays in GridFS) — high read fan-out, evicted on race mutation.
                 build("races", 5_000, Duration.ofHours(1)),
-                // Aggregated facets — recomputed by allEntries evict on race mutation; TTL bounds the rebuild storm.
-                build("raceSportFacets", 16, Duration.ofMinutes(15)),
-                build("raceCountryFacets", 64, Duration.ofMinutes(15)),
                 // Parsed GPX routes — keyed per (raceId, discipline). Big payloads, modest count.
                 build("raceRoutes", 1_000, Duration.ofHours(2)),
                 // Power curves derived from FIT samples — heavy compute, per-session immutable post-ingest.
@@ -0,0 +1,28 @@
+package com.koval.trainingplannerbackend.ai;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Requests one user made in one fixed window bucket (e.g. the minute starting at 10:42), shared
+ * by every node through {@link AiRateLimitRepository}. Kept until the following bucket has
+ * closed too, since {@link AiRateLimiter} weighs the previous bucket into its sliding estimate.
+ */
+@Getter
+@Setter
+@Document(collection = "ai_rate_limits")
+public class AiRateLimitCounter {
+
+    @Id
+    private String id; // userId|window|bucket — see AiRateLimiter
+
+    private long count;
+
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt;
+}
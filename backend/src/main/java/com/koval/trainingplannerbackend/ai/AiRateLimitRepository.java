@@ -0,0 +1,42 @@
+package com.koval.trainingplannerbackend.ai;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/**
+ * Counter reads and writes on {@code ai_rate_limits}. Increments are single upserting
+ * {@code $inc}s returning the new count, so concurrent nodes never lose a request.
+ */
+@Repository
+public class AiRateLimitRepository {
+
+    private static final FindAndModifyOptions UPSERT_RETURN_NEW =
+            FindAndModifyOptions.options().upsert(true).returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+
+    public AiRateLimitRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /** Adds {@code delta} (negative to give requests back) and returns the bucket's new count. */
+    public long add(String id, long delta, Instant expiresAt) {
+        AiRateLimitCounter counter = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(id)),
+                new Update().inc("count", delta).setOnInsert("expiresAt", expiresAt),
+                UPSERT_RETURN_NEW, AiRateLimitCounter.class);
+        return counter != null ? counter.getCount() : delta;
+    }
+
+    /** Count of a bucket, 0 when nobody has written it (or it expired). */
+    public long count(String id) {
+        AiRateLimitCounter counter = mongoTemplate.findById(id, AiRateLimitCounter.class);
+        return counter != null ? counter.getCount() : 0;
+    }
+}
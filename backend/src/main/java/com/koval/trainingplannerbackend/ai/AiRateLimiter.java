@@ -1,65 +1,143 @@
 package com.koval.trainingplannerbackend.ai;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.koval.trainingplannerbackend.config.exceptions.RateLimitException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.util.Deque;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
 
 /**
- * Per-user sliding-window rate limiter for AI endpoints.
- * Uses an in-memory ConcurrentHashMap with timestamped request deques.
+ * Per-user sliding-window rate limiter for AI endpoints, shared by every node.
+ * <p>
+ * Each window (minute, hour) keeps one counter per fixed bucket in {@code ai_rate_limits},
+ * incremented with an upserting {@code $inc} and expired by a TTL index. A request is admitted
+ * while the previous bucket's count, weighted by how much of it still overlaps the sliding window,
+ * plus the current bucket's count stays within the limit — so memory is two counters per user
+ * and window, whatever the request volume.
+ * <p>
+ * To avoid a round trip on every check, a node claims a few requests at once when the user has
+ * plenty of headroom and hands them out locally until the bucket rolls over. Claimed requests
+ * are already counted cluster-wide, so the limit is never exceeded; a user hopping between nodes
+ * may at worst be limited slightly early.
  */
 @Component
 public class AiRateLimiter {
 
+    /** Most requests one node may claim ahead in a single increment. */
+    private static final int MAX_CLAIM = 5;
+    /** Share of the remaining headroom a node may claim ahead (1/4). */
+    private static final int CLAIM_DIVISOR = 4;
+    private static final double EPSILON = 1e-9;
+
+    private enum Window {
+        MINUTE("m", 60), HOUR("h", 3600);
+
+        final String key;
+        final long seconds;
+
+        Window(String key, long seconds) {
+            this.key = key;
+            this.seconds = seconds;
+        }
+    }
+
+    /** This node's view of one user's window; guarded by the enclosing {@link UserWindows}. */
+    private static final class WindowState {
+        long bucket = -1;      // bucket the fields below belong to
+        long previousCount;    // count of bucket - 1, read once per bucket
+        int claimed;           // requests counted in Mongo but not handed out yet
+        double lastHeadroom;   // headroom seen on the last round trip; sizes the next claim
+    }
+
+    private static final class UserWindows {
+        final WindowState minute = new WindowState();
+        final WindowState hour = new WindowState();
+    }
+
+    private final AiRateLimitRepository repository;
     private final int maxPerMinute;
     private final int maxPerHour;
 
-    private final ConcurrentHashMap<String, Deque<Instant>> requestLog = new ConcurrentHashMap<>();
+    private final Cache<String, UserWindows> localState = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofHours(2))
+            .build();
 
     public AiRateLimiter(
+            AiRateLimitRepository repository,
             @Value("${app.ai.rate-limit.per-minute:20}") int maxPerMinute,
             @Value("${app.ai.rate-limit.per-hour:100}") int maxPerHour) {
+        this.repository = repository;
         this.maxPerMinute = maxPerMinute;
         this.maxPerHour = maxPerHour;
     }
 
     /**
      * Check if the user is within rate limits. Throws RateLimitException if exceeded.
-     * Records the request timestamp on success.
+     * Records the request on success.
      */
     public void checkLimit(String userId) {
         Instant now = Instant.now();
-        Deque<Instant> timestamps = requestLog.computeIfAbsent(userId, k -> new ConcurrentLinkedDeque<>());
-
-        // Purge entries older than 1 hour
-        Instant oneHourAgo = now.minusSeconds(3600);
-        while (!timestamps.isEmpty() && timestamps.peekFirst().isBefore(oneHourAgo)) {
-            timestamps.pollFirst();
+        UserWindows state = localState.get(userId, k -> new UserWindows());
+        synchronized (state) {
+            if (!acquire(userId, Window.MINUTE, maxPerMinute, state.minute, now)) {
+                throw new RateLimitException(
+                        "You've sent too many requests. Please wait a moment before trying again (limit: "
+                                + maxPerMinute + " requests/minute).");
+            }
+            if (!acquire(userId, Window.HOUR, maxPerHour, state.hour, now)) {
+                // Not admitted after all: keep the minute request for this user's next call.
+                state.minute.claimed++;
+                throw new RateLimitException(
+                        "Hourly request limit reached. Please try again later (limit: "
+                                + maxPerHour + " requests/hour).");
+            }
         }
+    }
 
-        // Count requests in last minute
-        Instant oneMinuteAgo = now.minusSeconds(60);
-        long countLastMinute = timestamps.stream().filter(t -> t.isAfter(oneMinuteAgo)).count();
-        if (countLastMinute >= maxPerMinute) {
-            throw new RateLimitException(
-                    "You've sent too many requests. Please wait a moment before trying again (limit: "
-                            + maxPerMinute + " requests/minute).");
+    /** Takes one request from the window: from this node's claim if any, otherwise from Mongo. */
+    private boolean acquire(String userId, Window window, int limit, WindowState s, Instant now) {
+        long bucket = now.getEpochSecond() / window.seconds;
+        if (s.bucket != bucket) {
+            s.bucket = bucket;
+            s.claimed = 0;
+            s.previousCount = repository.count(counterId(userId, window, bucket - 1));
+        }
+        if (s.claimed > 0) {
+            s.claimed--;
+            return true;
         }
 
-        // Count requests in last hour
-        long countLastHour = timestamps.size();
-        if (countLastHour >= maxPerHour) {
-            throw new RateLimitException(
-                    "Hourly request limit reached. Please try again later (limit: "
-                            + maxPerHour + " requests/hour).");
+        double elapsed = ((now.getEpochSecond() % window.seconds) + now.getNano() / 1e9) / window.seconds;
+        int claim = 1 + (int) Math.min(MAX_CLAIM - 1, Math.max(0, s.lastHeadroom) / CLAIM_DIVISOR);
+        String id = counterId(userId, window, bucket);
+        Instant expiresAt = Instant.ofEpochSecond((bucket + 2) * window.seconds);
+
+        long countBefore = repository.add(id, claim, expiresAt) - claim;
+        double headroom = limit - estimate(s.previousCount, countBefore, elapsed);
+        int granted = (int) Math.max(0, Math.min(claim, Math.floor(headroom + EPSILON)));
+        if (granted < claim) {
+            repository.add(id, granted - claim, expiresAt);
         }
+        s.lastHeadroom = headroom - granted;
+        if (granted == 0) return false;
+        s.claimed = granted - 1;
+        return true;
+    }
+
+    /**
+     * Requests in the sliding window ending now: all of the current bucket plus the share of the
+     * previous bucket the window still overlaps ({@code elapsed} is the fraction of the current
+     * bucket that has passed).
+     */
+    static double estimate(long previousCount, long currentCount, double elapsed) {
+        return previousCount * (1 - elapsed) + currentCount;
+    }
 
-        // Record this request
-        timestamps.addLast(now);
+    private static String counterId(String userId, Window window, long bucket) {
+        return userId + "|" + window.key + "|" + bucket;
     }
 }
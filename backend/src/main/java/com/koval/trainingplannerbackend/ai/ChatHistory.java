@@ -22,7 +22,7 @@ public class ChatHistory {
     private LocalDateTime startedAt;
     private LocalDateTime lastUpdatedAt;
     private String lastAgentType;
-    private String conversationSummary;
+    private String conversationSummary; // legacy; summaries now live in ConversationSummary
 
     public ChatHistory() {
     }
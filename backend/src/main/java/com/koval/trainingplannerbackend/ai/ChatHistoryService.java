@@ -20,10 +20,13 @@ public class ChatHistoryService {
 
     private final ChatHistoryRepository chatHistoryRepository;
     private final ChatMemory chatMemory;
+    private final ConversationSummarizer conversationSummarizer;
 
-    public ChatHistoryService(ChatHistoryRepository chatHistoryRepository, ChatMemory chatMemory) {
+    public ChatHistoryService(ChatHistoryRepository chatHistoryRepository, ChatMemory chatMemory,
+                              ConversationSummarizer conversationSummarizer) {
         this.chatHistoryRepository = chatHistoryRepository;
         this.chatMemory = chatMemory;
+        this.conversationSummarizer = conversationSummarizer;
     }
 
     /** Returns full, uncompacted messages for frontend display. */
@@ -91,6 +94,7 @@ public class ChatHistoryService {
 
     public void delete(String chatHistoryId) {
         chatMemory.clear(chatHistoryId);
+        conversationSummarizer.forget(chatHistoryId);
         chatHistoryRepository.deleteById(chatHistoryId);
     }
 
@@ -98,6 +102,7 @@ public class ChatHistoryService {
         ChatHistory history = findById(chatHistoryId);
         verifyOwnership(history, userId);
         chatMemory.clear(chatHistoryId);
+        conversationSummarizer.forget(chatHistoryId);
         chatHistoryRepository.deleteById(chatHistoryId);
     }
 
@@ -3,30 +3,49 @@ package com.koval.trainingplannerbackend.ai;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage.ToolResponse;
 import org.springframework.ai.chat.messages.UserMessage;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
-import java.util.stream.IntStream;
 
 /**
- * Wraps a ChatMemory to compact older messages before they are sent to the AI.
+ * Wraps a ChatMemory to fit the history sent to the AI into an estimated token budget.
  * <p>
- * The last {@code KEEP_FULL} messages are returned intact; older messages are
- * truncated to {@code MAX_COMPACT_LENGTH} characters so that a larger window
- * can fit in the token budget.
+ * Messages are taken newest first, intact while they fit in the budget (see {@link TokenEstimator}).
+ * From the first one that does not, older messages are compacted to their first
+ * {@code MAX_COMPACT_LENGTH} characters, and once even that does not fit the rest is left out —
+ * the rolling summary from {@link ConversationSummarizer} carries it instead. Tool results older
+ * than the latest user turn are always collapsed to a short reference, since the agent can call
+ * the tool again. Input tokens per turn are therefore bounded whatever the conversation length.
  * <p>
- * Use {@link #getFullMessages(String)} for the uncompacted originals (e.g. when
+ * Each agent gets its own view through {@link #withTokenBudget(int)}; all views share the
+ * underlying store. Use {@link #getFullMessages(String)} for the uncompacted originals (e.g. when
  * returning conversation history to the frontend).
  */
 public class CompactingChatMemory implements ChatMemory {
 
-    private static final int KEEP_FULL = 4;
+    public static final int DEFAULT_TOKEN_BUDGET = 3_000;
     private static final int MAX_COMPACT_LENGTH = 200;
 
     private final ChatMemory delegate;
+    private final int tokenBudget;
 
     public CompactingChatMemory(ChatMemory delegate) {
+        this(delegate, DEFAULT_TOKEN_BUDGET);
+    }
+
+    public CompactingChatMemory(ChatMemory delegate, int tokenBudget) {
         this.delegate = delegate;
+        this.tokenBudget = tokenBudget;
+    }
+
+    /** A view over the same conversations that fits history into {@code tokens} instead. */
+    public CompactingChatMemory withTokenBudget(int tokens) {
+        return new CompactingChatMemory(delegate, tokens);
     }
 
     @Override
@@ -35,21 +54,42 @@ public class CompactingChatMemory implements ChatMemory {
     }
 
     /**
-     * Returns messages with older entries compacted to 1-2 lines.
+     * Returns the newest messages that fit in the token budget, older ones compacted or left out.
      * Used by {@link org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor}
      * when building the AI prompt.
      */
     @Override
     public List<Message> get(String conversationId) {
         List<Message> messages = delegate.get(conversationId);
-        if (messages == null || messages.size() <= KEEP_FULL) {
+        if (messages == null || messages.isEmpty()) {
             return messages;
         }
 
-        int compactUntil = messages.size() - KEEP_FULL;
-        return IntStream.range(0, messages.size())
-                .mapToObj(i -> i < compactUntil ? compactMessage(messages.get(i)) : messages.get(i))
-                .toList();
+        int latestUserTurn = latestUserMessage(messages);
+        Deque<Message> kept = new ArrayDeque<>();
+        int remaining = tokenBudget;
+        boolean compacting = false;
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            Message message = messages.get(i);
+            if (message instanceof ToolResponseMessage tool && i < latestUserTurn) {
+                message = collapseToolResults(tool);
+            }
+            int cost = TokenEstimator.estimate(message);
+            if (compacting || cost > remaining) {
+                compacting = true;
+                message = compactMessage(message);
+                cost = TokenEstimator.estimate(message);
+                if (cost > remaining) break;
+            }
+            kept.addFirst(message);
+            remaining -= cost;
+        }
+
+        // Never open the history on a reply or tool result whose request was left out.
+        while (!kept.isEmpty() && kept.peekFirst().getMessageType() != MessageType.USER) {
+            kept.removeFirst();
+        }
+        return List.copyOf(kept);
     }
 
     /** Returns the full, uncompacted messages — for frontend display. */
@@ -62,7 +102,25 @@ public class CompactingChatMemory implements ChatMemory {
         delegate.clear(conversationId);
     }
 
-    private Message compactMessage(Message message) {
+    private static int latestUserMessage(List<Message> messages) {
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (messages.get(i).getMessageType() == MessageType.USER) return i;
+        }
+        return messages.size();
+    }
+
+    private static Message collapseToolResults(ToolResponseMessage message) {
+        List<ToolResponse> collapsed = message.getResponses().stream()
+                .map(r -> new ToolResponse(r.id(), r.name(), "[earlier %s result, ~%d tokens omitted; call %s again if needed]"
+                        .formatted(r.name(), TokenEstimator.estimate(r.responseData()), r.name())))
+                .toList();
+        return ToolResponseMessage.builder()
+                .responses(collapsed)
+                .metadata(message.getMetadata())
+                .build();
+    }
+
+    private static Message compactMessage(Message message) {
         String text = message.getText();
         if (text == null || text.length() <= MAX_COMPACT_LENGTH) {
             return message;
@@ -70,7 +128,8 @@ public class CompactingChatMemory implements ChatMemory {
         String compacted = text.substring(0, MAX_COMPACT_LENGTH) + "…";
         return switch (message.getMessageType()) {
             case USER -> new UserMessage(compacted);
-            case ASSISTANT -> new AssistantMessage(compacted);
+            // Tool calls must stay paired with their results, so those replies are kept whole.
+            case ASSISTANT -> ((AssistantMessage) message).hasToolCalls() ? message : new AssistantMessage(compacted);
             default -> message;
         };
     }
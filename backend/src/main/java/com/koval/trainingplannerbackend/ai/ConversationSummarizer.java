@@ -1,5 +1,7 @@
 package com.koval.trainingplannerbackend.ai;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
@@ -8,22 +10,31 @@ import org.springframework.ai.chat.messages.Message;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 /**
  * Summarizes older conversation messages to preserve context when the
  * message window is full. Uses a lightweight Haiku call to compress
  * the oldest messages into a compact summary paragraph.
+ * <p>
+ * Summaries are persisted in {@link ConversationSummary} with a watermark on the newest message
+ * they cover, so each pass only folds the messages after it into the previous summary, and a
+ * restart or another node picks the summary up instead of asking the model again. A
+ * weight-bounded cache keeps the hot ones in memory.
  */
 @Component
 public class ConversationSummarizer {
 
     private static final Logger log = LoggerFactory.getLogger(ConversationSummarizer.class);
     private static final int SUMMARIZE_THRESHOLD = 10;
+    /** Older messages not yet in the summary before it is worth extending it. */
+    private static final int MIN_NEW_MESSAGES = 4;
+    /** Cache bound, in summary characters. */
+    private static final long MAX_CACHED_CHARS = 2_000_000;
+    private static final Duration CACHE_IDLE_TTL = Duration.ofHours(2);
 
     private static final String SUMMARIZE_PROMPT = """
             Summarize this conversation history in 2-3 concise sentences.
@@ -31,17 +42,30 @@ public class ConversationSummarizer {
             user preferences mentioned, and any outstanding requests.
             Return ONLY the summary, no preamble.""";
 
+    private static final String EXTEND_PROMPT = """
+            Update the conversation summary with the newer messages, in 2-3 concise sentences.
+            Keep what still matters from the previous summary; focus on key decisions made,
+            workouts created (titles, types), user preferences mentioned, and any outstanding requests.
+            Return ONLY the summary, no preamble.""";
+
     private final ChatClient routerClient;
     private final ChatMemory chatMemory;
     private final ChatHistoryRepository chatHistoryRepository;
-    private final Map<String, String> summaryCache = new ConcurrentHashMap<>();
+    private final ConversationSummaryRepository summaryRepository;
+    private final Cache<String, ConversationSummary> summaryCache = Caffeine.newBuilder()
+            .maximumWeight(MAX_CACHED_CHARS)
+            .weigher((String id, ConversationSummary s) -> s.getSummary().length())
+            .expireAfterAccess(CACHE_IDLE_TTL)
+            .build();
 
     public ConversationSummarizer(@Qualifier("routerClient") ChatClient routerClient,
                                    ChatMemory chatMemory,
-                                   ChatHistoryRepository chatHistoryRepository) {
+                                   ChatHistoryRepository chatHistoryRepository,
+                                   ConversationSummaryRepository summaryRepository) {
         this.routerClient = routerClient;
         this.chatMemory = chatMemory;
         this.chatHistoryRepository = chatHistoryRepository;
+        this.summaryRepository = summaryRepository;
     }
 
     /**
@@ -49,50 +73,108 @@ public class ConversationSummarizer {
      * Returns null for short conversations.
      */
     public String getSummaryIfNeeded(String conversationId) {
-        String cached = summaryCache.get(conversationId);
-        if (cached != null) return cached;
+        ConversationSummary cached = summaryCache.getIfPresent(conversationId);
+        if (cached != null) return cached.getSummary();
 
-        List<Message> messages = chatMemory.get(conversationId);
+        List<Message> messages = fullMessages(conversationId);
         if (messages == null || messages.size() < SUMMARIZE_THRESHOLD) {
             return null;
         }
 
-        return chatHistoryRepository.findById(conversationId)
-                .map(ChatHistory::getConversationSummary)
-                .orElse(null);
+        ConversationSummary stored = load(conversationId);
+        return stored != null ? stored.getSummary() : null;
     }
 
     /**
-     * Generates and stores a summary for conversations approaching the memory window limit.
-     * Called after responses when message count exceeds the threshold.
+     * Extends the stored summary with the older messages it does not cover yet.
+     * Called after responses; a no-op until enough new messages have aged out of the recent half.
      */
     public void summarizeIfNeeded(String conversationId) {
-        Optional.ofNullable(chatMemory.get(conversationId))
-                .filter(msgs -> msgs.size() >= SUMMARIZE_THRESHOLD)
-                .filter(msgs -> !summaryCache.containsKey(conversationId))
-                .ifPresent(msgs -> doSummarize(conversationId, msgs));
+        List<Message> messages = fullMessages(conversationId);
+        if (messages == null || messages.size() < SUMMARIZE_THRESHOLD) return;
+
+        // The recent half stays verbatim in the prompt window; the older half is summarised.
+        int cutoff = messages.size() / 2;
+        ConversationSummary current = summaryCache.getIfPresent(conversationId);
+        if (current != null && cutoff - firstUncovered(messages, current, cutoff) < MIN_NEW_MESSAGES) return;
+
+        // Due: re-read the stored summary in case another node extended it meanwhile.
+        current = load(conversationId);
+        int from = firstUncovered(messages, current, cutoff);
+        if (current != null && cutoff - from < MIN_NEW_MESSAGES) return;
+
+        doSummarize(conversationId, current, messages, from, cutoff);
     }
 
-    private void doSummarize(String conversationId, List<Message> messages) {
-        List<Message> olderMessages = messages.subList(0, messages.size() / 2);
-        String conversationText = olderMessages.stream()
+    /** Drops the summary of a deleted conversation. */
+    public void forget(String conversationId) {
+        summaryCache.invalidate(conversationId);
+        summaryRepository.deleteById(conversationId);
+    }
+
+    private void doSummarize(String conversationId, ConversationSummary previous,
+                             List<Message> messages, int from, int cutoff) {
+        String conversationText = messages.subList(from, cutoff).stream()
                 .map(m -> m.getMessageType().name() + ": " + m.getText())
                 .collect(Collectors.joining("\n"));
+        boolean extending = previous != null && previous.getSummary() != null;
         try {
             String summary = routerClient.prompt()
-                    .system(SUMMARIZE_PROMPT)
-                    .user(conversationText)
+                    .system(extending ? EXTEND_PROMPT : SUMMARIZE_PROMPT)
+                    .user(extending
+                            ? "Previous summary: " + previous.getSummary() + "\n\nNewer messages:\n" + conversationText
+                            : conversationText)
                     .call()
                     .content();
-            summaryCache.put(conversationId, summary);
-            chatHistoryRepository.findById(conversationId).ifPresent(history -> {
-                history.setConversationSummary(summary);
-                chatHistoryRepository.save(history);
-            });
-            log.debug("Generated conversation summary for {}: {} chars", conversationId, summary.length());
+            int covered = (previous != null ? previous.getCoveredMessages() : 0) + (cutoff - from);
+            ConversationSummary updated = new ConversationSummary(
+                    conversationId, summary, fingerprint(messages, cutoff - 1), covered);
+            summaryRepository.save(updated);
+            summaryCache.put(conversationId, updated);
+            log.debug("{} conversation summary for {} over {} new messages: {} chars",
+                    extending ? "Extended" : "Generated", conversationId, cutoff - from, summary.length());
         } catch (RuntimeException e) {
             log.warn("Failed to generate conversation summary for {} ({}): {}",
                     conversationId, e.getClass().getSimpleName(), e.getMessage());
         }
     }
+
+    /** Stored summary (falling back to the legacy one on {@link ChatHistory}), cached on the way. */
+    private ConversationSummary load(String conversationId) {
+        ConversationSummary stored = summaryRepository.findById(conversationId)
+                .or(() -> chatHistoryRepository.findById(conversationId)
+                        .map(ChatHistory::getConversationSummary)
+                        .filter(s -> !s.isBlank())
+                        .map(s -> new ConversationSummary(conversationId, s, null, 0)))
+                .orElse(null);
+        if (stored != null && stored.getSummary() != null) {
+            summaryCache.put(conversationId, stored);
+        }
+        return stored;
+    }
+
+    /**
+     * Index of the first message before {@code cutoff} the summary does not cover: right after
+     * the watermarked message, or 0 when there is no watermark or it has left the window.
+     */
+    private static int firstUncovered(List<Message> messages, ConversationSummary summary, int cutoff) {
+        if (summary == null || summary.getWatermark() == null) return 0;
+        for (int i = Math.min(cutoff, messages.size()) - 1; i >= 0; i--) {
+            if (summary.getWatermark().equals(fingerprint(messages, i))) return i + 1;
+        }
+        return 0;
+    }
+
+    /** Identifies message {@code i} by its own and its predecessor's content, so repeated short replies don't collide. */
+    private static String fingerprint(List<Message> messages, int i) {
+        int hash = Objects.hash(messages.get(i).getMessageType(), messages.get(i).getText(),
+                i > 0 ? messages.get(i - 1).getText() : null);
+        return messages.get(i).getMessageType().name() + ':' + Integer.toHexString(hash);
+    }
+
+    private List<Message> fullMessages(String conversationId) {
+        return chatMemory instanceof CompactingChatMemory compacting
+                ? compacting.getFullMessages(conversationId)
+                : chatMemory.get(conversationId);
+    }
 }
@@ -0,0 +1,40 @@
+package com.koval.trainingplannerbackend.ai;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Rolling summary of a conversation's older messages, maintained by {@link ConversationSummarizer}.
+ * {@code watermark} fingerprints the newest message already folded in, so the next pass only
+ * reads the messages after it. Expires with the chat memory it summarises.
+ */
+@Getter
+@Setter
+@Document(collection = "chat_summaries")
+public class ConversationSummary {
+
+    @Id
+    private String id;            // conversation id
+    private String summary;
+    private String watermark;     // null when carried over from ChatHistory.conversationSummary
+    private int coveredMessages;  // messages folded in so far
+
+    @Indexed(expireAfter = "90d")
+    private Instant updatedAt;
+
+    public ConversationSummary() {
+    }
+
+    public ConversationSummary(String id, String summary, String watermark, int coveredMessages) {
+        this.id = id;
+        this.summary = summary;
+        this.watermark = watermark;
+        this.coveredMessages = coveredMessages;
+        this.updatedAt = Instant.now();
+    }
+}
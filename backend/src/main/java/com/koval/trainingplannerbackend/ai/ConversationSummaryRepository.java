@@ -0,0 +1,8 @@
+package com.koval.trainingplannerbackend.ai;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ConversationSummaryRepository extends MongoRepository<ConversationSummary, String> {
+}
@@ -0,0 +1,55 @@
+package com.koval.trainingplannerbackend.ai;
+
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+
+/**
+ * Fast local estimate of how many tokens a text costs the model, for budgeting prompt history
+ * without a tokenizer round trip. Words cost one token per five letters, digit runs one per three
+ * digits, and every other non-space character one token: close to the Claude tokenizer on chat
+ * text, and on the high side for symbol-heavy JSON/TOON, which is the safe direction for a budget.
+ */
+public final class TokenEstimator {
+
+    /** Role markers and separators the API adds around every message. */
+    static final int MESSAGE_OVERHEAD = 4;
+
+    private TokenEstimator() {}
+
+    public static int estimate(String text) {
+        if (text == null || text.isEmpty()) return 0;
+        int tokens = 0;
+        int letters = 0;
+        int digits = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetter(c)) {
+                digits = 0;
+                if (letters++ % 5 == 0) tokens++;
+            } else if (Character.isDigit(c)) {
+                letters = 0;
+                if (digits++ % 3 == 0) tokens++;
+            } else {
+                letters = 0;
+                digits = 0;
+                if (!Character.isWhitespace(c)) tokens++;
+            }
+        }
+        return tokens;
+    }
+
+    public static int estimate(Message message) {
+        int tokens = MESSAGE_OVERHEAD + estimate(message.getText());
+        if (message instanceof ToolResponseMessage tool) {
+            for (ToolResponseMessage.ToolResponse r : tool.getResponses()) {
+                tokens += MESSAGE_OVERHEAD + estimate(r.name()) + estimate(r.responseData());
+            }
+        } else if (message instanceof AssistantMessage assistant && assistant.hasToolCalls()) {
+            for (AssistantMessage.ToolCall call : assistant.getToolCalls()) {
+                tokens += MESSAGE_OVERHEAD + estimate(call.name()) + estimate(call.arguments());
+            }
+        }
+        return tokens;
+    }
+}
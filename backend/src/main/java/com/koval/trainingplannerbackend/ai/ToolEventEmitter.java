@@ -4,22 +4,63 @@ import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.http.codec.ServerSentEvent;
 import reactor.core.publisher.Sinks;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Shared SSE helpers for emitting tool_call / tool_result events during streaming.
  * Used by all tool services to avoid duplicating event-emission logic.
+ * <p>
+ * Read-only tools of one turn may run in parallel, so emissions are serialised per sink.
  */
 public final class ToolEventEmitter {
 
+    /** What a recorded call returned, and the events it emitted on the way. */
+    public record Recorded<T>(T value, List<ServerSentEvent<String>> events) {}
+
+    // Events of the call running on this thread inside record(), if any.
+    private static final ThreadLocal<List<ServerSentEvent<String>>> RECORDING = new ThreadLocal<>();
+
     private ToolEventEmitter() {}
 
+    /**
+     * Runs {@code call} on this thread, emitting as usual while also collecting its events, so a
+     * memoised tool result can {@link #replay} them when it is served again.
+     */
+    public static <T> Recorded<T> record(Supplier<T> call) {
+        List<ServerSentEvent<String>> outer = RECORDING.get();
+        List<ServerSentEvent<String>> events = new ArrayList<>();
+        RECORDING.set(events);
+        try {
+            return new Recorded<>(call.get(), List.copyOf(events));
+        } finally {
+            if (outer == null) RECORDING.remove(); else RECORDING.set(outer);
+        }
+    }
+
+    public static void replay(ToolContext ctx, List<ServerSentEvent<String>> events) {
+        events.forEach(event -> emit(ctx, event));
+    }
+
     public static void emitToolCall(ToolContext ctx, String name, String label) {
-        getSink(ctx).ifPresent(s -> s.tryEmitNext(toolSse("tool_call", name, label, true)));
+        emit(ctx, toolSse("tool_call", name, label, true));
     }
 
     public static void emitToolResult(ToolContext ctx, String name, String label, boolean ok) {
-        getSink(ctx).ifPresent(s -> s.tryEmitNext(toolSse("tool_result", name, label, ok)));
+        emit(ctx, toolSse("tool_result", name, label, ok));
+    }
+
+    private static void emit(ToolContext ctx, ServerSentEvent<String> event) {
+        List<ServerSentEvent<String>> recording = RECORDING.get();
+        if (recording != null) recording.add(event);
+        getSink(ctx).ifPresent(sink -> {
+            // A sink rejects concurrent emissions (FAIL_NON_SERIALIZED) instead of queueing them.
+            synchronized (sink) {
+                sink.tryEmitNext(event);
+            }
+        });
     }
 
     private static ServerSentEvent<String> toolSse(String event, String name, String label, boolean success) {
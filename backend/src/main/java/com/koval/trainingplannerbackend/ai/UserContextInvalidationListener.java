@@ -0,0 +1,65 @@
+package com.koval.trainingplannerbackend.ai;
+
+import com.koval.trainingplannerbackend.auth.User;
+import com.koval.trainingplannerbackend.club.Club;
+import com.koval.trainingplannerbackend.club.feed.SessionCompletedEvent;
+import com.koval.trainingplannerbackend.club.group.ClubGroup;
+import com.koval.trainingplannerbackend.club.membership.ClubMembership;
+import com.koval.trainingplannerbackend.training.group.Group;
+import com.koval.trainingplannerbackend.training.zone.ZoneSystem;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Evicts {@link UserContextResolver} snapshots when the data behind them changes: profile and
+ * load metrics ({@link User}), a coach's default zones ({@link ZoneSystem}), roster
+ * ({@link Group}) and clubs ({@link ClubMembership}, {@link Club}, {@link ClubGroup}).
+ * Hooking the mapping events covers every writer without touching the call sites.
+ *
+ * <p>Club members are not indexed back to the snapshots that list their clubs, so club
+ * changes and deletions clear every snapshot instead; they are rare next to chat turns.
+ */
+@Component
+public class UserContextInvalidationListener extends AbstractMongoEventListener<Object> {
+
+    private static final Set<Class<?>> TRACKED = Set.of(
+            User.class, ZoneSystem.class, Group.class, ClubMembership.class, Club.class, ClubGroup.class);
+
+    private final UserContextResolver resolver;
+
+    public UserContextInvalidationListener(UserContextResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        switch (event.getSource()) {
+            // A coach's snapshot lists athlete display names.
+            case User user -> resolver.invalidateWithCoaches(user.getId());
+            case ZoneSystem zones -> resolver.invalidate(zones.getCoachId());
+            case Group group -> resolver.invalidate(group.getCoachId());
+            case ClubMembership membership -> resolver.invalidate(membership.getUserId());
+            case Club ignored -> resolver.invalidateAll();
+            case ClubGroup ignored -> resolver.invalidateAll();
+            default -> { }
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        if (event.getType() != null && TRACKED.contains(event.getType())) {
+            resolver.invalidateAll();
+        }
+    }
+
+    /** Load metrics move with every completed session, even before the PMC is written back. */
+    @EventListener
+    public void onSessionCompleted(SessionCompletedEvent event) {
+        resolver.invalidate(event.session().getUserId());
+    }
+}
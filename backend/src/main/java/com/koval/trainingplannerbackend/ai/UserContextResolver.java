@@ -1,5 +1,7 @@
 package com.koval.trainingplannerbackend.ai;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.koval.trainingplannerbackend.auth.User;
 import com.koval.trainingplannerbackend.auth.UserRepository;
 import com.koval.trainingplannerbackend.club.ClubService;
@@ -10,12 +12,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Resolves user context (profile, athletes, clubs) for AI prompt injection.
  * Pre-fetches role-specific data so agents don't need tool calls for basic info.
+ *
+ * <p>Snapshots are cached per user so follow-up turns of a conversation skip the lookups;
+ * {@link UserContextInvalidationListener} drops a snapshot as soon as the data behind it is
+ * written. The TTL is only a backstop for writes made by other instances.
  */
 @Component
 public class UserContextResolver {
@@ -26,12 +36,23 @@ public class UserContextResolver {
 
     private static final String DEFAULT_ROLE = "ATHLETE";
     private static final int DEFAULT_FTP = 250;
+    private static final int MAX_CACHED_CONTEXTS = 10_000;
+    private static final Duration CONTEXT_TTL = Duration.ofMinutes(10);
 
     private final UserRepository userRepository;
     private final CoachGroupService coachGroupService;
     private final ClubService clubService;
     private final ClubGroupService clubGroupService;
 
+    private final Cache<String, UserContext> snapshots = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_CONTEXTS)
+            .expireAfterWrite(CONTEXT_TTL)
+            .build();
+
+    // Coaches whose snapshot lists each athlete; a superset (expired snapshots are not pruned)
+    // that is dropped per athlete when it is used.
+    private final Map<String, Set<String>> coachesByAthlete = new ConcurrentHashMap<>();
+
     public UserContextResolver(UserRepository userRepository,
                                CoachGroupService coachGroupService,
                                ClubService clubService,
@@ -43,6 +64,28 @@ public class UserContextResolver {
     }
 
     public UserContext resolve(String userId) {
+        return snapshots.get(userId, this::load);
+    }
+
+    /** Drops the cached snapshot of {@code userId}; the next turn reloads it. */
+    public void invalidate(String userId) {
+        if (userId != null) snapshots.invalidate(userId);
+    }
+
+    /** Drops the snapshot of {@code userId} and of every coach whose snapshot lists them as an athlete. */
+    public void invalidateWithCoaches(String userId) {
+        if (userId == null) return;
+        snapshots.invalidate(userId);
+        Set<String> coaches = coachesByAthlete.remove(userId);
+        if (coaches != null) snapshots.invalidateAll(coaches);
+    }
+
+    /** Drops every cached snapshot, for writes whose affected users are not known cheaply. */
+    public void invalidateAll() {
+        snapshots.invalidateAll();
+    }
+
+    private UserContext load(String userId) {
         User user = userRepository.findById(userId).orElse(null);
         if (user == null) {
             return new UserContext(userId, DEFAULT_ROLE, DEFAULT_FTP, null,
@@ -69,6 +112,10 @@ public class UserContextResolver {
 
         if (COACH_ROLE.equals(role)) {
             athletes = resolveAthletes(userId);
+            for (AthleteSummary athlete : athletes) {
+                if (athlete.id() == null) continue;
+                coachesByAthlete.computeIfAbsent(athlete.id(), k -> ConcurrentHashMap.newKeySet()).add(userId);
+            }
             athleteGroups = resolveGroups(userId);
             clubs = resolveClubs(userId);
         }
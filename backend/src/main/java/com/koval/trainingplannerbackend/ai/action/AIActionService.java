@@ -7,7 +7,7 @@ import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.training.zone.ZoneSystem;
 import com.koval.trainingplannerbackend.training.zone.ZoneSystemService;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
@@ -56,7 +56,7 @@ public class AIActionService {
         try {
             ActionToolTracker.reset();
             String content = client.prompt()
-                    .messages(new SystemMessage(systemContext))
+                    .messages(new UserMessage("<context>\n" + systemContext + "\n</context>"))
                     .user(userMessage)
                     .toolContext(Map.of(SecurityUtils.USER_ID_KEY, userId))
                     .call()
@@ -1,5 +1,7 @@
 package com.koval.trainingplannerbackend.ai.agents;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.koval.trainingplannerbackend.ai.AIService.ChatMessageResponse;
 import com.koval.trainingplannerbackend.ai.AIService.StreamResponse;
 import com.koval.trainingplannerbackend.ai.AiErrorClassifier;
@@ -8,12 +10,13 @@ import com.koval.trainingplannerbackend.ai.UserContextResolver;
 import com.koval.trainingplannerbackend.ai.UserContextResolver.UserContext;
 import com.koval.trainingplannerbackend.ai.logger.UsageTracker;
 import com.koval.trainingplannerbackend.ai.logger.UsageTracker.UsageSnapshot;
+import com.koval.trainingplannerbackend.ai.tools.ToolResultCache;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.training.zone.ZoneSystem;
 import com.koval.trainingplannerbackend.training.zone.ZoneSystemService;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.ai.chat.memory.ChatMemory;
-import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.http.codec.ServerSentEvent;
 import reactor.core.publisher.Flux;
@@ -41,6 +44,15 @@ public abstract class BaseAgentService implements TrainingAgent {
     private final UsageTracker usageTracker;
     private final ConversationSummarizer conversationSummarizer;
 
+    // Rendered system context per resolved snapshot. Weak keys compare by identity, so a snapshot
+    // reloaded after invalidation renders afresh and evicted snapshots release their entry.
+    private final Cache<UserContext, RenderedContext> renderedContexts = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(10_000)
+            .build();
+
+    private record RenderedContext(LocalDate day, String text) {}
+
     protected BaseAgentService(ChatClient chatClient, ZoneSystemService zoneSystemService,
                                 UsageTracker usageTracker, ConversationSummarizer conversationSummarizer) {
         this.chatClient = chatClient;
@@ -67,13 +79,13 @@ public abstract class BaseAgentService implements TrainingAgent {
                 Sinks.many().multicast().onBackpressureBuffer();
 
         // Anthropic streaming emits cumulative prompt tokens per chunk; completion tokens accumulate.
-        AtomicReference<UsageSnapshot> usageRef = new AtomicReference<>(new UsageSnapshot(0, 0, 0));
+        AtomicReference<UsageSnapshot> usageRef = new AtomicReference<>(UsageSnapshot.EMPTY);
 
         var responseFlux = buildPrompt(ctx, conversationId, toolSink)
                 .user(userMessage)
                 .stream()
                 .chatResponse()
-                .doOnNext(response -> usageRef.updateAndGet(prev -> mergeUsage(prev, response)))
+                .doOnNext(response -> usageRef.updateAndGet(prev -> usageTracker.mergeStreamed(prev, response)))
                 .flatMap(this::mapChatResponseToEvents)
                 .retryWhen(Retry.backoff(2, Duration.ofSeconds(2))
                         .jitter(0.5)
@@ -86,7 +98,9 @@ public abstract class BaseAgentService implements TrainingAgent {
             usageTracker.logUsage(getAgentType().name(), conversationId, total);
             conversationSummarizer.summarizeIfNeeded(conversationId);
             String usageJson = "{\"inputTokens\":" + total.inputTokens()
-                    + ",\"outputTokens\":" + total.outputTokens() + "}";
+                    + ",\"outputTokens\":" + total.outputTokens()
+                    + ",\"cacheReadTokens\":" + total.cacheReadTokens()
+                    + ",\"cacheWriteTokens\":" + total.cacheWriteTokens() + "}";
             return Flux.just(
                     sse("usage", usageJson),
                     sse("status", "complete"),
@@ -101,36 +115,40 @@ public abstract class BaseAgentService implements TrainingAgent {
         return new StreamResponse(conversationId, Flux.concat(merged, postStream));
     }
 
-    private static UsageSnapshot mergeUsage(UsageSnapshot prev, ChatResponse response) {
-        if (response == null || response.getMetadata() == null || response.getMetadata().getUsage() == null) {
-            return prev;
-        }
-        var u = response.getMetadata().getUsage();
-        long input = u.getPromptTokens() > 0 ? u.getPromptTokens() : prev.inputTokens();
-        long output = u.getCompletionTokens() > 0 ? prev.outputTokens() + u.getCompletionTokens() : prev.outputTokens();
-        return new UsageSnapshot(input, output, input + output);
-    }
-
     private ChatClient.ChatClientRequestSpec buildPrompt(UserContext ctx, String conversationId) {
         return buildPrompt(ctx, conversationId, null);
     }
 
     private ChatClient.ChatClientRequestSpec buildPrompt(UserContext ctx, String conversationId,
                                                          Sinks.Many<ServerSentEvent<String>> toolSink) {
-        String context = systemContext(ctx);
+        String context = renderedSystemContext(ctx);
         String summary = conversationSummarizer.getSummaryIfNeeded(conversationId);
         if (summary != null) {
             context = context + "\n\nPrevious conversation summary: " + summary;
         }
         Map<String, Object> toolCtx = toolSink != null
-                ? Map.of(SecurityUtils.USER_ID_KEY, ctx.userId(), "toolSink", toolSink)
-                : Map.of(SecurityUtils.USER_ID_KEY, ctx.userId());
+                ? Map.of(SecurityUtils.USER_ID_KEY, ctx.userId(),
+                        ToolResultCache.CONVERSATION_ID_KEY, conversationId, "toolSink", toolSink)
+                : Map.of(SecurityUtils.USER_ID_KEY, ctx.userId(), ToolResultCache.CONVERSATION_ID_KEY, conversationId);
+        // The system prompt and tools stay byte-identical across users and turns so Anthropic can
+        // serve them from the prompt cache; everything per-user travels in the user turn instead.
         return chatClient.prompt()
-                .messages(new SystemMessage(context))
+                .messages(new UserMessage("<context>\n" + context + "\n</context>"))
                 .advisors(a -> a.param(ChatMemory.CONVERSATION_ID, conversationId))
                 .toolContext(toolCtx);
     }
 
+    /** {@link #systemContext} memoised per snapshot; re-rendered when the day rolls over. */
+    private String renderedSystemContext(UserContext ctx) {
+        LocalDate today = LocalDate.now();
+        RenderedContext rendered = renderedContexts.getIfPresent(ctx);
+        if (rendered == null || !rendered.day().equals(today)) {
+            rendered = new RenderedContext(today, systemContext(ctx));
+            renderedContexts.put(ctx, rendered);
+        }
+        return rendered.text();
+    }
+
     protected String systemContext(UserContext ctx) {
         StringBuilder sb = new StringBuilder();
         appendCoreLine(sb, ctx);
@@ -0,0 +1,208 @@
+package com.koval.trainingplannerbackend.ai.agents;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * First-stage, on-JVM agent classifier that lets {@link RouterService} skip the LLM call for
+ * unambiguous messages.
+ *
+ * <p>Scores combine a multinomial naive Bayes over a hashed bag of words and bigrams — trained at
+ * startup from the checked-in {@value #TRAINING_SET} — with keyword rules worth
+ * {@value #RULE_WEIGHT} log-odds each. A message is routed locally only when the posterior of
+ * the best agent reaches the configured confidence; short or anaphoric follow-ups ("now schedule
+ * it") always defer, since only the LLM router sees the previous agent.
+ */
+@Component
+class LocalIntentRouter {
+
+    static final String TRAINING_SET = "router/intent-examples.tsv";
+
+    private static final int BUCKETS = 1 << 14;
+    private static final double SMOOTHING = 0.5;
+    private static final double RULE_WEIGHT = 3.0;
+    private static final int MIN_CONTENT_TOKENS = 2;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "to", "of", "for", "on", "in", "at", "and", "or", "with", "me", "my", "i",
+            "is", "be", "can", "you", "please", "do", "does", "this", "that", "it", "some", "what",
+            "what's", "s", "by", "from", "are", "am", "was", "about", "all", "your");
+
+    private static final Pattern GREETING = Pattern.compile(
+            "(hi|hello|hey|thanks|thank you|bye|good (morning|afternoon|evening|night))\\b[\\s\\p{Punct}]*");
+
+    private static final Pattern FOLLOW_UP = Pattern.compile(
+            "^(ok|okay|yes|no|sure|great|perfect|and|also|now|then|same|again|instead|do it|go ahead)\\b"
+                    + "|\\b(it|that one|this one|those|them|the same)\\b\\W*$");
+
+    private static final Map<AgentType, List<Pattern>> RULES = Map.of(
+            AgentType.TRAINING_CREATION, List.of(
+                    rule("\\b(create|build|design|write|generate|make)\\b.*\\b(workouts?|sessions?|intervals?|sets?|rides?|runs?|block)\\b"),
+                    rule("\\b\\d+\\s*x\\s*\\d+")),
+            AgentType.SCHEDULING, List.of(
+                    rule("\\b(schedule|reschedule|calendar|planned|scheduled)\\b"),
+                    rule("\\b(race goals?|goal race|a race)\\b")),
+            AgentType.ANALYSIS, List.of(
+                    rule("\\b(ctl|atl|tsb|pmc|power curve|fatigue|fatigued|form|trend|trending)\\b"),
+                    rule("\\b(analy[sz]e|review|how did|compare|last (ride|run|swim|week|month))\\b")),
+            AgentType.COACH_MANAGEMENT, List.of(
+                    rule("\\b(my athletes|athlete groups?|roster|invite code|zone systems?|zones)\\b"),
+                    rule("\\b(tag|coach(ing)? groups?)\\b")),
+            AgentType.CLUB_MANAGEMENT, List.of(
+                    rule("\\bclub\\b"),
+                    rule("\\b(recurring sessions?|members)\\b")),
+            AgentType.GENERAL, List.of(
+                    rule("^(hi|hello|hey|thanks|thank you|good (morning|evening|night))\\b"),
+                    rule("^(what is|what does|how do i|how should i|how much|explain what|should i)\\b")));
+
+    /** Best agent and its posterior probability. */
+    record Prediction(AgentType agent, double confidence) {}
+
+    record Example(AgentType label, String text) {}
+
+    private final double minConfidence;
+    private final AgentType[] labels = AgentType.values();
+    private final double[] logPriors = new double[labels.length];
+    private final double[][] logLikelihoods = new double[labels.length][BUCKETS];
+
+    LocalIntentRouter(@Value("${app.ai.router.local-min-confidence:0.9}") double minConfidence) {
+        this.minConfidence = minConfidence;
+        train(loadExamples(TRAINING_SET));
+    }
+
+    /** The locally classified agent, or empty when the message should go to the LLM router. */
+    Optional<AgentType> route(String message) {
+        if (GREETING.matcher(normalize(message)).matches()) return Optional.of(AgentType.GENERAL);
+        if (isFollowUp(message)) return Optional.empty();
+        Prediction p = predict(message);
+        return p.confidence() >= minConfidence ? Optional.of(p.agent()) : Optional.empty();
+    }
+
+    boolean isFollowUp(String message) {
+        String text = normalize(message);
+        return contentTokens(text).size() < MIN_CONTENT_TOKENS || FOLLOW_UP.matcher(text).find();
+    }
+
+    Prediction predict(String message) {
+        String text = normalize(message);
+        List<Integer> features = features(contentTokens(text));
+        double[] scores = new double[labels.length];
+        for (int c = 0; c < labels.length; c++) {
+            double score = logPriors[c];
+            for (int f : features) score += logLikelihoods[c][f];
+            for (Pattern p : RULES.getOrDefault(labels[c], List.of())) {
+                if (p.matcher(text).find()) score += RULE_WEIGHT;
+            }
+            scores[c] = score;
+        }
+        return softmaxMax(scores);
+    }
+
+    private void train(List<Example> examples) {
+        double[][] counts = new double[labels.length][BUCKETS];
+        double[] totals = new double[labels.length];
+        int[] docs = new int[labels.length];
+        Set<Integer> vocabulary = new HashSet<>();
+        for (Example e : examples) {
+            int c = e.label().ordinal();
+            docs[c]++;
+            for (int f : features(contentTokens(normalize(e.text())))) {
+                counts[c][f]++;
+                totals[c]++;
+                vocabulary.add(f);
+            }
+        }
+        int v = vocabulary.size();
+        for (int c = 0; c < labels.length; c++) {
+            logPriors[c] = Math.log((docs[c] + 1.0) / (examples.size() + labels.length));
+            double denominator = totals[c] + SMOOTHING * v;
+            for (int f = 0; f < BUCKETS; f++) {
+                logLikelihoods[c][f] = Math.log((counts[c][f] + SMOOTHING) / denominator);
+            }
+        }
+    }
+
+    private Prediction softmaxMax(double[] scores) {
+        int best = 0;
+        for (int c = 1; c < scores.length; c++) if (scores[c] > scores[best]) best = c;
+        double sum = 0;
+        for (double s : scores) sum += Math.exp(s - scores[best]);
+        return new Prediction(labels[best], 1.0 / sum);
+    }
+
+    private static List<Integer> features(List<String> tokens) {
+        List<Integer> out = new ArrayList<>(tokens.size() * 2);
+        for (int i = 0; i < tokens.size(); i++) {
+            out.add(bucket(tokens.get(i)));
+            if (i > 0) out.add(bucket(tokens.get(i - 1) + ' ' + tokens.get(i)));
+        }
+        return out;
+    }
+
+    private static int bucket(String feature) {
+        return Math.floorMod(feature.hashCode(), BUCKETS);
+    }
+
+    private static String normalize(String message) {
+        if (message == null) return "";
+        return Normalizer.normalize(message, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .trim();
+    }
+
+    private static List<String> contentTokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String t : text.split("[^\\p{L}\\p{N}']+")) {
+            if (t.isEmpty() || STOP_WORDS.contains(t)) continue;
+            tokens.add(stem(t));
+        }
+        return tokens;
+    }
+
+    private static String stem(String token) {
+        if (token.endsWith("'s")) token = token.substring(0, token.length() - 2);
+        if (token.length() > 4 && token.endsWith("s") && !token.endsWith("ss")) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+
+    private static Pattern rule(String regex) {
+        return Pattern.compile(regex);
+    }
+
+    static List<Example> loadExamples(String resource) {
+        List<Example> examples = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(resource).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                int tab = line.indexOf('\t');
+                AgentType label = tab > 0 ? AgentType.parse(line.substring(0, tab)).orElse(null) : null;
+                if (label == null) throw new IllegalStateException("Malformed line in " + resource + ": " + line);
+                examples.add(new Example(label, line.substring(tab + 1)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load " + resource, e);
+        }
+        return examples;
+    }
+}
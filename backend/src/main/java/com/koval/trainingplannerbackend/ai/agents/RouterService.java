@@ -10,9 +10,10 @@ import org.springframework.stereotype.Service;
 import java.util.Optional;
 
 /**
- * Classifies user messages into agent types via a lightweight Haiku LLM call (~150 tokens).
- * Always calls the LLM — the cost of a misrouted request (~10k tokens) far exceeds
- * the router call cost.
+ * Classifies user messages into agent types. Unambiguous messages are routed by the on-JVM
+ * {@link LocalIntentRouter}; everything else goes to a lightweight Haiku LLM call (~150 tokens),
+ * which also sees the previous agent. The local confidence bar is kept high because the cost of
+ * a misrouted request (~10k tokens) far exceeds the router call cost.
  */
 @Service
 public class RouterService {
@@ -22,12 +23,19 @@ public class RouterService {
     private static final String ROUTER_SYSTEM = AIConfig.loadPrompt("router");
 
     private final ChatClient routerClient;
+    private final LocalIntentRouter localRouter;
 
-    public RouterService(@Qualifier("routerClient") ChatClient routerClient) {
+    public RouterService(@Qualifier("routerClient") ChatClient routerClient, LocalIntentRouter localRouter) {
         this.routerClient = routerClient;
+        this.localRouter = localRouter;
     }
 
     public AgentType classify(String userMessage, String userRole, String lastAgentType) {
+        Optional<AgentType> local = localRouter.route(userMessage);
+        if (local.isPresent()) {
+            log.debug("Local router classified message as {}", local.get());
+            return local.get();
+        }
         try {
             String lastAgent = Optional.ofNullable(lastAgentType).orElse("NONE");
             String systemPrompt = ROUTER_SYSTEM.replace("{lastAgent}", lastAgent);
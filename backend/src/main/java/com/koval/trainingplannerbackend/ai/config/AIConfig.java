@@ -1,22 +1,32 @@
 package com.koval.trainingplannerbackend.ai.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.koval.trainingplannerbackend.ai.CompactingChatMemory;
 import com.koval.trainingplannerbackend.ai.logger.PromptLogger;
+import com.koval.trainingplannerbackend.ai.tools.ToolResultCache;
 import com.koval.trainingplannerbackend.ai.toon.ToonToolCallbackProvider;
+import com.koval.trainingplannerbackend.ai.toon.ToonWriter;
 import org.springframework.ai.anthropic.AnthropicChatOptions;
 import org.springframework.ai.anthropic.api.AnthropicCacheOptions;
 import org.springframework.ai.anthropic.api.AnthropicCacheStrategy;
 import org.springframework.ai.anthropic.api.AnthropicCacheTtl;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
+import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.Map;
 import java.util.Optional;
@@ -35,13 +45,25 @@ public class AIConfig {
 
     protected final String commonRules;
     protected final PromptLogger promptLogger;
+    protected final ToolResultCache toolResultCache;
+    protected final ToonWriter toonWriter;
 
     @Value("${app.ai.toon-responses:true}")
     protected boolean toonResponses;
 
-    public AIConfig(Optional<PromptLogger> promptLogger) {
+    /** Estimated tokens of conversation history sent per turn to Haiku agents. */
+    @Value("${app.ai.memory.haiku-token-budget:3000}")
+    protected int haikuHistoryBudget;
+
+    /** Estimated tokens of conversation history sent per turn to Sonnet agents. */
+    @Value("${app.ai.memory.sonnet-token-budget:6000}")
+    protected int sonnetHistoryBudget;
+
+    public AIConfig(Optional<PromptLogger> promptLogger, ToolResultCache toolResultCache, ObjectMapper objectMapper) {
         this.commonRules = loadPrompt("common-rules");
         this.promptLogger = promptLogger.orElse(null);
+        this.toolResultCache = toolResultCache;
+        this.toonWriter = new ToonWriter(objectMapper);
     }
 
     // ── Shared helpers ─────────────────────────────────────────────────
@@ -53,6 +75,14 @@ public class AIConfig {
         return builder;
     }
 
+    /** Memory advisor whose history is compacted to {@code tokenBudget} estimated tokens. */
+    protected MessageChatMemoryAdvisor memoryAdvisor(ChatMemory chatMemory, int tokenBudget) {
+        ChatMemory budgeted = chatMemory instanceof CompactingChatMemory compacting
+                ? compacting.withTokenBudget(tokenBudget)
+                : chatMemory;
+        return MessageChatMemoryAdvisor.builder(budgeted).scheduler(Schedulers.boundedElastic()).build();
+    }
+
     protected String agentPrompt(String name) {
         return loadPrompt(name) + "\n" + commonRules;
     }
@@ -66,10 +96,17 @@ public class AIConfig {
         }
     }
 
+    /**
+     * Tool callbacks in name order: reflection does not guarantee method order, and the tool
+     * definitions are part of the cached prompt prefix, so they must serialise identically everywhere.
+     * Read-only tools are memoised per conversation by {@link ToolResultCache}.
+     */
     protected ToolCallbackProvider wrapTools(Object... toolObjects) {
-        MethodToolCallbackProvider provider = MethodToolCallbackProvider.builder()
-                .toolObjects(toolObjects).build();
-        return toonResponses ? new ToonToolCallbackProvider(provider) : provider;
+        ToolCallback[] callbacks = toonResponses
+                ? new ToonToolCallbackProvider(toonWriter, toolObjects).getToolCallbacks()
+                : MethodToolCallbackProvider.builder().toolObjects(toolObjects).build().getToolCallbacks();
+        Arrays.sort(callbacks, Comparator.comparing(c -> c.getToolDefinition().name()));
+        return ToolCallbackProvider.from(toolResultCache.memoize(callbacks, toolObjects));
     }
 
     // ── Options helpers ─────────────────────────────────────────────────
@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.ai.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.koval.trainingplannerbackend.ai.CompactingChatMemory;
 import com.koval.trainingplannerbackend.ai.ConversationSummarizer;
 import com.koval.trainingplannerbackend.ai.agents.AgentType;
@@ -7,6 +8,7 @@ import com.koval.trainingplannerbackend.ai.logger.PromptLogger;
 import com.koval.trainingplannerbackend.ai.agents.SpecialistAgentService;
 import com.koval.trainingplannerbackend.ai.agents.TrainingAgent;
 import com.koval.trainingplannerbackend.ai.logger.UsageTracker;
+import com.koval.trainingplannerbackend.ai.tools.ToolResultCache;
 import com.koval.trainingplannerbackend.ai.tools.club.ClubToolService;
 import com.koval.trainingplannerbackend.ai.tools.coach.CoachToolService;
 import com.koval.trainingplannerbackend.ai.tools.goal.GoalToolService;
@@ -19,14 +21,12 @@ import com.koval.trainingplannerbackend.training.zone.ZoneSystemService;
 import org.springframework.ai.anthropic.AnthropicChatModel;
 import org.springframework.ai.anthropic.AnthropicChatOptions;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.memory.ChatMemoryRepository;
 import org.springframework.ai.chat.memory.MessageWindowChatMemory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import reactor.core.scheduler.Schedulers;
 
 import java.util.Optional;
 
@@ -39,8 +39,9 @@ public class AIHaikuConfig extends AIConfig {
 
     private static final int CHAT_MEMORY_WINDOW_SIZE = 20;
 
-    public AIHaikuConfig(Optional<PromptLogger> promptLogger) {
-        super(promptLogger);
+    public AIHaikuConfig(Optional<PromptLogger> promptLogger, ToolResultCache toolResultCache,
+                         ObjectMapper objectMapper) {
+        super(promptLogger, toolResultCache, objectMapper);
     }
 
     @Bean
@@ -62,7 +63,7 @@ public class AIHaikuConfig extends AIConfig {
         return withLogging(ChatClient.builder(chatModel))
                 .defaultSystem(agentPrompt("scheduling"))
                 .defaultOptions(haikuOptions())
-                .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).scheduler(Schedulers.boundedElastic()).build())
+                .defaultAdvisors(memoryAdvisor(chatMemory, haikuHistoryBudget))
                 .defaultToolCallbacks(wrapTools(schedulingToolService, coachToolService, goalToolService, raceToolService))
                 .build();
     }
@@ -75,7 +76,7 @@ public class AIHaikuConfig extends AIConfig {
         return withLogging(ChatClient.builder(chatModel))
                 .defaultSystem(agentPrompt("analysis"))
                 .defaultOptions(haikuOptions())
-                .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).scheduler(Schedulers.boundedElastic()).build())
+                .defaultAdvisors(memoryAdvisor(chatMemory, haikuHistoryBudget))
                 .defaultToolCallbacks(wrapTools(historyToolService, goalToolService))
                 .build();
     }
@@ -89,7 +90,7 @@ public class AIHaikuConfig extends AIConfig {
         return withLogging(ChatClient.builder(chatModel))
                 .defaultSystem(agentPrompt("coach-management"))
                 .defaultOptions(haikuOptions())
-                .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).scheduler(Schedulers.boundedElastic()).build())
+                .defaultAdvisors(memoryAdvisor(chatMemory, haikuHistoryBudget))
                 .defaultToolCallbacks(wrapTools(coachToolService, zoneToolService, goalToolService))
                 .build();
     }
@@ -102,7 +103,7 @@ public class AIHaikuConfig extends AIConfig {
         return withLogging(ChatClient.builder(chatModel))
                 .defaultSystem(agentPrompt("club-management"))
                 .defaultOptions(haikuOptions())
-                .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).scheduler(Schedulers.boundedElastic()).build())
+                .defaultAdvisors(memoryAdvisor(chatMemory, haikuHistoryBudget))
                 .defaultToolCallbacks(wrapTools(clubToolService, trainingToolService))
                 .build();
     }
@@ -114,7 +115,7 @@ public class AIHaikuConfig extends AIConfig {
         return withLogging(ChatClient.builder(chatModel))
                 .defaultSystem(agentPrompt("general"))
                 .defaultOptions(haikuOptions())
-                .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).scheduler(Schedulers.boundedElastic()).build())
+                .defaultAdvisors(memoryAdvisor(chatMemory, haikuHistoryBudget))
                 .defaultToolCallbacks(wrapTools(historyToolService))
                 .build();
     }
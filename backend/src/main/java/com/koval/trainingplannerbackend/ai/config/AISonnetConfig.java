@@ -1,11 +1,13 @@
 package com.koval.trainingplannerbackend.ai.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.koval.trainingplannerbackend.ai.ConversationSummarizer;
 import com.koval.trainingplannerbackend.ai.agents.AgentType;
 import com.koval.trainingplannerbackend.ai.logger.PromptLogger;
 import com.koval.trainingplannerbackend.ai.agents.SpecialistAgentService;
 import com.koval.trainingplannerbackend.ai.agents.TrainingAgent;
 import com.koval.trainingplannerbackend.ai.logger.UsageTracker;
+import com.koval.trainingplannerbackend.ai.tools.ToolResultCache;
 import com.koval.trainingplannerbackend.ai.tools.action.CreationTrainingToolService;
 import com.koval.trainingplannerbackend.ai.tools.action.CreationTrainingWithClubSessionToolService;
 import com.koval.trainingplannerbackend.ai.tools.training.TrainingToolService;
@@ -14,12 +16,10 @@ import com.koval.trainingplannerbackend.training.zone.ZoneSystemService;
 import org.springframework.ai.anthropic.AnthropicChatModel;
 import org.springframework.ai.anthropic.AnthropicChatOptions;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import reactor.core.scheduler.Schedulers;
 
 import java.util.Optional;
 
@@ -30,8 +30,9 @@ import java.util.Optional;
 @Configuration
 public class AISonnetConfig extends AIConfig {
 
-    public AISonnetConfig(Optional<PromptLogger> promptLogger) {
-        super(promptLogger);
+    public AISonnetConfig(Optional<PromptLogger> promptLogger, ToolResultCache toolResultCache,
+                          ObjectMapper objectMapper) {
+        super(promptLogger, toolResultCache, objectMapper);
     }
 
     @Bean
@@ -41,7 +42,7 @@ public class AISonnetConfig extends AIConfig {
         return withLogging(ChatClient.builder(chatModel))
                 .defaultSystem(agentPrompt("training-creation"))
                 .defaultOptions(sonnetOptions())
-                .defaultAdvisors(MessageChatMemoryAdvisor.builder(chatMemory).scheduler(Schedulers.boundedElastic()).build())
+                .defaultAdvisors(memoryAdvisor(chatMemory, sonnetHistoryBudget))
                 .defaultToolCallbacks(wrapTools(trainingToolService))
                 .build();
     }
@@ -1,7 +1,9 @@
 package com.koval.trainingplannerbackend.ai.logger;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.ai.anthropic.api.AnthropicApi;
 import org.springframework.ai.chat.metadata.Usage;
 import org.springframework.ai.chat.model.ChatResponse;
 import org.springframework.stereotype.Component;
@@ -9,33 +11,93 @@ import org.springframework.stereotype.Component;
 /**
  * Tracks and logs AI token usage and cache performance metrics.
  * Provides structured logging for cost monitoring and anomaly detection.
+ * <p>
+ * Prompt-cache reads and writes come from Anthropic's native usage and are also counted in
+ * {@code koval.ai.tokens} (tagged by agent and kind), so the cache hit rate can be charted as
+ * {@code cache_read / (input + cache_read + cache_write)}.
  */
 @Component
 public class UsageTracker {
 
     private static final Logger log = LoggerFactory.getLogger(UsageTracker.class);
 
+    private final MeterRegistry meterRegistry;
+
+    public UsageTracker(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     public record UsageSnapshot(
             long inputTokens,
             long outputTokens,
-            long totalTokens
-    ) {}
+            long totalTokens,
+            long cacheReadTokens,
+            long cacheWriteTokens
+    ) {
+        public static final UsageSnapshot EMPTY = new UsageSnapshot(0, 0, 0, 0, 0);
+
+        /** Share of the prompt served from the cache, 0 when nothing was sent. */
+        public double cacheHitRatio() {
+            long prompt = inputTokens + cacheReadTokens + cacheWriteTokens;
+            return prompt == 0 ? 0 : (double) cacheReadTokens / prompt;
+        }
+    }
 
     public UsageSnapshot extractUsage(ChatResponse response) {
         if (response == null || response.getMetadata() == null || response.getMetadata().getUsage() == null) {
-            return new UsageSnapshot(0, 0, 0);
+            return UsageSnapshot.EMPTY;
         }
         Usage usage = response.getMetadata().getUsage();
         return new UsageSnapshot(
                 usage.getPromptTokens(),
                 usage.getCompletionTokens(),
-                usage.getTotalTokens()
+                usage.getTotalTokens(),
+                cacheReadTokens(usage),
+                cacheWriteTokens(usage)
         );
     }
 
+    /**
+     * Folds one streamed chunk into the running total. Anthropic reports prompt and cache tokens
+     * once (cumulative) and completion tokens per chunk.
+     */
+    public UsageSnapshot mergeStreamed(UsageSnapshot prev, ChatResponse response) {
+        if (response == null || response.getMetadata() == null || response.getMetadata().getUsage() == null) {
+            return prev;
+        }
+        Usage u = response.getMetadata().getUsage();
+        long input = u.getPromptTokens() > 0 ? u.getPromptTokens() : prev.inputTokens();
+        long output = u.getCompletionTokens() > 0 ? prev.outputTokens() + u.getCompletionTokens() : prev.outputTokens();
+        long cacheRead = Math.max(prev.cacheReadTokens(), cacheReadTokens(u));
+        long cacheWrite = Math.max(prev.cacheWriteTokens(), cacheWriteTokens(u));
+        return new UsageSnapshot(input, output, input + output, cacheRead, cacheWrite);
+    }
+
     public void logUsage(String agentType, String conversationId, UsageSnapshot usage) {
-        log.info("AI usage: agent={} conversation={} input={} output={} total={}",
+        log.info("AI usage: agent={} conversation={} input={} output={} total={} cacheRead={} cacheWrite={} cacheHit={}",
                 agentType, conversationId,
-                usage.inputTokens(), usage.outputTokens(), usage.totalTokens());
+                usage.inputTokens(), usage.outputTokens(), usage.totalTokens(),
+                usage.cacheReadTokens(), usage.cacheWriteTokens(),
+                "%.0f%%".formatted(usage.cacheHitRatio() * 100));
+        count(agentType, "input", usage.inputTokens());
+        count(agentType, "output", usage.outputTokens());
+        count(agentType, "cache_read", usage.cacheReadTokens());
+        count(agentType, "cache_write", usage.cacheWriteTokens());
+    }
+
+    private void count(String agentType, String kind, long tokens) {
+        if (tokens > 0) {
+            meterRegistry.counter("koval.ai.tokens", "agent", agentType, "kind", kind).increment(tokens);
+        }
+    }
+
+    private static long cacheReadTokens(Usage usage) {
+        return usage.getNativeUsage() instanceof AnthropicApi.Usage n && n.cacheReadInputTokens() != null
+                ? n.cacheReadInputTokens() : 0;
+    }
+
+    private static long cacheWriteTokens(Usage usage) {
+        return usage.getNativeUsage() instanceof AnthropicApi.Usage n && n.cacheCreationInputTokens() != null
+                ? n.cacheCreationInputTokens() : 0;
     }
 }
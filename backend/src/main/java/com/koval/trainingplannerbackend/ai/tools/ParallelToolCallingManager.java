@@ -0,0 +1,184 @@
+package com.koval.trainingplannerbackend.ai.tools;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.ToolResponseMessage.ToolResponse;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.DefaultToolCallingManager;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+import org.springframework.ai.tool.execution.ToolExecutionExceptionProcessor;
+import org.springframework.ai.tool.observation.DefaultToolCallingObservationConvention;
+import org.springframework.ai.tool.observation.ToolCallingObservationContext;
+import org.springframework.ai.tool.observation.ToolCallingObservationDocumentation;
+import org.springframework.ai.tool.resolution.ToolCallbackResolver;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs the tool calls of one model turn concurrently when they are all {@link ReadOnlyTool
+ * read-only}, so a turn that fetches history, zones and the schedule takes as long as the slowest
+ * lookup instead of their sum.
+ * <p>
+ * Calls run on virtual threads, at most {@code app.ai.tools.max-parallel} at a time per turn, and
+ * their results are returned in the order the model asked for them. Each call is recorded as the
+ * same tool-calling observation the default manager records, parented to the caller's observation
+ * since virtual threads do not inherit it. Like on the sequential path, nothing is emitted to the
+ * chat stream here; only write tools report their own labelled actions. Turns that contain any
+ * write tool — whose order may matter — go to Spring AI's sequential
+ * {@link DefaultToolCallingManager} unchanged.
+ */
+@Component
+public class ParallelToolCallingManager implements ToolCallingManager {
+
+    private final ToolCallingManager sequential;
+    private final ToolExecutionExceptionProcessor exceptionProcessor;
+    private final ObservationRegistry observationRegistry;
+    private final int maxParallel;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ParallelToolCallingManager(ToolCallbackResolver toolCallbackResolver,
+                                      ToolExecutionExceptionProcessor exceptionProcessor,
+                                      ObjectProvider<ObservationRegistry> observationRegistry,
+                                      @Value("${app.ai.tools.max-parallel:4}") int maxParallel) {
+        this.observationRegistry = observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP);
+        this.sequential = DefaultToolCallingManager.builder()
+                .observationRegistry(this.observationRegistry)
+                .toolCallbackResolver(toolCallbackResolver)
+                .toolExecutionExceptionProcessor(exceptionProcessor)
+                .build();
+        this.exceptionProcessor = exceptionProcessor;
+        this.maxParallel = Math.max(1, maxParallel);
+    }
+
+    @Override
+    public List<ToolDefinition> resolveToolDefinitions(ToolCallingChatOptions chatOptions) {
+        return sequential.resolveToolDefinitions(chatOptions);
+    }
+
+    @Override
+    public ToolExecutionResult executeToolCalls(Prompt prompt, ChatResponse chatResponse) {
+        Optional<AssistantMessage> toolCalls = chatResponse.getResults().stream()
+                .map(Generation::getOutput)
+                .filter(AssistantMessage::hasToolCalls)
+                .findFirst();
+        if (toolCalls.isEmpty() || !(prompt.getOptions() instanceof ToolCallingChatOptions options)) {
+            return sequential.executeToolCalls(prompt, chatResponse);
+        }
+
+        AssistantMessage assistantMessage = toolCalls.get();
+        List<ToolCallback> callbacks = new ArrayList<>();
+        for (AssistantMessage.ToolCall call : assistantMessage.getToolCalls()) {
+            ToolCallback callback = options.getToolCallbacks().stream()
+                    .filter(c -> c.getToolDefinition().name().equals(call.name()))
+                    .findFirst()
+                    .orElse(null);
+            if (callback == null || !ToolResultCache.isReadOnly(callback)) {
+                return sequential.executeToolCalls(prompt, chatResponse);
+            }
+            callbacks.add(callback);
+        }
+
+        ToolContext toolContext = toolContext(prompt, options, assistantMessage);
+        Observation parent = observationRegistry.getCurrentObservation();
+        Semaphore permits = new Semaphore(maxParallel);
+        List<CompletableFuture<ToolResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < callbacks.size(); i++) {
+            AssistantMessage.ToolCall call = assistantMessage.getToolCalls().get(i);
+            ToolCallback callback = callbacks.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> call(call, callback, toolContext, parent, permits),
+                    executor));
+        }
+        List<ToolResponse> responses = futures.stream().map(ParallelToolCallingManager::join).toList();
+
+        List<Message> history = new ArrayList<>(prompt.copy().getInstructions());
+        history.add(assistantMessage);
+        history.add(ToolResponseMessage.builder().responses(responses).build());
+        boolean returnDirect = callbacks.stream().allMatch(c -> c.getToolMetadata().returnDirect());
+        return ToolExecutionResult.builder()
+                .conversationHistory(history)
+                .returnDirect(returnDirect)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private ToolResponse call(AssistantMessage.ToolCall call, ToolCallback callback, ToolContext context,
+                              Observation parent, Semaphore permits) {
+        String arguments = call.arguments() == null || call.arguments().isBlank() ? "{}" : call.arguments();
+        ToolCallingObservationContext observationContext = ToolCallingObservationContext.builder()
+                .toolDefinition(callback.getToolDefinition())
+                .toolMetadata(callback.getToolMetadata())
+                .toolCallArguments(arguments)
+                .build();
+        permits.acquireUninterruptibly();
+        try {
+            String result = ToolCallingObservationDocumentation.TOOL_CALL
+                    .observation(null, new DefaultToolCallingObservationConvention(), () -> observationContext,
+                            observationRegistry)
+                    .parentObservation(parent)
+                    .observe(() -> {
+                        String toolResult;
+                        try {
+                            toolResult = callback.call(arguments, context);
+                        } catch (ToolExecutionException e) {
+                            toolResult = exceptionProcessor.process(e);
+                        }
+                        observationContext.setToolCallResult(toolResult);
+                        return toolResult;
+                    });
+            return new ToolResponse(call.id(), call.name(), result != null ? result : "");
+        } finally {
+            permits.release();
+        }
+    }
+
+    /** Rethrows what a tool (or the exception processor) threw, as the sequential manager would. */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    /** Same context the default manager hands to tools: the request's tool context plus the history so far. */
+    private static ToolContext toolContext(Prompt prompt, ToolCallingChatOptions options,
+                                           AssistantMessage assistantMessage) {
+        if (options.getToolContext() == null || options.getToolContext().isEmpty()) {
+            return new ToolContext(Map.of());
+        }
+        Map<String, Object> context = new HashMap<>(options.getToolContext());
+        List<Message> history = new ArrayList<>(prompt.copy().getInstructions());
+        history.add(assistantMessage);
+        context.put(ToolContext.TOOL_CALL_HISTORY, history);
+        return new ToolContext(context);
+    }
+}
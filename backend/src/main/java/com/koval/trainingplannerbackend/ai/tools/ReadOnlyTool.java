@@ -0,0 +1,17 @@
+package com.koval.trainingplannerbackend.ai.tools;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@code @Tool} method as free of side effects, so {@link ToolResultCache} may reuse its
+ * result for identical arguments within a conversation. Tools without it are treated as writes.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReadOnlyTool {
+}
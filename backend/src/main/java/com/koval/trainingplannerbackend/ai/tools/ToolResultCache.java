@@ -0,0 +1,215 @@
+package com.koval.trainingplannerbackend.ai.tools;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.koval.trainingplannerbackend.ai.ToolEventEmitter;
+import com.koval.trainingplannerbackend.ai.ToolEventEmitter.Recorded;
+import com.koval.trainingplannerbackend.auth.SecurityUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.ai.tool.support.ToolUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Memoises {@link ReadOnlyTool read-only} tool results per conversation, so an agent loop that
+ * asks for the same sessions, zones or power curve twice does not hit Mongo (or re-parse FIT
+ * files) again.
+ * <p>
+ * Results are keyed by conversation, tool name and the canonicalised JSON arguments, and live for
+ * a short TTL. Any other tool is treated as a write: once it runs, every cached result of that
+ * conversation is dropped. Calls without a conversation in the tool context (MCP) are scoped to
+ * the calling user instead.
+ * <p>
+ * Tools run outside the cache's locks, and a miss is only cached if no write of its scope ran
+ * meanwhile. Each scope's keys are indexed, so invalidation touches only that scope's entries. A
+ * hit replays the tool events the original call emitted, so the chat stream looks the same either
+ * way.
+ */
+@Component
+public class ToolResultCache {
+
+    /** Tool-context key carrying the chat conversation id. */
+    public static final String CONVERSATION_ID_KEY = "conversationId";
+
+    private static final Logger log = LoggerFactory.getLogger(ToolResultCache.class);
+    private static final int MAX_ENTRIES = 10_000;
+
+    /** Sorted map keys so {@code {"from":..,"to":..}} and {@code {"to":..,"from":..}} share an entry. */
+    private static final ObjectMapper CANONICAL = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final Cache<Key, Entry> results;
+    // Keys cached per scope. A scope outlives its last entry (accessed on every put, expires a TTL
+    // after the last access), so dropping it never loses a live key.
+    private final Cache<String, Scope> scopes;
+    private final MeterRegistry meterRegistry;
+
+    private record Key(String scope, String tool, String arguments) {}
+
+    private record Entry(String result, List<ServerSentEvent<String>> events) {}
+
+    /** Guarded by itself; once invalidated, calls that started in it no longer cache their results. */
+    private static final class Scope {
+        final Set<Key> keys = new HashSet<>();
+        boolean invalidated;
+    }
+
+    public ToolResultCache(@Value("${app.ai.tool-cache.ttl:2m}") Duration ttl, MeterRegistry meterRegistry) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(MAX_ENTRIES)
+                .expireAfterWrite(ttl)
+                .build();
+        this.scopes = Caffeine.newBuilder()
+                .expireAfterAccess(ttl)
+                .build();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Wraps the callbacks built from {@code toolObjects}: read-only tools are served from the
+     * cache, the others invalidate it.
+     */
+    public ToolCallback[] memoize(ToolCallback[] callbacks, Object... toolObjects) {
+        Set<String> readOnly = readOnlyToolNames(toolObjects);
+        return Stream.of(callbacks)
+                .map(c -> new MemoizingToolCallback(c, readOnly.contains(c.getToolDefinition().name())))
+                .toArray(ToolCallback[]::new);
+    }
+
+    /** Whether {@code callback} was wrapped by {@link #memoize} around a {@link ReadOnlyTool}. */
+    public static boolean isReadOnly(ToolCallback callback) {
+        return callback instanceof MemoizingToolCallback memoizing && memoizing.readOnly;
+    }
+
+    /** Drops every cached result of a conversation (or MCP user) scope, through its key index. */
+    public void invalidate(String scope) {
+        Scope removed = scopes.asMap().remove(scope);
+        if (removed == null) return;
+        synchronized (removed) {
+            removed.invalidated = true;
+            results.invalidateAll(removed.keys);
+        }
+    }
+
+    private String call(ToolCallback delegate, boolean readOnly, String input, ToolContext context) {
+        String scope = scope(context);
+        if (scope == null) {
+            return delegate.call(input, context);
+        }
+        String tool = delegate.getToolDefinition().name();
+        if (!readOnly) {
+            try {
+                return delegate.call(input, context);
+            } finally {
+                invalidate(scope);
+            }
+        }
+
+        Key key = new Key(scope, tool, canonical(input));
+        Entry cached = results.getIfPresent(key);
+        if (cached != null) {
+            meterRegistry.counter("koval.ai.tool.cache", "tool", tool, "result", "hit").increment();
+            log.debug("Tool {} served from cache for {}", tool, scope);
+            ToolEventEmitter.replay(context, cached.events());
+            return cached.result();
+        }
+
+        Scope started = scopes.get(scope, s -> new Scope());
+        Recorded<String> call = ToolEventEmitter.record(() -> delegate.call(input, context));
+        Entry entry = new Entry(call.value(), call.events());
+        synchronized (started) {
+            // A write of the scope ran while the tool did: what it read may be stale, so it is only returned.
+            if (!started.invalidated && scopes.getIfPresent(scope) == started) {
+                results.put(key, entry);
+                started.keys.add(key);
+            }
+        }
+        meterRegistry.counter("koval.ai.tool.cache", "tool", tool, "result", "miss").increment();
+        return entry.result();
+    }
+
+    private static String scope(ToolContext context) {
+        if (context == null) return null;
+        if (context.getContext().get(CONVERSATION_ID_KEY) instanceof String id && !id.isBlank()) {
+            return "conversation:" + id;
+        }
+        try {
+            return "user:" + SecurityUtils.getUserId(context);
+        } catch (IllegalStateException e) {
+            return null;
+        }
+    }
+
+    static String canonical(String input) {
+        if (input == null || input.isBlank()) return "";
+        try {
+            return CANONICAL.writeValueAsString(CANONICAL.readValue(input, Object.class));
+        } catch (JsonProcessingException e) {
+            return input;
+        }
+    }
+
+    private static Set<String> readOnlyToolNames(Object... toolObjects) {
+        Set<String> names = new HashSet<>();
+        for (Object toolObject : toolObjects) {
+            Class<?> type = AopUtils.isAopProxy(toolObject) ? AopUtils.getTargetClass(toolObject) : toolObject.getClass();
+            for (Method method : ReflectionUtils.getDeclaredMethods(type)) {
+                if (method.isAnnotationPresent(Tool.class) && method.isAnnotationPresent(ReadOnlyTool.class)) {
+                    names.add(ToolUtils.getToolName(method));
+                }
+            }
+        }
+        return names;
+    }
+
+    private final class MemoizingToolCallback implements ToolCallback {
+
+        private final ToolCallback delegate;
+        private final boolean readOnly;
+
+        MemoizingToolCallback(ToolCallback delegate, boolean readOnly) {
+            this.delegate = delegate;
+            this.readOnly = readOnly;
+        }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return delegate.getToolDefinition();
+        }
+
+        @Override
+        public ToolMetadata getToolMetadata() {
+            return delegate.getToolMetadata();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return delegate.call(toolInput);
+        }
+
+        @Override
+        public String call(String toolInput, ToolContext toolContext) {
+            return ToolResultCache.this.call(delegate, readOnly, toolInput, toolContext);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.koval.trainingplannerbackend.ai.tools.club;
 
 import com.koval.trainingplannerbackend.ai.ToolEventEmitter;
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.club.dto.ClubMemberResponse;
 import com.koval.trainingplannerbackend.club.dto.CreateRecurringSessionRequest;
@@ -46,6 +47,7 @@ public class ClubToolService {
 
     // ── Session listing ──────────────────────────────────────────────
 
+    @ReadOnlyTool
     @Tool(description = "List club sessions in a date range.")
     public Object listClubSessions(
             @ToolParam(description = "Club ID") String clubId,
@@ -204,6 +206,7 @@ public class ClubToolService {
 
     // ── List members ─────────────────────────────────────────────────
 
+    @ReadOnlyTool
     @Tool(description = "List active club members.")
     public Object listClubMembers(
             @ToolParam(description = "Club ID") String clubId,
@@ -218,6 +221,7 @@ public class ClubToolService {
 
     // ── List recurring templates ──────────────────────────────────────
 
+    @ReadOnlyTool
     @Tool(description = "List recurring session templates for a club.")
     public Object listRecurringTemplates(
             @ToolParam(description = "Club ID") String clubId,
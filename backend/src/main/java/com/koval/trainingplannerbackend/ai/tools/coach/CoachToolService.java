@@ -1,6 +1,7 @@
 package com.koval.trainingplannerbackend.ai.tools.coach;
 
 import com.koval.trainingplannerbackend.ai.ToolEventEmitter;
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.coach.CoachGroupService;
 import com.koval.trainingplannerbackend.coach.CoachService;
@@ -60,6 +61,7 @@ public class CoachToolService {
         return result;
     }
 
+    @ReadOnlyTool
     @Tool(description = "List coach's athletes filtered by group.")
     public List<AthleteSummary> getAthletesByGroup(
             @ToolParam(description = "Group ID") String groupId,
@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.ai.tools.goal;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.goal.RaceGoalResponse;
 import com.koval.trainingplannerbackend.goal.RaceGoalService;
@@ -25,6 +26,7 @@ public class GoalToolService {
         this.raceGoalService = raceGoalService;
     }
 
+    @ReadOnlyTool
     @Tool(description = "List race goals for a user (by date ascending). The race date is sourced from the linked race entry.")
     public List<GoalSummary> listGoals(ToolContext context) {
         String userId = SecurityUtils.getUserId(context);
@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.ai.tools.history;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.training.history.AnalyticsService;
 import com.koval.trainingplannerbackend.training.history.AnalyticsService.PmcDataPoint;
@@ -8,6 +9,7 @@ import com.koval.trainingplannerbackend.training.history.CompletedSessionReposit
 import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -32,25 +34,27 @@ public class HistoryToolService {
     }
 
     /** Returns the most recent completed sessions for a user, limited to the given count. */
+    @ReadOnlyTool
     @Tool(description = "Get recent completed sessions for a user.")
     public List<SessionSummary> getRecentSessions(
             @ToolParam(description = "Max sessions to return") int limit,
             ToolContext context) {
         String userId = SecurityUtils.getUserId(context);
-        return sessionRepository.findByUserIdOrderByCompletedAtDesc(userId).stream()
-                .limit(limit)
+        if (limit <= 0) return List.of();
+        return sessionRepository.findSummariesByUserId(userId, PageRequest.of(0, limit)).stream()
                 .map(SessionSummary::from)
                 .toList();
     }
 
     /** Returns completed sessions for a user within the given inclusive date range. */
+    @ReadOnlyTool
     @Tool(description = "Get a user's completed sessions within a date range.")
     public List<SessionSummary> getSessionsByDateRange(
             @ToolParam(description = "Start date (YYYY-MM-DD, inclusive)") LocalDate from,
             @ToolParam(description = "End date (YYYY-MM-DD, inclusive)") LocalDate to,
             ToolContext context) {
         String userId = SecurityUtils.getUserId(context);
-        return sessionRepository.findByUserIdAndCompletedAtBetween(
+        return sessionRepository.findSummariesByUserIdAndCompletedAtBetween(
                         userId,
                         LocalDateTime.of(from, LocalTime.MIN),
                         LocalDateTime.of(to, LocalTime.MAX)).stream()
@@ -59,6 +63,7 @@ public class HistoryToolService {
     }
 
     /** Generates PMC data points (CTL, ATL, TSB) for the given date range. */
+    @ReadOnlyTool
     @Tool(description = "Get PMC data (CTL, ATL, TSB) for a date range.")
     public List<PmcDataPoint> getPmcData(
             @ToolParam(description = "Start date") LocalDate from,
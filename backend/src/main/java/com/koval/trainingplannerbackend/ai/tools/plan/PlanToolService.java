@@ -1,6 +1,7 @@
 package com.koval.trainingplannerbackend.ai.tools.plan;
 
 import com.koval.trainingplannerbackend.ai.ToolEventEmitter;
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.plan.PlanAnalytics;
 import com.koval.trainingplannerbackend.plan.PlanAnalyticsService;
@@ -189,6 +190,7 @@ public class PlanToolService {
         }
     }
 
+    @ReadOnlyTool
     @Tool(description = "List training plans for a user. Returns summaries with status and duration.")
     public List<PlanSummary> listPlans(ToolContext context) {
         String userId = SecurityUtils.getUserId(context);
@@ -197,6 +199,7 @@ public class PlanToolService {
                 .toList();
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get the progress of a training plan — how many workouts are completed, skipped, or pending.")
     public Object getPlanProgress(
             @ToolParam(description = "The plan ID") String planId,
@@ -208,6 +211,7 @@ public class PlanToolService {
         return progress;
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get detailed analytics for a training plan including weekly TSS adherence (actual vs target), completion rates per week, and overall adherence percentage. Use this to answer questions like 'Am I on track with my plan?'")
     public Object getPlanAnalytics(
             @ToolParam(description = "The plan ID") String planId,
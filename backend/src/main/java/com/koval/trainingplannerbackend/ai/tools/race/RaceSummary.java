@@ -25,7 +25,7 @@ public record RaceSummary(
                 r.getSwimDistanceM(), r.getBikeDistanceM(), r.getRunDistanceM(),
                 r.getElevationGainM(), r.getDescription(), r.getWebsite(),
                 r.getScheduledDate(),
-                r.getSwimGpx() != null, r.getBikeGpx() != null, r.getRunGpx() != null,
+                r.getSwimGpxFile() != null, r.getBikeGpxFile() != null, r.getRunGpxFile() != null,
                 r.getSwimGpxLoops(), r.getBikeGpxLoops(), r.getRunGpxLoops(),
                 r.getCreatedBy(), Boolean.TRUE.equals(r.getVerified())
         );
@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.ai.tools.race;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.race.Race;
 import com.koval.trainingplannerbackend.race.RaceCompletionService;
@@ -21,6 +22,7 @@ public class RaceToolService {
         this.completionService = completionService;
     }
 
+    @ReadOnlyTool
     @Tool(description = "Search race catalog by title and/or sport.")
     public List<RaceSummary> searchRaces(
             @ToolParam(description = "Title query (optional)") String query,
@@ -1,6 +1,7 @@
 package com.koval.trainingplannerbackend.ai.tools.training;
 
 import com.koval.trainingplannerbackend.ai.ToolEventEmitter;
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.training.TrainingService;
 import com.koval.trainingplannerbackend.training.model.Training;
@@ -31,6 +32,7 @@ public class TrainingToolService {
     }
 
     /** Lists training plan summaries for a user with pagination support. */
+    @ReadOnlyTool
     @Tool(description = "List user's training plans (default: 15 most recent).")
     public List<TrainingSummary> listTrainingsByUser(
             @ToolParam(description = "Max results (default 15)", required = false) Integer limit,
@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.ai.tools.zone;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.ai.tools.action.ActionToolTracker;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.training.model.SportType;
@@ -44,6 +45,7 @@ public class ZoneToolService {
     }
 
     /** Lists all zone systems owned by the coach as lightweight summaries. */
+    @ReadOnlyTool
     @Tool(description = "List coach's zone systems (summaries).")
     public List<ZoneSystemSummary> listZoneSystems(ToolContext context) {
         String coachId = SecurityUtils.getUserId(context);
@@ -52,6 +54,7 @@ public class ZoneToolService {
     }
 
     /** Returns the coach's default zone system for the given sport, or null if none is set. */
+    @ReadOnlyTool
     @Tool(description = "Get default zone system for a sport (null if unset).")
     public ZoneSystem getDefaultZoneSystem(
             @ToolParam(description = "CYCLING|RUNNING|SWIMMING") SportType sportType,
@@ -40,20 +40,25 @@ public final class ToonConverter {
         }
         try {
             JsonNode node = MAPPER.readTree(json);
-            if (node.isArray()) {
-                return arrayToToon((ArrayNode) node);
-            }
-            if (node.isObject()) {
-                return objectToToon((ObjectNode) node);
-            }
             // Primitive — pass through
-            return json;
+            return node.isContainerNode() ? convert(node) : json;
         } catch (Exception e) {
             log.debug("TOON conversion skipped (not valid JSON): {}", e.getMessage());
             return json;
         }
     }
 
+    /** Converts an already-built JSON tree; non-container nodes are rendered as JSON. */
+    static String convert(JsonNode node) {
+        if (node.isArray()) {
+            return arrayToToon((ArrayNode) node);
+        }
+        if (node.isObject()) {
+            return objectToToon((ObjectNode) node);
+        }
+        return node.toString();
+    }
+
     private static String arrayToToon(ArrayNode array) {
         if (array.isEmpty()) {
             return "[]";
@@ -103,7 +108,7 @@ public final class ToonConverter {
         return sb.toString();
     }
 
-    private static String formatValue(JsonNode node) {
+    static String formatValue(JsonNode node) {
         if (node == null || node.isNull()) {
             return "null";
         }
@@ -115,8 +120,7 @@ public final class ToonConverter {
         }
         if (node.isTextual()) {
             String text = node.asText();
-            // Quote if value contains comma, newline, or is empty
-            if (text.contains(",") || text.contains("\n") || text.isEmpty()) {
+            if (needsQuotes(text)) {
                 return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
             }
             return text;
@@ -125,6 +129,11 @@ public final class ToonConverter {
         return node.toString();
     }
 
+    /** Text cells are quoted when they contain a comma or newline, or are empty. */
+    static boolean needsQuotes(String text) {
+        return text.isEmpty() || text.indexOf(',') >= 0 || text.indexOf('\n') >= 0;
+    }
+
     private static boolean allObjects(ArrayNode array) {
         return StreamSupport.stream(array.spliterator(), false).allMatch(JsonNode::isObject);
     }
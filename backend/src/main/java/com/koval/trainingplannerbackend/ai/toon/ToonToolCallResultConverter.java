@@ -0,0 +1,38 @@
+package com.koval.trainingplannerbackend.ai.toon;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.tool.execution.DefaultToolCallResultConverter;
+import org.springframework.ai.tool.execution.ToolCallResultConverter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Renders tool return values as TOON with {@link ToonWriter}. Values without a TOON form
+ * (void, strings, scalars) and values the writer cannot handle fall back to the default JSON
+ * conversion.
+ */
+public class ToonToolCallResultConverter implements ToolCallResultConverter {
+
+    private static final Logger log = LoggerFactory.getLogger(ToonToolCallResultConverter.class);
+
+    private final ToolCallResultConverter fallback = new DefaultToolCallResultConverter();
+    private final ToonWriter writer;
+
+    public ToonToolCallResultConverter(ToonWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public String convert(Object result, Type returnType) {
+        if (returnType != Void.TYPE) {
+            try {
+                String toon = writer.write(result);
+                if (toon != null) return toon;
+            } catch (RuntimeException e) {
+                log.debug("TOON rendering skipped for {}: {}", result.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+        return fallback.convert(result, returnType);
+    }
+}
@@ -1,60 +1,79 @@
 package com.koval.trainingplannerbackend.ai.toon;
 
-import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
-import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.execution.DefaultToolCallResultConverter;
+import org.springframework.ai.tool.execution.ToolCallResultConverter;
 import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.ai.tool.method.MethodToolCallback;
+import org.springframework.ai.tool.support.ToolDefinitions;
+import org.springframework.ai.tool.support.ToolUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.util.ReflectionUtils;
 
+import java.lang.reflect.Method;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.stream.Stream;
 
 /**
- * Wraps a {@link ToolCallbackProvider} to convert all tool responses from JSON to TOON format.
+ * Builds the {@link Tool @Tool} method callbacks of the given tool objects so that their return
+ * values are rendered as TOON by {@link ToonToolCallResultConverter}, straight from the returned
+ * objects instead of from a serialised JSON string.
  * <p>
- * Each tool callback is wrapped so that after the original tool executes and returns JSON,
- * the response is converted to TOON before being sent back to the LLM.
+ * Discovery mirrors {@code MethodToolCallbackProvider}; a method that declares its own
+ * {@code resultConverter} keeps it. Callbacks are built once, since tool objects are singletons,
+ * and sorted by name so the tool list sent to the model is the same on every node and restart.
  */
 public class ToonToolCallbackProvider implements ToolCallbackProvider {
 
-    private final ToolCallbackProvider delegate;
+    private final ToolCallResultConverter toonConverter;
+    private final ToolCallback[] toolCallbacks;
 
-    public ToonToolCallbackProvider(ToolCallbackProvider delegate) {
-        this.delegate = delegate;
+    public ToonToolCallbackProvider(ToonWriter writer, Object... toolObjects) {
+        this.toonConverter = new ToonToolCallResultConverter(writer);
+        this.toolCallbacks = Stream.of(toolObjects)
+                .flatMap(this::callbacksOf)
+                .sorted(Comparator.comparing(c -> c.getToolDefinition().name()))
+                .toArray(ToolCallback[]::new);
+        validateUniqueNames(toolCallbacks);
     }
 
     @Override
     public ToolCallback[] getToolCallbacks() {
-        return Stream.of(delegate.getToolCallbacks())
-                .map(ToonToolCallback::new)
-                .toArray(ToolCallback[]::new);
+        return toolCallbacks;
     }
 
-    private static class ToonToolCallback implements ToolCallback {
-
-        private final ToolCallback delegate;
-
-        ToonToolCallback(ToolCallback delegate) {
-            this.delegate = delegate;
-        }
-
-        @Override
-        public ToolDefinition getToolDefinition() {
-            return delegate.getToolDefinition();
-        }
-
-        @Override
-        public ToolMetadata getToolMetadata() {
-            return delegate.getToolMetadata();
-        }
+    private Stream<ToolCallback> callbacksOf(Object toolObject) {
+        Class<?> type = AopUtils.isAopProxy(toolObject) ? AopUtils.getTargetClass(toolObject) : toolObject.getClass();
+        return Stream.of(ReflectionUtils.getDeclaredMethods(type))
+                .filter(m -> m.isAnnotationPresent(Tool.class))
+                .filter(ReflectionUtils.USER_DECLARED_METHODS::matches)
+                .map(m -> MethodToolCallback.builder()
+                        .toolDefinition(ToolDefinitions.from(m))
+                        .toolMetadata(ToolMetadata.from(m))
+                        .toolMethod(m)
+                        .toolObject(toolObject)
+                        .toolCallResultConverter(resultConverter(m))
+                        .build());
+    }
 
-        @Override
-        public String call(String toolInput) {
-            return ToonConverter.convert(delegate.call(toolInput));
-        }
+    private ToolCallResultConverter resultConverter(Method method) {
+        Tool tool = method.getAnnotation(Tool.class);
+        return tool.resultConverter() == DefaultToolCallResultConverter.class
+                ? toonConverter
+                : ToolUtils.getToolCallResultConverter(method);
+    }
 
-        @Override
-        public String call(String toolInput, ToolContext toolContext) {
-            return ToonConverter.convert(delegate.call(toolInput, toolContext));
+    private static void validateUniqueNames(ToolCallback[] callbacks) {
+        Set<String> names = new HashSet<>();
+        for (ToolCallback callback : callbacks) {
+            String name = callback.getToolDefinition().name();
+            if (!names.add(name)) {
+                throw new IllegalStateException("Multiple tools with the same name (" + name + ")");
+            }
         }
     }
 }
@@ -0,0 +1,351 @@
+package com.koval.trainingplannerbackend.ai.toon;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Writes tool return values straight to TOON (format described on {@link ToonConverter}),
+ * without serialising them to a JSON string and parsing it back.
+ * <p>
+ * Records and maps are walked directly, with each record type's column layout resolved once and
+ * cached. Types whose JSON shape is governed by Jackson annotations (polymorphic entities,
+ * renamed or hidden properties) and plain beans go through Jackson's tree model instead, so they
+ * render as they did on the JSON path, using the application's configured {@link ObjectMapper}.
+ */
+public final class ToonWriter {
+
+    private final ObjectMapper json;
+
+    private static final ClassValue<Optional<RecordLayout>> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected Optional<RecordLayout> computeValue(Class<?> type) {
+            return Optional.ofNullable(RecordLayout.of(type));
+        }
+    };
+
+    public ToonWriter(ObjectMapper json) {
+        this.json = json;
+    }
+
+    /**
+     * TOON for an object or a collection of objects, or {@code null} when the value has no TOON
+     * form (null, strings, numbers and other scalars) and should be serialised as usual.
+     */
+    public String write(Object value) {
+        if (value == null || isScalar(value) || value instanceof JsonNode) {
+            return null;
+        }
+        if (value.getClass().isArray() && !(value instanceof Object[])) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(1024);
+        if (value instanceof Collection<?> c) {
+            writeArray(sb, c);
+        } else if (value instanceof Object[] a) {
+            writeArray(sb, Arrays.asList(a));
+        } else {
+            writeObject(sb, value);
+        }
+        return sb.toString();
+    }
+
+    // ── Top-level shapes ───────────────────────────────────────────────
+
+    private void writeObject(StringBuilder sb, Object value) {
+        RecordLayout layout = layout(value.getClass());
+        if (layout != null) {
+            if (layout.isEmpty()) {
+                sb.append("{}");
+                return;
+            }
+            appendHeader(sb, layout.names());
+            sb.append(':');
+            for (int i = 0; i < layout.size(); i++) {
+                if (i > 0) sb.append(',');
+                appendCell(sb, layout.get(value, i));
+            }
+            return;
+        }
+        if (value instanceof Map<?, ?> map) {
+            if (map.isEmpty()) {
+                sb.append("{}");
+                return;
+            }
+            List<String> keys = new ArrayList<>(map.size());
+            map.keySet().forEach(k -> keys.add(String.valueOf(k)));
+            appendHeader(sb, keys);
+            sb.append(':');
+            int i = 0;
+            for (Object cell : map.values()) {
+                if (i++ > 0) sb.append(',');
+                appendCell(sb, cell);
+            }
+            return;
+        }
+        sb.append(ToonConverter.convert(json.valueToTree(value)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeArray(StringBuilder sb, Collection<?> elements) {
+        if (elements.isEmpty()) {
+            sb.append("[]");
+            return;
+        }
+        RecordLayout shared = sharedLayout(elements);
+        if (shared != null) {
+            if (shared.isEmpty()) {
+                sb.append(toJson(elements));
+                return;
+            }
+            sb.append('[').append(elements.size()).append(']');
+            appendHeader(sb, shared.names());
+            sb.append(":\n");
+            for (Object element : elements) {
+                sb.append("  ");
+                for (int i = 0; i < shared.size(); i++) {
+                    if (i > 0) sb.append(',');
+                    appendCell(sb, shared.get(element, i));
+                }
+                sb.append('\n');
+            }
+            stripTrailing(sb);
+            return;
+        }
+
+        // Mixed element types: view every element as key -> cell and table the union of keys.
+        List<Object> rows = new ArrayList<>(elements.size());
+        Set<String> keys = new LinkedHashSet<>();
+        for (Object element : elements) {
+            Object row = rowView(element);
+            if (row == null) {
+                sb.append(toJson(elements));
+                return;
+            }
+            if (row instanceof ObjectNode node) {
+                node.fieldNames().forEachRemaining(keys::add);
+            } else {
+                keys.addAll(((Map<String, ?>) row).keySet());
+            }
+            rows.add(row);
+        }
+        if (keys.isEmpty()) {
+            sb.append(toJson(elements));
+            return;
+        }
+        sb.append('[').append(rows.size()).append(']');
+        appendHeader(sb, keys);
+        sb.append(":\n");
+        for (Object row : rows) {
+            sb.append("  ");
+            int i = 0;
+            for (String key : keys) {
+                if (i++ > 0) sb.append(',');
+                appendCell(sb, row instanceof ObjectNode node ? node.get(key) : ((Map<String, ?>) row).get(key));
+            }
+            sb.append('\n');
+        }
+        stripTrailing(sb);
+    }
+
+    /** The layout every element shares when they are all instances of one plain record type. */
+    private static RecordLayout sharedLayout(Collection<?> elements) {
+        Class<?> type = null;
+        for (Object element : elements) {
+            if (element == null) return null;
+            if (type == null) type = element.getClass();
+            else if (element.getClass() != type) return null;
+        }
+        return layout(type);
+    }
+
+    /** Key -> cell view of an array element, or null when the element is not an object. */
+    private Object rowView(Object element) {
+        if (element == null || isScalar(element) || element instanceof Collection<?> || element.getClass().isArray()) {
+            return null;
+        }
+        RecordLayout layout = layout(element.getClass());
+        if (layout != null) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < layout.size(); i++) row.put(layout.names().get(i), layout.get(element, i));
+            return row;
+        }
+        if (element instanceof Map<?, ?> map) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            map.forEach((k, v) -> row.put(String.valueOf(k), v));
+            return row;
+        }
+        JsonNode node = json.valueToTree(element);
+        return node instanceof ObjectNode ? node : null;
+    }
+
+    // ── Cells ──────────────────────────────────────────────────────────
+
+    private static void appendHeader(StringBuilder sb, Collection<String> keys) {
+        sb.append('{');
+        int i = 0;
+        for (String key : keys) {
+            if (i++ > 0) sb.append(',');
+            sb.append(key);
+        }
+        sb.append('}');
+    }
+
+    private void appendCell(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof JsonNode node) {
+            sb.append(ToonConverter.formatValue(node));
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else if (value instanceof CharSequence || value instanceof Character) {
+            appendText(sb, value.toString());
+        } else if (value instanceof Enum<?> e && !hasJacksonAnnotations(e.getDeclaringClass())) {
+            appendText(sb, e.name());
+        } else if (value instanceof LocalDate d) {
+            sb.append(d);
+        } else if (value instanceof LocalDateTime t) {
+            sb.append(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(t));
+        } else if (value instanceof Instant t) {
+            sb.append(t);
+        } else if (value instanceof Map<?, ?> || value instanceof Collection<?> || value.getClass().isArray()
+                || layout(value.getClass()) != null) {
+            sb.append(toJson(value));
+        } else {
+            // Other value types (durations, zoned times, annotated enums, beans) render as Jackson does.
+            sb.append(ToonConverter.formatValue(json.valueToTree(value)));
+        }
+    }
+
+    private static void appendText(StringBuilder sb, String text) {
+        if (!ToonConverter.needsQuotes(text)) {
+            sb.append(text);
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == '\\' || ch == '"') sb.append('\\');
+            sb.append(ch);
+        }
+        sb.append('"');
+    }
+
+    private static void stripTrailing(StringBuilder sb) {
+        int end = sb.length();
+        while (end > 0 && Character.isWhitespace(sb.charAt(end - 1))) end--;
+        sb.setLength(end);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return json.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialise tool result", e);
+        }
+    }
+
+    private static boolean isScalar(Object value) {
+        return value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                || value instanceof Character || value instanceof Enum<?>
+                || value instanceof BigDecimal || value instanceof BigInteger
+                || value.getClass().getPackageName().startsWith("java.time");
+    }
+
+    private static RecordLayout layout(Class<?> type) {
+        return LAYOUTS.get(type).orElse(null);
+    }
+
+    private static boolean hasJacksonAnnotations(AnnotatedElement element) {
+        for (Annotation a : element.getAnnotations()) {
+            if (a.annotationType().getPackageName().startsWith("com.fasterxml.jackson")) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Columns of a record serialised by plain component order. Only built for records Jackson
+     * would render the same way: no Jackson annotations and no extra bean-style getters.
+     */
+    private record RecordLayout(List<String> names, Method[] accessors) {
+
+        static RecordLayout of(Class<?> type) {
+            if (!type.isRecord() || hasJacksonAnnotations(type)) return null;
+            RecordComponent[] components = type.getRecordComponents();
+            List<String> names = new ArrayList<>(components.length);
+            Method[] accessors = new Method[components.length];
+            Set<Method> componentAccessors = new LinkedHashSet<>();
+            for (int i = 0; i < components.length; i++) {
+                Method accessor = components[i].getAccessor();
+                if (hasJacksonAnnotations(accessor) || hasJacksonAnnotations(components[i])
+                        || fieldHasJacksonAnnotations(type, components[i].getName())
+                        || !accessor.trySetAccessible()) {
+                    return null;
+                }
+                names.add(components[i].getName());
+                accessors[i] = accessor;
+                componentAccessors.add(accessor);
+            }
+            for (Method m : type.getMethods()) {
+                if (m.getDeclaringClass() != Object.class && isBeanGetter(m) && !componentAccessors.contains(m)) {
+                    return null;
+                }
+            }
+            return new RecordLayout(List.copyOf(names), accessors);
+        }
+
+        private static boolean fieldHasJacksonAnnotations(Class<?> type, String name) {
+            try {
+                return hasJacksonAnnotations(type.getDeclaredField(name));
+            } catch (NoSuchFieldException e) {
+                return false;
+            }
+        }
+
+        private static boolean isBeanGetter(Method m) {
+            if (Modifier.isStatic(m.getModifiers()) || m.getParameterCount() != 0) return false;
+            String name = m.getName();
+            return (name.startsWith("get") && name.length() > 3 && m.getReturnType() != void.class)
+                    || (name.startsWith("is") && name.length() > 2 && m.getReturnType() == boolean.class);
+        }
+
+        int size() {
+            return accessors.length;
+        }
+
+        boolean isEmpty() {
+            return accessors.length == 0;
+        }
+
+        Object get(Object record, int i) {
+            try {
+                return accessors[i].invoke(record);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Cannot read " + names.get(i) + " of " + record.getClass(), e);
+            }
+        }
+    }
+}
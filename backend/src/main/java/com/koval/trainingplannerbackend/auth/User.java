@@ -116,6 +116,10 @@ public class User {
 
     private List<String> fcmTokens = new ArrayList<>();
 
+    // IANA zone reported by the device at token registration; drives local-morning reminders.
+    @Indexed
+    private String timezone;
+
     private NotificationPreferences notificationPreferences = new NotificationPreferences();
 
     // Helper methods
@@ -9,6 +9,9 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Off-thread fan-out of Strava kudos when a club member completes a session
@@ -23,51 +26,48 @@ public class ClubAutoKudosService {
 
     private static final Logger log = LoggerFactory.getLogger(ClubAutoKudosService.class);
 
-    private final ClubFeedEventRepository feedEventRepository;
+    private final ClubFeedEventUpdateRepository feedEventUpdates;
     private final UserService userService;
     private final StravaApiClient stravaApiClient;
 
-    public ClubAutoKudosService(ClubFeedEventRepository feedEventRepository,
+    public ClubAutoKudosService(ClubFeedEventUpdateRepository feedEventUpdates,
                                 UserService userService,
                                 StravaApiClient stravaApiClient) {
-        this.feedEventRepository = feedEventRepository;
+        this.feedEventUpdates = feedEventUpdates;
         this.userService = userService;
         this.stravaApiClient = stravaApiClient;
     }
 
     /**
-     * Re-load the feed event by id and post kudos on Strava on behalf of every user
-     * who previously kudosed the event. Best-effort: per-user failures are recorded
-     * but never re-raised.
+     * Read the kudos givers of the feed event and post kudos on Strava on behalf of
+     * each of them. Best-effort: per-user failures are recorded but never re-raised.
+     * Results are appended with one {@code $push}, so concurrent completions and
+     * reactions on the same event are never overwritten.
      */
     @Async
     public void autoGiveKudos(String feedEventId, ClubFeedEvent.CompletionEntry newCompletion) {
-        ClubFeedEvent event = feedEventRepository.findById(feedEventId).orElse(null);
-        if (event == null) {
-            log.warn("Feed event {} not found for auto-kudos", feedEventId);
-            return;
-        }
-        if (newCompletion.stravaActivityId() == null || event.getKudosGivenBy().isEmpty()) {
-            return;
-        }
+        if (newCompletion.stravaActivityId() == null) return;
+        Set<String> givers = feedEventUpdates.findKudosGivers(feedEventId);
+        if (givers.isEmpty()) return;
 
-        for (String kudosGiverId : event.getKudosGivenBy()) {
+        List<ClubFeedEvent.KudosResult> results = new ArrayList<>();
+        for (String kudosGiverId : givers) {
             if (kudosGiverId.equals(newCompletion.userId())) continue;
             try {
                 User giver = userService.findById(kudosGiverId).orElse(null);
                 if (giver == null || giver.getStravaRefreshToken() == null) continue;
                 stravaApiClient.giveKudos(giver, newCompletion.stravaActivityId());
-                event.getKudosResults().add(new ClubFeedEvent.KudosResult(
+                results.add(new ClubFeedEvent.KudosResult(
                         newCompletion.userId(), newCompletion.stravaActivityId(),
                         kudosGiverId, true, null, LocalDateTime.now()));
             } catch (Exception e) {
                 log.warn("Auto-kudos failed from {} to activity {}: {}",
                         kudosGiverId, newCompletion.stravaActivityId(), e.getMessage());
-                event.getKudosResults().add(new ClubFeedEvent.KudosResult(
+                results.add(new ClubFeedEvent.KudosResult(
                         newCompletion.userId(), newCompletion.stravaActivityId(),
                         kudosGiverId, false, e.getMessage(), LocalDateTime.now()));
             }
         }
-        feedEventRepository.save(event);
+        feedEventUpdates.appendKudosResults(feedEventId, results);
     }
 }
@@ -18,27 +18,28 @@ import java.util.UUID;
 
 /**
  * Threaded comments on feed events: top-level comments and one-level replies,
- * with @mentions, edit/delete authorization, and SSE broadcasts.
+ * with @mentions, edit/delete authorization, and SSE broadcasts. Comments are read
+ * and written as single embedded entries, never by re-saving the whole event.
  */
 @Service
 public class ClubFeedCommentService {
 
     private static final int NOTIFICATION_PREVIEW_CHARS = 100;
 
-    private final ClubFeedEventRepository feedEventRepository;
+    private final ClubFeedEventUpdateRepository feedEventUpdates;
     private final ClubAuthorizationService authorizationService;
     private final UserService userService;
     private final NotificationService notificationService;
     private final ClubFeedSseBroadcaster broadcaster;
     private final MentionResolver mentionResolver;
 
-    public ClubFeedCommentService(ClubFeedEventRepository feedEventRepository,
+    public ClubFeedCommentService(ClubFeedEventUpdateRepository feedEventUpdates,
                                   ClubAuthorizationService authorizationService,
                                   UserService userService,
                                   NotificationService notificationService,
                                   ClubFeedSseBroadcaster broadcaster,
                                   MentionResolver mentionResolver) {
-        this.feedEventRepository = feedEventRepository;
+        this.feedEventUpdates = feedEventUpdates;
         this.authorizationService = authorizationService;
         this.userService = userService;
         this.notificationService = notificationService;
@@ -55,13 +56,9 @@ public class ClubFeedCommentService {
                                                  List<String> mentionUserIds) {
         authorizationService.requireActiveMember(userId, clubId);
 
-        ClubFeedEvent event = requireEvent(clubId, feedEventId);
-
         ClubFeedEvent.CommentEntry parent = null;
         if (parentCommentId != null) {
-            parent = event.getComments().stream()
-                    .filter(c -> c.id().equals(parentCommentId))
-                    .findFirst()
+            parent = feedEventUpdates.findComment(clubId, feedEventId, parentCommentId)
                     .orElseThrow(() -> new IllegalArgumentException("Parent comment not found"));
             if (parent.parentCommentId() != null) {
                 throw new IllegalStateException("Replies are limited to one level deep");
@@ -88,9 +85,9 @@ public class ClubFeedCommentService {
                 new HashMap<>(),
                 mentions);
 
-        event.getComments().add(comment);
-        event.setUpdatedAt(LocalDateTime.now());
-        feedEventRepository.save(event);
+        if (!feedEventUpdates.pushComment(clubId, feedEventId, comment)) {
+            throw new IllegalArgumentException("Feed event not found");
+        }
 
         String broadcastEvent = parentCommentId == null ? "comment_update" : "comment_reply_added";
         broadcaster.broadcast(clubId, broadcastEvent, new CommentUpdatePayload(feedEventId, comment));
@@ -106,8 +103,7 @@ public class ClubFeedCommentService {
                                                     String commentId, String content) {
         authorizationService.requireActiveMember(userId, clubId);
 
-        ClubFeedEvent event = requireEvent(clubId, feedEventId);
-        ClubFeedEvent.CommentEntry existing = findComment(event, commentId);
+        ClubFeedEvent.CommentEntry existing = findComment(clubId, feedEventId, commentId);
 
         if (!userId.equals(existing.userId())) {
             throw new IllegalStateException("Only the author can edit this comment");
@@ -121,10 +117,7 @@ public class ClubFeedCommentService {
                 existing.reactions() != null ? existing.reactions() : new HashMap<>(),
                 existing.mentions() != null ? existing.mentions() : List.of());
 
-        int idx = event.getComments().indexOf(existing);
-        event.getComments().set(idx, updated);
-        event.setUpdatedAt(now);
-        feedEventRepository.save(event);
+        feedEventUpdates.setCommentContent(feedEventId, commentId, content, now);
 
         broadcaster.broadcast(clubId, "comment_edited", new CommentUpdatePayload(feedEventId, updated));
         return updated;
@@ -137,8 +130,7 @@ public class ClubFeedCommentService {
     public void deleteComment(String userId, String clubId, String feedEventId, String commentId) {
         authorizationService.requireActiveMember(userId, clubId);
 
-        ClubFeedEvent event = requireEvent(clubId, feedEventId);
-        ClubFeedEvent.CommentEntry existing = findComment(event, commentId);
+        ClubFeedEvent.CommentEntry existing = findComment(clubId, feedEventId, commentId);
 
         boolean isAuthor = userId.equals(existing.userId());
         boolean isAdmin = authorizationService.isAdminOrCoach(userId, clubId);
@@ -147,10 +139,7 @@ public class ClubFeedCommentService {
         }
 
         boolean isTopLevel = existing.parentCommentId() == null;
-        event.getComments().removeIf(c -> c.id().equals(commentId)
-                || (isTopLevel && commentId.equals(c.parentCommentId())));
-        event.setUpdatedAt(LocalDateTime.now());
-        feedEventRepository.save(event);
+        feedEventUpdates.pullComment(feedEventId, commentId, isTopLevel);
 
         Map<String, Object> payload = new HashMap<>();
         payload.put("feedEventId", feedEventId);
@@ -158,16 +147,8 @@ public class ClubFeedCommentService {
         broadcaster.broadcast(clubId, "comment_deleted", payload);
     }
 
-    private ClubFeedEvent requireEvent(String clubId, String feedEventId) {
-        return feedEventRepository.findById(feedEventId)
-                .filter(e -> clubId.equals(e.getClubId()))
-                .orElseThrow(() -> new IllegalArgumentException("Feed event not found"));
-    }
-
-    private ClubFeedEvent.CommentEntry findComment(ClubFeedEvent event, String commentId) {
-        return event.getComments().stream()
-                .filter(c -> c.id().equals(commentId))
-                .findFirst()
+    private ClubFeedEvent.CommentEntry findComment(String clubId, String feedEventId, String commentId) {
+        return feedEventUpdates.findComment(clubId, feedEventId, commentId)
                 .orElseThrow(() -> new IllegalArgumentException("Comment not found"));
     }
 
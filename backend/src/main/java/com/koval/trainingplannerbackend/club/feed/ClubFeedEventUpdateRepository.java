@@ -0,0 +1,271 @@
+package com.koval.trainingplannerbackend.club.feed;
+
+import com.koval.trainingplannerbackend.club.session.ClubTrainingSession;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Targeted writes on the embedded arrays and maps of {@link ClubFeedEvent}.
+ *
+ * <p>A busy SESSION_COMPLETION event carries hundreds of completions, comments and
+ * kudos results; loading and re-saving the whole document for every like both scales
+ * with that payload and loses concurrent updates. Each method here is a single
+ * {@code $push} / {@code $addToSet} / {@code $pull} on the embedded path, guarded so
+ * it is idempotent under races, and reads back only the fragment the SSE payload needs.
+ */
+@Repository
+public class ClubFeedEventUpdateRepository {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+
+    public ClubFeedEventUpdateRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /** Outcome of a reaction toggle: whether the user now reacts, and the emoji's new count. */
+    public record ReactionToggle(boolean added, int count) {}
+
+    // -------- Session completions --------
+
+    /**
+     * Returns the id of the SESSION_COMPLETION event for {@code clubSession}, creating it
+     * on first use. {@code $setOnInsert} leaves an existing event untouched, and the unique
+     * {@code (clubSessionId, type)} index stops two first completions from both inserting one:
+     * the losing upsert fails with a duplicate key and is answered with the winner's event.
+     */
+    public String ensureSessionCompletionEvent(ClubTrainingSession clubSession) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = new Query(Criteria.where("clubSessionId").is(clubSession.getId())
+                .and("type").is(ClubFeedEventType.SESSION_COMPLETION));
+        query.fields().include("_id");
+        Update update = new Update()
+                .setOnInsert("clubId", clubSession.getClubId())
+                .setOnInsert("sessionTitle", clubSession.getTitle())
+                .setOnInsert("sessionSport", clubSession.getSport())
+                .setOnInsert("sessionScheduledAt", clubSession.getScheduledAt())
+                .setOnInsert("pinned", false)
+                .setOnInsert("createdAt", now)
+                .setOnInsert("updatedAt", now);
+        try {
+            ClubFeedEvent event = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), ClubFeedEvent.class);
+            return event.getId();
+        } catch (DuplicateKeyException e) {
+            return mongoTemplate.findOne(query, ClubFeedEvent.class).getId();
+        }
+    }
+
+    /**
+     * Appends {@code entry} unless the user already has a completion on the event.
+     *
+     * @return the event with only {@code clubId}, {@code pinned}, {@code kudosGivenBy}
+     *         and the completions' user ids populated, or empty if it was a duplicate
+     */
+    public Optional<ClubFeedEvent> appendCompletion(String eventId, ClubFeedEvent.CompletionEntry entry) {
+        Query query = new Query(Criteria.where("_id").is(eventId)
+                .and("completions.userId").ne(entry.userId()));
+        query.fields().include("clubId", "pinned", "kudosGivenBy", "completions.userId");
+        Update update = new Update()
+                .push("completions", entry)
+                .set("updatedAt", LocalDateTime.now());
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, RETURN_NEW, ClubFeedEvent.class));
+    }
+
+    /** Pins {@code eventId} and unpins any other pinned event of the same type in the club. */
+    public void pinExclusively(String clubId, ClubFeedEventType type, String eventId) {
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("clubId").is(clubId).and("type").is(type)
+                        .and("pinned").is(true).and("_id").ne(eventId)),
+                new Update().set("pinned", false), ClubFeedEvent.class);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(eventId)),
+                new Update().set("pinned", true), ClubFeedEvent.class);
+    }
+
+    // -------- Kudos --------
+
+    /** Returns the givers recorded on the event (projection — no completions or comments). */
+    public Set<String> findKudosGivers(String eventId) {
+        Query query = new Query(Criteria.where("_id").is(eventId));
+        query.fields().include("kudosGivenBy");
+        ClubFeedEvent event = mongoTemplate.findOne(query, ClubFeedEvent.class);
+        return event == null || event.getKudosGivenBy() == null ? Set.of() : new HashSet<>(event.getKudosGivenBy());
+    }
+
+    /**
+     * Records {@code userId} as a kudos giver. Returns false if they already were one, so
+     * two concurrent "give kudos" taps can't both post to Strava.
+     */
+    public boolean claimKudos(String eventId, String userId) {
+        return mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(eventId).and("kudosGivenBy").ne(userId)),
+                new Update().addToSet("kudosGivenBy", userId),
+                ClubFeedEvent.class).getModifiedCount() > 0;
+    }
+
+    public void appendKudosResults(String eventId, List<ClubFeedEvent.KudosResult> results) {
+        if (results.isEmpty()) return;
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(eventId)),
+                new Update().push("kudosResults").each(results.toArray()),
+                ClubFeedEvent.class);
+    }
+
+    // -------- Comments --------
+
+    /** Loads a single comment through an {@code $elemMatch} projection. */
+    public Optional<ClubFeedEvent.CommentEntry> findComment(String clubId, String eventId, String commentId) {
+        Query query = new Query(Criteria.where("_id").is(eventId).and("clubId").is(clubId));
+        query.fields().elemMatch("comments", Criteria.where("id").is(commentId));
+        ClubFeedEvent event = mongoTemplate.findOne(query, ClubFeedEvent.class);
+        if (event == null) {
+            throw new IllegalArgumentException("Feed event not found");
+        }
+        return event.getComments() == null ? Optional.empty() : event.getComments().stream().findFirst();
+    }
+
+    /** @return false if the event does not exist in {@code clubId} */
+    public boolean pushComment(String clubId, String eventId, ClubFeedEvent.CommentEntry comment) {
+        return mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(eventId).and("clubId").is(clubId)),
+                new Update().push("comments", comment).set("updatedAt", LocalDateTime.now()),
+                ClubFeedEvent.class).getMatchedCount() > 0;
+    }
+
+    public void setCommentContent(String eventId, String commentId, String content, LocalDateTime editedAt) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(eventId).and("comments.id").is(commentId)),
+                new Update()
+                        .set("comments.$.content", content)
+                        .set("comments.$.updatedAt", editedAt)
+                        .set("updatedAt", editedAt),
+                ClubFeedEvent.class);
+    }
+
+    /** Removes a comment and, for a top-level comment, all of its replies. */
+    public void pullComment(String eventId, String commentId, boolean cascadeReplies) {
+        Document match = cascadeReplies
+                ? new Document("$or", List.of(new Document("id", commentId), new Document("parentCommentId", commentId)))
+                : new Document("id", commentId);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(eventId)),
+                new Update().pull("comments", match).set("updatedAt", LocalDateTime.now()),
+                ClubFeedEvent.class);
+    }
+
+    // -------- Reactions --------
+
+    /**
+     * Toggles {@code userId} in {@code reactions.<emoji>} of the event: an
+     * {@code $addToSet} guarded by "not reacted yet", falling back to a {@code $pull}
+     * guarded by "already reacted". Returns empty if the event doesn't exist.
+     */
+    public Optional<ReactionToggle> toggleEventReaction(String clubId, String eventId, String emoji, String userId) {
+        String path = "reactions." + emoji;
+        Criteria base = Criteria.where("_id").is(eventId).and("clubId").is(clubId);
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            ClubFeedEvent added = modifyReactions(
+                    Criteria.where("_id").is(eventId).and("clubId").is(clubId).and(path).ne(userId)
+                            .and("reactions").ne(null),
+                    new Update().addToSet(path, userId), path);
+            if (added != null) return Optional.of(new ReactionToggle(true, countOf(added.getReactions(), emoji)));
+
+            ClubFeedEvent removed = modifyReactions(
+                    Criteria.where("_id").is(eventId).and("clubId").is(clubId).and(path).is(userId),
+                    new Update().pull(path, userId), path);
+            if (removed != null) {
+                int count = countOf(removed.getReactions(), emoji);
+                if (count == 0) {
+                    mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(eventId).and(path).size(0)),
+                            new Update().unset(path), ClubFeedEvent.class);
+                }
+                return Optional.of(new ReactionToggle(false, count));
+            }
+
+            // Legacy events may have no reactions map at all — $addToSet can't create a path under null.
+            ClubFeedEvent initialised = modifyReactions(
+                    Criteria.where("_id").is(eventId).and("clubId").is(clubId).and("reactions").is(null),
+                    new Update().set("reactions", Map.of(emoji, List.of(userId))), path);
+            if (initialised != null) return Optional.of(new ReactionToggle(true, 1));
+
+            if (!mongoTemplate.exists(new Query(base), ClubFeedEvent.class)) return Optional.empty();
+        }
+        throw new IllegalStateException("Reaction update contended, please retry");
+    }
+
+    /**
+     * Same toggle as {@link #toggleEventReaction} on {@code comments.$.reactions.<emoji>}.
+     * {@code existing} is the comment as last read, used to pick the first branch to try.
+     */
+    public ReactionToggle toggleCommentReaction(String eventId, ClubFeedEvent.CommentEntry existing,
+                                                String emoji, String userId) {
+        String commentId = existing.id();
+        String path = "reactions." + emoji;
+        boolean reacted = existing.reactions() != null
+                && existing.reactions().getOrDefault(emoji, Set.of()).contains(userId);
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            if (!reacted) {
+                ClubFeedEvent.CommentEntry added = modifyComment(eventId,
+                        Criteria.where("id").is(commentId).and("reactions").ne(null).and(path).ne(userId),
+                        new Update().addToSet("comments.$." + path, userId));
+                if (added != null) return new ReactionToggle(true, countOf(added.reactions(), emoji));
+
+                ClubFeedEvent.CommentEntry initialised = modifyComment(eventId,
+                        Criteria.where("id").is(commentId).and("reactions").is(null),
+                        new Update().set("comments.$.reactions", Map.of(emoji, List.of(userId))));
+                if (initialised != null) return new ReactionToggle(true, 1);
+            } else {
+                ClubFeedEvent.CommentEntry removed = modifyComment(eventId,
+                        Criteria.where("id").is(commentId).and(path).is(userId),
+                        new Update().pull("comments.$." + path, userId));
+                if (removed != null) {
+                    int count = countOf(removed.reactions(), emoji);
+                    if (count == 0) {
+                        modifyComment(eventId, Criteria.where("id").is(commentId).and(path).size(0),
+                                new Update().unset("comments.$." + path));
+                    }
+                    return new ReactionToggle(false, count);
+                }
+            }
+            // Lost a race with another toggle by the same user — flip and retry.
+            reacted = !reacted;
+        }
+        throw new IllegalStateException("Reaction update contended, please retry");
+    }
+
+    private ClubFeedEvent modifyReactions(Criteria criteria, Update update, String path) {
+        Query query = new Query(criteria);
+        query.fields().include(path);
+        return mongoTemplate.findAndModify(query, update.set("updatedAt", LocalDateTime.now()),
+                RETURN_NEW, ClubFeedEvent.class);
+    }
+
+    private ClubFeedEvent.CommentEntry modifyComment(String eventId, Criteria commentCriteria, Update update) {
+        Query query = new Query(Criteria.where("_id").is(eventId).and("comments").elemMatch(commentCriteria));
+        query.fields().position("comments", 1);
+        ClubFeedEvent event = mongoTemplate.findAndModify(query, update.set("updatedAt", LocalDateTime.now()),
+                RETURN_NEW, ClubFeedEvent.class);
+        if (event == null || event.getComments() == null || event.getComments().isEmpty()) return null;
+        return event.getComments().getFirst();
+    }
+
+    private static int countOf(Map<String, Set<String>> reactions, String emoji) {
+        if (reactions == null) return 0;
+        Set<String> users = reactions.get(emoji);
+        return users == null ? 0 : users.size();
+    }
+}
@@ -5,16 +5,12 @@ import com.koval.trainingplannerbackend.club.feed.dto.ReactionUpdatePayload;
 import com.koval.trainingplannerbackend.club.membership.ClubAuthorizationService;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 /**
  * Lightweight emoji reactions on feed events and on comments.
  * Distinct from {@code kudosGivenBy} (Strava-synced kudos), which is preserved as-is.
+ * Toggles are single guarded updates on the reaction set, never a full-event save.
  */
 @Service
 public class ClubFeedReactionService {
@@ -23,14 +19,14 @@ public class ClubFeedReactionService {
     private static final Set<String> ALLOWED_EMOJI = Set.of(
             "fire", "muscle", "clap", "heart", "party", "raise");
 
-    private final ClubFeedEventRepository feedEventRepository;
+    private final ClubFeedEventUpdateRepository feedEventUpdates;
     private final ClubAuthorizationService authorizationService;
     private final ClubFeedSseBroadcaster broadcaster;
 
-    public ClubFeedReactionService(ClubFeedEventRepository feedEventRepository,
+    public ClubFeedReactionService(ClubFeedEventUpdateRepository feedEventUpdates,
                                    ClubAuthorizationService authorizationService,
                                    ClubFeedSseBroadcaster broadcaster) {
-        this.feedEventRepository = feedEventRepository;
+        this.feedEventUpdates = feedEventUpdates;
         this.authorizationService = authorizationService;
         this.broadcaster = broadcaster;
     }
@@ -39,66 +35,30 @@ public class ClubFeedReactionService {
                                                      String feedEventId, String emoji) {
         validateEmoji(emoji);
         authorizationService.requireActiveMember(userId, clubId);
-        ClubFeedEvent event = loadEvent(clubId, feedEventId);
 
-        Map<String, Set<String>> reactions = ensureReactions(event.getReactions());
-        Set<String> users = reactions.computeIfAbsent(emoji, k -> new HashSet<>());
-        boolean added = users.add(userId);
-        if (!added) users.remove(userId);
-        if (users.isEmpty()) reactions.remove(emoji);
-        event.setReactions(reactions);
-        event.setUpdatedAt(LocalDateTime.now());
-        feedEventRepository.save(event);
+        ClubFeedEventUpdateRepository.ReactionToggle toggle = feedEventUpdates
+                .toggleEventReaction(clubId, feedEventId, emoji, userId)
+                .orElseThrow(() -> new IllegalArgumentException("Feed event not found"));
 
-        int count = users.size();
         broadcaster.broadcast(clubId, "reaction_update",
-                new ReactionUpdatePayload(feedEventId, null, emoji, count, userId, added));
-        return new ReactionStateResponse(feedEventId, null, emoji, count, added);
+                new ReactionUpdatePayload(feedEventId, null, emoji, toggle.count(), userId, toggle.added()));
+        return new ReactionStateResponse(feedEventId, null, emoji, toggle.count(), toggle.added());
     }
 
     public ReactionStateResponse toggleCommentReaction(String userId, String clubId,
                                                        String feedEventId, String commentId, String emoji) {
         validateEmoji(emoji);
         authorizationService.requireActiveMember(userId, clubId);
-        ClubFeedEvent event = loadEvent(clubId, feedEventId);
 
-        ClubFeedEvent.CommentEntry existing = event.getComments().stream()
-                .filter(c -> c.id().equals(commentId))
-                .findFirst()
+        ClubFeedEvent.CommentEntry existing = feedEventUpdates.findComment(clubId, feedEventId, commentId)
                 .orElseThrow(() -> new IllegalArgumentException("Comment not found"));
 
-        Map<String, Set<String>> reactions = ensureReactions(existing.reactions());
-        Set<String> users = reactions.computeIfAbsent(emoji, k -> new HashSet<>());
-        boolean added = users.add(userId);
-        if (!added) users.remove(userId);
-        if (users.isEmpty()) reactions.remove(emoji);
-
-        ClubFeedEvent.CommentEntry updated = new ClubFeedEvent.CommentEntry(
-                existing.id(), existing.userId(), existing.displayName(), existing.profilePicture(),
-                existing.content(), existing.createdAt(), existing.updatedAt(),
-                existing.parentCommentId(),
-                reactions,
-                existing.mentions() != null ? existing.mentions() : List.of());
+        ClubFeedEventUpdateRepository.ReactionToggle toggle =
+                feedEventUpdates.toggleCommentReaction(feedEventId, existing, emoji, userId);
 
-        int idx = event.getComments().indexOf(existing);
-        event.getComments().set(idx, updated);
-        event.setUpdatedAt(LocalDateTime.now());
-        feedEventRepository.save(event);
-
-        int count = users.size();
         broadcaster.broadcast(clubId, "reaction_update",
-                new ReactionUpdatePayload(feedEventId, commentId, emoji, count, userId, added));
-        return new ReactionStateResponse(feedEventId, commentId, emoji, count, added);
-    }
-
-    private ClubFeedEvent loadEvent(String clubId, String feedEventId) {
-        return feedEventRepository.findById(feedEventId)
-                .filter(e -> clubId.equals(e.getClubId()))
-                .orElseThrow(() -> new IllegalArgumentException("Feed event not found"));
-    }
-
-    private static Map<String, Set<String>> ensureReactions(Map<String, Set<String>> existing) {
-        return existing == null ? new HashMap<>() : existing;
+                new ReactionUpdatePayload(feedEventId, commentId, emoji, toggle.count(), userId, toggle.added()));
+        return new ReactionStateResponse(feedEventId, commentId, emoji, toggle.count(), toggle.added());
     }
 
     private static void validateEmoji(String emoji) {
@@ -11,7 +11,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -28,6 +27,7 @@ public class ClubFeedService {
     private static final Logger log = LoggerFactory.getLogger(ClubFeedService.class);
 
     private final ClubFeedEventRepository feedEventRepository;
+    private final ClubFeedEventUpdateRepository feedEventUpdates;
     private final ClubTrainingSessionRepository clubSessionRepository;
     private final ClubAuthorizationService authorizationService;
     private final ClubFeedSseBroadcaster broadcaster;
@@ -35,12 +35,14 @@ public class ClubFeedService {
     private final ClubFeedMediaResolver mediaResolver;
 
     public ClubFeedService(ClubFeedEventRepository feedEventRepository,
+                           ClubFeedEventUpdateRepository feedEventUpdates,
                            ClubTrainingSessionRepository clubSessionRepository,
                            ClubAuthorizationService authorizationService,
                            ClubFeedSseBroadcaster broadcaster,
                            ClubAutoKudosService autoKudosService,
                            ClubFeedMediaResolver mediaResolver) {
         this.feedEventRepository = feedEventRepository;
+        this.feedEventUpdates = feedEventUpdates;
         this.clubSessionRepository = clubSessionRepository;
         this.authorizationService = authorizationService;
         this.broadcaster = broadcaster;
@@ -75,6 +77,9 @@ public class ClubFeedService {
      * Add a completion entry to the SESSION_COMPLETION feed event for a club session.
      * Creates the event if it doesn't exist, handles pinning/unpinning, and fires
      * auto-kudos on Strava (off-thread) for users who previously gave kudos on the event.
+     *
+     * <p>The entry is appended with a guarded {@code $push}; only the fragment needed for
+     * pinning and the SSE payload is read back, never the whole event.
      */
     public void addCompletionToEvent(String clubSessionId, ClubFeedEvent.CompletionEntry entry) {
         ClubTrainingSession clubSession = clubSessionRepository.findById(clubSessionId).orElse(null);
@@ -83,60 +88,30 @@ public class ClubFeedService {
             return;
         }
 
-        ClubFeedEvent event = feedEventRepository
-                .findByClubSessionIdAndType(clubSessionId, ClubFeedEventType.SESSION_COMPLETION)
-                .orElseGet(() -> createSessionCompletionEvent(clubSession));
+        String eventId = feedEventUpdates.ensureSessionCompletionEvent(clubSession);
 
-        // Deduplicate by userId
-        boolean alreadyPresent = event.getCompletions().stream()
-                .anyMatch(c -> c.userId().equals(entry.userId()));
-        if (alreadyPresent) return;
-
-        event.getCompletions().add(entry);
-        event.setUpdatedAt(LocalDateTime.now());
+        // Deduplicate by userId — the $push is guarded, so a duplicate comes back empty.
+        ClubFeedEvent event = feedEventUpdates.appendCompletion(eventId, entry).orElse(null);
+        if (event == null) return;
 
         // Pin this event and unpin previous
         if (!Boolean.TRUE.equals(event.getPinned())) {
-            unpinPrevious(clubSession.getClubId(), ClubFeedEventType.SESSION_COMPLETION);
-            event.setPinned(true);
+            feedEventUpdates.pinExclusively(clubSession.getClubId(), ClubFeedEventType.SESSION_COMPLETION, eventId);
         }
 
-        feedEventRepository.save(event);
-
-        if (entry.stravaActivityId() != null && !event.getKudosGivenBy().isEmpty()) {
+        if (entry.stravaActivityId() != null && event.getKudosGivenBy() != null && !event.getKudosGivenBy().isEmpty()) {
             // Fire-and-forget: per-user Strava POSTs run on the bounded async pool so
             // the request thread (and the SSE broadcast below) is not delayed by
             // potentially-slow external HTTP calls.
-            autoKudosService.autoGiveKudos(event.getId(), entry);
+            autoKudosService.autoGiveKudos(eventId, entry);
         }
 
         broadcaster.broadcast(clubSession.getClubId(), "completion_update",
                 new CompletionUpdatePayload(
-                        event.getId(),
+                        eventId,
                         clubSessionId,
                         event.getCompletions().size(),
                         new CompletionUpdatePayload.LatestCompletion(
                                 entry.userId(), entry.displayName(), entry.profilePicture())));
     }
-
-    private ClubFeedEvent createSessionCompletionEvent(ClubTrainingSession clubSession) {
-        ClubFeedEvent event = new ClubFeedEvent();
-        event.setClubId(clubSession.getClubId());
-        event.setType(ClubFeedEventType.SESSION_COMPLETION);
-        event.setClubSessionId(clubSession.getId());
-        event.setSessionTitle(clubSession.getTitle());
-        event.setSessionSport(clubSession.getSport());
-        event.setSessionScheduledAt(clubSession.getScheduledAt());
-        event.setCreatedAt(LocalDateTime.now());
-        event.setUpdatedAt(LocalDateTime.now());
-        return event;
-    }
-
-    private void unpinPrevious(String clubId, ClubFeedEventType type) {
-        feedEventRepository.findFirstByClubIdAndTypeAndPinnedTrueOrderByCreatedAtDesc(clubId, type)
-                .ifPresent(prev -> {
-                    prev.setPinned(false);
-                    feedEventRepository.save(prev);
-                });
-    }
 }
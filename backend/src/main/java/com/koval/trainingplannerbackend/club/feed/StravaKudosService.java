@@ -19,15 +19,18 @@ public class StravaKudosService {
     private static final Logger log = LoggerFactory.getLogger(StravaKudosService.class);
 
     private final ClubFeedEventRepository feedEventRepository;
+    private final ClubFeedEventUpdateRepository feedEventUpdates;
     private final UserService userService;
     private final StravaApiClient stravaApiClient;
     private final ClubFeedSseBroadcaster broadcaster;
 
     public StravaKudosService(ClubFeedEventRepository feedEventRepository,
+                              ClubFeedEventUpdateRepository feedEventUpdates,
                               UserService userService,
                               StravaApiClient stravaApiClient,
                               ClubFeedSseBroadcaster broadcaster) {
         this.feedEventRepository = feedEventRepository;
+        this.feedEventUpdates = feedEventUpdates;
         this.userService = userService;
         this.stravaApiClient = stravaApiClient;
         this.broadcaster = broadcaster;
@@ -48,7 +51,8 @@ public class StravaKudosService {
         ClubFeedEvent event = feedEventRepository.findById(feedEventId)
                 .orElseThrow(() -> new IllegalArgumentException("Feed event not found"));
 
-        if (event.getKudosGivenBy().contains(requestingUserId)) {
+        // Claim first with a guarded $addToSet so two concurrent taps can't both post to Strava.
+        if (!feedEventUpdates.claimKudos(feedEventId, requestingUserId)) {
             throw new IllegalStateException("Kudos already given by this user");
         }
 
@@ -64,6 +68,7 @@ public class StravaKudosService {
                 .toList();
 
         List<KudosResponse.KudosResultDto> results = new ArrayList<>();
+        List<ClubFeedEvent.KudosResult> kudosResults = new ArrayList<>();
         int successCount = 0;
         int failCount = 0;
         LocalDateTime now = LocalDateTime.now();
@@ -72,14 +77,13 @@ public class StravaKudosService {
             KudosCallOutcome o = f.join();
             results.add(new KudosResponse.KudosResultDto(
                     o.completion.displayName(), o.completion.stravaActivityId(), o.success, o.errorMessage));
-            event.getKudosResults().add(new ClubFeedEvent.KudosResult(
+            kudosResults.add(new ClubFeedEvent.KudosResult(
                     o.completion.userId(), o.completion.stravaActivityId(),
                     requestingUserId, o.success, o.errorMessage, now));
             if (o.success) successCount++; else failCount++;
         }
 
-        event.getKudosGivenBy().add(requestingUserId);
-        feedEventRepository.save(event);
+        feedEventUpdates.appendKudosResults(feedEventId, kudosResults);
 
         // Broadcast kudos update
         broadcaster.broadcast(event.getClubId(), "kudos_update",
@@ -8,6 +8,7 @@ import com.google.pubsub.v1.ProjectSubscriptionName;
 import com.google.pubsub.v1.PubsubMessage;
 import com.koval.trainingplannerbackend.club.feed.ClubFeedBroadcastMessage;
 import com.koval.trainingplannerbackend.club.feed.ClubFeedSseBroadcaster;
+import com.koval.trainingplannerbackend.coach.CoachEntitlementIndex;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
@@ -23,14 +24,17 @@ public class PubSubFeedConsumer {
 
     private final ProjectSubscriptionName subscriptionName;
     private final ClubFeedSseBroadcaster broadcaster;
+    private final CoachEntitlementIndex entitlementIndex;
     private final ObjectMapper objectMapper;
     private Subscriber subscriber;
 
     public PubSubFeedConsumer(ProjectSubscriptionName clubFeedSubscriptionName,
                               ClubFeedSseBroadcaster broadcaster,
+                              CoachEntitlementIndex entitlementIndex,
                               ObjectMapper objectMapper) {
         this.subscriptionName = clubFeedSubscriptionName;
         this.broadcaster = broadcaster;
+        this.entitlementIndex = entitlementIndex;
         this.objectMapper = objectMapper;
     }
 
@@ -44,10 +48,14 @@ public class PubSubFeedConsumer {
                 log.debug("Received feed event from Pub/Sub: clubId={}, event={}",
                         feedMessage.clubId(), feedMessage.eventName());
 
-                broadcaster.broadcastLocal(
-                        feedMessage.clubId(),
-                        feedMessage.eventName(),
-                        feedMessage.payloadJson());
+                if (CoachEntitlementIndex.CHANGE_EVENT.equals(feedMessage.eventName())) {
+                    entitlementIndex.changedRemotely(feedMessage.payloadJson());
+                } else {
+                    broadcaster.broadcastLocal(
+                            feedMessage.clubId(),
+                            feedMessage.eventName(),
+                            feedMessage.payloadJson());
+                }
 
                 consumer.ack();
             } catch (Exception e) {
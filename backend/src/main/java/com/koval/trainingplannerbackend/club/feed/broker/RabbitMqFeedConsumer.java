@@ -2,6 +2,7 @@ package com.koval.trainingplannerbackend.club.feed.broker;
 
 import com.koval.trainingplannerbackend.club.feed.ClubFeedBroadcastMessage;
 import com.koval.trainingplannerbackend.club.feed.ClubFeedSseBroadcaster;
+import com.koval.trainingplannerbackend.coach.CoachEntitlementIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -15,15 +16,21 @@ public class RabbitMqFeedConsumer {
     private static final Logger log = LoggerFactory.getLogger(RabbitMqFeedConsumer.class);
 
     private final ClubFeedSseBroadcaster broadcaster;
+    private final CoachEntitlementIndex entitlementIndex;
 
-    public RabbitMqFeedConsumer(ClubFeedSseBroadcaster broadcaster) {
+    public RabbitMqFeedConsumer(ClubFeedSseBroadcaster broadcaster, CoachEntitlementIndex entitlementIndex) {
         this.broadcaster = broadcaster;
+        this.entitlementIndex = entitlementIndex;
     }
 
     @RabbitListener(queues = "#{clubFeedInstanceQueue.name}")
     public void onMessage(ClubFeedBroadcastMessage message) {
         log.debug("Received feed event from RabbitMQ: clubId={}, event={}",
                 message.clubId(), message.eventName());
+        if (CoachEntitlementIndex.CHANGE_EVENT.equals(message.eventName())) {
+            entitlementIndex.changedRemotely(message.payloadJson());
+            return;
+        }
         broadcaster.broadcastLocal(message.clubId(), message.eventName(), message.payloadJson());
     }
 }
@@ -11,6 +11,8 @@ import com.koval.trainingplannerbackend.club.membership.ClubMemberStatus;
 import com.koval.trainingplannerbackend.club.membership.ClubMembership;
 import com.koval.trainingplannerbackend.club.membership.ClubMembershipRepository;
 import com.koval.trainingplannerbackend.club.session.ClubTrainingSession;
+import com.koval.trainingplannerbackend.club.stats.MemberWeeklyRollup;
+import com.koval.trainingplannerbackend.club.stats.MemberWeeklyRollupRepository;
 import com.koval.trainingplannerbackend.club.session.ClubTrainingSessionRepository;
 import com.koval.trainingplannerbackend.goal.RaceGoal;
 import com.koval.trainingplannerbackend.goal.RaceGoalRepository;
@@ -20,6 +22,8 @@ import com.koval.trainingplannerbackend.training.history.CompletedSession;
 import com.koval.trainingplannerbackend.training.history.CompletedSessionRepository;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -39,6 +43,9 @@ import java.util.stream.Collectors;
  *   <li>{@code ClubGazetteService.getPayload} — live preview returned to Claude.</li>
  *   <li>{@code ClubGazettePublisher} — frozen at publish time on the edition document.</li>
  * </ul>
+ *
+ * <p>Volume, leaderboard and most-active sections read the per-member weekly rollups when the
+ * period is week-aligned (the default), and only scan {@code completed_sessions} for custom periods.
  */
 @Service
 public class ClubGazetteSnapshotService {
@@ -46,10 +53,13 @@ public class ClubGazetteSnapshotService {
     private static final int LEADERBOARD_LIMIT = 10;
     private static final int TOP_SESSIONS_LIMIT = 3;
     private static final int MOST_ACTIVE_LIMIT = 5;
+    /** Absorbs the default period start of Sunday 23:59:59 when snapping to Monday boundaries. */
+    private static final Duration WEEK_ALIGNMENT_TOLERANCE = Duration.ofMinutes(1);
 
     private final CompletedSessionRepository completedSessionRepository;
     private final ClubTrainingSessionRepository clubSessionRepository;
     private final ClubMembershipRepository membershipRepository;
+    private final MemberWeeklyRollupRepository weeklyRollups;
     private final RaceGoalRepository raceGoalRepository;
     private final RaceService raceService;
     private final UserService userService;
@@ -57,12 +67,14 @@ public class ClubGazetteSnapshotService {
     public ClubGazetteSnapshotService(CompletedSessionRepository completedSessionRepository,
                                       ClubTrainingSessionRepository clubSessionRepository,
                                       ClubMembershipRepository membershipRepository,
+                                      MemberWeeklyRollupRepository weeklyRollups,
                                       RaceGoalRepository raceGoalRepository,
                                       RaceService raceService,
                                       UserService userService) {
         this.completedSessionRepository = completedSessionRepository;
         this.clubSessionRepository = clubSessionRepository;
         this.membershipRepository = membershipRepository;
+        this.weeklyRollups = weeklyRollups;
         this.raceGoalRepository = raceGoalRepository;
         this.raceService = raceService;
         this.userService = userService;
@@ -71,19 +83,19 @@ public class ClubGazetteSnapshotService {
     public WeeklyStatsSnapshot computeStats(String clubId, LocalDateTime periodStart,
                                             LocalDateTime periodEnd) {
         List<String> memberIds = activeMemberIds(clubId);
-        List<CompletedSession> sessions = completedSessionsInPeriod(memberIds, periodStart, periodEnd);
+        Map<String, MemberTotals> totals = memberTotals(memberIds, periodStart, periodEnd);
 
         double swimKm = 0, bikeKm = 0, runKm = 0;
         double totalTss = 0;
         long totalDurationSec = 0;
-        for (CompletedSession s : sessions) {
-            double dist = blockDistanceKm(s);
-            String sport = s.getSportType();
-            if ("SWIMMING".equalsIgnoreCase(sport)) swimKm += dist;
-            else if ("CYCLING".equalsIgnoreCase(sport)) bikeKm += dist;
-            else if ("RUNNING".equalsIgnoreCase(sport)) runKm += dist;
-            totalTss += s.getTss() != null ? s.getTss() : 0;
-            totalDurationSec += s.getTotalDurationSeconds();
+        int sessionCount = 0;
+        for (MemberTotals t : totals.values()) {
+            swimKm += t.swimKm();
+            bikeKm += t.bikeKm();
+            runKm += t.runKm();
+            totalTss += t.tss();
+            totalDurationSec += t.durationSec();
+            sessionCount += t.count();
         }
 
         List<ClubTrainingSession> clubSessions = clubSessionRepository
@@ -99,7 +111,7 @@ public class ClubGazetteSnapshotService {
 
         return new WeeklyStatsSnapshot(
                 round1(swimKm), round1(bikeKm), round1(runKm),
-                sessions.size(),
+                sessionCount,
                 round1(totalDurationSec / 3600.0),
                 round1(totalTss),
                 memberCount,
@@ -109,33 +121,25 @@ public class ClubGazetteSnapshotService {
 
     public List<LeaderboardSnapshot> computeLeaderboard(String clubId, LocalDateTime periodStart,
                                                         LocalDateTime periodEnd) {
-        List<String> memberIds = activeMemberIds(clubId);
-        List<CompletedSession> sessions = completedSessionsInPeriod(memberIds, periodStart, periodEnd);
-
-        Map<String, double[]> agg = new HashMap<>();    // userId -> [tss, count]
-        for (CompletedSession s : sessions) {
-            double[] v = agg.computeIfAbsent(s.getUserId(), k -> new double[]{0, 0});
-            v[0] += s.getTss() != null ? s.getTss() : 0;
-            v[1] += 1;
-        }
+        Map<String, MemberTotals> totals = memberTotals(activeMemberIds(clubId), periodStart, periodEnd);
 
-        List<Map.Entry<String, double[]>> sorted = agg.entrySet().stream()
-                .sorted((a, b) -> Double.compare(b.getValue()[0], a.getValue()[0]))
+        List<Map.Entry<String, MemberTotals>> sorted = totals.entrySet().stream()
+                .sorted((a, b) -> Double.compare(b.getValue().tss(), a.getValue().tss()))
                 .limit(LEADERBOARD_LIMIT)
                 .toList();
 
         Map<String, User> users = lookupUsers(sorted.stream().map(Map.Entry::getKey).toList());
         List<LeaderboardSnapshot> result = new ArrayList<>();
         for (int i = 0; i < sorted.size(); i++) {
-            Map.Entry<String, double[]> e = sorted.get(i);
+            Map.Entry<String, MemberTotals> e = sorted.get(i);
             User u = users.get(e.getKey());
             result.add(new LeaderboardSnapshot(
                     i + 1,
                     e.getKey(),
                     u != null ? u.getDisplayName() : e.getKey(),
                     u != null ? u.getProfilePicture() : null,
-                    round1(e.getValue()[0]),
-                    (int) e.getValue()[1]));
+                    round1(e.getValue().tss()),
+                    e.getValue().count()));
         }
         return result;
     }
@@ -175,33 +179,24 @@ public class ClubGazetteSnapshotService {
     public List<MemberHighlightSnapshot> computeMostActiveMembers(String clubId,
                                                                   LocalDateTime periodStart,
                                                                   LocalDateTime periodEnd) {
-        List<String> memberIds = activeMemberIds(clubId);
-        List<CompletedSession> sessions = completedSessionsInPeriod(memberIds, periodStart, periodEnd);
-
-        Map<String, long[]> agg = new HashMap<>();      // userId -> [durSec, count, tss]
-        for (CompletedSession s : sessions) {
-            long[] v = agg.computeIfAbsent(s.getUserId(), k -> new long[3]);
-            v[0] += s.getTotalDurationSeconds();
-            v[1] += 1;
-            v[2] += Math.round(s.getTss() != null ? s.getTss() : 0);
-        }
+        Map<String, MemberTotals> totals = memberTotals(activeMemberIds(clubId), periodStart, periodEnd);
 
-        List<Map.Entry<String, long[]>> sorted = agg.entrySet().stream()
-                .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+        List<Map.Entry<String, MemberTotals>> sorted = totals.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().durationSec(), a.getValue().durationSec()))
                 .limit(MOST_ACTIVE_LIMIT)
                 .toList();
 
         Map<String, User> users = lookupUsers(sorted.stream().map(Map.Entry::getKey).toList());
         return sorted.stream().map(e -> {
             User u = users.get(e.getKey());
-            long[] v = e.getValue();
+            MemberTotals t = e.getValue();
             return new MemberHighlightSnapshot(
                     e.getKey(),
                     u != null ? u.getDisplayName() : e.getKey(),
                     u != null ? u.getProfilePicture() : null,
-                    round1(v[0] / 3600.0),
-                    (int) v[1],
-                    v[2]);
+                    round1(t.durationSec() / 3600.0),
+                    t.count(),
+                    Math.round(t.tss()));
         }).toList();
     }
 
@@ -263,6 +258,42 @@ public class ClubGazetteSnapshotService {
                 .stream().map(ClubMembership::getUserId).toList();
     }
 
+    /**
+     * Per-member totals over {@code [start, end)}: summed weekly rollups when the period sits on
+     * Monday boundaries, otherwise a scan of the members' sessions. Members without activity are absent.
+     */
+    private Map<String, MemberTotals> memberTotals(List<String> memberIds, LocalDateTime start, LocalDateTime end) {
+        Map<String, MemberTotals> totals = new HashMap<>();
+        LocalDate fromWeek = weekBoundary(start);
+        LocalDate toWeek = weekBoundary(end);
+        if (fromWeek != null && toWeek != null) {
+            for (MemberWeeklyRollup r : weeklyRollups.findForMembers(memberIds, fromWeek, toWeek)) {
+                totals.merge(r.getUserId(), new MemberTotals(r.getTotalTss(), r.getSessionCount(),
+                        r.getDurationSeconds(), r.getSwimMeters() / 1000.0, r.getBikeMeters() / 1000.0,
+                        r.getRunMeters() / 1000.0), MemberTotals::plus);
+            }
+            return totals;
+        }
+        for (CompletedSession s : completedSessionsInPeriod(memberIds, start, end)) {
+            double dist = blockDistanceKm(s);
+            String sport = s.getSportType();
+            totals.merge(s.getUserId(), new MemberTotals(
+                    s.getTss() != null ? s.getTss() : 0, 1, s.getTotalDurationSeconds(),
+                    "SWIMMING".equalsIgnoreCase(sport) ? dist : 0,
+                    "CYCLING".equalsIgnoreCase(sport) ? dist : 0,
+                    "RUNNING".equalsIgnoreCase(sport) ? dist : 0), MemberTotals::plus);
+        }
+        return totals;
+    }
+
+    /** The Monday at {@code t} (within {@link #WEEK_ALIGNMENT_TOLERANCE}), or null if {@code t} isn't on a week boundary. */
+    private static LocalDate weekBoundary(LocalDateTime t) {
+        LocalDate day = t.plus(WEEK_ALIGNMENT_TOLERANCE).toLocalDate();
+        if (day.getDayOfWeek() != DayOfWeek.MONDAY) return null;
+        Duration offset = Duration.between(day.atStartOfDay(), t).abs();
+        return offset.compareTo(WEEK_ALIGNMENT_TOLERANCE) <= 0 ? day : null;
+    }
+
     private List<CompletedSession> completedSessionsInPeriod(List<String> memberIds,
                                                              LocalDateTime start, LocalDateTime end) {
         if (memberIds.isEmpty()) return List.of();
@@ -299,6 +330,14 @@ public class ClubGazetteSnapshotService {
         }
     }
 
+    private record MemberTotals(double tss, int count, long durationSec,
+                                double swimKm, double bikeKm, double runKm) {
+        MemberTotals plus(MemberTotals o) {
+            return new MemberTotals(tss + o.tss, count + o.count, durationSec + o.durationSec,
+                    swimKm + o.swimKm, bikeKm + o.bikeKm, runKm + o.runKm);
+        }
+    }
+
     private static double round1(double v) {
         return Math.round(v * 10.0) / 10.0;
     }
@@ -2,6 +2,7 @@ package com.koval.trainingplannerbackend.club.membership;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,6 +11,7 @@ public interface ClubMembershipRepository extends MongoRepository<ClubMembership
     List<ClubMembership> findByClubId(String clubId);
     List<ClubMembership> findByClubIdAndStatus(String clubId, ClubMemberStatus status);
     Optional<ClubMembership> findByClubIdAndUserId(String clubId, String userId);
+    List<ClubMembership> findByClubIdAndUserIdIn(String clubId, Collection<String> userIds);
     List<ClubMembership> findByClubIdInAndStatus(List<String> clubIds, ClubMemberStatus status);
 
     boolean existsByClubIdInAndUserIdAndStatus(List<String> clubIds, String userId, ClubMemberStatus status);
@@ -0,0 +1,110 @@
+package com.koval.trainingplannerbackend.club.session;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Capacity-safe participation writes on {@code club_training_sessions}. Each method is a
+ * single conditional {@code findAndModify}: the capacity check ({@code $expr} on the
+ * size of {@code participantIds}) and the list mutation happen in one document-level
+ * atomic operation, so concurrent joins can never push a session past
+ * {@code maxParticipants}. Every method returns the updated session, or {@code null}
+ * when the guard did not match (caller decides what that means).
+ */
+@Repository
+public class ClubSessionParticipationRepository {
+
+    private static final FindAndModifyOptions RETURN_NEW = FindAndModifyOptions.options().returnNew(true);
+
+    private final MongoTemplate mongoTemplate;
+
+    public ClubSessionParticipationRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Adds {@code userId} to the participants if the session is open and has a free spot. On a
+     * capped session the waiting list must also be empty: a spot freed by a leave belongs to the
+     * head of the queue, whose promotion may not have run yet.
+     */
+    public ClubTrainingSession addParticipantIfCapacity(String sessionId, String userId) {
+        Criteria criteria = notYetRegistered(sessionId, userId).orOperator(
+                Criteria.where("maxParticipants").is(null),
+                Criteria.where("maxParticipants").lte(0),
+                new Criteria().andOperator(
+                        Criteria.expr(ComparisonOperators.valueOf(participantCount()).lessThan("maxParticipants")),
+                        Criteria.where("waitingList.0").exists(false)));
+        return mongoTemplate.findAndModify(new Query(criteria),
+                new Update().addToSet("participantIds", userId), RETURN_NEW, ClubTrainingSession.class);
+    }
+
+    /**
+     * Appends {@code userId} to the waiting list if the session is capped and currently full, or
+     * already has a queue (newcomers line up behind it even while a freed spot awaits promotion).
+     */
+    public ClubTrainingSession addToWaitingListIfFull(String sessionId, String userId) {
+        Criteria criteria = notYetRegistered(sessionId, userId)
+                .and("maxParticipants").gt(0)
+                .orOperator(
+                        Criteria.expr(ComparisonOperators.valueOf(participantCount())
+                                .greaterThanEqualTo("maxParticipants")),
+                        Criteria.where("waitingList.0").exists(true));
+        return mongoTemplate.findAndModify(new Query(criteria),
+                new Update().push("waitingList", new WaitingListEntry(userId, LocalDateTime.now())),
+                RETURN_NEW, ClubTrainingSession.class);
+    }
+
+    public ClubTrainingSession removeParticipant(String sessionId, String userId) {
+        return mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(sessionId).and("participantIds").is(userId)),
+                new Update().pull("participantIds", userId), RETURN_NEW, ClubTrainingSession.class);
+    }
+
+    public ClubTrainingSession removeFromWaitingList(String sessionId, String userId) {
+        return mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(sessionId).and("waitingList.userId").is(userId)),
+                new Update().pull("waitingList", new Document("userId", userId)),
+                RETURN_NEW, ClubTrainingSession.class);
+    }
+
+    /**
+     * Moves {@code expectedHeadUserId} from the head of the waiting list into the
+     * participants, but only if it is still the head and a spot is still free. Guarding
+     * on the head's identity means two concurrent promotions can't pop the same entry.
+     */
+    public ClubTrainingSession promoteHeadIfCapacity(String sessionId, String expectedHeadUserId) {
+        Criteria criteria = Criteria.where("_id").is(sessionId)
+                .and("waitingList.0.userId").is(expectedHeadUserId)
+                .and("cancelled").ne(true)
+                .andOperator(Criteria.expr(
+                        ComparisonOperators.valueOf(participantCount()).lessThan("maxParticipants")));
+        Update update = new Update()
+                .pop("waitingList", Update.Position.FIRST)
+                .addToSet("participantIds", expectedHeadUserId);
+        return mongoTemplate.findAndModify(new Query(criteria), update, RETURN_NEW, ClubTrainingSession.class);
+    }
+
+    private static Criteria notYetRegistered(String sessionId, String userId) {
+        return Criteria.where("_id").is(sessionId)
+                .and("cancelled").ne(true)
+                .and("participantIds").ne(userId)
+                .and("waitingList.userId").ne(userId);
+    }
+
+    private static AggregationExpression participantCount() {
+        return ArrayOperators.Size.lengthOfArray(
+                ConditionalOperators.ifNull("participantIds").then(List.of()));
+    }
+}
@@ -6,6 +6,8 @@ import com.koval.trainingplannerbackend.club.activity.ClubActivityService;
 import com.koval.trainingplannerbackend.club.activity.ClubActivityType;
 import com.koval.trainingplannerbackend.club.group.ClubGroupRepository;
 import com.koval.trainingplannerbackend.club.recurring.RecurringSessionMaterializer;
+import com.koval.trainingplannerbackend.coach.calendar.CalendarProjector;
+import com.koval.trainingplannerbackend.config.exceptions.ResourceNotFoundException;
 import com.koval.trainingplannerbackend.notification.NotificationService;
 import org.springframework.stereotype.Service;
 
@@ -16,25 +18,33 @@ import java.util.Map;
 @Service
 public class SessionParticipationService {
 
+    private static final int MAX_ATTEMPTS = 5;
+
     private final ClubTrainingSessionRepository sessionRepository;
+    private final ClubSessionParticipationRepository participationRepository;
     private final ClubGroupRepository clubGroupRepository;
     private final ClubRepository clubRepository;
     private final NotificationService notificationService;
     private final ClubActivityService activityService;
     private final RecurringSessionMaterializer materializer;
+    private final CalendarProjector calendarProjector;
 
     public SessionParticipationService(ClubTrainingSessionRepository sessionRepository,
+                                       ClubSessionParticipationRepository participationRepository,
                                        ClubGroupRepository clubGroupRepository,
                                        ClubRepository clubRepository,
                                        NotificationService notificationService,
                                        ClubActivityService activityService,
-                                       RecurringSessionMaterializer materializer) {
+                                       RecurringSessionMaterializer materializer,
+                                       CalendarProjector calendarProjector) {
         this.sessionRepository = sessionRepository;
+        this.participationRepository = participationRepository;
         this.clubGroupRepository = clubGroupRepository;
         this.clubRepository = clubRepository;
         this.notificationService = notificationService;
         this.activityService = activityService;
         this.materializer = materializer;
+        this.calendarProjector = calendarProjector;
     }
 
     public ClubTrainingSession joinSession(String userId, String sessionId) {
@@ -53,43 +63,101 @@ public class SessionParticipationService {
                 }
             }
         }
-        if (session.getParticipantIds().contains(userId)) {
-            return session;
-        }
-        if (session.isOnWaitingList(userId)) {
+        if (session.getParticipantIds().contains(userId) || session.isOnWaitingList(userId)) {
             return session;
         }
-        if (!session.isFull()) {
-            session.getParticipantIds().add(userId);
-            sessionRepository.save(session);
-            activityService.emitActivity(session.getClubId(), ClubActivityType.SESSION_JOINED, userId, sessionId, session.getTitle());
-        } else {
-            session.getWaitingList().add(new WaitingListEntry(userId, LocalDateTime.now()));
-            sessionRepository.save(session);
-            activityService.emitActivity(session.getClubId(), ClubActivityType.WAITING_LIST_JOINED, userId, sessionId, session.getTitle());
+
+        // Each attempt is one conditional findAndModify; a miss means the session flipped
+        // between "has a spot" and "full" (or the user registered concurrently), so retry
+        // with the other branch rather than mutating a stale copy.
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            ClubTrainingSession joined = participationRepository.addParticipantIfCapacity(sessionId, userId);
+            if (joined != null) {
+                // findAndModify raises no save event, so the calendar entry is written here.
+                syncCalendarEntry(joined, userId, true);
+                activityService.emitActivity(joined.getClubId(), ClubActivityType.SESSION_JOINED, userId, sessionId, joined.getTitle());
+                return joined;
+            }
+            ClubTrainingSession waiting = participationRepository.addToWaitingListIfFull(sessionId, userId);
+            if (waiting != null) {
+                activityService.emitActivity(waiting.getClubId(), ClubActivityType.WAITING_LIST_JOINED, userId, sessionId, waiting.getTitle());
+                // Queued behind a spot a leave just freed: promote the head rather than leave it open.
+                return waiting.isFull() ? waiting : promoteNextFromWaitingList(waiting);
+            }
+            ClubTrainingSession current = sessionRepository.findById(sessionId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Session", session.getId()));
+            if (Boolean.TRUE.equals(current.getCancelled())) {
+                throw new IllegalStateException("Cannot join a cancelled session");
+            }
+            if (current.getParticipantIds().contains(userId) || current.isOnWaitingList(userId)) {
+                return current;
+            }
         }
-        return session;
+        throw new IllegalStateException("Session is too busy, please retry");
     }
 
     public ClubTrainingSession cancelSessionParticipation(String userId, String sessionId) {
-        ClubTrainingSession session = materializer.resolveOrMaterialize(sessionId);
-        if (session.getParticipantIds().remove(userId)) {
-            if (session.getMaxParticipants() != null && !session.getWaitingList().isEmpty()) {
-                promoteNextFromWaitingList(session);
+        String id = materializer.resolveOrMaterialize(sessionId).getId();
+        ClubTrainingSession updated = participationRepository.removeParticipant(id, userId);
+        if (updated != null) {
+            syncCalendarEntry(updated, userId, false);
+            if (updated.getMaxParticipants() != null && !updated.getWaitingList().isEmpty()) {
+                updated = promoteNextFromWaitingList(updated);
             }
-        } else {
-            session.getWaitingList().removeIf(e -> e.userId().equals(userId));
+            return updated;
+        }
+        updated = participationRepository.removeFromWaitingList(id, userId);
+        return updated != null
+                ? updated
+                : sessionRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Session", id));
+    }
+
+    /**
+     * Promotes the head of the waiting list with a guarded pop-and-add. If another
+     * request already promoted that entry (or the head left), re-reads and tries the new
+     * head; stops as soon as the session is full or the list is empty.
+     */
+    private ClubTrainingSession promoteNextFromWaitingList(ClubTrainingSession session) {
+        ClubTrainingSession current = session;
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            if (current.getWaitingList().isEmpty() || current.isFull()) return current;
+            String headUserId = current.getWaitingList().getFirst().userId();
+            ClubTrainingSession promoted = participationRepository.promoteHeadIfCapacity(current.getId(), headUserId);
+            if (promoted != null) {
+                syncCalendarEntry(promoted, headUserId, true);
+                notifyPromoted(promoted, headUserId);
+                return promoted;
+            }
+            String id = current.getId();
+            current = sessionRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Session", id));
         }
-        return sessionRepository.save(session);
+        return current;
     }
 
-    private void promoteNextFromWaitingList(ClubTrainingSession session) {
-        if (session.getWaitingList().isEmpty()) return;
-        WaitingListEntry promoted = session.getWaitingList().removeFirst();
-        session.getParticipantIds().add(promoted.userId());
+    /**
+     * Writes (or removes) {@code userId}'s calendar entry after their participation change, then
+     * re-reads the session's participants and corrects the entry if an overlapping join or leave
+     * of the same user has already changed them. The projection runs outside the atomic update,
+     * so without the re-check a join projected after a concurrent leave would leave a stale entry.
+     */
+    private void syncCalendarEntry(ClubTrainingSession session, String userId, boolean joined) {
+        if (joined) {
+            calendarProjector.participantJoined(session, userId);
+        } else {
+            calendarProjector.participantLeft(session.getId(), userId);
+        }
+        ClubTrainingSession current = sessionRepository.findById(session.getId()).orElse(null);
+        if (current == null || current.getParticipantIds().contains(userId) == joined) return;
+        if (joined) {
+            calendarProjector.participantLeft(current.getId(), userId);
+        } else {
+            calendarProjector.participantJoined(current, userId);
+        }
+    }
 
+    private void notifyPromoted(ClubTrainingSession session, String userId) {
         notificationService.sendToUsers(
-                List.of(promoted.userId()),
+                List.of(userId),
                 "You're In!",
                 getClubName(session.getClubId()) + " — A spot opened in \"" + session.getTitle() + "\" (" + formatSessionDate(session) + "). You've been automatically added.",
                 Map.of("type", "WAITING_LIST_PROMOTED",
@@ -13,8 +13,6 @@ import com.koval.trainingplannerbackend.club.recurring.RecurringSessionTemplate;
 import com.koval.trainingplannerbackend.club.recurring.RecurringSessionTemplateRepository;
 import com.koval.trainingplannerbackend.club.session.ClubTrainingSession;
 import com.koval.trainingplannerbackend.club.session.ClubTrainingSessionRepository;
-import com.koval.trainingplannerbackend.training.history.CompletedSession;
-import com.koval.trainingplannerbackend.training.history.CompletedSessionRepository;
 import org.springframework.stereotype.Service;
 
 import java.time.DayOfWeek;
@@ -22,6 +20,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -29,6 +28,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -36,7 +36,7 @@ import java.util.stream.IntStream;
 public class ClubStatsService {
 
     private final ClubTrainingSessionRepository sessionRepository;
-    private final CompletedSessionRepository completedSessionRepository;
+    private final MemberWeeklyRollupRepository weeklyRollups;
     private final UserService userService;
     private final ClubMembershipService clubMembershipService;
     private final ClubAuthorizationService authorizationService;
@@ -44,14 +44,14 @@ public class ClubStatsService {
     private final ClubGroupRepository clubGroupRepository;
 
     public ClubStatsService(ClubTrainingSessionRepository sessionRepository,
-                            CompletedSessionRepository completedSessionRepository,
+                            MemberWeeklyRollupRepository weeklyRollups,
                             UserService userService,
                             ClubMembershipService clubMembershipService,
                             ClubAuthorizationService authorizationService,
                             RecurringSessionTemplateRepository recurringTemplateRepository,
                             ClubGroupRepository clubGroupRepository) {
         this.sessionRepository = sessionRepository;
-        this.completedSessionRepository = completedSessionRepository;
+        this.weeklyRollups = weeklyRollups;
         this.userService = userService;
         this.clubMembershipService = clubMembershipService;
         this.authorizationService = authorizationService;
@@ -62,42 +62,25 @@ public class ClubStatsService {
     public ClubWeeklyStatsResponse getWeeklyStats(String userId, String clubId) {
         authorizationService.requireActiveMember(userId, clubId);
         List<String> memberIds = clubMembershipService.getActiveMemberIds(clubId);
-        LocalDateTime weekStart = LocalDate.now().with(DayOfWeek.MONDAY).atStartOfDay();
-        LocalDateTime weekEnd = weekStart.plusDays(7);
-
-        List<CompletedSession> sessions = completedSessionRepository
-                .findByUserIdInAndCompletedAtBetween(memberIds, weekStart, weekEnd);
-
-        double swimKm = 0, bikeKm = 0, runKm = 0;
-        for (CompletedSession s : sessions) {
-            double dist = s.getBlockSummaries() != null
-                    ? s.getBlockSummaries().stream()
-                    .filter(b -> b.distanceMeters() != null)
-                    .mapToDouble(CompletedSession.BlockSummary::distanceMeters).sum()
-                    : 0;
-            String sport = s.getSportType();
-            if ("SWIMMING".equalsIgnoreCase(sport)) swimKm += dist / 1000.0;
-            else if ("CYCLING".equalsIgnoreCase(sport)) bikeKm += dist / 1000.0;
-            else if ("RUNNING".equalsIgnoreCase(sport)) runKm += dist / 1000.0;
-        }
-        return new ClubWeeklyStatsResponse(swimKm, bikeKm, runKm, sessions.size(), memberIds.size());
+        LocalDate weekStart = LocalDate.now().with(DayOfWeek.MONDAY);
+
+        WeeklyVolume volume = computeWeeklyVolume(
+                weeklyRollups.findForMembers(memberIds, weekStart, weekStart.plusWeeks(1)));
+        return new ClubWeeklyStatsResponse(volume.swimKm(), volume.bikeKm(), volume.runKm(),
+                volume.sessionCount(), memberIds.size());
     }
 
     public List<LeaderboardEntry> getLeaderboard(String userId, String clubId) {
         authorizationService.requireActiveMember(userId, clubId);
         List<String> memberIds = clubMembershipService.getActiveMemberIds(clubId);
-        LocalDateTime weekStart = LocalDate.now().with(DayOfWeek.MONDAY).atStartOfDay();
-        LocalDateTime weekEnd = weekStart.plusDays(7);
-
-        List<CompletedSession> sessions = completedSessionRepository
-                .findByUserIdInAndCompletedAtBetween(memberIds, weekStart, weekEnd);
+        LocalDate weekStart = LocalDate.now().with(DayOfWeek.MONDAY);
 
+        // One rollup per member for a single week.
         Map<String, Double> tssMap = new LinkedHashMap<>();
         Map<String, Integer> countMap = new LinkedHashMap<>();
-        for (CompletedSession s : sessions) {
-            String uid = s.getUserId();
-            tssMap.merge(uid, Optional.ofNullable(s.getTss()).orElse(0.0), Double::sum);
-            countMap.merge(uid, 1, Integer::sum);
+        for (MemberWeeklyRollup r : weeklyRollups.findForMembers(memberIds, weekStart, weekStart.plusWeeks(1))) {
+            tssMap.merge(r.getUserId(), r.getTotalTss(), Double::sum);
+            countMap.merge(r.getUserId(), r.getSessionCount(), Integer::sum);
         }
 
         List<Map.Entry<String, Double>> sorted = new ArrayList<>(tssMap.entrySet());
@@ -133,12 +116,12 @@ public class ClubStatsService {
         LocalDateTime fourWeeksAgo = weekStart.minusWeeks(4).atStartOfDay();
         List<LocalDate> weekStarts = buildPastFourWeekStarts(weekStart);
 
-        List<CompletedSession> allCompletedSessions = completedSessionRepository
-                .findByUserIdInAndCompletedAtBetween(memberIds, fourWeeksAgo, weekEndDt);
-        List<CompletedSession> weeklySessions = filterBetween(allCompletedSessions,
-                CompletedSession::getCompletedAt, weekStartDt, weekEndDt);
+        List<MemberWeeklyRollup> allRollups = weeklyRollups.findForMembers(
+                memberIds, weekStarts.getFirst(), weekStart.plusWeeks(1));
+        List<MemberWeeklyRollup> currentWeek = allRollups.stream()
+                .filter(r -> weekStart.equals(r.getWeekStart())).toList();
 
-        WeeklyVolume volume = computeWeeklyVolume(weeklySessions);
+        WeeklyVolume volume = computeWeeklyVolume(currentWeek);
 
         List<ClubTrainingSession> allClubSessions = sessionRepository
                 .findByClubIdAndScheduledAtBetween(clubId, fourWeeksAgo, weekEndDt);
@@ -158,15 +141,15 @@ public class ClubStatsService {
 
         List<ClubExtendedStatsResponse.RecurringTemplateAttendance> recurringAttendance =
                 computeRecurringAttendance(clubId, allClubSessions, memberIds, weekStarts);
-        Map<String, Double> sportDistribution = computeSportDistribution(weeklySessions);
+        Map<String, Double> sportDistribution = computeSportDistribution(currentWeek);
         List<ClubExtendedStatsResponse.WeeklyTrend> weeklyTrends =
-                computeWeeklyTrends(weekStarts, allCompletedSessions, pastClubSessions, memberCount);
-        List<ClubExtendedStatsResponse.MemberHighlight> mostActive = computeMostActive(weeklySessions);
+                computeWeeklyTrends(weekStarts, allRollups, pastClubSessions, memberCount);
+        List<ClubExtendedStatsResponse.MemberHighlight> mostActive = computeMostActive(currentWeek);
 
         double avgTssPerMember = memberCount > 0 ? volume.totalTss() / memberCount : 0;
         return new ClubExtendedStatsResponse(
                 volume.swimKm(), volume.bikeKm(), volume.runKm(),
-                weeklySessions.size(), memberCount,
+                volume.sessionCount(), memberCount,
                 Math.round(volume.totalDurationHours() * 10.0) / 10.0,
                 Math.round(volume.totalTss() * 10.0) / 10.0,
                 Math.round(attendanceRate * 1000.0) / 1000.0,
@@ -198,27 +181,19 @@ public class ClubStatsService {
                 .average().orElse(0);
     }
 
-    private static WeeklyVolume computeWeeklyVolume(List<CompletedSession> weeklySessions) {
+    private static WeeklyVolume computeWeeklyVolume(List<MemberWeeklyRollup> rollups) {
         double swim = 0, bike = 0, run = 0, tss = 0;
         long durationSec = 0;
-        for (CompletedSession s : weeklySessions) {
-            double dist = s.getBlockSummaries() != null
-                    ? s.getBlockSummaries().stream()
-                    .filter(b -> b.distanceMeters() != null)
-                    .mapToDouble(CompletedSession.BlockSummary::distanceMeters).sum()
-                    : 0;
-            if (dist == 0 && s.getTotalDistance() != null) dist = s.getTotalDistance();
-            String sportKey = Optional.ofNullable(s.getSportType()).map(String::toUpperCase).orElse("");
-            switch (sportKey) {
-                case "SWIMMING" -> swim += dist / 1000.0;
-                case "CYCLING" -> bike += dist / 1000.0;
-                case "RUNNING" -> run += dist / 1000.0;
-                default -> { /* unknown/null sport: skip distance bucket */ }
-            }
-            tss += Optional.ofNullable(s.getTss()).orElse(0.0);
-            durationSec += s.getTotalDurationSeconds();
+        int sessions = 0;
+        for (MemberWeeklyRollup r : rollups) {
+            swim += r.getSwimMeters() / 1000.0;
+            bike += r.getBikeMeters() / 1000.0;
+            run += r.getRunMeters() / 1000.0;
+            tss += r.getTotalTss();
+            durationSec += r.getDurationSeconds();
+            sessions += r.getSessionCount();
         }
-        return new WeeklyVolume(swim, bike, run, tss, durationSec / 3600.0);
+        return new WeeklyVolume(swim, bike, run, tss, durationSec / 3600.0, sessions);
     }
 
     private List<ClubExtendedStatsResponse.RecurringTemplateAttendance> computeRecurringAttendance(
@@ -317,10 +292,13 @@ public class ClubStatsService {
                 maxParticipants, eligibleCount, weeks, athleteGrid);
     }
 
-    private static Map<String, Double> computeSportDistribution(List<CompletedSession> weeklySessions) {
-        Map<String, Long> counts = weeklySessions.stream()
-                .filter(s -> s.getSportType() != null)
-                .collect(Collectors.groupingBy(CompletedSession::getSportType, Collectors.counting()));
+    private static Map<String, Double> computeSportDistribution(List<MemberWeeklyRollup> weeklyRollups) {
+        Map<String, Long> counts = new HashMap<>();
+        for (MemberWeeklyRollup r : weeklyRollups) {
+            if (r.getSportCounts() == null) continue;
+            r.getSportCounts().forEach((sport, n) -> counts.merge(sport, (long) n, Long::sum));
+        }
+        counts.values().removeIf(n -> n <= 0);
         long total = counts.values().stream().mapToLong(Long::longValue).sum();
         return counts.entrySet().stream()
                 .sorted((a, b) -> Long.compare(b.getValue(), a.getValue()))
@@ -330,17 +308,18 @@ public class ClubStatsService {
     }
 
     private static List<ClubExtendedStatsResponse.WeeklyTrend> computeWeeklyTrends(
-            List<LocalDate> weekStarts, List<CompletedSession> allCompletedSessions,
+            List<LocalDate> weekStarts, List<MemberWeeklyRollup> allRollups,
             List<ClubTrainingSession> pastClubSessions, int memberCount) {
         DateTimeFormatter weekFmt = DateTimeFormatter.ofPattern("dd MMM");
         List<ClubExtendedStatsResponse.WeeklyTrend> trends = new ArrayList<>();
         for (LocalDate wStart : weekStarts) {
             LocalDateTime wStartDt = wStart.atStartOfDay();
             LocalDateTime wEndDt = wStartDt.plusDays(7);
-            List<CompletedSession> wSessions = filterBetween(
-                    allCompletedSessions, CompletedSession::getCompletedAt, wStartDt, wEndDt);
-            double wTss = wSessions.stream().mapToDouble(s -> Optional.ofNullable(s.getTss()).orElse(0.0)).sum();
-            double wHours = wSessions.stream().mapToLong(CompletedSession::getTotalDurationSeconds).sum() / 3600.0;
+            List<MemberWeeklyRollup> wRollups = allRollups.stream()
+                    .filter(r -> wStart.equals(r.getWeekStart())).toList();
+            double wTss = sum(wRollups, MemberWeeklyRollup::getTotalTss);
+            double wHours = sum(wRollups, MemberWeeklyRollup::getDurationSeconds) / 3600.0;
+            int wSessions = (int) sum(wRollups, MemberWeeklyRollup::getSessionCount);
             List<ClubTrainingSession> wClubSessions = filterBetween(
                     pastClubSessions, ClubTrainingSession::getScheduledAt, wStartDt, wEndDt);
             double wAttendance = computeAttendanceRate(wClubSessions, memberCount);
@@ -349,17 +328,16 @@ public class ClubStatsService {
             trends.add(new ClubExtendedStatsResponse.WeeklyTrend(
                     label, Math.round(wTss * 10.0) / 10.0,
                     Math.round(wHours * 10.0) / 10.0,
-                    wSessions.size(), Math.round(wAttendance * 1000.0) / 1000.0));
+                    wSessions, Math.round(wAttendance * 1000.0) / 1000.0));
         }
         return trends;
     }
 
-    private List<ClubExtendedStatsResponse.MemberHighlight> computeMostActive(List<CompletedSession> weeklySessions) {
+    private List<ClubExtendedStatsResponse.MemberHighlight> computeMostActive(List<MemberWeeklyRollup> weeklyRollups) {
         Map<String, MemberActivity> stats = new LinkedHashMap<>();
-        for (CompletedSession s : weeklySessions) {
-            stats.merge(s.getUserId(),
-                    new MemberActivity(s.getTotalDurationSeconds(), 1,
-                            Math.round(Optional.ofNullable(s.getTss()).orElse(0.0))),
+        for (MemberWeeklyRollup r : weeklyRollups) {
+            stats.merge(r.getUserId(),
+                    new MemberActivity(r.getDurationSeconds(), r.getSessionCount(), Math.round(r.getTotalTss())),
                     MemberActivity::plus);
         }
         List<String> activeIds = stats.entrySet().stream()
@@ -379,8 +357,12 @@ public class ClubStatsService {
         }).toList();
     }
 
+    private static <T> double sum(List<T> items, ToDoubleFunction<T> value) {
+        return items.stream().mapToDouble(value).sum();
+    }
+
     private record WeeklyVolume(double swimKm, double bikeKm, double runKm,
-                                double totalTss, double totalDurationHours) {}
+                                double totalTss, double totalDurationHours, int sessionCount) {}
 
     private record MemberActivity(long durationSec, int count, long tss) {
         MemberActivity plus(MemberActivity other) {
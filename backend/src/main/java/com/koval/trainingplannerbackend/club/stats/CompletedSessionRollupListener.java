@@ -0,0 +1,118 @@
+package com.koval.trainingplannerbackend.club.stats;
+
+import com.koval.trainingplannerbackend.training.history.CompletedSession;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps {@link MemberWeeklyRollup}s in step with {@code completed_sessions} by hooking the mapping
+ * events, so every writer (manual entry, FIT upload, Strava/Garmin/Nolio imports, metric
+ * back-fills) is covered without touching each call site.
+ *
+ * <ul>
+ *   <li>insert: {@code $inc} the new session's contribution;</li>
+ *   <li>update: read the stored version's fields before the write, then apply {@code new - old}
+ *       (which also handles a session moving to another week);</li>
+ *   <li>delete: read the matched sessions before removal, then {@code $inc} their negation.</li>
+ * </ul>
+ *
+ * Rollup failures are logged and never fail the session write itself.
+ */
+@Component
+public class CompletedSessionRollupListener extends AbstractMongoEventListener<CompletedSession> {
+
+    private static final Logger log = LoggerFactory.getLogger(CompletedSessionRollupListener.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MemberWeeklyRollupRepository rollups;
+
+    // Before/after events of one write run on the calling thread, so the stored state is handed over here.
+    private final ThreadLocal<Map<String, WeeklyContribution>> previousById = ThreadLocal.withInitial(HashMap::new);
+    private final ThreadLocal<List<WeeklyContribution>> pendingRemovals = ThreadLocal.withInitial(ArrayList::new);
+
+    public CompletedSessionRollupListener(MongoTemplate mongoTemplate, MemberWeeklyRollupRepository rollups) {
+        this.mongoTemplate = mongoTemplate;
+        this.rollups = rollups;
+    }
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<CompletedSession> event) {
+        String id = event.getSource().getId();
+        if (id == null) return;
+        try {
+            List<WeeklyContribution> stored = loadContributions(new Query(Criteria.where("_id").is(id)));
+            if (stored.isEmpty()) {
+                previousById.get().remove(id);
+            } else {
+                previousById.get().put(id, stored.getFirst());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not read previous state of session {} for weekly rollups: {}", id, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<CompletedSession> event) {
+        CompletedSession saved = event.getSource();
+        WeeklyContribution previous = saved.getId() == null ? null : previousById.get().remove(saved.getId());
+        WeeklyContribution current = WeeklyContribution.of(saved);
+        if (previous != null && previous.equals(current)) return;
+        try {
+            if (previous != null) rollups.apply(previous, -1);
+            if (current != null) rollups.apply(current, 1);
+        } catch (RuntimeException e) {
+            log.warn("Failed to update weekly rollup for session {}: {}", saved.getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onBeforeDelete(BeforeDeleteEvent<CompletedSession> event) {
+        List<WeeklyContribution> removals = pendingRemovals.get();
+        removals.clear();
+        try {
+            removals.addAll(loadContributions(new BasicQuery(event.getDocument())));
+        } catch (RuntimeException e) {
+            log.warn("Could not read sessions being deleted for weekly rollups: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<CompletedSession> event) {
+        List<WeeklyContribution> removals = pendingRemovals.get();
+        try {
+            for (WeeklyContribution c : removals) {
+                rollups.apply(c, -1);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to update weekly rollups after session delete: {}", e.getMessage());
+        } finally {
+            removals.clear();
+        }
+    }
+
+    private List<WeeklyContribution> loadContributions(Query query) {
+        query.fields().include(WeeklyContribution.SOURCE_FIELDS);
+        List<WeeklyContribution> out = new ArrayList<>();
+        for (CompletedSession s : mongoTemplate.find(query, CompletedSession.class)) {
+            WeeklyContribution c = WeeklyContribution.of(s);
+            if (c != null) out.add(c);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,49 @@
+package com.koval.trainingplannerbackend.club.stats;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Training totals of one athlete for one ISO week (Monday-aligned), maintained with {@code $inc}
+ * by {@link CompletedSessionRollupListener} whenever a {@code CompletedSession} is written or deleted.
+ *
+ * <p>Club pages and gazette snapshots read these instead of the raw sessions: a club's week is
+ * {@code userId ∈ activeMembers ∧ weekStart = monday}, one small document per member. Rollups are
+ * keyed per athlete rather than per club so club membership stays a read-time filter exactly as
+ * before — joining or leaving a club needs no rollup maintenance.
+ */
+@Getter
+@Setter
+@Document(collection = "member_weekly_rollups")
+@CompoundIndexes({
+        @CompoundIndex(name = "userId_weekStart", def = "{'userId': 1, 'weekStart': 1}", unique = true)
+})
+public class MemberWeeklyRollup {
+
+    /** {@code <userId>:<weekStart>} so upserts are idempotent on the natural key. */
+    @Id
+    private String id;
+
+    private String userId;
+    private LocalDate weekStart;
+
+    private int sessionCount;
+    private double totalTss;
+    private long durationSeconds;
+    private double swimMeters;
+    private double bikeMeters;
+    private double runMeters;
+    /** sportType → number of sessions; sports are sanitised to be valid field names. */
+    private Map<String, Integer> sportCounts = new HashMap<>();
+
+    private LocalDateTime updatedAt;
+}
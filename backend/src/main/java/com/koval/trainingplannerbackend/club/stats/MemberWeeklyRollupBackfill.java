@@ -0,0 +1,108 @@
+package com.koval.trainingplannerbackend.club.stats;
+
+import com.koval.trainingplannerbackend.maintenance.JobLeaseService;
+import com.koval.trainingplannerbackend.training.history.CompletedSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Seeds {@code member_weekly_rollups} from the existing {@code completed_sessions} the first time the
+ * rollups are deployed. Runs at startup under a {@link JobLeaseService} lease that is completed after a
+ * full pass, so a multi-instance rollout builds it once and a pass that dies partway is retried once the
+ * lease expires. Sessions are streamed per athlete and each athlete-week is inserted with its computed
+ * totals only if it has no document yet: a week the live listener already created keeps its own
+ * {@code $inc}s, which a computed write could otherwise overwrite (an increment landing between the
+ * read and the write would be lost), and a retried pass is harmless. Such a week carries only the
+ * sessions written since the listener was deployed. Cost: one streamed, projected pass over the
+ * sessions plus one bulk write per {@value #BATCH_SIZE} rollups.
+ */
+@Component
+class MemberWeeklyRollupBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberWeeklyRollupBackfill.class);
+    private static final String LEASE_ID = "member-weekly-rollup-backfill";
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final MemberWeeklyRollupRepository rollups;
+    private final JobLeaseService jobLeaseService;
+
+    MemberWeeklyRollupBackfill(MongoTemplate mongoTemplate, MemberWeeklyRollupRepository rollups,
+                               JobLeaseService jobLeaseService) {
+        this.mongoTemplate = mongoTemplate;
+        this.rollups = rollups;
+        this.jobLeaseService = jobLeaseService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!jobLeaseService.tryAcquire(LEASE_ID, Duration.ofHours(1))) return;
+
+        // Sorted by athlete (userId_completedAt index) so an athlete's weeks are complete before they are written.
+        Query query = new Query().with(Sort.by("userId")).cursorBatchSize(BATCH_SIZE);
+        query.fields().include(WeeklyContribution.SOURCE_FIELDS);
+        List<MemberWeeklyRollup> batch = new ArrayList<>(BATCH_SIZE);
+        Map<LocalDate, MemberWeeklyRollup> athleteWeeks = new HashMap<>();
+        String athleteId = null;
+        long seeded = 0;
+        try (Stream<CompletedSession> sessions = mongoTemplate.stream(query, CompletedSession.class)) {
+            for (CompletedSession s : (Iterable<CompletedSession>) sessions::iterator) {
+                WeeklyContribution c = WeeklyContribution.of(s);
+                if (c == null) continue;
+                if (!c.userId().equals(athleteId)) {
+                    batch.addAll(athleteWeeks.values());
+                    athleteWeeks.clear();
+                    athleteId = c.userId();
+                    if (batch.size() >= BATCH_SIZE) {
+                        seeded += rollups.insertMissing(batch);
+                        batch.clear();
+                    }
+                }
+                add(athleteWeeks.computeIfAbsent(c.weekStart(), week -> newRollup(c.userId(), week)), c);
+            }
+        }
+        batch.addAll(athleteWeeks.values());
+        seeded += rollups.insertMissing(batch);
+        jobLeaseService.complete(LEASE_ID);
+        if (seeded > 0) {
+            log.info("MemberWeeklyRollupBackfill: seeded {} weekly rollup(s) from completed sessions.", seeded);
+        }
+    }
+
+    private static MemberWeeklyRollup newRollup(String userId, LocalDate weekStart) {
+        MemberWeeklyRollup r = new MemberWeeklyRollup();
+        r.setId(MemberWeeklyRollupRepository.idOf(userId, weekStart));
+        r.setUserId(userId);
+        r.setWeekStart(weekStart);
+        r.setUpdatedAt(LocalDateTime.now());
+        return r;
+    }
+
+    /** In-memory counterpart of the repository's {@code $inc} for one contribution. */
+    private static void add(MemberWeeklyRollup r, WeeklyContribution c) {
+        r.setSessionCount(r.getSessionCount() + 1);
+        r.setTotalTss(r.getTotalTss() + c.tss());
+        r.setDurationSeconds(r.getDurationSeconds() + c.durationSeconds());
+        r.setSwimMeters(r.getSwimMeters() + c.swimMeters());
+        r.setBikeMeters(r.getBikeMeters() + c.bikeMeters());
+        r.setRunMeters(r.getRunMeters() + c.runMeters());
+        if (c.sport() != null && !c.sport().isBlank()) {
+            r.getSportCounts().merge(MemberWeeklyRollupRepository.sportKey(c.sport()), 1, Integer::sum);
+        }
+    }
+}
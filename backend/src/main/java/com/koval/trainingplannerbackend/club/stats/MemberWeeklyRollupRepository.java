@@ -0,0 +1,98 @@
+package com.koval.trainingplannerbackend.club.stats;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes and range reads on {@code member_weekly_rollups}. Live writes are upserting
+ * {@code $inc}s, so concurrent session writes for the same athlete-week never lose updates;
+ * the backfill only inserts weeks that do not exist yet.
+ */
+@Repository
+public class MemberWeeklyRollupRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public MemberWeeklyRollupRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /** Adds ({@code sign = 1}) or removes ({@code sign = -1}) one session's contribution. */
+    public void apply(WeeklyContribution c, int sign) {
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(idOf(c.userId(), c.weekStart()))),
+                incrementFor(c, sign), MemberWeeklyRollup.class);
+    }
+
+    /**
+     * Inserts the given rollups where their athlete-week has no document yet, in one unordered
+     * bulk write (backfill). Existing weeks are left untouched, so an {@code $inc} that {@link #apply}
+     * made to them is never overwritten, and replaying it is idempotent.
+     *
+     * @return the number of rollups inserted
+     */
+    public int insertMissing(Collection<MemberWeeklyRollup> computed) {
+        if (computed.isEmpty()) return 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MemberWeeklyRollup.class);
+        for (MemberWeeklyRollup r : computed) {
+            bulk.upsert(new Query(Criteria.where("_id").is(r.getId())), new Update()
+                    .setOnInsert("userId", r.getUserId())
+                    .setOnInsert("weekStart", r.getWeekStart())
+                    .setOnInsert("sessionCount", r.getSessionCount())
+                    .setOnInsert("totalTss", r.getTotalTss())
+                    .setOnInsert("durationSeconds", r.getDurationSeconds())
+                    .setOnInsert("swimMeters", r.getSwimMeters())
+                    .setOnInsert("bikeMeters", r.getBikeMeters())
+                    .setOnInsert("runMeters", r.getRunMeters())
+                    .setOnInsert("sportCounts", r.getSportCounts())
+                    .setOnInsert("updatedAt", r.getUpdatedAt()));
+        }
+        return bulk.execute().getUpserts().size();
+    }
+
+    /** Rollups of {@code userIds} for weeks in {@code [fromWeek, toWeekExclusive)}, oldest first. */
+    public List<MemberWeeklyRollup> findForMembers(Collection<String> userIds, LocalDate fromWeek,
+                                                   LocalDate toWeekExclusive) {
+        if (userIds.isEmpty()) return List.of();
+        Query query = new Query(Criteria.where("userId").in(userIds)
+                .and("weekStart").gte(fromWeek).lt(toWeekExclusive)
+                .and("sessionCount").gt(0))
+                .with(Sort.by(Sort.Direction.ASC, "weekStart"));
+        return mongoTemplate.find(query, MemberWeeklyRollup.class);
+    }
+
+    private static Update incrementFor(WeeklyContribution c, int sign) {
+        Update update = new Update()
+                .setOnInsert("userId", c.userId())
+                .setOnInsert("weekStart", c.weekStart())
+                .inc("sessionCount", sign)
+                .inc("totalTss", sign * c.tss())
+                .inc("durationSeconds", sign * c.durationSeconds())
+                .inc("swimMeters", sign * c.swimMeters())
+                .inc("bikeMeters", sign * c.bikeMeters())
+                .inc("runMeters", sign * c.runMeters())
+                .set("updatedAt", LocalDateTime.now());
+        if (c.sport() != null && !c.sport().isBlank()) {
+            update.inc("sportCounts." + sportKey(c.sport()), sign);
+        }
+        return update;
+    }
+
+    static String idOf(String userId, LocalDate weekStart) {
+        return userId + ":" + weekStart;
+    }
+
+    /** Mongo field names can't contain '.' or start with '$'. */
+    static String sportKey(String sport) {
+        return sport.replace('.', '_').replace('$', '_');
+    }
+}
@@ -0,0 +1,55 @@
+package com.koval.trainingplannerbackend.club.stats;
+
+import com.koval.trainingplannerbackend.training.history.CompletedSession;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * What a single {@link CompletedSession} adds to its athlete's {@link MemberWeeklyRollup}.
+ * Distance follows the club stats rules: the sum of block distances, falling back to
+ * {@code totalDistance} when blocks carry none, bucketed by swim/bike/run.
+ */
+record WeeklyContribution(String userId, LocalDate weekStart, String sport, double tss, long durationSeconds,
+                          double swimMeters, double bikeMeters, double runMeters) {
+
+    /** Fields needed to compute a contribution — used as the projection when reading sessions back. */
+    static final String[] SOURCE_FIELDS = {
+            "userId", "completedAt", "sportType", "tss", "totalDurationSeconds",
+            "blockSummaries.distanceMeters", "totalDistance"
+    };
+
+    /** Null when the session can't be attributed to an athlete-week. */
+    static WeeklyContribution of(CompletedSession s) {
+        if (s == null || s.getUserId() == null || s.getCompletedAt() == null) return null;
+        double meters = distanceMeters(s);
+        String sport = s.getSportType();
+        return new WeeklyContribution(
+                s.getUserId(),
+                weekOf(s.getCompletedAt()),
+                sport,
+                s.getTss() != null ? s.getTss() : 0,
+                s.getTotalDurationSeconds(),
+                "SWIMMING".equalsIgnoreCase(sport) ? meters : 0,
+                "CYCLING".equalsIgnoreCase(sport) ? meters : 0,
+                "RUNNING".equalsIgnoreCase(sport) ? meters : 0);
+    }
+
+    static LocalDate weekOf(LocalDateTime at) {
+        return at.toLocalDate().with(DayOfWeek.MONDAY);
+    }
+
+    private static double distanceMeters(CompletedSession s) {
+        double meters = 0;
+        if (s.getBlockSummaries() != null) {
+            meters = s.getBlockSummaries().stream()
+                    .filter(b -> b.distanceMeters() != null)
+                    .mapToDouble(CompletedSession.BlockSummary::distanceMeters).sum();
+        }
+        if (meters == 0 && s.getTotalDistance() != null) {
+            meters = s.getTotalDistance();
+        }
+        return meters;
+    }
+}
@@ -139,9 +139,10 @@ public class ClubTestController {
     @GetMapping("/{testId}/iterations/{iterationId}/results")
     public ResponseEntity<List<ClubTestResultResponse>> listResults(@PathVariable String clubId,
                                                                      @PathVariable String testId,
-                                                                     @PathVariable String iterationId) {
+                                                                     @PathVariable String iterationId,
+                                                                     @RequestParam(required = false) Integer limit) {
         String userId = SecurityUtils.getCurrentUserId();
-        List<ClubTestResult> results = resultService.listForIteration(userId, clubId, testId, iterationId);
+        List<ClubTestResult> results = resultService.listForIteration(userId, clubId, testId, iterationId, limit);
         return ResponseEntity.ok(toResponseList(results));
     }
 
@@ -0,0 +1,59 @@
+package com.koval.trainingplannerbackend.club.test;
+
+import com.koval.trainingplannerbackend.maintenance.JobLeaseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Fills {@code rankValue} on results recorded before ranks moved to the database. Ranks used to be
+ * persisted on every result of the iteration after each save; they are now derived from the indexed
+ * {@code rankValue}, so legacy rows without it would fall out of the leaderboard.
+ *
+ * Runs at startup under a {@link JobLeaseService} lease that is completed afterwards, so it runs once
+ * per database: unranked rows legitimately have no value, so the missing field alone cannot tell a
+ * finished backfill from a pending one. Only competition tests that still have a result without the
+ * field are re-indexed, and re-indexing writes nothing for rows that are already up to date.
+ */
+@Component
+class ClubTestRankValueBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ClubTestRankValueBackfill.class);
+    private static final String LEASE_ID = "club-test-rank-value-backfill";
+
+    private final MongoTemplate mongoTemplate;
+    private final ClubTestRankingService rankingService;
+    private final JobLeaseService jobLeaseService;
+
+    ClubTestRankValueBackfill(MongoTemplate mongoTemplate, ClubTestRankingService rankingService,
+                              JobLeaseService jobLeaseService) {
+        this.mongoTemplate = mongoTemplate;
+        this.rankingService = rankingService;
+        this.jobLeaseService = jobLeaseService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!jobLeaseService.tryAcquire(LEASE_ID, Duration.ofHours(1))) return;
+
+        int updated = 0;
+        for (ClubTest test : mongoTemplate.find(new Query(Criteria.where("competitionMode").is(true)), ClubTest.class)) {
+            boolean hasLegacy = mongoTemplate.exists(new Query(Criteria.where("testId").is(test.getId())
+                    .and("rankValue").exists(false)), ClubTestResult.class);
+            if (hasLegacy) {
+                updated += rankingService.reindex(test);
+            }
+        }
+        jobLeaseService.complete(LEASE_ID);
+        if (updated > 0) {
+            log.info("ClubTestRankValueBackfill: set rankValue on {} club test result(s).", updated);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.koval.trainingplannerbackend.club.test;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Database-side leaderboards for competition-mode tests.
+ *
+ * <p>Each result carries a denormalised {@link ClubTestResult#getRankValue() rankValue}: the test's
+ * primary ranking score, negated for {@link RankingDirection#DESC} so that a lower value is always
+ * better. With the {@code (iterationId, rankValue)} index, top-N is an index scan and an athlete's
+ * rank is {@code 1 + count(rankValue < mine)} — neither loads the whole iteration. Ties share a rank
+ * (1, 1, 3). Ranks are derived on read and never persisted.
+ */
+@Service
+public class ClubTestRankingService {
+
+    private static final Sort BEST_FIRST = Sort.by(Sort.Direction.ASC, "rankValue");
+
+    private final ClubTestResultRepository resultRepository;
+    private final MongoTemplate mongoTemplate;
+
+    public ClubTestRankingService(ClubTestResultRepository resultRepository, MongoTemplate mongoTemplate) {
+        this.resultRepository = resultRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /** Sign-normalised ranking key for {@code r}, or null when the test isn't ranked or the score is missing. */
+    public static Double rankValueFor(ClubTest test, ClubTestResult r) {
+        if (!test.isCompetitionMode() || test.getRankingMetric() == null || test.getRankingDirection() == null) {
+            return null;
+        }
+        Double score = scoreFor(test, r);
+        if (score == null || !Double.isFinite(score)) return null;
+        return test.getRankingDirection() == RankingDirection.DESC ? -score : score;
+    }
+
+    /**
+     * Ranked results best-first (at most {@code limit} when positive), followed by the unranked ones
+     * when the whole iteration was requested. Each returned result has its {@code rank} populated.
+     */
+    public List<ClubTestResult> leaderboard(String iterationId, Integer limit) {
+        boolean topN = limit != null && limit > 0;
+        Pageable page = topN ? PageRequest.of(0, limit, BEST_FIRST) : Pageable.unpaged(BEST_FIRST);
+        List<ClubTestResult> ranked = resultRepository.findByIterationIdAndRankValueNotNull(iterationId, page);
+        assignRanks(ranked);
+        if (topN) return ranked;
+
+        List<ClubTestResult> out = new ArrayList<>(ranked);
+        out.addAll(resultRepository.findByIterationIdAndRankValueIsNull(iterationId));
+        return out;
+    }
+
+    /** Populates {@code r.rank} with one indexed count; clears it when {@code r} has no score. */
+    public ClubTestResult withRank(ClubTestResult r) {
+        if (r.getRankValue() == null) {
+            r.setRank(null);
+        } else {
+            long better = resultRepository.countByIterationIdAndRankValueLessThan(r.getIterationId(), r.getRankValue());
+            r.setRank((int) better + 1);
+        }
+        return r;
+    }
+
+    /**
+     * Recomputes {@code rankValue} for every result of {@code test} with one unordered bulk write.
+     * Only needed when the test's ranking definition changes or for legacy rows; regular saves set it
+     * inline.
+     */
+    public int reindex(ClubTest test) {
+        Query query = new Query(Criteria.where("testId").is(test.getId()));
+        query.fields().include("segmentResults").include("computedReferences").include("rankValue");
+        List<ClubTestResult> results = mongoTemplate.find(query, ClubTestResult.class);
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ClubTestResult.class);
+        int changed = 0;
+        for (ClubTestResult r : results) {
+            Double value = rankValueFor(test, r);
+            if (Objects.equals(value, r.getRankValue())) continue;
+            bulk.updateOne(new Query(Criteria.where("_id").is(r.getId())), new Update().set("rankValue", value));
+            changed++;
+        }
+        if (changed > 0) bulk.execute();
+        return changed;
+    }
+
+    private static void assignRanks(List<ClubTestResult> bestFirst) {
+        int rank = 0;
+        Double previous = null;
+        for (int i = 0; i < bestFirst.size(); i++) {
+            ClubTestResult r = bestFirst.get(i);
+            if (previous == null || !previous.equals(r.getRankValue())) {
+                rank = i + 1;
+                previous = r.getRankValue();
+            }
+            r.setRank(rank);
+        }
+    }
+
+    private static Double scoreFor(ClubTest test, ClubTestResult r) {
+        switch (test.getRankingMetric()) {
+            case TIME_OF_SEGMENT -> {
+                if (test.getRankingTarget() == null || r.getSegmentResults() == null) return null;
+                SegmentResultValue v = r.getSegmentResults().get(test.getRankingTarget());
+                return v == null ? null : v.getValue();
+            }
+            case SUM_OF_TIMES -> {
+                if (r.getSegmentResults() == null || r.getSegmentResults().isEmpty()) return null;
+                return r.getSegmentResults().values().stream()
+                        .filter(Objects::nonNull)
+                        .mapToDouble(SegmentResultValue::getValue)
+                        .sum();
+            }
+            case COMPUTED_REFERENCE -> {
+                if (test.getRankingTarget() == null || r.getComputedReferences() == null) return null;
+                return r.getComputedReferences().get(test.getRankingTarget());
+            }
+        }
+        return null;
+    }
+}
@@ -3,6 +3,7 @@ package com.koval.trainingplannerbackend.club.test;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
@@ -19,7 +20,8 @@ import java.util.Map;
 @Setter
 @Document(collection = "club_test_results")
 @CompoundIndexes({
-    @CompoundIndex(name = "iterationId_athleteId", def = "{'iterationId': 1, 'athleteId': 1}", unique = true)
+    @CompoundIndex(name = "iterationId_athleteId", def = "{'iterationId': 1, 'athleteId': 1}", unique = true),
+    @CompoundIndex(name = "iterationId_rankValue", def = "{'iterationId': 1, 'rankValue': 1}")
 })
 public class ClubTestResult {
     @Id
@@ -44,7 +46,12 @@ public class ClubTestResult {
     /** Audit log of reference value writes to the athlete's User document. Append-only. */
     private List<AppliedReferenceUpdate> appliedUpdates = new ArrayList<>();
 
-    /** Set only when the iteration's parent test has {@code competitionMode == true}. */
+    /** Primary ranking score, negated for DESC tests so lower is always better. Null when unranked.
+     * Maintained on save by {@link ClubTestRankingService}. */
+    private Double rankValue;
+
+    /** Derived on read from {@link #rankValue} when the parent test has {@code competitionMode == true}. */
+    @Transient
     private Integer rank;
 
     private String notes;
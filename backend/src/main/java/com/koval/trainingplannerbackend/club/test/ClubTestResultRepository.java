@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.club.test;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.util.List;
@@ -7,6 +8,9 @@ import java.util.Optional;
 
 public interface ClubTestResultRepository extends MongoRepository<ClubTestResult, String> {
     List<ClubTestResult> findByIterationId(String iterationId);
+    List<ClubTestResult> findByIterationIdAndRankValueNotNull(String iterationId, Pageable pageable);
+    List<ClubTestResult> findByIterationIdAndRankValueIsNull(String iterationId);
+    long countByIterationIdAndRankValueLessThan(String iterationId, double rankValue);
     Optional<ClubTestResult> findByIterationIdAndAthleteId(String iterationId, String athleteId);
     List<ClubTestResult> findByTestIdAndAthleteIdOrderByCreatedAtDesc(String testId, String athleteId);
     long countByTestId(String testId);
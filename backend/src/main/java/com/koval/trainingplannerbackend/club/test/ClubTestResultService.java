@@ -14,7 +14,6 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -32,6 +31,7 @@ public class ClubTestResultService {
     private final ClubTestIterationService iterationService;
     private final ClubAuthorizationService clubAuth;
     private final ClubTestFormulaEvaluator formulaEvaluator;
+    private final ClubTestRankingService rankingService;
     private final UserService userService;
 
     public ClubTestResultService(ClubTestResultRepository resultRepository,
@@ -39,12 +39,14 @@ public class ClubTestResultService {
                                   ClubTestIterationService iterationService,
                                   ClubAuthorizationService clubAuth,
                                   ClubTestFormulaEvaluator formulaEvaluator,
+                                  ClubTestRankingService rankingService,
                                   UserService userService) {
         this.resultRepository = resultRepository;
         this.testService = testService;
         this.iterationService = iterationService;
         this.clubAuth = clubAuth;
         this.formulaEvaluator = formulaEvaluator;
+        this.rankingService = rankingService;
         this.userService = userService;
     }
 
@@ -54,15 +56,26 @@ public class ClubTestResultService {
     }
 
     public List<ClubTestResult> listForIteration(String userId, String clubId, String testId, String iterationId) {
+        return listForIteration(userId, clubId, testId, iterationId, null);
+    }
+
+    /**
+     * Results visible to {@code userId}. Competition tests are returned best-first with ranks; a positive
+     * {@code limit} turns that into a top-N leaderboard served from the {@code (iterationId, rankValue)}
+     * index. Members of non-competition tests only ever see their own row.
+     */
+    public List<ClubTestResult> listForIteration(String userId, String clubId, String testId, String iterationId,
+                                                 Integer limit) {
         ClubMembership membership = clubAuth.requireActiveMember(userId, clubId);
         ClubTest test = testService.requireInClub(testId, clubId);
         ClubTestIteration iteration = iterationService.requireForTest(iterationId, testId);
-        List<ClubTestResult> all = resultRepository.findByIterationId(iteration.getId());
-        boolean isCoach = isAdminOrCoach(membership);
-        if (isCoach || test.isCompetitionMode()) {
-            return all;
+        if (test.isCompetitionMode()) {
+            return rankingService.leaderboard(iteration.getId(), limit);
+        }
+        if (isAdminOrCoach(membership)) {
+            return resultRepository.findByIterationId(iteration.getId());
         }
-        return all.stream().filter(r -> Objects.equals(r.getAthleteId(), userId)).toList();
+        return resultRepository.findByIterationIdAndAthleteId(iteration.getId(), userId).stream().toList();
     }
 
     public long countForIteration(String iterationId) {
@@ -72,7 +85,9 @@ public class ClubTestResultService {
     public List<ClubTestResult> listMyHistoryForTest(String userId, String clubId, String testId) {
         clubAuth.requireActiveMember(userId, clubId);
         testService.requireInClub(testId, clubId);
-        return resultRepository.findByTestIdAndAthleteIdOrderByCreatedAtDesc(testId, userId);
+        List<ClubTestResult> history = resultRepository.findByTestIdAndAthleteIdOrderByCreatedAtDesc(testId, userId);
+        history.forEach(rankingService::withRank);
+        return history;
     }
 
     public ClubTestResult recordOrUpdate(String userId, String clubId, String testId, String iterationId,
@@ -126,15 +141,9 @@ public class ClubTestResultService {
         // Compute reference values from rules (best-effort; rules whose deps are missing yield no entry).
         Map<String, Double> computed = computeReferences(iteration, segMap);
         result.setComputedReferences(computed);
+        result.setRankValue(ClubTestRankingService.rankValueFor(test, result));
 
-        ClubTestResult saved = resultRepository.save(result);
-
-        if (test.isCompetitionMode()) {
-            recomputeRanksForIteration(test, iteration);
-            // Re-read the saved row to pick up any rank update written during the recompute.
-            return resultRepository.findById(saved.getId()).orElse(saved);
-        }
-        return saved;
+        return rankingService.withRank(resultRepository.save(result));
     }
 
     public ClubTestResult applyReferences(String userId, String clubId, String testId, String iterationId,
@@ -177,7 +186,7 @@ public class ClubTestResultService {
             result.getAppliedUpdates().add(audit);
         }
         result.setUpdatedAt(LocalDateTime.now());
-        return resultRepository.save(result);
+        return rankingService.withRank(resultRepository.save(result));
     }
 
     // ------------------------------------------------------------------ helpers
@@ -200,71 +209,6 @@ public class ClubTestResultService {
         return out;
     }
 
-    private void recomputeRanksForIteration(ClubTest test, ClubTestIteration iteration) {
-        List<ClubTestResult> all = resultRepository.findByIterationId(iteration.getId());
-        if (all.isEmpty()) return;
-
-        Comparator<ClubTestResult> comparator = buildRankingComparator(test);
-        if (comparator == null) {
-            // Ranking misconfigured — clear ranks rather than guess.
-            for (ClubTestResult r : all) r.setRank(null);
-            resultRepository.saveAll(all);
-            return;
-        }
-        all.sort(comparator);
-
-        // Dense rank: equal scores share a rank.
-        int rank = 0;
-        Double previousScore = null;
-        for (int i = 0; i < all.size(); i++) {
-            ClubTestResult r = all.get(i);
-            Double score = scoreFor(test, r);
-            if (score == null) {
-                r.setRank(null);
-                continue;
-            }
-            if (previousScore == null || !previousScore.equals(score)) {
-                rank = i + 1;
-                previousScore = score;
-            }
-            r.setRank(rank);
-        }
-        resultRepository.saveAll(all);
-    }
-
-    private static Comparator<ClubTestResult> buildRankingComparator(ClubTest test) {
-        if (test.getRankingMetric() == null || test.getRankingDirection() == null) return null;
-        Comparator<ClubTestResult> base = Comparator.comparing(
-                r -> {
-                    Double s = scoreFor(test, r);
-                    return s == null ? Double.POSITIVE_INFINITY : s;
-                },
-                Comparator.naturalOrder());
-        return test.getRankingDirection() == RankingDirection.ASC ? base : base.reversed();
-    }
-
-    private static Double scoreFor(ClubTest test, ClubTestResult r) {
-        switch (test.getRankingMetric()) {
-            case TIME_OF_SEGMENT -> {
-                if (test.getRankingTarget() == null || r.getSegmentResults() == null) return null;
-                SegmentResultValue v = r.getSegmentResults().get(test.getRankingTarget());
-                return v == null ? null : v.getValue();
-            }
-            case SUM_OF_TIMES -> {
-                if (r.getSegmentResults() == null || r.getSegmentResults().isEmpty()) return null;
-                return r.getSegmentResults().values().stream()
-                        .filter(Objects::nonNull)
-                        .mapToDouble(SegmentResultValue::getValue)
-                        .sum();
-            }
-            case COMPUTED_REFERENCE -> {
-                if (test.getRankingTarget() == null || r.getComputedReferences() == null) return null;
-                return r.getComputedReferences().get(test.getRankingTarget());
-            }
-        }
-        return null;
-    }
-
     private static boolean isAdminOrCoach(ClubMembership m) {
         return m.getRole() != ClubMemberRole.MEMBER;
     }
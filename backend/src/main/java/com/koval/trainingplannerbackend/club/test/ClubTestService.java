@@ -28,17 +28,20 @@ public class ClubTestService {
     private final ClubAuthorizationService clubAuth;
     private final ClubTestFormulaEvaluator formulaEvaluator;
     private final TestPresetCatalog presetCatalog;
+    private final ClubTestRankingService rankingService;
 
     public ClubTestService(ClubTestRepository testRepository,
                            ClubTestResultRepository resultRepository,
                            ClubAuthorizationService clubAuth,
                            ClubTestFormulaEvaluator formulaEvaluator,
-                           TestPresetCatalog presetCatalog) {
+                           TestPresetCatalog presetCatalog,
+                           ClubTestRankingService rankingService) {
         this.testRepository = testRepository;
         this.resultRepository = resultRepository;
         this.clubAuth = clubAuth;
         this.formulaEvaluator = formulaEvaluator;
         this.presetCatalog = presetCatalog;
+        this.rankingService = rankingService;
     }
 
     public ClubTest getById(String testId) {
@@ -124,6 +127,10 @@ public class ClubTestService {
         var rankingTarget = req.rankingTarget() != null ? req.rankingTarget() : existing.getRankingTarget();
         var rankingDirection = req.rankingDirection() != null ? req.rankingDirection() : existing.getRankingDirection();
         validateDefinition(name, newSegments, newRules, competitionMode, rankingMetric, rankingTarget, rankingDirection);
+        boolean rankingChanged = competitionMode != existing.isCompetitionMode()
+                || rankingMetric != existing.getRankingMetric()
+                || !Objects.equals(rankingTarget, existing.getRankingTarget())
+                || rankingDirection != existing.getRankingDirection();
 
         existing.setName(name);
         if (req.description() != null) existing.setDescription(req.description());
@@ -134,7 +141,11 @@ public class ClubTestService {
         existing.setSegments(newSegments);
         existing.setReferenceUpdates(newRules);
         existing.setUpdatedAt(LocalDateTime.now());
-        return testRepository.save(existing);
+        ClubTest saved = testRepository.save(existing);
+        if (hasResults && rankingChanged) {
+            rankingService.reindex(saved);
+        }
+        return saved;
     }
 
     public ClubTest archive(String userId, String clubId, String testId) {
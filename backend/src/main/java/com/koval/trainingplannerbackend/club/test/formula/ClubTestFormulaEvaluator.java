@@ -1,11 +1,14 @@
 package com.koval.trainingplannerbackend.club.test.formula;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.koval.trainingplannerbackend.club.test.TestSegment;
 import com.koval.trainingplannerbackend.config.exceptions.ValidationException;
 import org.springframework.expression.EvaluationException;
 import org.springframework.expression.Expression;
-import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.SimpleEvaluationContext;
 import org.springframework.stereotype.Component;
@@ -23,11 +26,22 @@ import java.util.Optional;
  *
  * <p>Variables: each segment value is bound as {@code #seg_<segmentId>} (a {@code Double}).
  * Functions: {@code pow, sqrt, abs, min, max, round, secondsPerKm, secondsPer100m, pacePerKm}.
+ *
+ * <p>Parsed expressions are cached by their text (bounded, LRU-ish) so ranking an iteration parses
+ * each rule once rather than once per athlete. The parser runs in {@link SpelCompilerMode#MIXED}: a hot
+ * formula is compiled to bytecode after a few interpreted runs and silently falls back to the
+ * interpreter if the compiled form ever fails (e.g. a segment value is missing for one athlete).
  */
 @Component
 public class ClubTestFormulaEvaluator {
 
-    private final ExpressionParser parser = new SpelExpressionParser();
+    static final int MAX_CACHED_FORMULAS = 1024;
+
+    private final SpelExpressionParser parser = new SpelExpressionParser(
+            new SpelParserConfiguration(SpelCompilerMode.MIXED, ClubTestFormulaEvaluator.class.getClassLoader()));
+    private final Cache<String, Expression> parsedFormulas = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_FORMULAS)
+            .build();
     private final Map<String, Method> registeredFunctions;
 
     public ClubTestFormulaEvaluator() {
@@ -61,7 +75,7 @@ public class ClubTestFormulaEvaluator {
             }
         }
         try {
-            Expression parsed = parser.parseExpression(expression);
+            Expression parsed = parse(expression);
             SimpleEvaluationContext ctx = buildContext(synthetic);
             Object value = parsed.getValue(ctx);
             if (!(value instanceof Number)) {
@@ -80,7 +94,7 @@ public class ClubTestFormulaEvaluator {
     public Optional<Double> evaluate(String expression, Map<String, Double> segmentValuesById) {
         if (expression == null || expression.isBlank()) return Optional.empty();
         try {
-            Expression parsed = parser.parseExpression(expression);
+            Expression parsed = parse(expression);
             SimpleEvaluationContext ctx = buildContext(segmentValuesById == null ? Map.of() : segmentValuesById);
             Object value = parsed.getValue(ctx);
             if (value instanceof Number n && Double.isFinite(n.doubleValue())) {
@@ -92,6 +106,16 @@ public class ClubTestFormulaEvaluator {
         }
     }
 
+    /** Returns the cached parsed form of {@code expression}; parse failures are not cached. */
+    private Expression parse(String expression) {
+        return parsedFormulas.get(expression, parser::parseExpression);
+    }
+
+    long cachedFormulaCount() {
+        parsedFormulas.cleanUp();
+        return parsedFormulas.estimatedSize();
+    }
+
     private SimpleEvaluationContext buildContext(Map<String, Double> segmentValuesById) {
         SimpleEvaluationContext ctx = SimpleEvaluationContext.forReadOnlyDataBinding()
                 .withInstanceMethods()
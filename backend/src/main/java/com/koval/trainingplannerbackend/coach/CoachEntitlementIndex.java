@@ -0,0 +1,234 @@
+package com.koval.trainingplannerbackend.coach;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Interner;
+import com.koval.trainingplannerbackend.club.dto.MyClubRoleEntry;
+import com.koval.trainingplannerbackend.club.feed.ClubFeedBroadcastMessage;
+import com.koval.trainingplannerbackend.club.feed.ClubFeedBrokerPublisher;
+import com.koval.trainingplannerbackend.club.membership.ClubMemberRole;
+import com.koval.trainingplannerbackend.club.membership.ClubMemberStatus;
+import com.koval.trainingplannerbackend.club.membership.ClubMembership;
+import com.koval.trainingplannerbackend.club.membership.ClubMembershipRepository;
+import com.koval.trainingplannerbackend.club.membership.ClubMembershipService;
+import com.koval.trainingplannerbackend.training.group.GroupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * In-memory answer to "may this coach see this athlete?", the check every coach-scoped request
+ * makes once per athlete. Per coach it holds the sorted, interned ids of every athlete reachable
+ * through their groups or through the active members of the clubs they coach, admin or own, so a
+ * check is a cache hit plus a binary search instead of three queries.
+ *
+ * <p>{@link CoachEntitlementInvalidationListener} evicts exactly the coaches a group or membership
+ * write affects, and the eviction is relayed to the other instances over the club feed broker
+ * (when one is configured) as a {@value #CHANGE_EVENT} message. The TTL is only a backstop for a
+ * lost broker message.
+ *
+ * <p>A club change evicts the coaches a {@code clubId -> coachIds} reverse index lists instead of
+ * scanning the cache. Loads run outside any lock and are only cached if no eviction touching the
+ * coach or one of their clubs ran while they were reading, so a load racing a change is served
+ * once and then reloaded rather than kept for the whole TTL.
+ */
+@Component
+public class CoachEntitlementIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CoachEntitlementIndex.class);
+
+    /** Broker event name of entitlement changes; the feed consumers route it here instead of to SSE. */
+    public static final String CHANGE_EVENT = "coach-entitlements-changed";
+
+    private static final int MAX_CACHED_COACHES = 10_000;
+    private static final Duration ENTITLEMENT_TTL = Duration.ofMinutes(30);
+    private static final Set<ClubMemberRole> MANAGING_ROLES =
+            Set.of(ClubMemberRole.COACH, ClubMemberRole.ADMIN, ClubMemberRole.OWNER);
+
+    /**
+     * Which coaches a write affects: the coaches themselves, the coaches managing the clubs, or
+     * everyone.
+     */
+    public record Change(List<String> coachIds, List<String> clubIds, boolean all) {
+
+        public static Change coaches(Collection<String> coachIds) {
+            return new Change(List.copyOf(coachIds), List.of(), false);
+        }
+
+        public static Change clubs(Collection<String> clubIds) {
+            return new Change(List.of(), List.copyOf(clubIds), false);
+        }
+
+        public static Change everyone() {
+            return new Change(List.of(), List.of(), true);
+        }
+
+        boolean isEmpty() {
+            return !all && coachIds.isEmpty() && clubIds.isEmpty();
+        }
+    }
+
+    /** Sorted athlete and managed club ids of one coach. */
+    record Entitlements(String[] athleteIds, String[] clubIds) {
+
+        boolean covers(String athleteId) {
+            return Arrays.binarySearch(athleteIds, athleteId) >= 0;
+        }
+    }
+
+    private final GroupService groupService;
+    private final ClubMembershipService clubMembershipService;
+    private final ClubMembershipRepository clubMembershipRepository;
+    private final Optional<ClubFeedBrokerPublisher> brokerPublisher;
+    private final ObjectMapper objectMapper;
+
+    private final Cache<String, Entitlements> entitlements = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_COACHES)
+            .expireAfterWrite(ENTITLEMENT_TTL)
+            .build();
+
+    // Club members appear in the set of every coach of the club; interning keeps one copy of each id.
+    private final Interner<String> ids = Interner.newWeakInterner();
+
+    // Guards the reverse index, the eviction stamps and every put to / eviction from the cache.
+    private final Object lock = new Object();
+    // Coaches cached (or once cached) with each club; a superset, pruned when the club is evicted.
+    private final Map<String, Set<String>> coachesByClub = new HashMap<>();
+    // Evictions bump the clock; while loads are in flight they stamp what they evicted with it.
+    private long clock;
+    private long allEvictedAt;
+    private final Map<String, Long> coachEvictedAt = new HashMap<>();
+    private final Map<String, Long> clubEvictedAt = new HashMap<>();
+    private int loadsInFlight;
+
+    public CoachEntitlementIndex(GroupService groupService,
+                                 ClubMembershipService clubMembershipService,
+                                 ClubMembershipRepository clubMembershipRepository,
+                                 Optional<ClubFeedBrokerPublisher> brokerPublisher,
+                                 ObjectMapper objectMapper) {
+        this.groupService = groupService;
+        this.clubMembershipService = clubMembershipService;
+        this.clubMembershipRepository = clubMembershipRepository;
+        this.brokerPublisher = brokerPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    /** Whether {@code athleteId} is in one of the coach's groups or an active member of a club they manage. */
+    public boolean isCoachOf(String coachId, String athleteId) {
+        if (coachId == null || athleteId == null) return false;
+        Entitlements cached = entitlements.getIfPresent(coachId);
+        return (cached != null ? cached : loadAndCache(coachId)).covers(athleteId);
+    }
+
+    /** Evicts the coaches {@code change} affects here and relays it to the other instances. */
+    public void changed(Change change) {
+        if (change.isEmpty()) return;
+        evict(change);
+        brokerPublisher.ifPresent(publisher -> {
+            try {
+                // Not a club event; Pub/Sub attributes reject a null club id.
+                publisher.publish(new ClubFeedBroadcastMessage("", CHANGE_EVENT,
+                        objectMapper.writeValueAsString(change)));
+            } catch (JsonProcessingException | RuntimeException e) {
+                log.warn("Failed to relay coach entitlement change: {}", e.getMessage());
+            }
+        });
+    }
+
+    /** Applies a change relayed by another instance (or echoed back by the broker). */
+    public void changedRemotely(String payloadJson) {
+        try {
+            evict(objectMapper.readValue(payloadJson, Change.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Malformed coach entitlement change, dropping every entry: {}", e.getMessage());
+            entitlements.invalidateAll();
+        }
+    }
+
+    private void evict(Change change) {
+        synchronized (lock) {
+            clock++;
+            if (change.all()) {
+                allEvictedAt = clock;
+                coachesByClub.clear();
+                entitlements.invalidateAll();
+                return;
+            }
+            for (String coachId : change.coachIds()) {
+                if (loadsInFlight > 0) coachEvictedAt.put(coachId, clock);
+                entitlements.invalidate(coachId);
+            }
+            for (String clubId : change.clubIds()) {
+                if (loadsInFlight > 0) clubEvictedAt.put(clubId, clock);
+                Set<String> coaches = coachesByClub.remove(clubId);
+                if (coaches != null) entitlements.invalidateAll(coaches);
+            }
+        }
+    }
+
+    /**
+     * Loads the coach's entitlements and caches them unless an eviction of the coach, of one of the
+     * clubs they manage, or of everyone ran since the load started.
+     */
+    private Entitlements loadAndCache(String coachId) {
+        long startedAt;
+        synchronized (lock) {
+            startedAt = clock;
+            loadsInFlight++;
+        }
+        Entitlements loaded = null;
+        try {
+            loaded = load(coachId);
+            return loaded;
+        } finally {
+            synchronized (lock) {
+                if (loaded != null && !evictedSince(startedAt, coachId, loaded)) {
+                    entitlements.put(coachId, loaded);
+                    for (String clubId : loaded.clubIds()) {
+                        coachesByClub.computeIfAbsent(clubId, k -> new HashSet<>()).add(coachId);
+                    }
+                }
+                if (--loadsInFlight == 0) {
+                    coachEvictedAt.clear();
+                    clubEvictedAt.clear();
+                }
+            }
+        }
+    }
+
+    private boolean evictedSince(long startedAt, String coachId, Entitlements loaded) {
+        if (allEvictedAt > startedAt || coachEvictedAt.getOrDefault(coachId, 0L) > startedAt) return true;
+        return Arrays.stream(loaded.clubIds()).anyMatch(c -> clubEvictedAt.getOrDefault(c, 0L) > startedAt);
+    }
+
+    private Entitlements load(String coachId) {
+        List<String> clubIds = clubMembershipService.getMyClubRoles(coachId).stream()
+                .filter(r -> MANAGING_ROLES.contains(r.role()))
+                .map(MyClubRoleEntry::clubId)
+                .toList();
+        Stream<String> clubMembers = clubIds.isEmpty() ? Stream.empty()
+                : clubMembershipRepository.findByClubIdInAndStatus(clubIds, ClubMemberStatus.ACTIVE).stream()
+                        .map(ClubMembership::getUserId);
+        String[] athleteIds = Stream.concat(groupService.getAthleteIdsForCoach(coachId).stream(), clubMembers)
+                .filter(Objects::nonNull)
+                .map(ids::intern)
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+        return new Entitlements(athleteIds, clubIds.stream().sorted().toArray(String[]::new));
+    }
+}
@@ -0,0 +1,110 @@
+package com.koval.trainingplannerbackend.coach;
+
+import com.koval.trainingplannerbackend.club.Club;
+import com.koval.trainingplannerbackend.club.membership.ClubMembership;
+import com.koval.trainingplannerbackend.coach.CoachEntitlementIndex.Change;
+import com.koval.trainingplannerbackend.training.group.Group;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Evicts {@link CoachEntitlementIndex} entries when the relationships behind them are written:
+ *
+ * <ul>
+ *   <li>{@link Group} saved or deleted: its coach;</li>
+ *   <li>{@link ClubMembership} saved or deleted: the member (whose managed clubs may have changed)
+ *       and every coach managing the club (whose athletes may have changed);</li>
+ *   <li>{@link Club} deleted: every coach managing it.</li>
+ * </ul>
+ *
+ * Deleted documents are read just before removal so their coach and club are known.
+ */
+@Component
+public class CoachEntitlementInvalidationListener extends AbstractMongoEventListener<Object> {
+
+    private static final Logger log = LoggerFactory.getLogger(CoachEntitlementInvalidationListener.class);
+
+    private static final Set<Class<?>> TRACKED = Set.of(Group.class, ClubMembership.class, Club.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final CoachEntitlementIndex index;
+
+    // Before/after events of one delete run on the calling thread, so the matched documents are handed over here.
+    private final ThreadLocal<List<Document>> pendingRemovals = ThreadLocal.withInitial(ArrayList::new);
+
+    public CoachEntitlementInvalidationListener(MongoTemplate mongoTemplate, CoachEntitlementIndex index) {
+        this.mongoTemplate = mongoTemplate;
+        this.index = index;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        switch (event.getSource()) {
+            case Group group -> index.changed(Change.coaches(nonNull(group.getCoachId())));
+            case ClubMembership membership -> index.changed(new Change(
+                    nonNull(membership.getUserId()), nonNull(membership.getClubId()), false));
+            default -> { }
+        }
+    }
+
+    @Override
+    public void onBeforeDelete(BeforeDeleteEvent<Object> event) {
+        if (!tracked(event.getType())) return;
+        List<Document> removals = pendingRemovals.get();
+        removals.clear();
+        try {
+            Query query = new BasicQuery(event.getDocument());
+            query.fields().include("_id", "coachId", "clubId", "userId");
+            removals.addAll(mongoTemplate.find(query, Document.class, event.getCollectionName()));
+        } catch (RuntimeException e) {
+            log.warn("Could not read {} being deleted, dropping every coach entitlement: {}",
+                    event.getCollectionName(), e.getMessage());
+            index.changed(Change.everyone());
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        if (!tracked(event.getType())) return;
+        List<Document> removals = pendingRemovals.get();
+        try {
+            Class<?> type = event.getType();
+            if (type == Group.class) {
+                index.changed(Change.coaches(values(removals, "coachId")));
+            } else if (type == ClubMembership.class) {
+                index.changed(new Change(values(removals, "userId"), values(removals, "clubId"), false));
+            } else if (type == Club.class) {
+                index.changed(Change.clubs(values(removals, "_id")));
+            }
+        } finally {
+            removals.clear();
+        }
+    }
+
+    private static boolean tracked(Class<?> type) {
+        return type != null && TRACKED.contains(type);
+    }
+
+    private static List<String> values(List<Document> documents, String field) {
+        return documents.stream().map(d -> d.get(field)).filter(Objects::nonNull).map(String::valueOf)
+                .distinct().toList();
+    }
+
+    private static List<String> nonNull(String id) {
+        return id == null ? List.of() : List.of(id);
+    }
+}
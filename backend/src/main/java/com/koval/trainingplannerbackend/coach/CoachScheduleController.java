@@ -47,14 +47,10 @@ public class CoachScheduleController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
 
-        List<ScheduledWorkout> workouts = (start != null && end != null)
-                ? scheduledWorkoutService.getAthleteSchedule(athleteId, start, end)
-                : scheduledWorkoutService.getAthleteSchedule(athleteId);
         if (start != null && end != null) {
-            return ResponseEntity.ok(enrichmentService.getUnifiedSchedule(workouts, athleteId, start, end));
-        } else {
-            return ResponseEntity.ok(enrichmentService.enrichList(workouts));
+            return ResponseEntity.ok(enrichmentService.getSchedule(athleteId, start, end, true));
         }
+        return ResponseEntity.ok(enrichmentService.enrichList(scheduledWorkoutService.getAthleteSchedule(athleteId)));
     }
 
     @PostMapping("/schedule/{id}/complete")
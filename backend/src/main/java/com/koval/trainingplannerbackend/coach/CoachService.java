@@ -51,6 +51,7 @@ public class CoachService {
     private final ClubMembershipService clubMembershipService;
     private final ClubMembershipRepository clubMembershipRepository;
     private final ClubRepository clubRepository;
+    private final CoachEntitlementIndex entitlementIndex;
 
     public CoachService(UserRepository userRepository,
             ScheduledWorkoutRepository scheduledWorkoutRepository,
@@ -60,7 +61,8 @@ public class CoachService {
             ReceivedTrainingService receivedTrainingService,
             ClubMembershipService clubMembershipService,
             ClubMembershipRepository clubMembershipRepository,
-            ClubRepository clubRepository) {
+            ClubRepository clubRepository,
+            CoachEntitlementIndex entitlementIndex) {
         this.userRepository = userRepository;
         this.scheduledWorkoutRepository = scheduledWorkoutRepository;
         this.groupService = groupService;
@@ -70,6 +72,7 @@ public class CoachService {
         this.clubMembershipService = clubMembershipService;
         this.clubMembershipRepository = clubMembershipRepository;
         this.clubRepository = clubRepository;
+        this.entitlementIndex = entitlementIndex;
     }
 
     /**
@@ -229,22 +232,10 @@ public class CoachService {
 
     /**
      * Check whether a coach has access to a given athlete (via groups or clubs).
+     * Answered from {@link CoachEntitlementIndex}.
      */
     public boolean isCoachOfAthlete(String coachId, String athleteId) {
-        if (groupService.getAthleteIdsForCoach(coachId).contains(athleteId)) {
-            return true;
-        }
-        List<String> managedClubIds = clubMembershipService.getMyClubRoles(coachId).stream()
-                .filter(r -> r.role() == ClubMemberRole.COACH
-                        || r.role() == ClubMemberRole.ADMIN
-                        || r.role() == ClubMemberRole.OWNER)
-                .map(MyClubRoleEntry::clubId)
-                .toList();
-        if (managedClubIds.isEmpty()) {
-            return false;
-        }
-        return clubMembershipRepository.existsByClubIdInAndUserIdAndStatus(
-                managedClubIds, athleteId, ClubMemberStatus.ACTIVE);
+        return entitlementIndex.isCoachOf(coachId, athleteId);
     }
 
     /**
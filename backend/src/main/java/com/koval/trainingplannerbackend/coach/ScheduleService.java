@@ -153,12 +153,7 @@ public class ScheduleService {
 
     public List<ScheduledWorkoutResponse> getMySchedule(String userId, LocalDate start, LocalDate end,
             boolean includeClubSessions) {
-        List<ScheduledWorkout> workouts = scheduledWorkoutRepository
-                .findByAthleteIdAndScheduledDateBetween(userId, start.minusDays(1), end.plusDays(1));
-        if (includeClubSessions) {
-            return enrichmentService.getUnifiedSchedule(workouts, userId, start, end);
-        }
-        return enrichmentService.enrichList(workouts);
+        return enrichmentService.getSchedule(userId, start, end, includeClubSessions);
     }
 
     public void deleteScheduledWorkout(String userId, String id) {
@@ -1,13 +1,7 @@
 package com.koval.trainingplannerbackend.coach;
 
-import com.koval.trainingplannerbackend.club.Club;
-import com.koval.trainingplannerbackend.club.ClubRepository;
-import com.koval.trainingplannerbackend.club.group.ClubGroupRepository;
-import com.koval.trainingplannerbackend.club.membership.ClubMemberStatus;
-import com.koval.trainingplannerbackend.club.membership.ClubMembership;
-import com.koval.trainingplannerbackend.club.membership.ClubMembershipRepository;
-import com.koval.trainingplannerbackend.club.session.ClubTrainingSession;
-import com.koval.trainingplannerbackend.club.session.ClubTrainingSessionRepository;
+import com.koval.trainingplannerbackend.coach.calendar.CalendarEntry;
+import com.koval.trainingplannerbackend.coach.calendar.CalendarEntryRepository;
 import com.koval.trainingplannerbackend.config.exceptions.ValidationException;
 import com.koval.trainingplannerbackend.plan.PlanDay;
 import com.koval.trainingplannerbackend.plan.PlanWeek;
@@ -25,13 +19,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
- * Enriches scheduled workouts with training and plan-week metadata, and merges
- * a member's club-training participations into a unified schedule view.
+ * Enriches scheduled workouts with training and plan-week metadata, and serves calendar
+ * ranges (assigned workouts merged with a member's club-training participations) from the
+ * {@link CalendarEntry} read model.
  *
  * <p>Kept separate from {@link ScheduleService} so the write-path service is not
  * coupled to plan/club lookup logic that is purely read-oriented.
@@ -40,7 +34,7 @@ import java.util.stream.Collectors;
 public class ScheduledWorkoutEnrichmentService {
 
     /**
-     * Max date window for {@link #getUnifiedSchedule(List, String, LocalDate, LocalDate)}.
+     * Max date window for {@link #getSchedule(String, LocalDate, LocalDate, boolean)} with club sessions.
      * Multi-club athletes can otherwise pull MB-scale JSON if the caller asks for an
      * unbounded range. Calendar / weekly views never need more than this.
      */
@@ -48,23 +42,14 @@ public class ScheduledWorkoutEnrichmentService {
 
     private final TrainingRepository trainingRepository;
     private final TrainingPlanRepository planRepository;
-    private final ClubMembershipRepository clubMembershipRepository;
-    private final ClubTrainingSessionRepository clubTrainingSessionRepository;
-    private final ClubRepository clubRepository;
-    private final ClubGroupRepository clubGroupRepository;
+    private final CalendarEntryRepository calendarEntryRepository;
 
     public ScheduledWorkoutEnrichmentService(TrainingRepository trainingRepository,
                                              TrainingPlanRepository planRepository,
-                                             ClubMembershipRepository clubMembershipRepository,
-                                             ClubTrainingSessionRepository clubTrainingSessionRepository,
-                                             ClubRepository clubRepository,
-                                             ClubGroupRepository clubGroupRepository) {
+                                             CalendarEntryRepository calendarEntryRepository) {
         this.trainingRepository = trainingRepository;
         this.planRepository = planRepository;
-        this.clubMembershipRepository = clubMembershipRepository;
-        this.clubTrainingSessionRepository = clubTrainingSessionRepository;
-        this.clubRepository = clubRepository;
-        this.clubGroupRepository = clubGroupRepository;
+        this.calendarEntryRepository = calendarEntryRepository;
     }
 
     /**
@@ -103,85 +88,35 @@ public class ScheduledWorkoutEnrichmentService {
     }
 
     /**
-     * Build a unified schedule merging regular assigned workouts with club training
-     * sessions where the athlete is a participant.
+     * An athlete's calendar for {@code [start, end]}: their assigned workouts and, when
+     * {@code includeClubSessions}, the club sessions they take part in. One indexed range read on
+     * the {@link CalendarEntry} read model; workouts keep the one-day margin either side that
+     * absorbs client time-zone offsets.
      */
-    public List<ScheduledWorkoutResponse> getUnifiedSchedule(
-            List<ScheduledWorkout> workouts, String athleteId,
-            LocalDate start, LocalDate end) {
-
+    public List<ScheduledWorkoutResponse> getSchedule(String athleteId, LocalDate start, LocalDate end,
+                                                      boolean includeClubSessions) {
         if (start == null || end == null || end.isBefore(start)) {
             throw new ValidationException("start and end are required and end must be on or after start", "INVALID_SCHEDULE_RANGE");
         }
         long windowDays = end.toEpochDay() - start.toEpochDay() + 1;
-        if (windowDays > MAX_SCHEDULE_WINDOW_DAYS) {
+        if (includeClubSessions && windowDays > MAX_SCHEDULE_WINDOW_DAYS) {
             throw new ValidationException(
                     "Schedule window cannot exceed " + MAX_SCHEDULE_WINDOW_DAYS + " days (requested " + windowDays + ")",
                     "SCHEDULE_RANGE_TOO_LARGE");
         }
 
-        List<ScheduledWorkoutResponse> result = new ArrayList<>(enrichList(workouts));
-
-        List<ClubMembership> memberships = clubMembershipRepository.findByUserId(athleteId).stream()
-                .filter(m -> m.getStatus() == ClubMemberStatus.ACTIVE)
-                .toList();
-        if (memberships.isEmpty()) {
-            return sortByScheduledDate(result);
-        }
-
-        List<String> clubIds = memberships.stream().map(ClubMembership::getClubId).toList();
-        Map<String, Club> clubMap = clubRepository.findAllById(clubIds).stream()
-                .collect(Collectors.toMap(Club::getId, Function.identity()));
-
-        List<ClubTrainingSession> sessions = clubTrainingSessionRepository
-                .findByClubIdInAndScheduledAtBetween(clubIds, start.atStartOfDay(), end.plusDays(1).atStartOfDay());
-
-        Set<String> athleteGroupIds = clubGroupRepository
-                .findByClubIdInAndMemberIdsContaining(clubIds, athleteId).stream()
-                .map(g -> g.getId())
-                .collect(Collectors.toSet());
-
-        List<ClubTrainingSession> relevantSessions = sessions.stream()
-                .filter(s -> s.getParticipantIds().contains(athleteId))
-                .filter(s -> {
-                    if (s.getClubGroupId() != null && !s.getClubGroupId().isBlank()) {
-                        return athleteGroupIds.contains(s.getClubGroupId());
-                    }
-                    return true;
-                })
-                .toList();
-
-        if (relevantSessions.isEmpty()) {
-            return sortByScheduledDate(result);
-        }
-
-        List<String> linkedTrainingIds = relevantSessions.stream()
-                .map(ClubTrainingSession::getLinkedTrainingId)
-                .filter(Objects::nonNull)
-                .distinct()
-                .toList();
-        Map<String, Training> linkedTrainings = linkedTrainingIds.isEmpty() ? Map.of()
-                : trainingRepository.findAllById(linkedTrainingIds).stream()
-                        .collect(Collectors.toMap(Training::getId, Function.identity()));
-
-        Map<String, String> groupNameMap = clubGroupRepository.findByClubIdIn(clubIds).stream()
-                .collect(Collectors.toMap(g -> g.getId(), g -> g.getName()));
-
-        for (ClubTrainingSession s : relevantSessions) {
-            Club club = clubMap.get(s.getClubId());
-            String clubName = club != null ? club.getName() : null;
-            String clubGroupName = s.getClubGroupId() != null ? groupNameMap.get(s.getClubGroupId()) : null;
-            Training linked = s.getLinkedTrainingId() != null ? linkedTrainings.get(s.getLinkedTrainingId()) : null;
-            result.add(ScheduledWorkoutResponse.fromClubSession(s, clubName, clubGroupName, linked));
+        List<ScheduledWorkoutResponse> result = new ArrayList<>();
+        for (CalendarEntry entry : calendarEntryRepository.findForUser(athleteId, start.minusDays(1), end.plusDays(1))) {
+            if (entry.getKind() == CalendarEntry.Kind.CLUB_SESSION && (!includeClubSessions || !entry.isVisible()
+                    || entry.getDate().isBefore(start) || entry.getDate().isAfter(end))) {
+                continue;
+            }
+            result.add(ScheduledWorkoutResponse.fromCalendarEntry(entry));
         }
-
-        return sortByScheduledDate(result);
-    }
-
-    private static List<ScheduledWorkoutResponse> sortByScheduledDate(List<ScheduledWorkoutResponse> list) {
-        list.sort(Comparator.comparing(ScheduledWorkoutResponse::scheduledDate,
-                Comparator.nullsLast(Comparator.naturalOrder())));
-        return list;
+        // Same order as before the read model: by date, assigned workouts ahead of club sessions.
+        result.sort(Comparator.comparing(ScheduledWorkoutResponse::scheduledDate)
+                .thenComparing(ScheduledWorkoutResponse::isClubSession));
+        return result;
     }
 
     private static ScheduledWorkoutResponse buildResponse(ScheduledWorkout sw,
@@ -1,6 +1,7 @@
 package com.koval.trainingplannerbackend.coach;
 
 import com.koval.trainingplannerbackend.club.session.ClubTrainingSession;
+import com.koval.trainingplannerbackend.coach.calendar.CalendarEntry;
 import com.koval.trainingplannerbackend.training.model.SportType;
 import com.koval.trainingplannerbackend.training.model.Training;
 import com.koval.trainingplannerbackend.training.model.TrainingType;
@@ -8,6 +9,7 @@ import com.koval.trainingplannerbackend.training.model.TrainingType;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Response DTO that enriches ScheduledWorkout with training metadata.
@@ -107,4 +109,44 @@ public record ScheduledWorkoutResponse(
                 null, null, null, null);
     }
 
+    /**
+     * Same response as {@link #from} / {@link #fromClubSession} would build from the entry's
+     * sources: the workout's own TSS/IF win over the training estimate, and a club session shows
+     * its linked training when there is one.
+     */
+    public static ScheduledWorkoutResponse fromCalendarEntry(CalendarEntry entry) {
+        Optional<CalendarEntry.TrainingInfo> training = Optional.ofNullable(entry.getTraining());
+        Optional<CalendarEntry.PlanInfo> plan = Optional.ofNullable(entry.getPlan());
+        boolean club = entry.getKind() == CalendarEntry.Kind.CLUB_SESSION;
+        return new ScheduledWorkoutResponse(
+                entry.getSourceId(),
+                entry.getTrainingId(),
+                club ? null : entry.getUserId(),
+                entry.getAssignedBy(),
+                entry.getDate(),
+                entry.getStatus(),
+                entry.getNotes(),
+                Optional.ofNullable(entry.getTss()).orElse(training.map(CalendarEntry.TrainingInfo::estimatedTss).orElse(null)),
+                Optional.ofNullable(entry.getIntensityFactor()).orElse(training.map(CalendarEntry.TrainingInfo::estimatedIf).orElse(null)),
+                entry.getCompletedAt(),
+                entry.getCreatedAt(),
+                fromTraining(training, CalendarEntry.TrainingInfo::title, club ? entry.getTitle() : null),
+                fromTraining(training, CalendarEntry.TrainingInfo::trainingType, null),
+                fromTraining(training, CalendarEntry.TrainingInfo::durationSeconds, club ? entry.getDurationSeconds() : null),
+                fromTraining(training, CalendarEntry.TrainingInfo::sportType,
+                        club ? SportType.fromStringOrNull(entry.getSport()) : null),
+                entry.getSessionId(),
+                club, entry.getClubName(), entry.getClubGroupName(),
+                plan.map(CalendarEntry.PlanInfo::planId).orElse(null),
+                plan.map(CalendarEntry.PlanInfo::planTitle).orElse(null),
+                plan.map(CalendarEntry.PlanInfo::weekNumber).orElse(null),
+                plan.map(CalendarEntry.PlanInfo::weekLabel).orElse(null));
+    }
+
+    /** The training's value when there is a training (even if that value is null), else {@code fallback}. */
+    private static <T> T fromTraining(Optional<CalendarEntry.TrainingInfo> training,
+                                      Function<CalendarEntry.TrainingInfo, T> field, T fallback) {
+        return training.isPresent() ? field.apply(training.get()) : fallback;
+    }
+
 }
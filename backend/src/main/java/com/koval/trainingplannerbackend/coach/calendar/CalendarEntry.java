@@ -0,0 +1,104 @@
+package com.koval.trainingplannerbackend.coach.calendar;
+
+import com.koval.trainingplannerbackend.coach.ScheduleStatus;
+import com.koval.trainingplannerbackend.training.model.SportType;
+import com.koval.trainingplannerbackend.training.model.Training;
+import com.koval.trainingplannerbackend.training.model.TrainingType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One item of a user's calendar on one date: an assigned workout, or a club session the user
+ * takes part in. Maintained by {@link CalendarProjectionListener} on every write to the sources
+ * (scheduled workouts, trainings, plans, club sessions, clubs, groups, memberships), so a month
+ * or season view is one {@code userId + date} range read instead of five collection lookups.
+ *
+ * <p>Source data is copied as-is and combined at read time (e.g. the workout's own TSS wins over
+ * the training estimate), so a training or plan edit is a single fan-out {@code $set} on the
+ * snapshot it changed.
+ */
+@Getter
+@Setter
+@Document(collection = "calendar_entries")
+@CompoundIndexes({
+        @CompoundIndex(name = "userId_date", def = "{'userId': 1, 'date': 1}")
+})
+public class CalendarEntry {
+
+    public enum Kind { WORKOUT, CLUB_SESSION }
+
+    /** Display fields of the linked {@link Training}. */
+    public record TrainingInfo(String title, TrainingType trainingType, Integer durationSeconds,
+                               SportType sportType, Integer estimatedTss, Double estimatedIf) {
+
+        public static TrainingInfo of(Training training) {
+            return new TrainingInfo(training.getTitle(), training.getTrainingType(),
+                    training.getEstimatedDurationSeconds(), training.getSportType(),
+                    training.getEstimatedTss(), training.getEstimatedIf());
+        }
+    }
+
+    /** Plan week a scheduled workout was generated for. */
+    public record PlanInfo(String planId, String planTitle, int weekNumber, String weekLabel) {}
+
+    /** {@code <userId>:<sourceId>} — a club session has one entry per participant. */
+    @Id
+    private String id;
+
+    private String userId;
+    private LocalDate date;
+    private Kind kind;
+    @Indexed
+    private String sourceId;
+
+    // Scheduled workout, or the club session mapped onto the same fields
+    @Indexed
+    private String trainingId;
+    private String assignedBy;
+    private ScheduleStatus status;
+    private String notes;
+    private Integer tss;
+    private Double intensityFactor;
+    private String sessionId;
+    private LocalDateTime completedAt;
+    private LocalDateTime createdAt;
+
+    private TrainingInfo training;
+
+    /** The workout's own {@code planId}; {@link #plan} is set once that plan lists the workout. */
+    @Indexed(sparse = true)
+    private String scheduledPlanId;
+    private PlanInfo plan;
+
+    // Club session only
+    @Indexed(sparse = true)
+    private String clubId;
+    private String clubName;
+    @Indexed(sparse = true)
+    private String clubGroupId;
+    private String clubGroupName;
+    private String title;
+    private String sport;
+    private Integer durationSeconds;
+    /** The user is an active member of {@link #clubId}. */
+    private boolean memberActive;
+    /** The session has no group, or the user belongs to it. */
+    private boolean groupMember;
+
+    /** Club sessions only show while the user is an active member (of the group, if any). */
+    public boolean isVisible() {
+        return kind != Kind.CLUB_SESSION || (memberActive && groupMember);
+    }
+
+    static String idOf(String userId, String sourceId) {
+        return userId + ":" + sourceId;
+    }
+}
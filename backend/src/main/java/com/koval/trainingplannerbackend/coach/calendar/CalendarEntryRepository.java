@@ -0,0 +1,151 @@
+package com.koval.trainingplannerbackend.coach.calendar;
+
+import com.koval.trainingplannerbackend.coach.calendar.CalendarEntry.PlanInfo;
+import com.koval.trainingplannerbackend.coach.calendar.CalendarEntry.TrainingInfo;
+import com.koval.trainingplannerbackend.training.model.Training;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes and range reads on {@code calendar_entries}. Projections replace whole entries by
+ * {@code _id}; changes to a shared source (training, plan, club, group, membership) are
+ * multi-document {@code $set}s on the snapshot fields they own.
+ */
+@Repository
+public class CalendarEntryRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public CalendarEntryRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Makes {@code entriesBySource} the full set of entries of each source: entries are upserted,
+     * and entries of users no longer listed (a participant who left, a cleared date) are removed.
+     */
+    public void replaceAll(Map<String, List<CalendarEntry>> entriesBySource) {
+        if (entriesBySource.isEmpty()) return;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CalendarEntry.class);
+        entriesBySource.forEach((sourceId, entries) -> {
+            List<String> userIds = entries.stream().map(CalendarEntry::getUserId).toList();
+            bulk.remove(new Query(Criteria.where("sourceId").is(sourceId).and("userId").nin(userIds)));
+            for (CalendarEntry entry : entries) {
+                bulk.replaceOne(new Query(Criteria.where("_id").is(entry.getId())), entry,
+                        FindAndReplaceOptions.options().upsert());
+            }
+        });
+        bulk.execute();
+    }
+
+    public void upsert(CalendarEntry entry) {
+        mongoTemplate.save(entry);
+    }
+
+    public void remove(String id) {
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(id)), CalendarEntry.class);
+    }
+
+    public void removeSources(Collection<String> sourceIds) {
+        if (sourceIds.isEmpty()) return;
+        mongoTemplate.remove(new Query(Criteria.where("sourceId").in(sourceIds)), CalendarEntry.class);
+    }
+
+    /** Entries of {@code userId} dated {@code [from, to]}, oldest first. */
+    public List<CalendarEntry> findForUser(String userId, LocalDate from, LocalDate to) {
+        Query query = new Query(Criteria.where("userId").is(userId).and("date").gte(from).lte(to))
+                .with(Sort.by(Sort.Direction.ASC, "date"));
+        return mongoTemplate.find(query, CalendarEntry.class);
+    }
+
+    /** Refreshes the training snapshot of every entry linked to {@code trainingId}. */
+    public void setTraining(String trainingId, TrainingInfo training) {
+        mongoTemplate.updateMulti(new Query(Criteria.where("trainingId").is(trainingId)),
+                new Update().set("training", training), CalendarEntry.class);
+    }
+
+    /**
+     * Refreshes only the estimate fields of the training snapshots, one bulk for all
+     * {@code trainings}; title, type and sport are left to {@link #setTraining}.
+     */
+    public void setTrainingEstimates(Collection<Training> trainings) {
+        if (trainings.isEmpty()) return;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CalendarEntry.class);
+        for (Training t : trainings) {
+            bulk.updateMulti(new Query(Criteria.where("trainingId").is(t.getId()).and("training").ne(null)),
+                    new Update()
+                            .set("training.estimatedTss", t.getEstimatedTss())
+                            .set("training.estimatedIf", t.getEstimatedIf())
+                            .set("training.durationSeconds", t.getEstimatedDurationSeconds()));
+        }
+        bulk.execute();
+    }
+
+    public void clearTrainings(Collection<String> trainingIds) {
+        if (trainingIds.isEmpty()) return;
+        mongoTemplate.updateMulti(new Query(Criteria.where("trainingId").in(trainingIds)),
+                new Update().unset("training"), CalendarEntry.class);
+    }
+
+    /**
+     * Sets the plan week of the workouts {@code planId} lists, and clears it on the plan's
+     * workouts it no longer lists.
+     */
+    public void setPlan(String planId, Map<String, PlanInfo> planInfoBySource) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CalendarEntry.class);
+        bulk.updateMulti(new Query(Criteria.where("scheduledPlanId").is(planId)
+                        .and("sourceId").nin(planInfoBySource.keySet())),
+                new Update().unset("plan"));
+        planInfoBySource.forEach((sourceId, info) -> bulk.updateMulti(
+                new Query(Criteria.where("scheduledPlanId").is(planId).and("sourceId").is(sourceId)),
+                new Update().set("plan", info)));
+        bulk.execute();
+    }
+
+    public void clearPlans(Collection<String> planIds) {
+        if (planIds.isEmpty()) return;
+        mongoTemplate.updateMulti(new Query(Criteria.where("scheduledPlanId").in(planIds)),
+                new Update().unset("plan"), CalendarEntry.class);
+    }
+
+    /** {@code null} clears the name (club deleted). */
+    public void setClubName(Collection<String> clubIds, String name) {
+        if (clubIds.isEmpty()) return;
+        mongoTemplate.updateMulti(new Query(Criteria.where("clubId").in(clubIds)),
+                new Update().set("clubName", name), CalendarEntry.class);
+    }
+
+    /** Refreshes the group name and which participants belong to the group. */
+    public void setGroup(String groupId, String name, Set<String> memberIds) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CalendarEntry.class);
+        bulk.updateMulti(new Query(Criteria.where("clubGroupId").is(groupId).and("userId").in(memberIds)),
+                new Update().set("clubGroupName", name).set("groupMember", true));
+        bulk.updateMulti(new Query(Criteria.where("clubGroupId").is(groupId).and("userId").nin(memberIds)),
+                new Update().set("clubGroupName", name).set("groupMember", false));
+        bulk.execute();
+    }
+
+    /** Hides the sessions of deleted groups, as a session pointing at a missing group is hidden. */
+    public void clearGroups(Collection<String> groupIds) {
+        if (groupIds.isEmpty()) return;
+        mongoTemplate.updateMulti(new Query(Criteria.where("clubGroupId").in(groupIds)),
+                new Update().set("clubGroupName", null).set("groupMember", false), CalendarEntry.class);
+    }
+
+    public void setMemberActive(String clubId, String userId, boolean active) {
+        mongoTemplate.updateMulti(new Query(Criteria.where("userId").is(userId).and("clubId").is(clubId)),
+                new Update().set("memberActive", active), CalendarEntry.class);
+    }
+}
@@ -0,0 +1,132 @@
+package com.koval.trainingplannerbackend.coach.calendar;
+
+import com.koval.trainingplannerbackend.club.Club;
+import com.koval.trainingplannerbackend.club.group.ClubGroup;
+import com.koval.trainingplannerbackend.club.membership.ClubMembership;
+import com.koval.trainingplannerbackend.club.session.ClubTrainingSession;
+import com.koval.trainingplannerbackend.coach.ScheduledWorkout;
+import com.koval.trainingplannerbackend.plan.TrainingPlan;
+import com.koval.trainingplannerbackend.training.model.Training;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps {@link CalendarEntry calendar entries} in step with their sources by hooking the mapping
+ * events, so every writer (coach assignment, plan activation, session association, AI tools,
+ * cleanup jobs) is covered without touching each call site.
+ *
+ * <ul>
+ *   <li>scheduled workout / club session saved: its entries are re-projected;</li>
+ *   <li>training, plan, club, group or membership saved: the snapshot it owns is {@code $set}
+ *       on the entries that reference it;</li>
+ *   <li>delete: the matched documents are read before removal, then their entries are removed or
+ *       their snapshot cleared.</li>
+ * </ul>
+ *
+ * Participation changes are atomic {@code findAndModify}s that raise no save event, so
+ * {@code SessionParticipationService} projects those sessions itself. Projection failures are
+ * logged and never fail the source write; {@link CalendarReconciler} repairs the entries they
+ * leave stale on its nightly pass.
+ */
+@Component
+public class CalendarProjectionListener extends AbstractMongoEventListener<Object> {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarProjectionListener.class);
+
+    private static final List<Class<?>> TRACKED = List.of(ScheduledWorkout.class, ClubTrainingSession.class,
+            Training.class, TrainingPlan.class, Club.class, ClubGroup.class, ClubMembership.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final CalendarProjector projector;
+
+    // Before/after events of one delete run on the calling thread, so the matched documents are handed over here.
+    private final ThreadLocal<List<Document>> pendingRemovals = ThreadLocal.withInitial(ArrayList::new);
+
+    public CalendarProjectionListener(MongoTemplate mongoTemplate, CalendarProjector projector) {
+        this.mongoTemplate = mongoTemplate;
+        this.projector = projector;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        try {
+            switch (event.getSource()) {
+                case ScheduledWorkout workout -> projector.projectWorkouts(List.of(workout));
+                case ClubTrainingSession session -> projector.projectClubSessions(List.of(session));
+                case Training training -> projector.trainingChanged(training);
+                case TrainingPlan plan -> projector.planChanged(plan);
+                case Club club -> projector.clubChanged(club);
+                case ClubGroup group -> projector.groupChanged(group);
+                case ClubMembership membership -> projector.membershipChanged(membership);
+                default -> { }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to update calendar entries after saving {}: {}",
+                    event.getSource().getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onBeforeDelete(BeforeDeleteEvent<Object> event) {
+        if (tracked(event.getType()) == null) return;
+        List<Document> removals = pendingRemovals.get();
+        removals.clear();
+        try {
+            Query query = new BasicQuery(event.getDocument());
+            query.fields().include("_id", "clubId", "userId");
+            removals.addAll(mongoTemplate.find(query, Document.class, event.getCollectionName()));
+        } catch (RuntimeException e) {
+            log.warn("Could not read {} being deleted for calendar entries: {}", event.getCollectionName(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        List<Document> removals = pendingRemovals.get();
+        Class<?> type = tracked(event.getType());
+        if (type == null || removals.isEmpty()) return;
+        try {
+            List<String> ids = removals.stream().map(d -> String.valueOf(d.get("_id"))).toList();
+            if (type == ScheduledWorkout.class || type == ClubTrainingSession.class) {
+                projector.removeSources(ids);
+            } else if (type == Training.class) {
+                projector.trainingsDeleted(ids);
+            } else if (type == TrainingPlan.class) {
+                projector.plansDeleted(ids);
+            } else if (type == Club.class) {
+                projector.clubsDeleted(ids);
+            } else if (type == ClubGroup.class) {
+                projector.groupsDeleted(ids);
+            } else if (type == ClubMembership.class) {
+                projector.membershipsDeleted(removals.stream().map(d -> {
+                    ClubMembership m = new ClubMembership();
+                    m.setClubId(d.getString("clubId"));
+                    m.setUserId(d.getString("userId"));
+                    return m;
+                }).toList());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to update calendar entries after {} delete: {}", event.getCollectionName(), e.getMessage());
+        } finally {
+            removals.clear();
+        }
+    }
+
+    /** The tracked source type {@code type} is (or extends, for training subclasses), else {@code null}. */
+    private static Class<?> tracked(Class<?> type) {
+        if (type == null) return null;
+        return TRACKED.stream().filter(t -> t.isAssignableFrom(type)).findFirst().orElse(null);
+    }
+}
@@ -0,0 +1,271 @@
+package com.koval.trainingplannerbackend.coach.calendar;
+
+import com.koval.trainingplannerbackend.club.Club;
+import com.koval.trainingplannerbackend.club.ClubRepository;
+import com.koval.trainingplannerbackend.club.group.ClubGroup;
+import com.koval.trainingplannerbackend.club.group.ClubGroupRepository;
+import com.koval.trainingplannerbackend.club.membership.ClubMemberStatus;
+import com.koval.trainingplannerbackend.club.membership.ClubMembership;
+import com.koval.trainingplannerbackend.club.membership.ClubMembershipRepository;
+import com.koval.trainingplannerbackend.club.session.ClubTrainingSession;
+import com.koval.trainingplannerbackend.coach.ScheduleStatus;
+import com.koval.trainingplannerbackend.coach.ScheduledWorkout;
+import com.koval.trainingplannerbackend.coach.calendar.CalendarEntry.PlanInfo;
+import com.koval.trainingplannerbackend.coach.calendar.CalendarEntry.TrainingInfo;
+import com.koval.trainingplannerbackend.plan.PlanDay;
+import com.koval.trainingplannerbackend.plan.PlanWeek;
+import com.koval.trainingplannerbackend.plan.TrainingPlan;
+import com.koval.trainingplannerbackend.plan.TrainingPlanRepository;
+import com.koval.trainingplannerbackend.training.TrainingRepository;
+import com.koval.trainingplannerbackend.training.model.Training;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Builds {@link CalendarEntry calendar entries} from their sources and keeps the shared
+ * snapshots (training, plan week, club, group, membership) up to date. Called by
+ * {@link CalendarProjectionListener} for repository writes, by {@link CalendarReconciler}, and by
+ * the services whose atomic updates bypass the mapping events (session participation).
+ */
+@Component
+public class CalendarProjector {
+
+    private final CalendarEntryRepository entries;
+    private final TrainingRepository trainingRepository;
+    private final TrainingPlanRepository planRepository;
+    private final ClubRepository clubRepository;
+    private final ClubGroupRepository clubGroupRepository;
+    private final ClubMembershipRepository clubMembershipRepository;
+
+    public CalendarProjector(CalendarEntryRepository entries,
+                             TrainingRepository trainingRepository,
+                             TrainingPlanRepository planRepository,
+                             ClubRepository clubRepository,
+                             ClubGroupRepository clubGroupRepository,
+                             ClubMembershipRepository clubMembershipRepository) {
+        this.entries = entries;
+        this.trainingRepository = trainingRepository;
+        this.planRepository = planRepository;
+        this.clubRepository = clubRepository;
+        this.clubGroupRepository = clubGroupRepository;
+        this.clubMembershipRepository = clubMembershipRepository;
+    }
+
+    /** Re-projects scheduled workouts, with one training and one plan lookup per distinct id. */
+    public void projectWorkouts(Collection<ScheduledWorkout> workouts) {
+        if (workouts.isEmpty()) return;
+
+        Map<String, Training> trainings = trainingsById(workouts.stream().map(ScheduledWorkout::getTrainingId));
+        List<String> planIds = workouts.stream().map(ScheduledWorkout::getPlanId)
+                .filter(Objects::nonNull).distinct().toList();
+        Map<String, PlanInfo> planWeeks = new HashMap<>();
+        if (!planIds.isEmpty()) {
+            planRepository.findAllById(planIds).forEach(plan -> planWeeks.putAll(planWeeks(plan)));
+        }
+
+        Map<String, List<CalendarEntry>> bySource = new LinkedHashMap<>();
+        for (ScheduledWorkout sw : workouts) {
+            if (sw.getAthleteId() == null || sw.getScheduledDate() == null) {
+                bySource.put(sw.getId(), List.of());
+                continue;
+            }
+            PlanInfo plan = Optional.ofNullable(planWeeks.get(sw.getId()))
+                    .filter(p -> p.planId().equals(sw.getPlanId()))
+                    .orElse(null);
+            bySource.put(sw.getId(), List.of(workoutEntry(sw, trainings.get(sw.getTrainingId()), plan)));
+        }
+        entries.replaceAll(bySource);
+    }
+
+    /** Re-projects club sessions: one entry per participant, hidden if not an active member of the club (or group). */
+    public void projectClubSessions(Collection<ClubTrainingSession> sessions) {
+        if (sessions.isEmpty()) return;
+
+        Map<String, Training> trainings = trainingsById(sessions.stream().map(ClubTrainingSession::getLinkedTrainingId));
+        Map<String, String> clubNames = new HashMap<>();
+        clubRepository.findAllById(sessions.stream().map(ClubTrainingSession::getClubId)
+                .filter(Objects::nonNull).distinct().toList()).forEach(c -> clubNames.put(c.getId(), c.getName()));
+        Map<String, ClubGroup> groups = clubGroupRepository.findAllById(sessions.stream()
+                        .map(ClubTrainingSession::getClubGroupId).filter(CalendarProjector::hasText).distinct().toList()).stream()
+                .collect(Collectors.toMap(ClubGroup::getId, Function.identity()));
+
+        Map<String, List<CalendarEntry>> bySource = new LinkedHashMap<>();
+        for (ClubTrainingSession session : sessions) {
+            List<CalendarEntry> sessionEntries = new ArrayList<>();
+            if (session.getScheduledAt() != null && !session.getParticipantIds().isEmpty()) {
+                Set<String> activeMembers = clubMembershipRepository
+                        .findByClubIdAndUserIdIn(session.getClubId(), session.getParticipantIds()).stream()
+                        .filter(m -> m.getStatus() == ClubMemberStatus.ACTIVE)
+                        .map(ClubMembership::getUserId)
+                        .collect(Collectors.toSet());
+                ClubGroup group = hasText(session.getClubGroupId()) ? groups.get(session.getClubGroupId()) : null;
+                for (String userId : session.getParticipantIds()) {
+                    CalendarEntry entry = clubSessionEntry(session, userId,
+                            trainings.get(session.getLinkedTrainingId()), clubNames.get(session.getClubId()), group);
+                    entry.setMemberActive(activeMembers.contains(userId));
+                    sessionEntries.add(entry);
+                }
+            }
+            bySource.put(session.getId(), sessionEntries);
+        }
+        entries.replaceAll(bySource);
+    }
+
+    /**
+     * Adds {@code userId}'s entry for a session they just joined. Unlike {@link #projectClubSessions},
+     * only that participant's entry is written, so concurrent joins projecting their own snapshot of
+     * the session cannot drop each other's entries.
+     */
+    public void participantJoined(ClubTrainingSession session, String userId) {
+        if (session.getScheduledAt() == null) return;
+        Training linked = Optional.ofNullable(session.getLinkedTrainingId())
+                .flatMap(trainingRepository::findById).orElse(null);
+        String clubName = clubRepository.findById(session.getClubId()).map(Club::getName).orElse(null);
+        ClubGroup group = hasText(session.getClubGroupId())
+                ? clubGroupRepository.findById(session.getClubGroupId()).orElse(null) : null;
+        CalendarEntry entry = clubSessionEntry(session, userId, linked, clubName, group);
+        entry.setMemberActive(clubMembershipRepository.findByClubIdAndUserId(session.getClubId(), userId)
+                .map(m -> m.getStatus() == ClubMemberStatus.ACTIVE).orElse(false));
+        entries.upsert(entry);
+    }
+
+    public void participantLeft(String sessionId, String userId) {
+        entries.remove(CalendarEntry.idOf(userId, sessionId));
+    }
+
+    public void removeSources(Collection<String> sourceIds) {
+        entries.removeSources(sourceIds);
+    }
+
+    public void trainingChanged(Training training) {
+        entries.setTraining(training.getId(), TrainingInfo.of(training));
+    }
+
+    /** Estimates written back to {@code trainings} without a save; the rest of their snapshot is unchanged. */
+    public void trainingEstimatesChanged(Collection<Training> trainings) {
+        entries.setTrainingEstimates(trainings);
+    }
+
+    public void trainingsDeleted(Collection<String> trainingIds) {
+        entries.clearTrainings(trainingIds);
+    }
+
+    public void planChanged(TrainingPlan plan) {
+        entries.setPlan(plan.getId(), planWeeks(plan));
+    }
+
+    public void plansDeleted(Collection<String> planIds) {
+        entries.clearPlans(planIds);
+    }
+
+    public void clubChanged(Club club) {
+        entries.setClubName(List.of(club.getId()), club.getName());
+    }
+
+    public void clubsDeleted(Collection<String> clubIds) {
+        entries.setClubName(clubIds, null);
+    }
+
+    public void groupChanged(ClubGroup group) {
+        entries.setGroup(group.getId(), group.getName(), Set.copyOf(group.getMemberIds()));
+    }
+
+    public void groupsDeleted(Collection<String> groupIds) {
+        entries.clearGroups(groupIds);
+    }
+
+    public void membershipChanged(ClubMembership membership) {
+        entries.setMemberActive(membership.getClubId(), membership.getUserId(),
+                membership.getStatus() == ClubMemberStatus.ACTIVE);
+    }
+
+    public void membershipsDeleted(Collection<ClubMembership> memberships) {
+        for (ClubMembership m : memberships) {
+            entries.setMemberActive(m.getClubId(), m.getUserId(), false);
+        }
+    }
+
+    static CalendarEntry workoutEntry(ScheduledWorkout sw, Training training, PlanInfo plan) {
+        CalendarEntry entry = new CalendarEntry();
+        entry.setId(CalendarEntry.idOf(sw.getAthleteId(), sw.getId()));
+        entry.setUserId(sw.getAthleteId());
+        entry.setDate(sw.getScheduledDate());
+        entry.setKind(CalendarEntry.Kind.WORKOUT);
+        entry.setSourceId(sw.getId());
+        entry.setTrainingId(sw.getTrainingId());
+        entry.setAssignedBy(sw.getAssignedBy());
+        entry.setStatus(sw.getStatus());
+        entry.setNotes(sw.getNotes());
+        entry.setTss(sw.getTss());
+        entry.setIntensityFactor(sw.getIntensityFactor());
+        entry.setSessionId(sw.getSessionId());
+        entry.setCompletedAt(sw.getCompletedAt());
+        entry.setCreatedAt(sw.getCreatedAt());
+        entry.setTraining(training != null ? TrainingInfo.of(training) : null);
+        entry.setScheduledPlanId(sw.getPlanId());
+        entry.setPlan(plan);
+        return entry;
+    }
+
+    static CalendarEntry clubSessionEntry(ClubTrainingSession session, String userId, Training linked,
+                                          String clubName, ClubGroup group) {
+        CalendarEntry entry = new CalendarEntry();
+        entry.setId(CalendarEntry.idOf(userId, session.getId()));
+        entry.setUserId(userId);
+        entry.setDate(session.getScheduledAt().toLocalDate());
+        entry.setKind(CalendarEntry.Kind.CLUB_SESSION);
+        entry.setSourceId(session.getId());
+        entry.setTrainingId(session.getLinkedTrainingId());
+        entry.setAssignedBy(session.getResponsibleCoachId());
+        entry.setStatus(ScheduleStatus.PENDING);
+        entry.setNotes(session.getDescription());
+        entry.setCreatedAt(session.getCreatedAt());
+        entry.setTraining(linked != null ? TrainingInfo.of(linked) : null);
+        entry.setClubId(session.getClubId());
+        entry.setClubName(clubName);
+        entry.setClubGroupId(hasText(session.getClubGroupId()) ? session.getClubGroupId() : null);
+        entry.setClubGroupName(group != null ? group.getName() : null);
+        entry.setTitle(session.getTitle());
+        entry.setSport(session.getSport());
+        entry.setDurationSeconds(Optional.ofNullable(session.getDurationMinutes()).map(m -> m * 60).orElse(null));
+        entry.setGroupMember(entry.getClubGroupId() == null
+                || (group != null && group.getMemberIds().contains(userId)));
+        return entry;
+    }
+
+    /** Plan week of every scheduled workout the plan lists, keyed by scheduled workout id. */
+    static Map<String, PlanInfo> planWeeks(TrainingPlan plan) {
+        Map<String, PlanInfo> index = new HashMap<>();
+        for (PlanWeek week : plan.getWeeks()) {
+            for (PlanDay day : week.getDays()) {
+                for (String swId : day.getScheduledWorkoutIds()) {
+                    index.put(swId, new PlanInfo(plan.getId(), plan.getTitle(), week.getWeekNumber(), week.getLabel()));
+                }
+            }
+        }
+        return index;
+    }
+
+    private Map<String, Training> trainingsById(Stream<String> ids) {
+        List<String> trainingIds = ids.filter(Objects::nonNull).distinct().toList();
+        if (trainingIds.isEmpty()) return Map.of();
+        return trainingRepository.findAllById(trainingIds).stream()
+                .collect(Collectors.toMap(Training::getId, Function.identity()));
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,138 @@
+package com.koval.trainingplannerbackend.coach.calendar;
+
+import com.koval.trainingplannerbackend.club.session.ClubTrainingSession;
+import com.koval.trainingplannerbackend.coach.ScheduledWorkout;
+import com.koval.trainingplannerbackend.maintenance.JobLeaseService;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Re-projects {@code calendar_entries} from the scheduled workouts and club sessions, repairing
+ * entries left stale by a projection that failed after its source write (the listener only logs
+ * those). Seeds the read model at startup the first time it is deployed, then runs nightly; each
+ * run takes a {@link JobLeaseService} lease so only one instance does the work. Entries whose
+ * source no longer exists are removed. Cost: one streamed pass over each source plus one bulk
+ * write (and one lookup per referenced training, plan, club and group) per {@value #BATCH_SIZE}
+ * documents, then one streamed pass over the entries' source ids.
+ */
+@Component
+class CalendarReconciler implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarReconciler.class);
+    private static final String SEED_LEASE_ID = "calendar-entries-backfill";
+    private static final String LEASE_PREFIX = "calendar-entries-reconcile:";
+    private static final int BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final CalendarProjector projector;
+    private final CalendarEntryRepository entries;
+    private final JobLeaseService jobLeaseService;
+
+    CalendarReconciler(MongoTemplate mongoTemplate, CalendarProjector projector, CalendarEntryRepository entries,
+                       JobLeaseService jobLeaseService) {
+        this.mongoTemplate = mongoTemplate;
+        this.projector = projector;
+        this.entries = entries;
+        this.jobLeaseService = jobLeaseService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        runUnderLease(SEED_LEASE_ID);
+    }
+
+    @Scheduled(cron = "${calendar.entries.reconcileCron:0 15 4 * * *}")
+    public void reconcileNightly() {
+        runUnderLease(LEASE_PREFIX + LocalDate.now());
+    }
+
+    private void runUnderLease(String leaseId) {
+        if (!jobLeaseService.tryAcquire(leaseId, Duration.ofHours(1))) return;
+
+        Set<String> sourceIds = new HashSet<>();
+        long workouts = project(ScheduledWorkout.class, ScheduledWorkout::getId, projector::projectWorkouts, sourceIds);
+        long sessions = project(ClubTrainingSession.class, ClubTrainingSession::getId,
+                projector::projectClubSessions, sourceIds);
+        int orphans = removeOrphans(sourceIds);
+        jobLeaseService.complete(leaseId);
+        if (workouts + sessions + orphans > 0) {
+            log.info("CalendarReconciler: projected {} scheduled workout(s) and {} club session(s), removed entries of {} deleted source(s).",
+                    workouts, sessions, orphans);
+        }
+    }
+
+    private <T> long project(Class<T> type, Function<T, String> id, Consumer<List<T>> projection,
+                             Set<String> sourceIds) {
+        List<T> batch = new ArrayList<>(BATCH_SIZE);
+        long projected = 0;
+        try (Stream<T> sources = mongoTemplate.stream(new Query().cursorBatchSize(BATCH_SIZE), type)) {
+            for (T source : (Iterable<T>) sources::iterator) {
+                sourceIds.add(id.apply(source));
+                batch.add(source);
+                if (batch.size() >= BATCH_SIZE) {
+                    projection.accept(batch);
+                    projected += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        projection.accept(batch);
+        return projected + batch.size();
+    }
+
+    /**
+     * Removes the entries of sources missing from {@code seen}, re-checking that they are really
+     * gone so a source created while the pass ran keeps its entries.
+     */
+    private int removeOrphans(Set<String> seen) {
+        Query query = new Query().cursorBatchSize(BATCH_SIZE);
+        query.fields().include("sourceId");
+        Set<String> candidates = new HashSet<>();
+        try (Stream<Document> all = mongoTemplate.stream(query, Document.class,
+                mongoTemplate.getCollectionName(CalendarEntry.class))) {
+            all.map(d -> d.getString("sourceId")).filter(id -> id != null && !seen.contains(id))
+                    .forEach(candidates::add);
+        }
+        if (candidates.isEmpty()) return 0;
+
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        int removed = 0;
+        for (String sourceId : candidates) {
+            batch.add(sourceId);
+            if (batch.size() >= BATCH_SIZE) {
+                removed += removeMissing(batch);
+                batch.clear();
+            }
+        }
+        return removed + removeMissing(batch);
+    }
+
+    private int removeMissing(List<String> sourceIds) {
+        if (sourceIds.isEmpty()) return 0;
+        Set<String> missing = new HashSet<>(sourceIds);
+        for (Class<?> type : List.of(ScheduledWorkout.class, ClubTrainingSession.class)) {
+            mongoTemplate.findDistinct(new Query(Criteria.where("_id").in(sourceIds)), "_id", type, Object.class)
+                    .forEach(id -> missing.remove(String.valueOf(id)));
+        }
+        entries.removeSources(missing);
+        return missing.size();
+    }
+}
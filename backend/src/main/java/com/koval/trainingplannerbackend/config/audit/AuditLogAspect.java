@@ -8,27 +8,28 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
 
 /**
  * AOP aspect that intercepts methods annotated with {@link AuditLog}
- * and (a) logs structured audit entries to the AUDIT logger and (b) persists
- * an {@link AuditEntry} document for later querying.
+ * and (a) logs structured audit entries to the AUDIT logger and (b) hands
+ * an {@link AuditEntry} document to the {@link AuditSink}, which persists it
+ * in batches off the request path.
  */
 @Aspect
 @Component
 public class AuditLogAspect {
 
     private static final Logger audit = LoggerFactory.getLogger("AUDIT");
-    private static final ObjectMapper mapper = new ObjectMapper();
 
-    private final AuditEntryRepository auditEntryRepository;
+    private final AuditSink auditSink;
+    private final ObjectMapper mapper;
 
-    public AuditLogAspect(AuditEntryRepository auditEntryRepository) {
-        this.auditEntryRepository = auditEntryRepository;
+    public AuditLogAspect(AuditSink auditSink, ObjectMapper objectMapper) {
+        this.auditSink = auditSink;
+        this.mapper = objectMapper;
     }
 
     @Around("@annotation(auditLog)")
@@ -50,20 +51,19 @@ public class AuditLogAspect {
             long durationMs = (System.nanoTime() - start) / 1_000_000;
             audit.info("action={} user={} method={} status=OK durationMs={} timestamp={}",
                     action, userId, method, durationMs, timestamp);
-            persistAsync(action, userId, method, joinPoint.getArgs(), durationMs, true, null);
+            enqueue(action, userId, method, joinPoint.getArgs(), durationMs, true, null);
             return result;
         } catch (Throwable ex) {
             long durationMs = (System.nanoTime() - start) / 1_000_000;
             audit.warn("action={} user={} method={} status=FAILED error={} durationMs={} timestamp={}",
                     action, userId, method, ex.getMessage(), durationMs, timestamp);
-            persistAsync(action, userId, method, joinPoint.getArgs(), durationMs, false, ex.getMessage());
+            enqueue(action, userId, method, joinPoint.getArgs(), durationMs, false, ex.getMessage());
             throw ex;
         }
     }
 
-    @Async
-    void persistAsync(String action, String userId, String method, Object[] args,
-                      long durationMs, boolean success, String errorMessage) {
+    private void enqueue(String action, String userId, String method, Object[] args,
+                         long durationMs, boolean success, String errorMessage) {
         try {
             AuditEntry entry = new AuditEntry();
             entry.setActorUserId(userId);
@@ -73,10 +73,12 @@ public class AuditLogAspect {
             entry.setDurationMs(durationMs);
             entry.setErrorMessage(errorMessage);
             entry.setArgsJson(serializeArgs(args));
-            auditEntryRepository.save(entry);
+            if (!auditSink.submit(entry)) {
+                audit.debug("Audit buffer full — dropped entry for action={}", action);
+            }
         } catch (Exception e) {
             // Never let audit persistence affect request flow.
-            audit.warn("Failed to persist audit entry for action={}: {}", action, e.getMessage());
+            audit.warn("Failed to enqueue audit entry for action={}: {}", action, e.getMessage());
         }
     }
 
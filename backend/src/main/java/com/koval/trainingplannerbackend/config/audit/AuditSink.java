@@ -0,0 +1,154 @@
+package com.koval.trainingplannerbackend.config.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Off-request-path persistence for {@link AuditEntry}. {@link AuditLogAspect} hands
+ * entries to a bounded {@link AuditRingBuffer}; a single background writer flushes
+ * them with one bulk insert every {@code audit.sink.batch-size} entries or
+ * {@code audit.sink.flush-interval-ms}, whichever comes first. Remaining entries are
+ * flushed on shutdown.
+ *
+ * <p>Under overload the {@code audit.sink.overflow-policy} decides: {@code DROP}
+ * (default) discards the entry immediately, {@code BLOCK} waits up to
+ * {@code audit.sink.block-timeout-ms} for space before dropping. Either way the
+ * request is never failed by auditing. Drops are counted in
+ * {@code koval.audit.entries{outcome=dropped}}.
+ */
+@Component
+public class AuditSink {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditSink.class);
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    private final AuditEntryRepository auditEntryRepository;
+    private final AuditRingBuffer<AuditEntry> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditSink(AuditEntryRepository auditEntryRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${audit.sink.capacity:8192}") int capacity,
+                     @Value("${audit.sink.batch-size:200}") int batchSize,
+                     @Value("${audit.sink.flush-interval-ms:1000}") long flushIntervalMs,
+                     @Value("${audit.sink.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+                     @Value("${audit.sink.block-timeout-ms:50}") long blockTimeoutMs) {
+        this.auditEntryRepository = auditEntryRepository;
+        this.buffer = new AuditRingBuffer<>(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.writtenCounter = meterRegistry.counter("koval.audit.entries", "outcome", "written");
+        this.droppedCounter = meterRegistry.counter("koval.audit.entries", "outcome", "dropped");
+        this.failedCounter = meterRegistry.counter("koval.audit.entries", "outcome", "failed");
+        meterRegistry.gauge("koval.audit.buffer.size", buffer, AuditRingBuffer::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = Thread.ofPlatform().name("audit-writer").daemon(true).start(this::runWriter);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writer == null) return;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Enqueues an entry without touching the database. Never throws.
+     *
+     * @return false if the entry was dropped because the buffer stayed full
+     */
+    public boolean submit(AuditEntry entry) {
+        if (!buffer.offer(entry) && !awaitSpaceAndOffer(entry)) {
+            droppedCounter.increment();
+            return false;
+        }
+        if (buffer.size() >= batchSize && writer != null) {
+            LockSupport.unpark(writer);
+        }
+        return true;
+    }
+
+    private boolean awaitSpaceAndOffer(AuditEntry entry) {
+        if (overflowPolicy != OverflowPolicy.BLOCK) return false;
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        if (writer != null) LockSupport.unpark(writer);
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+            if (buffer.offer(entry)) return true;
+        }
+        return false;
+    }
+
+    public double droppedCount() {
+        return droppedCounter.count();
+    }
+
+    private void runWriter() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        long lastFlush = System.nanoTime();
+        while (running) {
+            buffer.drainTo(batch, batchSize - batch.size());
+            boolean intervalElapsed = System.nanoTime() - lastFlush >= flushIntervalNanos;
+            if (batch.size() >= batchSize || (intervalElapsed && !batch.isEmpty())) {
+                flush(batch);
+                lastFlush = System.nanoTime();
+            } else if (intervalElapsed) {
+                lastFlush = System.nanoTime();
+            } else {
+                LockSupport.parkNanos(flushIntervalNanos - (System.nanoTime() - lastFlush));
+            }
+        }
+        // Shutdown: drain whatever is left, batch by batch.
+        do {
+            buffer.drainTo(batch, batchSize - batch.size());
+            flush(batch);
+        } while (buffer.size() > 0);
+    }
+
+    void flush(List<AuditEntry> batch) {
+        if (batch.isEmpty()) return;
+        try {
+            auditEntryRepository.insert(batch);
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            // Never let audit persistence affect request flow — the AUDIT log line is the fallback.
+            failedCounter.increment(batch.size());
+            log.warn("Failed to persist {} audit entries: {}", batch.size(), e.getMessage());
+        } finally {
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.koval.trainingplannerbackend.maintenance;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Cross-instance lease for a unit of scheduled work (e.g. one shard of one reminder
+ * slot). Owned by whichever instance wins the conditional upsert in
+ * {@link JobLeaseService}; {@code completedAt} marks the unit as done so no other
+ * instance picks it up after the lease expires.
+ */
+@Getter
+@Setter
+@Document(collection = "job_leases")
+public class JobLease {
+
+    @Id
+    private String id;
+
+    private String owner;
+
+    private Instant expiresAt;
+
+    private Instant completedAt;
+
+    // Leases are only meaningful for the slot they guard — let Mongo reap them after two days.
+    @Indexed(expireAfterSeconds = 172_800)
+    private Instant createdAt;
+}
@@ -0,0 +1,64 @@
+package com.koval.trainingplannerbackend.maintenance;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Mongo-backed leases so several backend instances can split scheduled work without
+ * a coordinator. Acquisition is a single {@code findAndModify} upsert guarded by
+ * "not completed and expired": when another instance holds a live lease the upsert
+ * collides on {@code _id} and the acquire simply returns false.
+ */
+@Component
+public class JobLeaseService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobLeaseService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public JobLeaseService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * @return true if this instance now owns {@code leaseId} for {@code ttl}
+     */
+    public boolean tryAcquire(String leaseId, Duration ttl) {
+        Instant now = Instant.now();
+        Query query = new Query(Criteria.where("_id").is(leaseId)
+                .and("completedAt").is(null)
+                .and("expiresAt").lt(now));
+        Update update = new Update()
+                .set("owner", instanceId)
+                .set("expiresAt", now.plus(ttl))
+                .setOnInsert("createdAt", now);
+        try {
+            JobLease lease = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), JobLease.class);
+            return lease != null && instanceId.equals(lease.getOwner());
+        } catch (DuplicateKeyException e) {
+            log.debug("Lease {} held by another instance", leaseId);
+            return false;
+        }
+    }
+
+    /** Marks the lease done so it is never re-acquired, even after expiry. */
+    public void complete(String leaseId) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(leaseId).and("owner").is(instanceId)),
+                new Update().set("completedAt", Instant.now()),
+                JobLease.class);
+    }
+}
@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.mcp;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.coach.ScheduleStatus;
 import com.koval.trainingplannerbackend.coach.ScheduledWorkout;
@@ -57,6 +58,7 @@ public class McpAnalyticsTools {
         this.trainingRepository = trainingRepository;
     }
 
+    @ReadOnlyTool
     @Tool(description = "Render a Markdown power curve report (bar chart of best mean-maximal watts at each standard duration: 5s, 15s, 30s, 1m, 2m, 5m, 10m, 20m, 30m, 1h, 1.5h, 2h) for the user's cycling sessions in a date range. Output is a fenced code block with unicode block bars — drop directly into a chat reply.")
     public String renderPowerCurveReport(
             @ToolParam(description = "Start date inclusive (YYYY-MM-DD)") LocalDate from,
@@ -73,6 +75,7 @@ public class McpAnalyticsTools {
                 "Best power curve " + from + " → " + to, rows, 30, "W");
     }
 
+    @ReadOnlyTool
     @Tool(description = "Render a Markdown PMC (Performance Management Chart) report: a unicode sparkline of CTL (fitness) over the date range plus a table with current CTL/ATL/TSB and a one-line interpretation of the user's form (fresh, neutral, fatigued, overreached).")
     public String renderPmcReport(
             @ToolParam(description = "Start date inclusive (YYYY-MM-DD)") LocalDate from,
@@ -104,6 +107,7 @@ public class McpAnalyticsTools {
         return sb.toString();
     }
 
+    @ReadOnlyTool
     @Tool(description = "Render a Markdown training volume report: a bar chart of total TSS per week or month over the date range. Use groupBy='week' or 'month'.")
     public String renderVolumeReport(
             @ToolParam(description = "Start date inclusive (YYYY-MM-DD)") LocalDate from,
@@ -122,6 +126,7 @@ public class McpAnalyticsTools {
                 rows, 30, "TSS");
     }
 
+    @ReadOnlyTool
     @Tool(description = "Render the user's scheduled workouts for a given week as a 7-day Markdown calendar grid (Mon-Sun). Each day shows the resolved training title plus the workout's status (PENDING / COMPLETED / SKIPPED).")
     public String renderWeekSchedule(
             @ToolParam(description = "Monday of the week to render (YYYY-MM-DD). If a non-Monday is given, the renderer rolls back to the preceding Monday.") LocalDate weekStart) {
@@ -147,6 +152,7 @@ public class McpAnalyticsTools {
         return sb.toString();
     }
 
+    @ReadOnlyTool
     @Tool(description = "Render a single completed session as a Markdown card: title, sport, duration, average power/HR, TSS/IF, RPE, total distance, the per-block breakdown, and (for cycling) a power curve bar chart from that session's FIT file. The power curve is computed lazily on first call.")
     public String renderSessionSummary(
             @ToolParam(description = "Completed session ID") String sessionId) {
@@ -198,6 +204,7 @@ public class McpAnalyticsTools {
         return sb.toString();
     }
 
+    @ReadOnlyTool
     @Tool(description = "Render a Fatigue Resistance Index (FRI) report: the ratio of 60-minute best power to 5-minute best power from the power curve. FRI indicates how well an athlete sustains power over long durations — crucial for long-course triathlon. Typical range: 0.65-0.85. Values above 0.80 indicate excellent fatigue resistance. Requires maximal efforts at both durations (rejects flat/Z2-only curves).")
     public String renderFriReport(
             @ToolParam(description = "Start date inclusive (YYYY-MM-DD)") LocalDate from,
@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.mcp;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.club.test.ClubTest;
 import com.koval.trainingplannerbackend.club.test.ClubTestIteration;
@@ -59,6 +60,7 @@ public class McpClubTestTools {
         return ClubTestSummary.from(created);
     }
 
+    @ReadOnlyTool
     @Tool(description = "List club tests for a club. Returns id, name, segment count, current iteration label.")
     public Object listClubTests(
             @ToolParam(description = "Club ID") String clubId,
@@ -124,6 +126,7 @@ public class McpClubTestTools {
         return TestResultSummary.from(saved);
     }
 
+    @ReadOnlyTool
     @Tool(description = "Return the current user's history for one club test (all iterations, ordered most-recent first).")
     public Object getMyTestHistory(
             @ToolParam(description = "Club ID") String clubId,
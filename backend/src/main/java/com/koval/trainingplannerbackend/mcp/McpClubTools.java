@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.mcp;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.club.ClubService;
 import com.koval.trainingplannerbackend.club.dto.ClubDetailResponse;
@@ -75,6 +76,7 @@ public class McpClubTools {
     private static final int MAX_SESSION_WINDOW_DAYS = 180;
     private static final int MAX_MEMBER_LIST_SIZE = 200;
 
+    @ReadOnlyTool
     @Tool(description = "List club training sessions in a date range. Returns scheduled group workouts with title, sport, date/time, and participant info. The window is capped at 180 days; pass a tighter range for large clubs to avoid noisy results.")
     public Object listClubSessions(
             @ToolParam(description = "Club ID") String clubId,
@@ -151,6 +153,7 @@ public class McpClubTools {
         return "Session cancelled.";
     }
 
+    @ReadOnlyTool
     @Tool(description = "List active club members with their roles (OWNER, ADMIN, COACH, MEMBER). For very large clubs the list is truncated to the first 200 members; ask for a specific name or role if you need more.")
     public Object listClubMembers(
             @ToolParam(description = "Club ID") String clubId) {
@@ -161,6 +164,7 @@ public class McpClubTools {
         return members.subList(0, MAX_MEMBER_LIST_SIZE);
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get full detail of a single club: name, description, location, logo, visibility, member count, owner, and the current user's membership status/role within it.")
     public ClubDetailResponse getClub(
             @ToolParam(description = "Club ID") String clubId) {
@@ -189,6 +193,7 @@ public class McpClubTools {
         return "Left session.";
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get the recent activity feed for a club: pinned events first then chronological. Items include session created/joined, member joined, training shared, etc.")
     public ClubFeedResponse getClubFeed(
             @ToolParam(description = "Club ID") String clubId,
@@ -231,6 +236,7 @@ public class McpClubTools {
         return spotlightService.createSpotlight(userId, clubId, req);
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get per-member engagement insights for a club: comments posted, reactions given, sessions completed, and last activity over a lookback window. Coach/admin only. Use to identify dormant members worth re-engaging.")
     public EngagementInsightsResponse getEngagementInsights(
             @ToolParam(description = "Club ID") String clubId,
@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.mcp;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.auth.User;
 import com.koval.trainingplannerbackend.auth.UserService;
@@ -68,6 +69,7 @@ public class McpCoachTools {
         this.coachNoteService = coachNoteService;
     }
 
+    @ReadOnlyTool
     @Tool(description = "List all athletes coached by the current user. Returns athlete profiles with FTP, weight, and performance metrics. Requires COACH role.")
     public List<AthleteResponse> listAthletes() {
         String coachId = SecurityUtils.getCurrentUserId();
@@ -93,6 +95,7 @@ public class McpCoachTools {
                 .toList();
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get a specific athlete's scheduled workouts within a date range. Requires COACH role.")
     public List<McpSchedulingTools.ScheduleSummary> getAthleteSchedule(
             @ToolParam(description = "Athlete ID") String athleteId,
@@ -106,6 +109,7 @@ public class McpCoachTools {
                 .toList();
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get a coached athlete's profile: name, FTP, weight, threshold pace, swim CSS, and current training load (CTL/ATL/TSB). Requires the current user to be the athlete's coach.")
     public AthleteProfile getAthleteProfile(
             @ToolParam(description = "Athlete user ID") String athleteId) {
@@ -115,6 +119,7 @@ public class McpCoachTools {
         return AthleteProfile.from(u);
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get a coached athlete's most recent completed sessions. Requires COACH relationship to the athlete.")
     public List<McpHistoryTools.SessionSummary> getAthleteRecentSessions(
             @ToolParam(description = "Athlete user ID") String athleteId,
@@ -123,12 +128,13 @@ public class McpCoachTools {
         verifyCoach(coachId, athleteId);
         int effectiveLimit = (limit != null && limit > 0) ? Math.min(limit, 50) : 10;
         return sessionRepository
-                .findByUserIdOrderByCompletedAtDesc(athleteId, PageRequest.of(0, effectiveLimit))
+                .findSummariesByUserId(athleteId, PageRequest.of(0, effectiveLimit))
                 .stream()
                 .map(McpHistoryTools.SessionSummary::from)
                 .toList();
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get a coached athlete's PMC (Performance Management Chart) data — daily CTL/ATL/TSB — over a date range. Requires COACH relationship.")
     public List<PmcDataPoint> getAthletePmc(
             @ToolParam(description = "Athlete user ID") String athleteId,
@@ -139,6 +145,7 @@ public class McpCoachTools {
         return analyticsService.generatePmc(athleteId, from, to);
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get a coached athlete's best mean-maximal power curve over a date range (cycling sessions only). Requires COACH relationship.")
     public Map<Integer, Double> getAthletePowerCurve(
             @ToolParam(description = "Athlete user ID") String athleteId,
@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.mcp;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.club.gazette.AutoSection;
 import com.koval.trainingplannerbackend.club.gazette.ClubGazettePublisher;
@@ -43,6 +44,7 @@ public class McpGazetteTools {
         this.publisher = publisher;
     }
 
+    @ReadOnlyTool
     @Tool(description = "List recent gazette editions for a club, including drafts and published issues.")
     public Object listClubGazetteEditions(
             @ToolParam(description = "Club ID") String clubId,
@@ -53,6 +55,7 @@ public class McpGazetteTools {
         return gazetteService.listEditions(userId, clubId, 0, size);
     }
 
+    @ReadOnlyTool
     @Tool(description = "List all open DRAFT gazette editions for a club. Use this to know which edition to publish.")
     public Object listOpenGazetteDrafts(
             @ToolParam(description = "Club ID") String clubId) {
@@ -61,6 +64,7 @@ public class McpGazetteTools {
         return gazetteService.getOpenDrafts(userId, clubId);
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get the full structured payload of a gazette edition: live stats, all draft posts (with author, type, links and photo URLs resolved), and previews of every auto-curated section. Use this BEFORE generating the PDF so you know what is available and can let the admin choose what to include.")
     public Object getGazettePayload(
             @ToolParam(description = "Edition ID") String editionId) {
@@ -69,6 +73,7 @@ public class McpGazetteTools {
         return gazetteService.getPayload(userId, editionId);
     }
 
+    @ReadOnlyTool
     @Tool(description = "Recompute the auto-curated sections (stats, leaderboard, top sessions, milestones, most active members) for an arbitrary period. Useful when the admin wants to adjust the period bounds before publishing.")
     public Object previewGazetteAutoSections(
             @ToolParam(description = "Club ID") String clubId,
@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.mcp;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.goal.RaceGoal;
 import com.koval.trainingplannerbackend.goal.RaceGoalResponse;
@@ -24,6 +25,7 @@ public class McpGoalTools {
         this.raceGoalService = raceGoalService;
     }
 
+    @ReadOnlyTool
     @Tool(description = "List the user's race goals sorted by date. Goals have priority A (main target), B (important), or C (training race). The race date is sourced from the linked race entry.")
     public List<GoalSummary> listGoals() {
         String userId = SecurityUtils.getCurrentUserId();
@@ -32,6 +34,7 @@ public class McpGoalTools {
                 .toList();
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get a single race goal by id, including the linked race details if any.")
     public GoalSummary getGoal(
             @ToolParam(description = "Goal ID") String goalId) {
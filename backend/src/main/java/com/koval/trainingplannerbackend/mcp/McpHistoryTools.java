@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.mcp;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.config.Provenance;
 import com.koval.trainingplannerbackend.training.history.AiAnalysis;
@@ -51,30 +52,33 @@ public class McpHistoryTools {
         this.aiAnalysisService = aiAnalysisService;
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get the user's most recent completed workout sessions. Returns metrics like duration, average power, heart rate, TSS (Training Stress Score), and IF (Intensity Factor).")
     public List<SessionSummary> getRecentSessions(
             @ToolParam(description = "Maximum number of sessions to return (default 10, max 50)") Integer limit) {
         String userId = SecurityUtils.getCurrentUserId();
         int effectiveLimit = (limit != null && limit > 0) ? Math.min(limit, 50) : 10;
         return sessionRepository
-                .findByUserIdOrderByCompletedAtDesc(userId, PageRequest.of(0, effectiveLimit))
+                .findSummariesByUserId(userId, PageRequest.of(0, effectiveLimit))
                 .stream()
                 .map(SessionSummary::from)
                 .toList();
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get completed workout sessions within a specific date range.")
     public List<SessionSummary> getSessionsByDateRange(
             @ToolParam(description = "Start date inclusive (YYYY-MM-DD)") LocalDate from,
             @ToolParam(description = "End date inclusive (YYYY-MM-DD)") LocalDate to) {
         String userId = SecurityUtils.getCurrentUserId();
-        return sessionRepository.findByUserIdAndCompletedAtBetween(
+        return sessionRepository.findSummariesByUserIdAndCompletedAtBetween(
                         userId, LocalDateTime.of(from, LocalTime.MIN), LocalDateTime.of(to, LocalTime.MAX))
                 .stream()
                 .map(SessionSummary::from)
                 .toList();
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get Performance Management Chart (PMC) data for a date range. Returns daily CTL (Chronic Training Load / fitness), ATL (Acute Training Load / fatigue), and TSB (Training Stress Balance / form) values. Useful for analyzing training load progression.")
     public List<PmcDataPoint> getPmcData(
             @ToolParam(description = "Start date (YYYY-MM-DD)") LocalDate from,
@@ -83,6 +87,7 @@ public class McpHistoryTools {
         return analyticsService.generatePmc(userId, from, to);
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get full detail of a single completed session: title, sport, duration, average power/HR/cadence, TSS, IF, RPE, total distance, whether a FIT file is attached, and the per-block summary list. Use this when the user asks 'how was my last ride' or wants a deep dive on a specific session.")
     public SessionDetail getSessionDetail(
             @ToolParam(description = "Completed session ID") String sessionId) {
@@ -92,6 +97,7 @@ public class McpHistoryTools {
         return SessionDetail.from(s);
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get the mean-maximal power curve (best average watts per duration) for a single completed cycling session. Durations are 5s, 15s, 30s, 1m, 2m, 5m, 10m, 20m, 30m, 1h, 1.5h, 2h. Computed lazily from the FIT file on first request, then cached. Returns an empty map for non-cycling sessions or sessions without power data.")
     public Map<Integer, Double> getSessionPowerCurve(
             @ToolParam(description = "Completed session ID") String sessionId) {
@@ -99,6 +105,7 @@ public class McpHistoryTools {
         return powerCurveService.getSessionPowerCurve(sessionId, userId);
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get the user's best mean-maximal power curve across all cycling sessions in a date range. Combines the highest average watts achieved at each standard duration (5s through 2h). Use to spot fitness peaks or compare two periods (e.g. last 30 days vs last 90 days).")
     public Map<Integer, Double> getBestPowerCurve(
             @ToolParam(description = "Start date inclusive (YYYY-MM-DD)") LocalDate from,
@@ -107,12 +114,14 @@ public class McpHistoryTools {
         return powerCurveService.getBestPowerCurve(userId, from, to);
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get the user's all-time personal records — the best average power ever held over each standard duration (5s, 15s, 30s, 1m, 2m, 5m, 10m, 20m, 30m, 1h, 1.5h, 2h).")
     public Map<Integer, Double> getPersonalRecords() {
         String userId = SecurityUtils.getCurrentUserId();
         return powerCurveService.getPersonalRecords(userId);
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get aggregated training volume per week or month: total TSS, total duration in seconds, total distance in meters, and TSS broken down by sport. Use groupBy='week' or 'month'.")
     public List<VolumeEntry> getVolume(
             @ToolParam(description = "Start date inclusive (YYYY-MM-DD)") LocalDate from,
@@ -122,6 +131,7 @@ public class McpHistoryTools {
         return powerCurveService.computeVolume(userId, from, to, groupBy);
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get the per-block breakdown of a completed session: each interval/steady/warmup block with its duration, target power, actual power, average HR and cadence. Useful for analysing structured workout execution quality.")
     public List<BlockSummary> getSessionBlocks(
             @ToolParam(description = "Completed session ID") String sessionId) {
@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.mcp;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.plan.PlanAnalytics;
 import com.koval.trainingplannerbackend.plan.PlanAnalyticsService;
@@ -35,6 +36,7 @@ public class McpPlanTools {
         this.analyticsService = analyticsService;
     }
 
+    @ReadOnlyTool
     @Tool(description = "List all training plans for the user. Training plans are multi-week periodized programs with workouts assigned to specific days. Plans can be DRAFT, ACTIVE, PAUSED, COMPLETED, or CANCELLED.")
     public List<PlanSummary> listPlans() {
         String userId = SecurityUtils.getCurrentUserId();
@@ -127,12 +129,14 @@ public class McpPlanTools {
         return "Plan activated! " + totalWorkouts + " workouts scheduled starting " + activated.getStartDate();
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get progress of a training plan: how many workouts are completed, skipped, or pending.")
     public Object getPlanProgress(
             @ToolParam(description = "Plan ID") String planId) {
         return analyticsService.getProgress(planId);
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get the full structure of a training plan: title, description, sport, status, start date, weeks with their target TSS labels, and the planned workouts per day (training id, day of week, notes).")
     public PlanDetail getPlan(
             @ToolParam(description = "Plan ID") String planId) {
@@ -224,6 +228,7 @@ public class McpPlanTools {
         return PlanSummary.from(planService.clonePlan(planId, newTitle, newStartDate, userId));
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get a summary of the current week of an ACTIVE plan: week number, label, target TSS, planned workouts and how many are completed so far.")
     public CurrentWeekSummary getCurrentWeekSummary(
             @ToolParam(description = "Plan ID") String planId) {
@@ -285,6 +290,7 @@ public class McpPlanTools {
 
     public record DayDetail(String dayOfWeek, List<String> trainingIds, String notes, List<String> scheduledWorkoutIds) {}
 
+    @ReadOnlyTool
     @Tool(description = "Get detailed analytics for a training plan including weekly TSS adherence (actual vs target), completion rates per week, and overall adherence percentage.")
     public PlanAnalytics getPlanAnalytics(
             @ToolParam(description = "Plan ID") String planId) {
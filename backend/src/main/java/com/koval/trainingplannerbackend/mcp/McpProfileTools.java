@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.mcp;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.auth.User;
 import com.koval.trainingplannerbackend.auth.UserService;
@@ -19,6 +20,7 @@ public class McpProfileTools {
         this.userService = userService;
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get the current user's profile. Returns name, role (ATHLETE or COACH), FTP (Functional Threshold Power in watts), weight, running paces, swim CSS, and training load metrics (CTL/ATL/TSB). Use this to understand the user's fitness level and capabilities before creating workouts.")
     public UserProfile getMyProfile() {
         String userId = SecurityUtils.getCurrentUserId();
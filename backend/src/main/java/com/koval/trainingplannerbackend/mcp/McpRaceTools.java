@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.mcp;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.goal.RaceGoal;
 import com.koval.trainingplannerbackend.goal.RaceGoalService;
@@ -26,6 +27,7 @@ public class McpRaceTools {
         this.raceGoalService = raceGoalService;
     }
 
+    @ReadOnlyTool
     @Tool(description = "Search the race catalog by title and/or sport. Returns matching races with dates, locations, and distances.")
     public List<RaceSummary> searchRaces(
             @ToolParam(description = "Search query for race title (optional)") String query,
@@ -80,6 +82,7 @@ public class McpRaceTools {
         }
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get full detail of a single race from the catalog: title, sport, date, location, country, distance, optional discipline distances (swim/bike/run in meters), elevation gain, description and website.")
     public RaceDetail getRace(
             @ToolParam(description = "Race ID") String raceId) {
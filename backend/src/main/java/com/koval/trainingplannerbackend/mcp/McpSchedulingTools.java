@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.mcp;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.coach.CoachService;
 import com.koval.trainingplannerbackend.coach.ScheduledWorkout;
@@ -42,6 +43,7 @@ public class McpSchedulingTools {
         return ScheduleSummary.from(sw, title);
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get your scheduled workouts within a date range. Returns all planned, completed, and skipped workouts for the period.")
     public List<ScheduleSummary> getMySchedule(
             @ToolParam(description = "Start date inclusive (YYYY-MM-DD)") LocalDate from,
@@ -84,6 +86,7 @@ public class McpSchedulingTools {
         return "Scheduled workout removed.";
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get full detail of a single scheduled workout: id, training id, resolved training title, scheduled date, status, notes.")
     public ScheduleSummary getScheduledWorkoutDetail(
             @ToolParam(description = "Scheduled workout ID") String scheduledWorkoutId) {
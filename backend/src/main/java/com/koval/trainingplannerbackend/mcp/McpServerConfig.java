@@ -1,5 +1,7 @@
 package com.koval.trainingplannerbackend.mcp;
 
+import com.koval.trainingplannerbackend.ai.tools.ToolResultCache;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
 import org.springframework.context.annotation.Bean;
@@ -7,7 +9,8 @@ import org.springframework.context.annotation.Configuration;
 
 /**
  * Registers all MCP tool adapters as a ToolCallbackProvider for the
- * Spring AI MCP server auto-configuration.
+ * Spring AI MCP server auto-configuration. Read-only tools are memoised per user
+ * by {@link ToolResultCache}.
  */
 @Configuration
 public class McpServerConfig {
@@ -25,9 +28,10 @@ public class McpServerConfig {
                                          McpRaceTools race,
                                          McpProfileTools profile,
                                          McpAnalyticsTools analytics,
-                                         McpGazetteTools gazette) {
-        return MethodToolCallbackProvider.builder()
-                .toolObjects(training, scheduling, history, coach, zone, plan, goal, club, clubTest, race, profile, analytics, gazette)
-                .build();
+                                         McpGazetteTools gazette,
+                                         ToolResultCache toolResultCache) {
+        Object[] toolObjects = {training, scheduling, history, coach, zone, plan, goal, club, clubTest, race, profile, analytics, gazette};
+        ToolCallback[] callbacks = MethodToolCallbackProvider.builder().toolObjects(toolObjects).build().getToolCallbacks();
+        return ToolCallbackProvider.from(toolResultCache.memoize(callbacks, toolObjects));
     }
 }
@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.mcp;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.training.TrainingAccessService;
 import com.koval.trainingplannerbackend.training.TrainingService;
@@ -39,6 +40,7 @@ public class McpTrainingTools {
         this.mcpTrainingMapper = mcpTrainingMapper;
     }
 
+    @ReadOnlyTool
     @Tool(description = "List the user's training workouts with pagination. Returns summaries including title, type, duration, and sport. Trainings are cycling/running/swimming/triathlon workout plans with structured blocks (warmup, intervals, steady, ramps, cooldown).")
     public List<McpTrainingSummary> listTrainings(
             @ToolParam(description = "Maximum number of trainings to return (default 15)") Integer limit,
@@ -53,6 +55,7 @@ public class McpTrainingTools {
                 .toList();
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get full details of a specific training workout by its ID. Returns the complete workout structure with all blocks, durations, intensities, and metadata.")
     public Training getTraining(
             @ToolParam(description = "The training ID") String trainingId) {
@@ -91,6 +94,7 @@ public class McpTrainingTools {
         return McpTrainingSummary.from(trainingService.updateTraining(trainingId, training));
     }
 
+    @ReadOnlyTool
     @Tool(description = "Search the user's training workouts by title substring (case-insensitive), sport, and duration window. All filters are optional — pass null to skip a filter. Returns matching summaries (id, title, sport, type, duration, TSS).")
     public List<McpTrainingSummary> searchTrainings(
             @ToolParam(description = "Title substring to match (case-insensitive). Pass null or empty to skip.") String query,
@@ -135,6 +139,7 @@ public class McpTrainingTools {
         return McpTrainingSummary.from(trainingService.createTraining(copy, userId));
     }
 
+    @ReadOnlyTool
     @Tool(description = "Estimate training metrics (TSS, IF, duration in seconds, distance) for an existing training without persisting any change. Uses the user's current FTP/CSS/threshold to compute intensity.")
     public TrainingMetricsEstimate estimateTrainingMetrics(
             @ToolParam(description = "Training ID to estimate") String trainingId) {
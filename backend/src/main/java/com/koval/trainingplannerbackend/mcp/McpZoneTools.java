@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.mcp;
 
+import com.koval.trainingplannerbackend.ai.tools.ReadOnlyTool;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.training.model.SportType;
 import com.koval.trainingplannerbackend.training.zone.Zone;
@@ -25,6 +26,7 @@ public class McpZoneTools {
         this.zoneSystemService = zoneSystemService;
     }
 
+    @ReadOnlyTool
     @Tool(description = "List the user's zone systems. Zone systems define intensity zones (e.g. Z1=55-75%, Z2=75-90%) for a specific sport and reference metric (FTP, CSS, threshold pace, etc.).")
     public List<ZoneSystemSummary> listZoneSystems() {
         String userId = SecurityUtils.getCurrentUserId();
@@ -33,6 +35,7 @@ public class McpZoneTools {
                 .toList();
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get the default zone system for a specific sport. Returns null if no default is set.")
     public ZoneSystem getDefaultZoneSystem(
             @ToolParam(description = "Sport type: CYCLING, RUNNING, SWIMMING, or BRICK") SportType sportType) {
@@ -40,6 +43,7 @@ public class McpZoneTools {
         return zoneSystemService.getDefaultZoneSystem(userId, sportType).orElse(null);
     }
 
+    @ReadOnlyTool
     @Tool(description = "Get a full zone system by id: name, sport, reference metric, and the ordered list of zones with their label and percentage bounds.")
     public ZoneSystem getZoneSystem(
             @ToolParam(description = "Zone system id") String systemId) {
@@ -55,6 +59,7 @@ public class McpZoneTools {
         return "Zone system deleted.";
     }
 
+    @ReadOnlyTool
     @Tool(description = "Given a raw value (e.g. watts for a power zone system, seconds/km for a pace zone system) and a reference value (FTP, threshold pace, CSS), resolve which zone label the value falls in. Returns the zone label, low/high percentage bounds and zone index. Returns 'Error:' if the zone system is not found or the value does not fall in any zone.")
     public String resolveZone(
             @ToolParam(description = "Zone system id") String systemId,
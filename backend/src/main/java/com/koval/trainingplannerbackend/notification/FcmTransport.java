@@ -0,0 +1,28 @@
+package com.koval.trainingplannerbackend.notification;
+
+import java.util.List;
+
+/**
+ * Low-level FCM delivery. Implementations send one {@link PushMessage} to a chunk of
+ * device tokens and report which tokens FCM rejected as invalid so the caller can
+ * prune them in bulk. Swapped for a stub in tests.
+ */
+public interface FcmTransport {
+
+    /** FCM multicast limit — callers must never pass more tokens than this per call. */
+    int MAX_TOKENS_PER_MULTICAST = 500;
+
+    boolean isAvailable();
+
+    MulticastResult sendMulticast(List<String> tokens, PushMessage message);
+
+    /**
+     * @param invalidTokens tokens FCM reported as UNREGISTERED / INVALID_ARGUMENT
+     */
+    record MulticastResult(int successCount, int failureCount, List<String> invalidTokens) {
+
+        public static MulticastResult empty() {
+            return new MulticastResult(0, 0, List.of());
+        }
+    }
+}
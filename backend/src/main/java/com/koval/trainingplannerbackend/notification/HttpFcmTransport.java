@@ -0,0 +1,126 @@
+package com.koval.trainingplannerbackend.notification;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * FCM HTTP v1 transport. The v1 API has no batch endpoint, so a "multicast" chunk is
+ * fanned out as individual {@code messages:send} POSTs on the dedicated, bounded
+ * {@code pushExecutor} — never on the common ForkJoin pool, which must not block on
+ * network I/O. The access token is resolved once per chunk.
+ */
+@Component
+public class HttpFcmTransport implements FcmTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpFcmTransport.class);
+
+    private final FirebaseConfig fcmConfig;
+    private final RestClient fcmRestClient;
+    private final Executor pushExecutor;
+
+    public HttpFcmTransport(FirebaseConfig fcmConfig,
+                            RestClient fcmRestClient,
+                            @Qualifier("pushExecutor") Executor pushExecutor) {
+        this.fcmConfig = fcmConfig;
+        this.fcmRestClient = fcmRestClient;
+        this.pushExecutor = pushExecutor;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return fcmConfig.isAvailable();
+    }
+
+    @Override
+    public MulticastResult sendMulticast(List<String> tokens, PushMessage message) {
+        if (tokens.isEmpty()) return MulticastResult.empty();
+
+        String accessToken;
+        try {
+            accessToken = fcmConfig.getAccessToken();
+        } catch (IOException e) {
+            log.error("Failed to get FCM access token: {}", e.getMessage());
+            return new MulticastResult(0, tokens.size(), List.of());
+        }
+        String sendUrl = "/v1/projects/" + fcmConfig.getProjectId() + "/messages:send";
+
+        List<CompletableFuture<SendOutcome>> futures = tokens.stream()
+                .map(token -> CompletableFuture.supplyAsync(
+                        () -> sendOne(token, sendUrl, accessToken, message), pushExecutor))
+                .toList();
+
+        int success = 0;
+        int failure = 0;
+        List<String> invalid = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            SendOutcome outcome = futures.get(i).join();
+            switch (outcome) {
+                case SUCCESS -> success++;
+                case FAILED -> failure++;
+                case INVALID_TOKEN -> {
+                    failure++;
+                    invalid.add(tokens.get(i));
+                }
+            }
+        }
+        return new MulticastResult(success, failure, invalid);
+    }
+
+    private SendOutcome sendOne(String token, String sendUrl, String accessToken, PushMessage message) {
+        try {
+            fcmRestClient.post()
+                    .uri(sendUrl)
+                    .header("Authorization", "Bearer " + accessToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("message", buildMessage(token, message)))
+                    .retrieve()
+                    .toBodilessEntity();
+            return SendOutcome.SUCCESS;
+        } catch (RestClientException e) {
+            log.warn("FCM send failed for token: {}", e.getMessage());
+            return isInvalidToken(e) ? SendOutcome.INVALID_TOKEN : SendOutcome.FAILED;
+        } catch (RuntimeException e) {
+            log.warn("FCM send failed for token: {}", e.getMessage());
+            return SendOutcome.FAILED;
+        }
+    }
+
+    private static boolean isInvalidToken(RestClientException e) {
+        if (e instanceof RestClientResponseException re
+                && re.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+            return true;
+        }
+        String errorMsg = e instanceof RestClientResponseException re
+                ? re.getResponseBodyAsString() + " " + e.getMessage()
+                : e.getMessage();
+        return errorMsg != null && (errorMsg.contains("UNREGISTERED") || errorMsg.contains("INVALID_ARGUMENT"));
+    }
+
+    private static Map<String, Object> buildMessage(String token, PushMessage message) {
+        Map<String, Object> notification = Map.of("title", message.title(), "body", message.body());
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("token", token);
+        payload.put("notification", notification);
+        if (message.data() != null && !message.data().isEmpty()) {
+            payload.put("data", message.data());
+        }
+        return payload;
+    }
+
+    private enum SendOutcome { SUCCESS, FAILED, INVALID_TOKEN }
+}
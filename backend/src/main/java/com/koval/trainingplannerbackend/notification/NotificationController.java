@@ -30,12 +30,16 @@ public class NotificationController {
         this.env = env;
     }
 
-    record TokenRequest(String token) {}
+    /**
+     * @param timezone optional IANA zone id of the device (e.g. "Europe/Brussels"),
+     *                 used to send the daily reminder at the athlete's local morning.
+     */
+    record TokenRequest(String token, String timezone) {}
 
     @PostMapping("/register-token")
     public ResponseEntity<Void> registerToken(@RequestBody TokenRequest request) {
         String userId = SecurityUtils.getCurrentUserId();
-        notificationService.registerToken(userId, request.token());
+        notificationService.registerToken(userId, request.token(), request.timezone());
         return ResponseEntity.ok().build();
     }
 
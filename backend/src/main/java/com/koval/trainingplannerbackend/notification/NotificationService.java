@@ -4,21 +4,16 @@ import com.koval.trainingplannerbackend.auth.User;
 import com.koval.trainingplannerbackend.auth.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.MediaType;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
 
-import java.io.IOException;
+import java.time.DateTimeException;
 import java.time.Instant;
+import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class NotificationService {
@@ -26,17 +21,14 @@ public class NotificationService {
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
 
     private final UserRepository userRepository;
-    private final FirebaseConfig fcmConfig;
-    private final RestClient fcmRestClient;
+    private final PushDeliveryPipeline pushDeliveryPipeline;
     private final NotificationRepository notificationRepository;
 
     public NotificationService(UserRepository userRepository,
-                               FirebaseConfig fcmConfig,
-                               RestClient fcmRestClient,
+                               PushDeliveryPipeline pushDeliveryPipeline,
                                NotificationRepository notificationRepository) {
         this.userRepository = userRepository;
-        this.fcmConfig = fcmConfig;
-        this.fcmRestClient = fcmRestClient;
+        this.pushDeliveryPipeline = pushDeliveryPipeline;
         this.notificationRepository = notificationRepository;
     }
 
@@ -53,6 +45,10 @@ public class NotificationService {
     /**
      * Send a notification to users, optionally filtering by preference type.
      *
+     * <p>In-app history documents are bulk-inserted in one round-trip, then every
+     * recipient token goes through the {@link PushDeliveryPipeline} (chunked FCM
+     * multicast on a bounded executor, batched stale-token pruning).
+     *
      * @param preferenceType if non-null, only sends to users whose NotificationPreferences
      *                       has the corresponding flag enabled. Valid values match
      *                       NotificationPreferences field names.
@@ -61,7 +57,7 @@ public class NotificationService {
     public void sendToUsers(List<String> userIds, String title, String body,
                             Map<String, String> data, String preferenceType) {
         List<String> allTokens = new ArrayList<>();
-        Map<String, List<String>> tokensByUser = new HashMap<>();
+        List<Notification> notifications = new ArrayList<>();
 
         List<User> users = userRepository.findAllById(userIds);
         String type = Optional.ofNullable(data).map(d -> d.getOrDefault("type", preferenceType)).orElse(preferenceType);
@@ -72,18 +68,19 @@ public class NotificationService {
                 continue;
             }
 
-            // Persist in-app notification regardless of FCM availability so users
-            // see history even when push delivery fails.
-            persistNotification(user.getId(), type, title, body, data);
+            notifications.add(new Notification(user.getId(), type, title, body, data));
 
             List<String> tokens = user.getFcmTokens();
             if (tokens != null && !tokens.isEmpty()) {
                 allTokens.addAll(tokens);
-                tokensByUser.put(user.getId(), new ArrayList<>(tokens));
             }
         }
 
-        if (!fcmConfig.isAvailable()) {
+        // Persist in-app notifications regardless of FCM availability so users
+        // see history even when push delivery fails.
+        persistNotifications(notifications);
+
+        if (!pushDeliveryPipeline.isAvailable()) {
             log.debug("FCM not initialized — persisted only: {}", title);
             return;
         }
@@ -92,17 +89,16 @@ public class NotificationService {
             return;
         }
 
-        sendToTokens(allTokens, title, body, data, tokensByUser);
+        pushDeliveryPipeline.deliver(allTokens, new PushMessage(title, body, data));
     }
 
-    private void persistNotification(String userId, String type, String title, String body,
-                                     Map<String, String> data) {
+    private void persistNotifications(List<Notification> notifications) {
+        if (notifications.isEmpty()) return;
         try {
-            Notification notification = new Notification(userId, type, title, body, data);
-            notificationRepository.save(notification);
+            notificationRepository.insert(notifications);
         } catch (Exception e) {
             // Persistence must never block FCM dispatch.
-            log.warn("Failed to persist notification for user {}: {}", userId, e.getMessage());
+            log.warn("Failed to persist {} notifications: {}", notifications.size(), e.getMessage());
         }
     }
 
@@ -122,109 +118,37 @@ public class NotificationService {
         };
     }
 
-    private void sendToTokens(List<String> tokens, String title, String body,
-                              Map<String, String> data, Map<String, List<String>> tokensByUser) {
-        String accessToken;
-        try {
-            accessToken = fcmConfig.getAccessToken();
-        } catch (IOException e) {
-            log.error("Failed to get FCM access token: {}", e.getMessage());
-            return;
-        }
-
-        String sendUrl = "/v1/projects/" + fcmConfig.getProjectId() + "/messages:send";
-        AtomicInteger successCount = new AtomicInteger();
-        AtomicInteger failureCount = new AtomicInteger();
-        ConcurrentLinkedQueue<String> staleTokens = new ConcurrentLinkedQueue<>();
-
-        // Fan out token sends in parallel — one slow/timeout token shouldn't block the rest.
-        // Uses the common ForkJoinPool which is sized to CPU count; FCM POSTs are short-lived
-        // and HTTP/JSON-bound, so we trade a bit of pool pressure for substantially lower
-        // total latency on large recipient lists.
-        List<CompletableFuture<Void>> futures = tokens.stream()
-                .map(token -> CompletableFuture.runAsync(() -> sendOne(
-                        token, sendUrl, accessToken, title, body, data,
-                        successCount, failureCount, staleTokens)))
-                .toList();
-        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
-
-        if (!staleTokens.isEmpty()) {
-            removeStaleTokens(new ArrayList<>(staleTokens), tokensByUser);
-        }
-
-        log.info("FCM notification sent: {} success, {} failure", successCount.get(), failureCount.get());
-    }
-
-    private void sendOne(String token, String sendUrl, String accessToken,
-                         String title, String body, Map<String, String> data,
-                         AtomicInteger successCount, AtomicInteger failureCount,
-                         ConcurrentLinkedQueue<String> staleTokens) {
-        Map<String, Object> message = buildMessage(token, title, body, data);
-        try {
-            fcmRestClient.post()
-                    .uri(sendUrl)
-                    .header("Authorization", "Bearer " + accessToken)
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .body(Map.of("message", message))
-                    .retrieve()
-                    .toBodilessEntity();
-            successCount.incrementAndGet();
-        } catch (org.springframework.web.client.RestClientException e) {
-            failureCount.incrementAndGet();
-            String errorMsg = e.getMessage();
-            log.warn("FCM send failed for token: {}", errorMsg);
-            if (errorMsg != null && (errorMsg.contains("UNREGISTERED") || errorMsg.contains("INVALID_ARGUMENT"))) {
-                staleTokens.add(token);
-            }
-        }
-    }
-
-    private Map<String, Object> buildMessage(String token, String title, String body, Map<String, String> data) {
-        Map<String, Object> notification = Map.of("title", title, "body", body);
-        Map<String, Object> message = new HashMap<>();
-        message.put("token", token);
-        message.put("notification", notification);
-        if (data != null && !data.isEmpty()) {
-            message.put("data", data);
-        }
-        return message;
-    }
-
-    private void removeStaleTokens(List<String> staleTokens, Map<String, List<String>> tokensByUser) {
-        List<String> affectedUserIds = tokensByUser.entrySet().stream()
-                .filter(e -> e.getValue().stream().anyMatch(staleTokens::contains))
-                .map(Map.Entry::getKey)
-                .toList();
-        if (affectedUserIds.isEmpty()) return;
-
-        List<User> users = userRepository.findAllById(affectedUserIds);
-        List<User> toSave = new ArrayList<>();
-        for (User user : users) {
-            List<String> userTokens = tokensByUser.get(user.getId());
-            List<String> toRemove = userTokens.stream().filter(staleTokens::contains).toList();
-            if (!toRemove.isEmpty() && user.getFcmTokens() != null) {
-                user.getFcmTokens().removeAll(toRemove);
-                toSave.add(user);
-                log.info("Removed {} stale FCM tokens from user {}", toRemove.size(), user.getId());
-            }
-        }
-        if (!toSave.isEmpty()) {
-            userRepository.saveAll(toSave);
-        }
-    }
-
-    public void registerToken(String userId, String token) {
+    public void registerToken(String userId, String token, String timezone) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
         if (user.getFcmTokens() == null) {
             user.setFcmTokens(new ArrayList<>());
         }
+        boolean changed = false;
         if (!user.getFcmTokens().contains(token)) {
             user.getFcmTokens().add(token);
+            changed = true;
+        }
+        String zone = normalizeTimezone(timezone);
+        if (zone != null && !zone.equals(user.getTimezone())) {
+            user.setTimezone(zone);
+            changed = true;
+        }
+        if (changed) {
             userRepository.save(user);
         }
     }
 
+    private static String normalizeTimezone(String timezone) {
+        if (timezone == null || timezone.isBlank()) return null;
+        try {
+            return ZoneId.of(timezone.strip()).getId();
+        } catch (DateTimeException e) {
+            log.debug("Ignoring invalid device timezone '{}'", timezone);
+            return null;
+        }
+    }
+
     public void unregisterToken(String userId, String token) {
         userRepository.findById(userId).ifPresent(user -> {
             if (user.getFcmTokens() != null && user.getFcmTokens().remove(token)) {
@@ -0,0 +1,114 @@
+package com.koval.trainingplannerbackend.notification;
+
+import com.koval.trainingplannerbackend.auth.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Chunks a push fan-out into FCM multicast calls of at most
+ * {@link FcmTransport#MAX_TOKENS_PER_MULTICAST} tokens, aggregates the per-chunk
+ * results and prunes every invalid token with a single {@code $pullAll} update.
+ *
+ * <p>Chunks are sent one after another from the calling ({@code @Async}) thread while
+ * each chunk fans out on the transport's bounded executor, so a club-wide announcement
+ * never has more than one chunk in flight — that is the backpressure.
+ *
+ * <p>Metrics: {@code koval.push.tokens{outcome=success|failure|pruned}} counters,
+ * {@code koval.push.chunk.latency} and {@code koval.push.delivery.latency} timers.
+ */
+@Component
+public class PushDeliveryPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(PushDeliveryPipeline.class);
+
+    private final FcmTransport transport;
+    private final MongoTemplate mongoTemplate;
+    private final Counter successCounter;
+    private final Counter failureCounter;
+    private final Counter prunedCounter;
+    private final Timer chunkTimer;
+    private final Timer deliveryTimer;
+
+    public PushDeliveryPipeline(FcmTransport transport, MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.mongoTemplate = mongoTemplate;
+        this.successCounter = meterRegistry.counter("koval.push.tokens", "outcome", "success");
+        this.failureCounter = meterRegistry.counter("koval.push.tokens", "outcome", "failure");
+        this.prunedCounter = meterRegistry.counter("koval.push.tokens", "outcome", "pruned");
+        this.chunkTimer = meterRegistry.timer("koval.push.chunk.latency");
+        this.deliveryTimer = meterRegistry.timer("koval.push.delivery.latency");
+    }
+
+    public boolean isAvailable() {
+        return transport.isAvailable();
+    }
+
+    /**
+     * Result of one fan-out, summed over all chunks.
+     */
+    public record DeliveryReport(int successCount, int failureCount, int prunedCount) {}
+
+    public DeliveryReport deliver(Collection<String> tokens, PushMessage message) {
+        if (tokens.isEmpty()) return new DeliveryReport(0, 0, 0);
+
+        // A device registered by two recipients (shared tablet) would otherwise get it twice.
+        List<String> unique = new ArrayList<>(new LinkedHashSet<>(tokens));
+        Timer.Sample sample = Timer.start();
+
+        int success = 0;
+        int failure = 0;
+        List<String> invalid = new ArrayList<>();
+        for (int from = 0; from < unique.size(); from += FcmTransport.MAX_TOKENS_PER_MULTICAST) {
+            List<String> chunk = unique.subList(from,
+                    Math.min(from + FcmTransport.MAX_TOKENS_PER_MULTICAST, unique.size()));
+            FcmTransport.MulticastResult result = chunkTimer.record(() -> transport.sendMulticast(chunk, message));
+            if (result == null) continue;
+            success += result.successCount();
+            failure += result.failureCount();
+            invalid.addAll(result.invalidTokens());
+        }
+
+        int pruned = pruneInvalidTokens(invalid);
+        sample.stop(deliveryTimer);
+        successCounter.increment(success);
+        failureCounter.increment(failure);
+        prunedCounter.increment(pruned);
+
+        log.info("FCM notification sent: {} success, {} failure, {} stale tokens pruned", success, failure, pruned);
+        return new DeliveryReport(success, failure, pruned);
+    }
+
+    /**
+     * Removes the given tokens from every user holding them in one multi-document
+     * update, instead of loading and re-saving each affected user.
+     *
+     * @return number of tokens pruned (not number of users touched)
+     */
+    int pruneInvalidTokens(List<String> invalidTokens) {
+        if (invalidTokens.isEmpty()) return 0;
+        try {
+            var result = mongoTemplate.updateMulti(
+                    new Query(Criteria.where("fcmTokens").in(invalidTokens)),
+                    new Update().pullAll("fcmTokens", invalidTokens.toArray()),
+                    User.class);
+            log.info("Removed {} stale FCM tokens from {} users", invalidTokens.size(), result.getModifiedCount());
+            return invalidTokens.size();
+        } catch (Exception e) {
+            log.warn("Failed to prune stale FCM tokens: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
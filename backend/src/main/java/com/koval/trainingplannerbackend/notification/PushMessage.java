@@ -0,0 +1,9 @@
+package com.koval.trainingplannerbackend.notification;
+
+import java.util.Map;
+
+/**
+ * Title/body/data triple shared by every token of a push fan-out. Built once per
+ * {@code sendToUsers} call so the FCM payload isn't rebuilt per recipient.
+ */
+public record PushMessage(String title, String body, Map<String, String> data) {}
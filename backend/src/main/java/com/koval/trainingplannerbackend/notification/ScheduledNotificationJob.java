@@ -1,73 +1,268 @@
 package com.koval.trainingplannerbackend.notification;
 
-import com.koval.trainingplannerbackend.auth.UserRepository;
+import com.koval.trainingplannerbackend.auth.User;
 import com.koval.trainingplannerbackend.coach.ScheduleStatus;
 import com.koval.trainingplannerbackend.coach.ScheduledWorkout;
-import com.koval.trainingplannerbackend.coach.ScheduledWorkoutRepository;
+import com.koval.trainingplannerbackend.maintenance.JobLeaseService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
- * Daily job that sends "You have workouts today" reminders
- * to athletes with pending scheduled workouts.
+ * Sends "You have workouts today" reminders to athletes with pending scheduled
+ * workouts, at 07:00 in each athlete's own timezone.
+ *
+ * <p>The job ticks every {@value #SLOT_MINUTES} minutes. Each tick picks the zones whose
+ * local clock is in the 07:00 slot and reads only the athletes of those zones (the
+ * {@code timezone} index; users without one follow the default zone). Athletes are split
+ * into shards by id hash, and shards are taken one at a time: an instance claims a
+ * (slot, shard) {@link JobLeaseService} lease, reminds that shard, completes the lease and
+ * only then tries the next one, so instances ticking together share the shards. Within a
+ * shard, athletes are handled in batches of {@code notifications.reminders.batch-size}: one
+ * query counts the batch's pending workouts on their local dates, and a handful of
+ * {@code sendToUsers} calls fan the reminders out.
+ *
+ * <p>A shard that fails keeps its lease uncompleted. Every tick also revisits the previous
+ * {@code notifications.reminders.retry-slots} slots, so once that lease expires the shard is
+ * picked up again a slot or two late instead of being skipped for the day.
  */
 @Component
 public class ScheduledNotificationJob {
 
     private static final Logger log = LoggerFactory.getLogger(ScheduledNotificationJob.class);
 
-    private final ScheduledWorkoutRepository scheduledWorkoutRepository;
-    private final UserRepository userRepository;
+    static final int REMINDER_HOUR = 7;
+    static final int SLOT_MINUTES = 15;
+
+    private final MongoTemplate mongoTemplate;
     private final NotificationService notificationService;
+    private final JobLeaseService jobLeaseService;
+
+    @Value("${notifications.reminders.shards:8}")
+    private int shardCount;
+
+    @Value("${notifications.reminders.batch-size:500}")
+    private int batchSize;
+
+    // Shorter than a slot, so a failed shard's lease has expired by the next tick.
+    @Value("${notifications.reminders.lease-ttl:PT10M}")
+    private Duration leaseTtl;
+
+    @Value("${notifications.reminders.retry-slots:3}")
+    private int retrySlots;
+
+    // Zone for users who never reported one — the server zone keeps the legacy 07:00 behaviour.
+    @Value("${notifications.reminders.default-zone:}")
+    private String defaultZone;
 
-    public ScheduledNotificationJob(ScheduledWorkoutRepository scheduledWorkoutRepository,
-                                    UserRepository userRepository,
-                                    NotificationService notificationService) {
-        this.scheduledWorkoutRepository = scheduledWorkoutRepository;
-        this.userRepository = userRepository;
+    public ScheduledNotificationJob(MongoTemplate mongoTemplate,
+                                    NotificationService notificationService,
+                                    JobLeaseService jobLeaseService) {
+        this.mongoTemplate = mongoTemplate;
         this.notificationService = notificationService;
+        this.jobLeaseService = jobLeaseService;
+    }
+
+    record UserRef(@Id String id, String timezone) {}
+
+    record WorkoutRef(String athleteId, LocalDate scheduledDate) {}
+
+    /** Zones due in one slot: the local date per zone, and the stored timezone ids that map to them. */
+    private record DueSlot(Instant slot, Map<ZoneId, LocalDate> dateByZone, List<String> timezones,
+                           boolean fallbackDue) {}
+
+    @Scheduled(cron = "${notifications.reminders.cron:0 */15 * * * *}")
+    public void sendDailyWorkoutReminders() {
+        long epochMinute = Instant.now().getEpochSecond() / 60;
+        sendRemindersForSlot(Instant.ofEpochSecond((epochMinute - epochMinute % SLOT_MINUTES) * 60));
+    }
+
+    void sendRemindersForSlot(Instant slot) {
+        ZoneId fallback = resolveDefaultZone();
+        Map<String, ZoneId> knownZones = knownUserZones();
+
+        int reminded = 0;
+        for (int back = 0; back <= retrySlots; back++) {
+            Instant past = slot.minus(Duration.ofMinutes((long) SLOT_MINUTES * back));
+            DueSlot due = dueSlot(past, knownZones, fallback);
+            if (due != null) reminded += remindSlot(due, fallback);
+        }
+        if (reminded > 0) {
+            log.info("Sent daily workout reminders to {} athletes (slot {})", reminded, slot);
+        }
+    }
+
+    private DueSlot dueSlot(Instant slot, Map<String, ZoneId> knownZones, ZoneId fallback) {
+        Set<ZoneId> candidates = new LinkedHashSet<>(knownZones.values());
+        candidates.add(fallback);
+        Map<ZoneId, LocalDate> dateByZone = new HashMap<>();
+        dueZones(slot, candidates).forEach((date, zones) -> zones.forEach(zone -> dateByZone.put(zone, date)));
+        if (dateByZone.isEmpty()) return null;
+
+        List<String> timezones = knownZones.entrySet().stream()
+                .filter(e -> dateByZone.containsKey(e.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+        return new DueSlot(slot, dateByZone, timezones, dateByZone.containsKey(fallback));
+    }
+
+    private int remindSlot(DueSlot due, ZoneId fallback) {
+        List<Integer> shards = IntStream.range(0, shardCount).boxed().collect(Collectors.toList());
+        // Instances ticking together start on different shards instead of racing for shard 0.
+        Collections.shuffle(shards);
+        int reminded = 0;
+        for (int shard : shards) {
+            String leaseId = "workout-reminder:" + due.slot() + ":" + shard;
+            if (!jobLeaseService.tryAcquire(leaseId, leaseTtl)) continue;
+            try {
+                reminded += remindShard(due, shard, fallback);
+                jobLeaseService.complete(leaseId);
+            } catch (RuntimeException e) {
+                log.error("Failed to send workout reminders for slot {} shard {}, retrying after lease expiry: {}",
+                        due.slot(), shard, e.getMessage(), e);
+            }
+        }
+        return reminded;
     }
 
     /**
-     * Runs daily at 7:00 AM. Finds all PENDING workouts for today and sends
-     * a reminder to each athlete.
+     * Groups the zones whose local time at {@code slot} falls in the
+     * [07:00, 07:00 + {@value #SLOT_MINUTES}min) window by their local date.
      */
-    @Scheduled(cron = "0 0 7 * * *")
-    public void sendDailyWorkoutReminders() {
-        LocalDate today = LocalDate.now();
-        List<ScheduledWorkout> todaysWorkouts = scheduledWorkoutRepository
-                .findByScheduledDateAndStatus(today, ScheduleStatus.PENDING);
+    static Map<LocalDate, List<ZoneId>> dueZones(Instant slot, Collection<ZoneId> zones) {
+        Map<LocalDate, List<ZoneId>> due = new TreeMap<>();
+        for (ZoneId zone : zones) {
+            ZonedDateTime local = slot.atZone(zone);
+            if (local.getHour() == REMINDER_HOUR && local.getMinute() < SLOT_MINUTES) {
+                due.computeIfAbsent(local.toLocalDate(), d -> new ArrayList<>()).add(zone);
+            }
+        }
+        return due;
+    }
 
-        if (todaysWorkouts.isEmpty()) {
-            log.debug("No pending workouts for today — no reminders sent");
-            return;
+    static int shardOf(String athleteId, int shardCount) {
+        return Math.floorMod(athleteId.hashCode(), shardCount);
+    }
+
+    /** Streams the due athletes (id and timezone only) and reminds those in {@code shard}, batch by batch. */
+    private int remindShard(DueSlot due, int shard, ZoneId fallback) {
+        Criteria inDueZone = Criteria.where("timezone").in(due.timezones());
+        Criteria criteria = due.fallbackDue()
+                ? new Criteria().orOperator(inDueZone, Criteria.where("timezone").is(null))
+                : inDueZone;
+        Query query = new Query(criteria).cursorBatchSize(batchSize);
+        query.fields().include("_id", "timezone");
+
+        int reminded = 0;
+        List<UserRef> batch = new ArrayList<>(batchSize);
+        try (Stream<UserRef> users = mongoTemplate.stream(query, UserRef.class,
+                mongoTemplate.getCollectionName(User.class))) {
+            Iterator<UserRef> it = users.iterator();
+            while (it.hasNext()) {
+                UserRef user = it.next();
+                if (shardOf(user.id(), shardCount) != shard) continue;
+                batch.add(user);
+                if (batch.size() == batchSize) {
+                    reminded += remindBatch(batch, due.dateByZone(), fallback);
+                    batch.clear();
+                }
+            }
         }
+        if (!batch.isEmpty()) reminded += remindBatch(batch, due.dateByZone(), fallback);
+        return reminded;
+    }
 
-        // Group by athlete
-        Map<String, List<ScheduledWorkout>> byAthlete = todaysWorkouts.stream()
-                .collect(Collectors.groupingBy(ScheduledWorkout::getAthleteId));
+    private int remindBatch(List<UserRef> users, Map<ZoneId, LocalDate> dateByZone, ZoneId fallback) {
+        Map<String, LocalDate> localDateByAthlete = new HashMap<>();
+        for (UserRef user : users) {
+            ZoneId zone = user.timezone() == null ? fallback : parseZone(user.timezone());
+            LocalDate localDate = zone == null ? null : dateByZone.get(zone);
+            if (localDate != null) localDateByAthlete.put(user.id(), localDate);
+        }
+        if (localDateByAthlete.isEmpty()) return 0;
 
-        byAthlete.forEach((athleteId, workouts) -> {
-            int count = workouts.size();
+        Query query = new Query(Criteria.where("athleteId").in(localDateByAthlete.keySet())
+                .and("scheduledDate").in(new HashSet<>(localDateByAthlete.values()))
+                .and("status").is(ScheduleStatus.PENDING));
+        query.fields().include("athleteId", "scheduledDate");
+        Map<String, Long> countByAthlete = new HashMap<>();
+        for (WorkoutRef w : mongoTemplate.find(query, WorkoutRef.class,
+                mongoTemplate.getCollectionName(ScheduledWorkout.class))) {
+            if (w.scheduledDate().equals(localDateByAthlete.get(w.athleteId()))) {
+                countByAthlete.merge(w.athleteId(), 1L, Long::sum);
+            }
+        }
+
+        // Same body for everyone with the same count, so each group is a single fan-out.
+        Map<Long, List<String>> athletesByCount = new HashMap<>();
+        countByAthlete.forEach((athleteId, count) ->
+                athletesByCount.computeIfAbsent(count, c -> new ArrayList<>()).add(athleteId));
+
+        athletesByCount.forEach((count, ids) -> {
             String body = count == 1
                     ? "You have 1 workout scheduled for today. Let's go!"
                     : "You have " + count + " workouts scheduled for today. Let's go!";
-
             notificationService.sendToUsers(
-                    List.of(athleteId),
+                    ids,
                     "Workout Reminder",
                     body,
                     Map.of("type", "WORKOUT_REMINDER"),
                     "workoutReminder");
         });
+        return countByAthlete.size();
+    }
+
+    private static ZoneId parseZone(String id) {
+        try {
+            return ZoneId.of(id);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /** Stored timezone ids that parse, with their zone. */
+    private Map<String, ZoneId> knownUserZones() {
+        List<String> raw = mongoTemplate.findDistinct(
+                new Query(Criteria.where("timezone").ne(null)), "timezone", User.class, String.class);
+        Map<String, ZoneId> zones = new HashMap<>(raw.size());
+        for (String id : raw) {
+            try {
+                zones.put(id, ZoneId.of(id));
+            } catch (DateTimeException e) {
+                log.warn("Ignoring unknown user timezone '{}'", id);
+            }
+        }
+        return zones;
+    }
 
-        log.info("Sent daily workout reminders to {} athletes", byAthlete.size());
+    private ZoneId resolveDefaultZone() {
+        return defaultZone == null || defaultZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(defaultZone);
     }
 }
@@ -284,10 +284,10 @@ public class PacingController {
         GpxParseResult bikeResult = null;
         GpxParseResult runResult = null;
 
-        if (disc.needsBike && race.getBikeGpx() != null) {
+        if (disc.needsBike && race.getBikeGpxFile() != null) {
             bikeResult = applyLoops(raceService.parseGpx(request.raceId(), "bike"), request.bikeLoops());
         }
-        if (disc.needsRun && race.getRunGpx() != null) {
+        if (disc.needsRun && race.getRunGpxFile() != null) {
             runResult = applyLoops(raceService.parseGpx(request.raceId(), "run"), request.runLoops());
         }
 
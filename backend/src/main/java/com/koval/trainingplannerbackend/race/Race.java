@@ -8,6 +8,7 @@ import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Getter
 @Setter
@@ -21,7 +22,8 @@ public class Race {
     @Indexed
     private String title;
 
-    private String sport;        // CYCLING | RUNNING | SWIMMING | TRIATHLON | OTHER
+    @Indexed
+    private String sport;        // CYCLING | RUNNING | SWIMMING | TRIATHLON | OTHER (upper-cased on save)
     private String location;
     private String country;
     private String region;
@@ -38,17 +40,30 @@ public class Race {
     private String website;
     private String scheduledDate; // YYYY-MM-DD
 
-    // Raw GPX stored as binary (typically 50-500KB each)
-    private byte[] swimGpx;
-    private byte[] bikeGpx;
-    private byte[] runGpx;
+    // GPX courses live in GridFS (typically 50-500KB each) — see RaceGpxStore; null when absent
+    private GpxFile swimGpxFile;
+    private GpxFile bikeGpxFile;
+    private GpxFile runGpxFile;
 
     // Number of loops for each GPX (1 = single loop / full course, >1 = GPX is one lap repeated N times)
     private Integer swimGpxLoops;
     private Integer bikeGpxLoops;
     private Integer runGpxLoops;
 
+    // Search index, maintained by RaceSearchIndexListener on every save — see RaceSearchText
+    @Indexed
+    private List<String> searchTokens;   // accent-folded words of title, location, country, region
+    @Indexed
+    private List<String> searchTrigrams; // trigrams of the title words, for typo-tolerant matching
+    @Indexed
+    private String countryKey;           // RaceSearchText.filterKey(country), for exact country filters
+    @Indexed
+    private String regionKey;            // RaceSearchText.filterKey(region), for exact region filters
+
     private String createdBy;    // userId
     private LocalDateTime createdAt;
     private Boolean verified;
+
+    /** Reference to a GPX course stored in GridFS; {@code sha256} identifies identical uploads. */
+    public record GpxFile(String fileId, String sha256, long sizeBytes) {}
 }
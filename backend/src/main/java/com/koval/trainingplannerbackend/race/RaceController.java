@@ -4,8 +4,11 @@ import com.koval.trainingplannerbackend.ai.tools.race.RaceSummary;
 import com.koval.trainingplannerbackend.auth.SecurityUtils;
 import com.koval.trainingplannerbackend.pacing.dto.RouteCoordinate;
 import jakarta.validation.Valid;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -22,7 +25,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.time.Duration;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -45,10 +50,13 @@ public class RaceController {
             @RequestParam(value = "q", required = false) String query,
             @RequestParam(value = "sport", required = false) String sport,
             @RequestParam(value = "region", required = false) String region,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
             @RequestParam(value = "page", defaultValue = "0") int page,
             @RequestParam(value = "size", defaultValue = "50") int size) {
         int safeSize = Math.min(Math.max(size, 1), 100);
-        Page<RaceSummary> summaries = raceService.searchRaces(query, sport, region, PageRequest.of(page, safeSize))
+        RaceSearchService.Filters filters = new RaceSearchService.Filters(sport, region, from, to);
+        Page<RaceSummary> summaries = raceService.searchRaces(query, filters, PageRequest.of(page, safeSize))
                 .map(RaceSummary::from);
         return ResponseEntity.ok(summaries);
     }
@@ -86,7 +94,7 @@ public class RaceController {
     @PostMapping("/{id}/gpx/{discipline}")
     public ResponseEntity<Void> uploadGpx(@PathVariable String id,
                                            @PathVariable String discipline,
-                                           @RequestParam("file") MultipartFile file) throws java.io.IOException {
+                                           @RequestParam("file") MultipartFile file) throws IOException {
         try {
             if (file.isEmpty()) {
                 return ResponseEntity.badRequest().build();
@@ -109,13 +117,15 @@ public class RaceController {
     }
 
     @GetMapping("/{id}/gpx/{discipline}")
-    public ResponseEntity<byte[]> downloadGpx(@PathVariable String id, @PathVariable String discipline) {
+    public ResponseEntity<Resource> downloadGpx(@PathVariable String id, @PathVariable String discipline)
+            throws IOException {
         try {
-            byte[] gpx = raceService.getGpxBytes(id, discipline);
+            GridFsResource gpx = raceService.getGpx(id, discipline);
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + discipline + ".gpx\"")
                     .cacheControl(CacheControl.maxAge(Duration.ofDays(60)))
                     .contentType(MediaType.APPLICATION_XML)
+                    .contentLength(gpx.contentLength())
                     .body(gpx);
         } catch (NoSuchElementException e) {
             return ResponseEntity.notFound().build();
@@ -145,6 +155,18 @@ public class RaceController {
         return ResponseEntity.ok(raceService.getCountryFacets(sport));
     }
 
+    @GetMapping("/facets/distance-categories")
+    public ResponseEntity<List<ValueFacet>> getDistanceCategoryFacets(
+            @RequestParam(value = "sport", required = false) String sport) {
+        return ResponseEntity.ok(raceService.getDistanceCategoryFacets(sport));
+    }
+
+    @GetMapping("/facets/months")
+    public ResponseEntity<List<ValueFacet>> getMonthFacets(
+            @RequestParam(value = "sport", required = false) String sport) {
+        return ResponseEntity.ok(raceService.getMonthFacets(sport));
+    }
+
     @GetMapping("/browse")
     public ResponseEntity<Page<RaceSummary>> browseRaces(
             @RequestParam("sport") String sport,
@@ -178,5 +200,6 @@ public class RaceController {
     public record WebSearchRequest(String query) {}
     public record SportFacet(String sport, long raceCount, int countryCount) {}
     public record CountryFacet(String country, long raceCount) {}
+    public record ValueFacet(String value, long raceCount) {}
 
 }
@@ -0,0 +1,53 @@
+package com.koval.trainingplannerbackend.race;
+
+import com.koval.trainingplannerbackend.race.RaceFacetCount.Dimension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * The facet buckets one race counts towards. Sports are upper-cased (a missing sport counts as
+ * {@code OTHER}), countries are trimmed, and the month is the {@code YYYY-MM} prefix of the
+ * scheduled date; blank or malformed values contribute no bucket for that dimension.
+ */
+record RaceFacetContribution(String sport, String country, String distanceCategory, String month) {
+
+    /** Race fields read to build a contribution; used as the projection for stored-state lookups. */
+    static final String[] SOURCE_FIELDS = {"sport", "country", "distanceCategory", "scheduledDate"};
+
+    /** Sport bucket of races without a sport; browsing it matches those races too. */
+    static final String OTHER_SPORT = "OTHER";
+
+    private static final Pattern MONTH_PREFIX = Pattern.compile("^\\d{4}-\\d{2}");
+
+    record Bucket(Dimension dimension, String sport, String value) {}
+
+    static RaceFacetContribution of(Race race) {
+        String date = race.getScheduledDate();
+        return new RaceFacetContribution(
+                sportKey(race.getSport()),
+                blankToNull(race.getCountry()),
+                race.getDistanceCategory() != null ? race.getDistanceCategory().name() : null,
+                date != null && MONTH_PREFIX.matcher(date).lookingAt() ? date.substring(0, 7) : null);
+    }
+
+    static String sportKey(String sport) {
+        String trimmed = blankToNull(sport);
+        return trimmed == null ? OTHER_SPORT : trimmed.toUpperCase(Locale.ROOT);
+    }
+
+    List<Bucket> buckets() {
+        List<Bucket> out = new ArrayList<>(4);
+        out.add(new Bucket(Dimension.SPORT, sport, sport));
+        if (country != null) out.add(new Bucket(Dimension.COUNTRY, sport, country));
+        if (distanceCategory != null) out.add(new Bucket(Dimension.DISTANCE_CATEGORY, sport, distanceCategory));
+        if (month != null) out.add(new Bucket(Dimension.MONTH, sport, month));
+        return out;
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+}
@@ -0,0 +1,29 @@
+package com.koval.trainingplannerbackend.race;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * One materialised catalogue facet: the number of races of {@code sport} whose {@code dimension}
+ * has {@code value} (e.g. COUNTRY / TRIATHLON / France → 12). Maintained incrementally by
+ * {@link RaceFacetListener} and reconciled against {@code races} by {@link RaceFacetReconciler}.
+ */
+@Getter
+@Setter
+@Document(collection = "race_facet_counts")
+@CompoundIndex(name = "dimension_sport_idx", def = "{'dimension': 1, 'sport': 1}")
+public class RaceFacetCount {
+
+    public enum Dimension { SPORT, COUNTRY, DISTANCE_CATEGORY, MONTH }
+
+    @Id
+    private String id; // dimension|sport|value — see RaceFacetRepository.idOf
+
+    private Dimension dimension;
+    private String sport;
+    private String value;
+    private long count;
+}
@@ -0,0 +1,110 @@
+package com.koval.trainingplannerbackend.race;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps {@link RaceFacetCount}s in step with {@code races} through the mapping events, so every
+ * writer (manual edits, AI completion, web search import, GPX uploads) is covered:
+ *
+ * <ul>
+ *   <li>insert: {@code $inc} the new race's buckets;</li>
+ *   <li>update: read the stored facet fields before the write, then move the counts when they
+ *       changed (a GPX upload or description edit touches nothing);</li>
+ *   <li>delete: read the matched races before removal, then decrement their buckets.</li>
+ * </ul>
+ *
+ * Facet failures are logged and never fail the race write; {@link RaceFacetReconciler} repairs drift.
+ */
+@Component
+class RaceFacetListener extends AbstractMongoEventListener<Race> {
+
+    private static final Logger log = LoggerFactory.getLogger(RaceFacetListener.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final RaceFacetRepository facets;
+
+    // Before/after events of one write run on the calling thread, so the stored state is handed over here.
+    private final ThreadLocal<Map<String, RaceFacetContribution>> previousById = ThreadLocal.withInitial(HashMap::new);
+    private final ThreadLocal<List<RaceFacetContribution>> pendingRemovals = ThreadLocal.withInitial(ArrayList::new);
+
+    RaceFacetListener(MongoTemplate mongoTemplate, RaceFacetRepository facets) {
+        this.mongoTemplate = mongoTemplate;
+        this.facets = facets;
+    }
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<Race> event) {
+        String id = event.getSource().getId();
+        if (id == null) return;
+        try {
+            List<RaceFacetContribution> stored = loadContributions(new Query(Criteria.where("_id").is(id)));
+            if (stored.isEmpty()) {
+                previousById.get().remove(id);
+            } else {
+                previousById.get().put(id, stored.getFirst());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not read previous state of race {} for facets: {}", id, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Race> event) {
+        Race saved = event.getSource();
+        RaceFacetContribution previous = saved.getId() == null ? null : previousById.get().remove(saved.getId());
+        RaceFacetContribution current = RaceFacetContribution.of(saved);
+        if (current.equals(previous)) return;
+        try {
+            if (previous != null) facets.apply(previous, -1);
+            facets.apply(current, 1);
+        } catch (RuntimeException e) {
+            log.warn("Failed to update facets for race {}: {}", saved.getId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void onBeforeDelete(BeforeDeleteEvent<Race> event) {
+        List<RaceFacetContribution> removals = pendingRemovals.get();
+        removals.clear();
+        try {
+            removals.addAll(loadContributions(new BasicQuery(event.getDocument())));
+        } catch (RuntimeException e) {
+            log.warn("Could not read races being deleted for facets: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Race> event) {
+        List<RaceFacetContribution> removals = pendingRemovals.get();
+        try {
+            for (RaceFacetContribution c : removals) {
+                facets.apply(c, -1);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to update facets after race delete: {}", e.getMessage());
+        } finally {
+            removals.clear();
+        }
+    }
+
+    private List<RaceFacetContribution> loadContributions(Query query) {
+        query.fields().include(RaceFacetContribution.SOURCE_FIELDS);
+        return mongoTemplate.find(query, Race.class).stream().map(RaceFacetContribution::of).toList();
+    }
+}
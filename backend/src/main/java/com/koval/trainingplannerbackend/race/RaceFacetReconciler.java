@@ -0,0 +1,74 @@
+package com.koval.trainingplannerbackend.race;
+
+import com.koval.trainingplannerbackend.maintenance.JobLeaseService;
+import com.koval.trainingplannerbackend.race.RaceFacetContribution.Bucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Recounts {@code race_facet_counts} from {@code races} and repairs any drift left by failed
+ * incremental updates. Seeds the counts at startup while the collection is empty, then runs
+ * nightly; each run takes a {@link JobLeaseService} lease so only one instance does the work.
+ * Cost: one streamed pass over four projected race fields plus a bulk write of the differences.
+ */
+@Component
+class RaceFacetReconciler implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RaceFacetReconciler.class);
+    private static final String LEASE_PREFIX = "race-facet-reconcile:";
+
+    private final MongoTemplate mongoTemplate;
+    private final RaceFacetRepository facets;
+    private final JobLeaseService jobLeaseService;
+
+    RaceFacetReconciler(MongoTemplate mongoTemplate, RaceFacetRepository facets, JobLeaseService jobLeaseService) {
+        this.mongoTemplate = mongoTemplate;
+        this.facets = facets;
+        this.jobLeaseService = jobLeaseService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (facets.isEmpty()) runUnderLease(LEASE_PREFIX + "seed");
+    }
+
+    @Scheduled(cron = "${races.facets.reconcileCron:0 45 3 * * *}")
+    public void reconcileNightly() {
+        runUnderLease(LEASE_PREFIX + LocalDate.now());
+    }
+
+    private void runUnderLease(String leaseId) {
+        if (!jobLeaseService.tryAcquire(leaseId, Duration.ofMinutes(30))) return;
+        int changes = reconcile();
+        jobLeaseService.complete(leaseId);
+        if (changes > 0) {
+            log.info("RaceFacetReconciler: corrected {} facet bucket(s).", changes);
+        }
+    }
+
+    int reconcile() {
+        Query query = new Query();
+        query.fields().include(RaceFacetContribution.SOURCE_FIELDS);
+        Map<Bucket, Long> expected = new HashMap<>();
+        try (Stream<Race> races = mongoTemplate.stream(query, Race.class)) {
+            races.forEach(race -> {
+                for (Bucket b : RaceFacetContribution.of(race).buckets()) {
+                    expected.merge(b, 1L, Long::sum);
+                }
+            });
+        }
+        return facets.replaceCounts(expected, facets.findAll());
+    }
+}
@@ -0,0 +1,93 @@
+package com.koval.trainingplannerbackend.race;
+
+import com.koval.trainingplannerbackend.race.RaceFacetContribution.Bucket;
+import com.koval.trainingplannerbackend.race.RaceFacetCount.Dimension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes and reads on {@code race_facet_counts}. Increments are upserting {@code $inc}s, so
+ * concurrent race edits never lose counts; reads are small indexed lookups by
+ * (dimension, sport) that never touch the {@code races} collection.
+ */
+@Repository
+public class RaceFacetRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public RaceFacetRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /** Adds ({@code sign = 1}) or removes ({@code sign = -1}) one race's buckets. */
+    public void apply(RaceFacetContribution c, int sign) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RaceFacetCount.class);
+        for (Bucket b : c.buckets()) {
+            bulk.upsert(new Query(Criteria.where("_id").is(idOf(b))), new Update()
+                    .setOnInsert("dimension", b.dimension())
+                    .setOnInsert("sport", b.sport())
+                    .setOnInsert("value", b.value())
+                    .inc("count", sign));
+        }
+        bulk.execute();
+    }
+
+    /** Non-empty buckets of one dimension, largest first; {@code sport == null} spans every sport. */
+    public List<RaceFacetCount> find(Dimension dimension, String sport) {
+        Criteria criteria = Criteria.where("dimension").is(dimension).and("count").gt(0);
+        if (sport != null) criteria.and("sport").is(sport);
+        return mongoTemplate.find(new Query(criteria).with(Sort.by(Sort.Direction.DESC, "count")),
+                RaceFacetCount.class);
+    }
+
+    /** Every stored bucket, including those counted down to zero (reconciliation). */
+    public List<RaceFacetCount> findAll() {
+        return mongoTemplate.findAll(RaceFacetCount.class);
+    }
+
+    /**
+     * Overwrites stored counts with {@code expected} (bucket → count): differing counts are set,
+     * missing buckets are inserted, and stored buckets absent from {@code expected} are removed.
+     *
+     * @return number of buckets written or removed
+     */
+    public int replaceCounts(Map<Bucket, Long> expected, List<RaceFacetCount> stored) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RaceFacetCount.class);
+        int changes = 0;
+        Map<String, Long> storedCounts = new HashMap<>();
+        for (RaceFacetCount f : stored) storedCounts.put(f.getId(), f.getCount());
+        for (Map.Entry<Bucket, Long> e : expected.entrySet()) {
+            String id = idOf(e.getKey());
+            if (e.getValue().equals(storedCounts.remove(id))) continue;
+            bulk.upsert(new Query(Criteria.where("_id").is(id)), new Update()
+                    .set("dimension", e.getKey().dimension())
+                    .set("sport", e.getKey().sport())
+                    .set("value", e.getKey().value())
+                    .set("count", e.getValue()));
+            changes++;
+        }
+        for (String staleId : storedCounts.keySet()) {
+            bulk.remove(new Query(Criteria.where("_id").is(staleId)));
+            changes++;
+        }
+        if (changes > 0) bulk.execute();
+        return changes;
+    }
+
+    public boolean isEmpty() {
+        return mongoTemplate.estimatedCount(RaceFacetCount.class) == 0;
+    }
+
+    static String idOf(Bucket b) {
+        return b.dimension() + "|" + b.sport() + "|" + b.value();
+    }
+}
@@ -0,0 +1,75 @@
+package com.koval.trainingplannerbackend.race;
+
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves legacy inline GPX payloads ({@code swimGpx}/{@code bikeGpx}/{@code runGpx} binaries on
+ * the race document) into {@link RaceGpxStore}, replacing each with a {@code *GpxFile} reference
+ * and unsetting the binary. Also ensures the content-hash index on {@code fs.files}.
+ *
+ * Idempotent: only races still carrying a legacy binary are read, one at a time, and each is
+ * rewritten with a single {@code $set}/{@code $unset}.
+ */
+@Component
+class RaceGpxGridFsMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RaceGpxGridFsMigration.class);
+    private static final String COLLECTION = "races";
+    private static final String[] DISCIPLINES = {"swim", "bike", "run"};
+
+    private final MongoTemplate mongoTemplate;
+    private final RaceGpxStore gpxStore;
+
+    RaceGpxGridFsMigration(MongoTemplate mongoTemplate, RaceGpxStore gpxStore) {
+        this.mongoTemplate = mongoTemplate;
+        this.gpxStore = gpxStore;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        mongoTemplate.indexOps("fs.files").createIndex(new Index().on(RaceGpxStore.SHA256_FIELD, Sort.Direction.ASC));
+
+        List<Document> legacyFilters = new ArrayList<>();
+        for (String d : DISCIPLINES) {
+            legacyFilters.add(new Document(d + "Gpx", new Document("$exists", true)));
+        }
+        Document projection = new Document("swimGpx", 1).append("bikeGpx", 1).append("runGpx", 1);
+
+        long migrated = 0;
+        for (Document race : mongoTemplate.getCollection(COLLECTION)
+                .find(new Document("$or", legacyFilters)).projection(projection)) {
+            Document set = new Document();
+            Document unset = new Document();
+            for (String d : DISCIPLINES) {
+                String legacy = d + "Gpx";
+                if (!race.containsKey(legacy)) continue;
+                unset.append(legacy, "");
+                if (race.get(legacy) instanceof Binary binary && binary.getData().length > 0) {
+                    Race.GpxFile file = gpxStore.store(binary.getData());
+                    set.append(legacy + "File", new Document("fileId", file.fileId())
+                            .append("sha256", file.sha256())
+                            .append("sizeBytes", file.sizeBytes()));
+                }
+            }
+            Document update = new Document("$unset", unset);
+            if (!set.isEmpty()) update.append("$set", set);
+            mongoTemplate.getCollection(COLLECTION).updateOne(new Document("_id", race.get("_id")), update);
+            migrated++;
+        }
+        if (migrated > 0) {
+            log.info("RaceGpxGridFsMigration: moved GPX of {} race(s) to GridFS.", migrated);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.koval.trainingplannerbackend.race;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.gridfs.GridFsOperations;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.NoSuchElementException;
+
+/**
+ * Content-addressed GridFS storage for race GPX courses. Files are keyed by the SHA-256 of
+ * their bytes, so re-uploading the same course (or sharing it across editions of a race) stores
+ * it once; a file is deleted only when no race references it any more.
+ *
+ * <p>Reusing a file and releasing it are guarded on the file itself: {@link #store} stamps
+ * {@code metadata.claimedAt} on the file it hands out (skipping files being deleted), and a
+ * release first marks the file {@code metadata.deleting}, only if it was not claimed within
+ * {@code CLAIM_GRACE}, then re-checks the race references before deleting. An upload that reuses
+ * a file while its last reference is dropped therefore either keeps the file or gets a new one. A
+ * file released inside the window is left in place as an orphan rather than risk deleting it.
+ */
+@Service
+public class RaceGpxStore {
+
+    static final String CONTENT_TYPE = "application/gpx+xml";
+    static final String SHA256_FIELD = "metadata.sha256";
+    private static final String FILES_COLLECTION = "fs.files";
+    private static final String CLAIMED_AT_FIELD = "metadata.claimedAt";
+    private static final String DELETING_FIELD = "metadata.deleting";
+    /** How long a handed-out file is protected from release while its race is saved. */
+    private static final Duration CLAIM_GRACE = Duration.ofMinutes(5);
+
+    private final GridFsOperations gridFsOperations;
+    private final MongoTemplate mongoTemplate;
+
+    public RaceGpxStore(GridFsOperations gridFsOperations, MongoTemplate mongoTemplate) {
+        this.gridFsOperations = gridFsOperations;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /** Stores {@code gpx}, reusing the existing GridFS file when identical content is already stored. */
+    public Race.GpxFile store(byte[] gpx) {
+        String sha256 = sha256(gpx);
+        Document existing = mongoTemplate.findAndModify(
+                Query.query(Criteria.where(SHA256_FIELD).is(sha256).and(DELETING_FIELD).ne(true)),
+                new Update().set(CLAIMED_AT_FIELD, Instant.now()),
+                FindAndModifyOptions.options().returnNew(true), Document.class, FILES_COLLECTION);
+        if (existing != null) {
+            return new Race.GpxFile(existing.getObjectId("_id").toHexString(), sha256, gpx.length);
+        }
+        ObjectId id = gridFsOperations.store(new ByteArrayInputStream(gpx), sha256 + ".gpx", CONTENT_TYPE,
+                new Document("sha256", sha256).append("claimedAt", new Date()));
+        return new Race.GpxFile(id.toHexString(), sha256, gpx.length);
+    }
+
+    /** Streamable handle on a stored course; the bytes are read only when the caller consumes it. */
+    public GridFsResource resource(Race.GpxFile file) {
+        GridFSFile gridFile = gridFsOperations.findOne(
+                Query.query(Criteria.where("_id").is(new ObjectId(file.fileId()))));
+        if (gridFile == null) {
+            throw new NoSuchElementException("GPX file missing: " + file.fileId());
+        }
+        return gridFsOperations.getResource(gridFile);
+    }
+
+    /**
+     * Deletes the stored file unless another race discipline still references it or an upload
+     * reused it recently. No-op for null.
+     */
+    public void releaseIfUnreferenced(Race.GpxFile file) {
+        if (file == null || isReferenced(file)) return;
+        ObjectId id = new ObjectId(file.fileId());
+        Document marked = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(id).and(DELETING_FIELD).ne(true).orOperator(
+                        Criteria.where(CLAIMED_AT_FIELD).exists(false),
+                        Criteria.where(CLAIMED_AT_FIELD).lt(Instant.now().minus(CLAIM_GRACE)))),
+                new Update().set(DELETING_FIELD, true), Document.class, FILES_COLLECTION);
+        if (marked == null) return;
+        if (isReferenced(file)) {
+            // Saved by an upload that claimed the file before the grace window: keep it.
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)),
+                    new Update().unset(DELETING_FIELD), FILES_COLLECTION);
+            return;
+        }
+        gridFsOperations.delete(Query.query(Criteria.where("_id").is(id)));
+    }
+
+    private boolean isReferenced(Race.GpxFile file) {
+        Query referenced = new Query(new Criteria().orOperator(
+                Criteria.where("swimGpxFile.fileId").is(file.fileId()),
+                Criteria.where("bikeGpxFile.fileId").is(file.fileId()),
+                Criteria.where("runGpxFile.fileId").is(file.fileId())));
+        return mongoTemplate.exists(referenced, Race.class);
+    }
+
+    static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.koval.trainingplannerbackend.race;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills the search index fields (and normalises the sport) of races saved before
+ * {@link RaceSearchIndexListener} maintained them. Idempotent: only races without
+ * {@code searchTokens} or without the filter keys are read (sport/title/location/country/region
+ * only, never the GPX payloads), and each gets a single {@code $set} in one bulk write.
+ */
+@Component
+class RaceSearchIndexBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(RaceSearchIndexBackfill.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    RaceSearchIndexBackfill(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Keys are written even when null, so a race is only picked up once.
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("searchTokens").exists(false),
+                Criteria.where("countryKey").exists(false)));
+        query.fields().include("sport", "title", "location", "country", "region");
+        List<Race> races = mongoTemplate.find(query, Race.class);
+        if (races.isEmpty()) return;
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Race.class);
+        for (Race race : races) {
+            RaceSearchIndexListener.index(race);
+            bulk.updateOne(new Query(Criteria.where("_id").is(race.getId())), new Update()
+                    .set("searchTokens", race.getSearchTokens())
+                    .set("searchTrigrams", race.getSearchTrigrams())
+                    .set("sport", race.getSport())
+                    .set("countryKey", race.getCountryKey())
+                    .set("regionKey", race.getRegionKey()));
+        }
+        bulk.execute();
+        log.info("RaceSearchIndexBackfill: indexed {} race(s) for search.", races.size());
+    }
+}
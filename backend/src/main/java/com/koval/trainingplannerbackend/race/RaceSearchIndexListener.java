@@ -0,0 +1,28 @@
+package com.koval.trainingplannerbackend.race;
+
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@link Race#getSearchTokens()}, {@link Race#getSearchTrigrams()} and the country/region
+ * filter keys in step with the searchable fields on every save, whichever service performs it
+ * (manual edits, AI completion, web search import), so the index is rebuilt incrementally one
+ * race at a time. The sport is normalised to its upper-case form so filters match it exactly.
+ */
+@Component
+class RaceSearchIndexListener extends AbstractMongoEventListener<Race> {
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<Race> event) {
+        index(event.getSource());
+    }
+
+    static void index(Race race) {
+        race.setSport(RaceSearchText.sportKey(race.getSport()));
+        race.setCountryKey(RaceSearchText.filterKey(race.getCountry()));
+        race.setRegionKey(RaceSearchText.filterKey(race.getRegion()));
+        race.setSearchTokens(RaceSearchText.indexTokens(race));
+        race.setSearchTrigrams(RaceSearchText.trigrams(RaceSearchText.tokenize(race.getTitle())));
+    }
+}
@@ -0,0 +1,177 @@
+package com.koval.trainingplannerbackend.race;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Typeahead race search over the {@code searchTokens} / {@code searchTrigrams} index kept by
+ * {@link RaceSearchIndexListener}.
+ *
+ * <p>Every query word must prefix-match an indexed word; anchored regexes on the multikey
+ * index turn into index range scans, so no query touches the whole collection. When nothing
+ * matches, the query falls back to trigram overlap with the title to absorb typos. Candidates
+ * (capped at {@value #MAX_CANDIDATES}, upcoming races first) are read with a small projection,
+ * ranked in memory, and only the requested page is loaded in full — latency is bounded by the
+ * cap, not by the catalogue size.
+ */
+@Service
+public class RaceSearchService {
+
+    /** Upper bound on races ranked per query; keeps typeahead cost flat as the catalogue grows. */
+    static final int MAX_CANDIDATES = 500;
+    /** Minimum trigram similarity for a fuzzy match to be returned. */
+    static final double MIN_FUZZY_SIMILARITY = 0.35;
+
+    private static final String[] RANKING_FIELDS = {"title", "scheduledDate", "searchTokens"};
+
+    /** Optional structured filters combined with the text query; null means unconstrained. */
+    public record Filters(String sport, String region, LocalDate from, LocalDate to) {}
+
+    private record Ranked(Race race, double score) {}
+
+    private final MongoTemplate mongoTemplate;
+
+    public RaceSearchService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Page<Race> search(String text, Filters filters, Pageable pageable) {
+        List<String> queryTokens = RaceSearchText.tokenize(text);
+        if (queryTokens.isEmpty()) {
+            Query query = new Query(filterCriteria(filters)).with(pageable);
+            List<Race> content = mongoTemplate.find(query, Race.class);
+            long total = mongoTemplate.count(new Query(filterCriteria(filters)), Race.class);
+            return new PageImpl<>(content, pageable, total);
+        }
+
+        List<Ranked> ranked = prefixMatches(queryTokens, filters);
+        if (ranked.isEmpty()) {
+            ranked = fuzzyMatches(queryTokens, filters);
+        }
+        return page(ranked, pageable);
+    }
+
+    private List<Ranked> prefixMatches(List<String> queryTokens, Filters filters) {
+        List<Criteria> clauses = new ArrayList<>();
+        clauses.add(filterCriteria(filters));
+        for (String token : queryTokens) {
+            // Tokens are letters and digits only, so the anchored prefix needs no quoting and
+            // stays recognisable to the planner as an index range.
+            clauses.add(Criteria.where("searchTokens").regex("^" + token));
+        }
+        String normalizedQuery = String.join(" ", queryTokens);
+        return candidates(new Criteria().andOperator(clauses), "searchTokens").stream()
+                .map(race -> new Ranked(race, prefixScore(race, queryTokens, normalizedQuery)))
+                .sorted(ranking())
+                .toList();
+    }
+
+    private List<Ranked> fuzzyMatches(List<String> queryTokens, Filters filters) {
+        List<String> queryGrams = RaceSearchText.trigrams(queryTokens);
+        Criteria criteria = new Criteria().andOperator(
+                filterCriteria(filters),
+                Criteria.where("searchTrigrams").in(queryGrams));
+        return candidates(criteria, "searchTrigrams").stream()
+                .map(race -> new Ranked(race, RaceSearchText.similarity(queryGrams,
+                        RaceSearchText.trigrams(RaceSearchText.tokenize(race.getTitle())))))
+                .filter(r -> r.score() >= MIN_FUZZY_SIMILARITY)
+                .sorted(ranking())
+                .toList();
+    }
+
+    /**
+     * Up to {@value #MAX_CANDIDATES} matches, soonest upcoming races first, then the most recent
+     * past (or undated) ones — so when a broad query is capped, the races a user most likely wants
+     * are the ones that reach the ranking rather than an arbitrary subset.
+     */
+    private List<Race> candidates(Criteria criteria, String indexField) {
+        String today = LocalDate.now().toString();
+        List<Race> races = new ArrayList<>(findCandidates(
+                new Criteria().andOperator(criteria, Criteria.where("scheduledDate").gte(today)),
+                Sort.by(Sort.Direction.ASC, "scheduledDate"), MAX_CANDIDATES, indexField));
+        if (races.size() < MAX_CANDIDATES) {
+            races.addAll(findCandidates(
+                    new Criteria().andOperator(criteria, new Criteria().orOperator(
+                            Criteria.where("scheduledDate").lt(today), Criteria.where("scheduledDate").is(null))),
+                    Sort.by(Sort.Direction.DESC, "scheduledDate"), MAX_CANDIDATES - races.size(), indexField));
+        }
+        return races;
+    }
+
+    private List<Race> findCandidates(Criteria criteria, Sort sort, int limit, String indexField) {
+        Query query = new Query(criteria).with(sort).limit(limit);
+        query.fields().include(RANKING_FIELDS).include(indexField);
+        return mongoTemplate.find(query, Race.class);
+    }
+
+    /**
+     * Title words outrank location/country/region words, whole-word matches outrank prefixes,
+     * and a title that starts with the whole query gets a bonus.
+     */
+    static double prefixScore(Race race, List<String> queryTokens, String normalizedQuery) {
+        List<String> titleTokens = RaceSearchText.tokenize(race.getTitle());
+        List<String> otherTokens = race.getSearchTokens() != null ? race.getSearchTokens() : List.of();
+        double score = 0;
+        for (String q : queryTokens) {
+            if (titleTokens.contains(q)) score += 3;
+            else if (titleTokens.stream().anyMatch(t -> t.startsWith(q))) score += 2;
+            else if (otherTokens.contains(q)) score += 1.5;
+            else score += 1;
+        }
+        if (String.join(" ", titleTokens).startsWith(normalizedQuery)) score += 2;
+        return score;
+    }
+
+    private static Comparator<Ranked> ranking() {
+        return Comparator.comparingDouble(Ranked::score).reversed()
+                .thenComparing(r -> r.race().getScheduledDate(), Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(r -> r.race().getTitle(), Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    private Page<Race> page(List<Ranked> ranked, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        List<String> ids = ranked.subList(from, to).stream().map(r -> r.race().getId()).toList();
+        Map<String, Race> full = mongoTemplate.find(new Query(Criteria.where("_id").in(ids)), Race.class).stream()
+                .collect(Collectors.toMap(Race::getId, Function.identity()));
+        List<Race> content = ids.stream().map(full::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(content, pageable, ranked.size());
+    }
+
+    private static Criteria filterCriteria(Filters f) {
+        Criteria c = new Criteria();
+        if (f == null) return c;
+        // Sport and country/region keys are normalised on write, so these are exact index lookups.
+        String sport = RaceSearchText.sportKey(f.sport());
+        if (sport != null) {
+            c.and("sport").is(sport);
+        }
+        String region = RaceSearchText.filterKey(f.region());
+        if (region != null) {
+            c.orOperator(Criteria.where("countryKey").is(region), Criteria.where("regionKey").is(region));
+        }
+        if (f.from() != null && f.to() != null) {
+            c.and("scheduledDate").gte(f.from().toString()).lte(f.to().toString());
+        } else if (f.from() != null) {
+            c.and("scheduledDate").gte(f.from().toString());
+        } else if (f.to() != null) {
+            c.and("scheduledDate").lte(f.to().toString());
+        }
+        return c;
+    }
+}
@@ -0,0 +1,85 @@
+package com.koval.trainingplannerbackend.race;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Text normalisation shared by the race search index and race search queries. Words are
+ * lower-cased and accent-folded ("Zürich" → "zurich"), with every non-alphanumeric run acting
+ * as a separator, so the stored tokens and the typed query always compare in the same form.
+ */
+final class RaceSearchText {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private RaceSearchText() {}
+
+    /** Lower-cased, accent-folded words of {@code text}; empty for null or blank input. */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String word : SEPARATORS.split(folded.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) tokens.add(word);
+        }
+        return tokens;
+    }
+
+    /**
+     * Exact-match key of a filter value such as a country or region: its tokens joined by single
+     * spaces ("Île-de-France" → "ile de france"); null for null or blank input.
+     */
+    static String filterKey(String text) {
+        List<String> tokens = tokenize(text);
+        return tokens.isEmpty() ? null : String.join(" ", tokens);
+    }
+
+    /** Stored form of a sport: trimmed and upper-cased ("cycling " → "CYCLING"); null for null or blank. */
+    static String sportKey(String sport) {
+        return sport == null || sport.isBlank() ? null : sport.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /** Distinct tokens of the race's title, location, country and region. */
+    static List<String> indexTokens(Race race) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(race.getTitle()));
+        tokens.addAll(tokenize(race.getLocation()));
+        tokens.addAll(tokenize(race.getCountry()));
+        tokens.addAll(tokenize(race.getRegion()));
+        return List.copyOf(tokens);
+    }
+
+    /**
+     * Distinct character trigrams of {@code tokens}, each word padded with a leading space so
+     * word starts weigh in. Words shorter than three characters contribute themselves.
+     */
+    static List<String> trigrams(Collection<String> tokens) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String token : tokens) {
+            if (token.length() < 3) {
+                grams.add(token);
+                continue;
+            }
+            String padded = " " + token;
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return List.copyOf(grams);
+    }
+
+    /** Dice coefficient of two trigram sets: 1.0 for identical, 0.0 for disjoint. */
+    static double similarity(Collection<String> a, Collection<String> b) {
+        if (a.isEmpty() || b.isEmpty()) return 0.0;
+        Set<String> smaller = a.size() <= b.size() ? Set.copyOf(a) : Set.copyOf(b);
+        Collection<String> larger = a.size() <= b.size() ? b : a;
+        long shared = larger.stream().distinct().filter(smaller::contains).count();
+        return 2.0 * shared / (a.size() + b.size());
+    }
+}
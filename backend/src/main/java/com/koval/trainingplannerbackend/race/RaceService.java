@@ -3,7 +3,7 @@ package com.koval.trainingplannerbackend.race;
 import com.koval.trainingplannerbackend.pacing.dto.RouteCoordinate;
 import com.koval.trainingplannerbackend.pacing.gpx.GpxParseResult;
 import com.koval.trainingplannerbackend.pacing.gpx.GpxParser;
-import org.bson.Document;
+import com.koval.trainingplannerbackend.race.RaceFacetCount.Dimension;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
@@ -11,15 +11,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.aggregation.Aggregation;
-import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
 
 
 @Service
@@ -32,12 +37,17 @@ public class RaceService {
 
     private final RaceRepository repository;
     private final GpxParser gpxParser;
-    private final MongoTemplate mongoTemplate;
+    private final RaceSearchService searchService;
+    private final RaceGpxStore gpxStore;
+    private final RaceFacetRepository facetRepository;
 
-    public RaceService(RaceRepository repository, GpxParser gpxParser, MongoTemplate mongoTemplate) {
+    public RaceService(RaceRepository repository, GpxParser gpxParser, RaceSearchService searchService,
+                       RaceGpxStore gpxStore, RaceFacetRepository facetRepository) {
         this.repository = repository;
         this.gpxParser = gpxParser;
-        this.mongoTemplate = mongoTemplate;
+        this.searchService = searchService;
+        this.gpxStore = gpxStore;
+        this.facetRepository = facetRepository;
     }
 
     public List<Race> searchRaces(String query, String sport, String region) {
@@ -45,20 +55,15 @@ public class RaceService {
     }
 
     public Page<Race> searchRaces(String query, String sport, String region, Pageable pageable) {
-        Pageable bounded = capPageSize(pageable);
-        if (query != null && !query.isBlank() && sport != null && !sport.isBlank()) {
-            return repository.findByTitleContainingIgnoreCaseAndSportIgnoreCase(query.trim(), sport.trim(), bounded);
-        }
-        if (query != null && !query.isBlank()) {
-            return repository.findByTitleContainingIgnoreCase(query.trim(), bounded);
-        }
-        if (sport != null && !sport.isBlank()) {
-            return repository.findBySportIgnoreCase(sport.trim(), bounded);
-        }
-        if (region != null && !region.isBlank()) {
-            return repository.findByCountryIgnoreCaseOrRegionIgnoreCase(region.trim(), region.trim(), bounded);
-        }
-        return repository.findAll(bounded);
+        return searchRaces(query, new RaceSearchService.Filters(sport, region, null, null), pageable);
+    }
+
+    /**
+     * Ranked prefix/fuzzy title search combined with sport, country/region and date filters.
+     * See {@link RaceSearchService} for matching and ranking.
+     */
+    public Page<Race> searchRaces(String query, RaceSearchService.Filters filters, Pageable pageable) {
+        return searchService.search(query, filters, capPageSize(pageable));
     }
 
     private Pageable capPageSize(Pageable pageable) {
@@ -72,10 +77,6 @@ public class RaceService {
                 .orElseThrow(() -> new NoSuchElementException("Race not found"));
     }
 
-    @Caching(evict = {
-            @CacheEvict(value = "raceSportFacets", allEntries = true),
-            @CacheEvict(value = "raceCountryFacets", allEntries = true)
-    })
     public Race createRace(String userId, Race race) {
         race.setCreatedBy(userId);
         race.setCreatedAt(LocalDateTime.now());
@@ -95,11 +96,7 @@ public class RaceService {
         }
     }
 
-    @Caching(evict = {
-            @CacheEvict(value = "races", key = "#raceId"),
-            @CacheEvict(value = "raceSportFacets", allEntries = true),
-            @CacheEvict(value = "raceCountryFacets", allEntries = true)
-    })
+    @CacheEvict(value = "races", key = "#raceId")
     public Race updateRace(String raceId, Race updates) {
         validateLoops(updates.getSwimGpxLoops());
         validateLoops(updates.getBikeGpxLoops());
@@ -138,19 +135,16 @@ public class RaceService {
 
     @Caching(evict = {
         @CacheEvict(value = "races", key = "#raceId"),
-        @CacheEvict(value = "raceRoutes", key = "#raceId + '_' + #discipline.toLowerCase()"),
-        @CacheEvict(value = "raceSportFacets", allEntries = true),
-        @CacheEvict(value = "raceCountryFacets", allEntries = true)
+        @CacheEvict(value = "raceRoutes", key = "#raceId + '_' + #discipline.toLowerCase()")
     })
     public void uploadGpx(String raceId, String discipline, byte[] gpxBytes) {
         Race race = getRaceById(raceId);
-        switch (discipline.toLowerCase()) {
-            case "swim" -> race.setSwimGpx(gpxBytes);
-            case "bike" -> race.setBikeGpx(gpxBytes);
-            case "run" -> race.setRunGpx(gpxBytes);
-            default -> throw new IllegalArgumentException("Discipline must be swim, bike, or run");
-        }
+        Race.GpxFile previous = gpxFileOf(race, discipline);
+        setGpxFile(race, discipline, gpxStore.store(gpxBytes));
         repository.save(race);
+        if (previous != null && !previous.fileId().equals(gpxFileOf(race, discipline).fileId())) {
+            gpxStore.releaseIfUnreferenced(previous);
+        }
     }
 
     @Caching(evict = {
@@ -159,86 +153,104 @@ public class RaceService {
     })
     public void deleteGpx(String raceId, String discipline) {
         Race race = getRaceById(raceId);
-        switch (discipline.toLowerCase()) {
-            case "swim" -> race.setSwimGpx(null);
-            case "bike" -> race.setBikeGpx(null);
-            case "run" -> race.setRunGpx(null);
-            default -> throw new IllegalArgumentException("Discipline must be swim, bike, or run");
-        }
+        Race.GpxFile previous = gpxFileOf(race, discipline);
+        setGpxFile(race, discipline, null);
         repository.save(race);
+        gpxStore.releaseIfUnreferenced(previous);
     }
 
-    public byte[] getGpxBytes(String raceId, String discipline) {
-        Race race = getRaceById(raceId);
-        byte[] gpx = switch (discipline.toLowerCase()) {
-            case "swim" -> race.getSwimGpx();
-            case "bike" -> race.getBikeGpx();
-            case "run" -> race.getRunGpx();
-            default -> throw new IllegalArgumentException("Discipline must be swim, bike, or run");
-        };
-        if (gpx == null) {
+    /** Streamable GPX course of one discipline; throws {@link NoSuchElementException} when absent. */
+    public GridFsResource getGpx(String raceId, String discipline) {
+        Race.GpxFile file = gpxFileOf(getRaceById(raceId), discipline);
+        if (file == null) {
             throw new NoSuchElementException("No GPX file for discipline: " + discipline);
         }
-        return gpx;
+        return gpxStore.resource(file);
     }
 
     @Cacheable(value = "raceRoutes", key = "#raceId + '_' + #discipline")
     public List<RouteCoordinate> getRouteCoordinates(String raceId, String discipline) {
-        byte[] gpxBytes = getGpxBytes(raceId, discipline);
-        GpxParseResult result = gpxParser.parseWithCoordinates(new ByteArrayInputStream(gpxBytes));
-        return result.routeCoordinates();
+        return parseGpx(raceId, discipline).routeCoordinates();
     }
 
     public GpxParseResult parseGpx(String raceId, String discipline) {
-        byte[] gpxBytes = getGpxBytes(raceId, discipline);
-        return gpxParser.parseWithCoordinates(new ByteArrayInputStream(gpxBytes));
+        try (InputStream in = getGpx(raceId, discipline).getInputStream()) {
+            return gpxParser.parseWithCoordinates(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read GPX for race " + raceId, e);
+        }
+    }
+
+    private static Race.GpxFile gpxFileOf(Race race, String discipline) {
+        return switch (discipline.toLowerCase()) {
+            case "swim" -> race.getSwimGpxFile();
+            case "bike" -> race.getBikeGpxFile();
+            case "run" -> race.getRunGpxFile();
+            default -> throw new IllegalArgumentException("Discipline must be swim, bike, or run");
+        };
+    }
+
+    private static void setGpxFile(Race race, String discipline, Race.GpxFile file) {
+        switch (discipline.toLowerCase()) {
+            case "swim" -> race.setSwimGpxFile(file);
+            case "bike" -> race.setBikeGpxFile(file);
+            case "run" -> race.setRunGpxFile(file);
+            default -> throw new IllegalArgumentException("Discipline must be swim, bike, or run");
+        }
     }
 
-    @Cacheable("raceSportFacets")
+    /** Sports with their race and country counts, read from the materialised facet counts. */
     public List<RaceController.SportFacet> getSportFacets() {
-        Aggregation agg = Aggregation.newAggregation(
-                Aggregation.group("sport")
-                        .count().as("raceCount")
-                        .addToSet("country").as("countries"),
-                Aggregation.project("raceCount")
-                        .and("_id").as("sport")
-                        .and("countries").size().as("countryCount"),
-                Aggregation.sort(org.springframework.data.domain.Sort.Direction.DESC, "raceCount")
-        );
-        AggregationResults<Document> results = mongoTemplate.aggregate(agg, "races", Document.class);
-        return results.getMappedResults().stream()
-                .map(doc -> new RaceController.SportFacet(
-                        doc.getString("sport"),
-                        doc.getInteger("raceCount", 0),
-                        doc.getInteger("countryCount", 0)
-                ))
+        Map<String, Long> countriesPerSport = facetRepository.find(Dimension.COUNTRY, null).stream()
+                .collect(Collectors.groupingBy(RaceFacetCount::getSport, Collectors.counting()));
+        return facetRepository.find(Dimension.SPORT, null).stream()
+                .map(f -> new RaceController.SportFacet(f.getValue(), f.getCount(),
+                        countriesPerSport.getOrDefault(f.getSport(), 0L).intValue()))
                 .toList();
     }
 
-    @Cacheable(value = "raceCountryFacets", key = "#sport")
     public List<RaceController.CountryFacet> getCountryFacets(String sport) {
-        Aggregation agg = Aggregation.newAggregation(
-                Aggregation.match(org.springframework.data.mongodb.core.query.Criteria.where("sport").regex("^" + sport + "$", "i")),
-                Aggregation.group("country")
-                        .count().as("raceCount"),
-                Aggregation.project("raceCount")
-                        .and("_id").as("country"),
-                Aggregation.sort(org.springframework.data.domain.Sort.Direction.DESC, "raceCount")
-        );
-        AggregationResults<Document> results = mongoTemplate.aggregate(agg, "races", Document.class);
-        return results.getMappedResults().stream()
-                .map(doc -> new RaceController.CountryFacet(
-                        doc.getString("country"),
-                        doc.getInteger("raceCount", 0)
-                ))
+        return facetRepository.find(Dimension.COUNTRY, RaceFacetContribution.sportKey(sport)).stream()
+                .map(f -> new RaceController.CountryFacet(f.getValue(), f.getCount()))
                 .toList();
     }
 
+    /** Race counts per {@link DistanceCategory} for {@code sport}, or across all sports when null. */
+    public List<RaceController.ValueFacet> getDistanceCategoryFacets(String sport) {
+        return valueFacets(Dimension.DISTANCE_CATEGORY, sport);
+    }
+
+    /** Race counts per scheduled month ({@code YYYY-MM}) for {@code sport}, or across all sports when null. */
+    public List<RaceController.ValueFacet> getMonthFacets(String sport) {
+        return valueFacets(Dimension.MONTH, sport);
+    }
+
+    private List<RaceController.ValueFacet> valueFacets(Dimension dimension, String sport) {
+        String sportKey = sport == null || sport.isBlank() ? null : RaceFacetContribution.sportKey(sport);
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (RaceFacetCount f : facetRepository.find(dimension, sportKey)) {
+            totals.merge(f.getValue(), f.getCount(), Long::sum);
+        }
+        return totals.entrySet().stream()
+                .map(e -> new RaceController.ValueFacet(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparingLong(RaceController.ValueFacet::raceCount).reversed())
+                .toList();
+    }
+
+    /**
+     * Races of one sport facet bucket in {@code country}. The {@code OTHER} bucket also counts races
+     * without a sport, so browsing it matches those as well.
+     */
     public Page<Race> browse(String sport, String country, Pageable pageable) {
         Pageable sorted = PageRequest.of(
                 pageable.getPageNumber(),
                 pageable.getPageSize(),
                 Sort.by(Sort.Direction.ASC, "scheduledDate"));
+        if (RaceFacetContribution.OTHER_SPORT.equals(RaceFacetContribution.sportKey(sport))) {
+            // Arrays.asList, unlike List.of, keeps the null that matches a missing sport.
+            return repository.findBySportInAndCountryIgnoreCase(
+                    Arrays.asList(null, RaceFacetContribution.OTHER_SPORT), country, sorted);
+        }
         return repository.findBySportIgnoreCaseAndCountryIgnoreCase(sport, country, sorted);
     }
 }
@@ -96,14 +96,15 @@ public class RaceBriefingService {
 
     private List<DisciplineCourseSummary> buildCourses(Race race) {
         List<DisciplineCourseSummary> out = new ArrayList<>(3);
-        addCourseIfPresent(out, race, "swim", race.getSwimGpx());
-        addCourseIfPresent(out, race, "bike", race.getBikeGpx());
-        addCourseIfPresent(out, race, "run", race.getRunGpx());
+        addCourseIfPresent(out, race, "swim", race.getSwimGpxFile());
+        addCourseIfPresent(out, race, "bike", race.getBikeGpxFile());
+        addCourseIfPresent(out, race, "run", race.getRunGpxFile());
         return out;
     }
 
-    private void addCourseIfPresent(List<DisciplineCourseSummary> out, Race race, String discipline, byte[] gpx) {
-        if (gpx == null || gpx.length == 0) return;
+    private void addCourseIfPresent(List<DisciplineCourseSummary> out, Race race, String discipline,
+                                    Race.GpxFile gpx) {
+        if (gpx == null || gpx.sizeBytes() == 0) return;
         try {
             GpxParseResult parsed = raceService.parseGpx(race.getId(), discipline);
             out.add(summarize(discipline, parsed));
@@ -0,0 +1,22 @@
+package com.koval.trainingplannerbackend.training;
+
+import com.koval.trainingplannerbackend.training.model.Training;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bumps {@link Training#getRevision() revision} on every save, so anything keyed by
+ * {@code (id, revision)} — the enrichment memo in {@code TrainingMetricsService} — never serves
+ * values computed from an older version of the blocks. Not a {@code @Version}: documents written
+ * before the field existed must still save as updates, and concurrent edits stay last-write-wins.
+ */
+@Component
+public class TrainingRevisionListener extends AbstractMongoEventListener<Training> {
+
+    @Override
+    public void onBeforeConvert(BeforeConvertEvent<Training> event) {
+        Training training = event.getSource();
+        training.setRevision(training.getRevision() + 1);
+    }
+}
@@ -12,6 +12,12 @@ import java.util.Optional;
 /** Spring Data repository for {@link CompletedSession} documents, including projection queries for external activity IDs. */
 public interface CompletedSessionRepository extends MongoRepository<CompletedSession, String> {
 
+    /**
+     * Listing projection: every field except the per-block breakdown and the power curve, which
+     * make up most of a session document and are only read by the single-session detail view.
+     */
+    String SUMMARY_FIELDS = "{ 'blockSummaries': 0, 'powerCurve': 0 }";
+
     @Query(value = "{ 'userId': ?0, 'stravaActivityId': { $ne: null } }", fields = "{ 'stravaActivityId': 1 }")
     List<CompletedSession> findStravaActivityIdsByUserId(String userId);
 
@@ -33,6 +39,13 @@ public interface CompletedSessionRepository extends MongoRepository<CompletedSes
             String userId, LocalDateTime from);
     List<CompletedSession> findByUserIdAndCompletedAtBetween(
             String userId, LocalDateTime from, LocalDateTime to);
+    @Query(value = "{ 'userId': ?0 }", fields = SUMMARY_FIELDS, sort = "{ 'completedAt': -1 }")
+    List<CompletedSession> findSummariesByUserId(String userId, Pageable pageable);
+
+    @Query(value = "{ 'userId': ?0, 'completedAt': { $gte: ?1, $lte: ?2 } }", fields = SUMMARY_FIELDS)
+    List<CompletedSession> findSummariesByUserIdAndCompletedAtBetween(
+            String userId, LocalDateTime from, LocalDateTime to);
+
     Optional<CompletedSession> findByIdAndUserId(String id, String userId);
     Optional<CompletedSession> findByScheduledWorkoutId(String scheduledWorkoutId);
     List<CompletedSession> findByClubSessionId(String clubSessionId);
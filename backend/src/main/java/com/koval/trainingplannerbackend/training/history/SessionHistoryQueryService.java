@@ -20,6 +20,9 @@ import java.util.List;
 @Service
 public class SessionHistoryQueryService {
 
+    /** Heavy fields left out of window listings; the detail view loads them via {@code GET /api/sessions/{id}}. */
+    private static final String[] DETAIL_ONLY_FIELDS = {"blockSummaries", "powerCurve"};
+
     private final MongoTemplate mongoTemplate;
 
     public SessionHistoryQueryService(MongoTemplate mongoTemplate) {
@@ -51,7 +54,7 @@ public class SessionHistoryQueryService {
             boolean hasMore) {}
 
     /**
-     * List completed sessions in a Monday-aligned window of size {@code weeks} ending
+     * List completed session summaries (no block summaries or power curve) in a Monday-aligned window of size {@code weeks} ending
      * just before {@code before}. {@code before} is snapped up to the next Monday if
      * it isn't already one, so weeks are never cut at a page boundary.
      *
@@ -85,6 +88,7 @@ public class SessionHistoryQueryService {
         applyNonDateFilters(criteria, f);
 
         Query query = new Query(criteria).with(Sort.by(Sort.Direction.DESC, "completedAt"));
+        query.fields().exclude(DETAIL_ONLY_FIELDS);
         List<CompletedSession> sessions = mongoTemplate.find(query, CompletedSession.class);
 
         return new SessionWindowResult(sessions, windowStart, windowEnd,
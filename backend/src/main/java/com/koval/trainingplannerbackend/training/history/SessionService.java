@@ -155,7 +155,7 @@ public class SessionService {
      * List completed sessions for a user within a date range, suitable for calendar views.
      */
     public List<CompletedSession> listForCalendar(String userId, LocalDate start, LocalDate end) {
-        return repository.findByUserIdAndCompletedAtBetween(
+        return repository.findSummariesByUserIdAndCompletedAtBetween(
                 userId, start.atStartOfDay(), end.atTime(23, 59, 59));
     }
 
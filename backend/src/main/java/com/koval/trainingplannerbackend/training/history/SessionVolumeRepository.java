@@ -0,0 +1,92 @@
+package com.koval.trainingplannerbackend.training.history;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Training-volume aggregation pushed down to MongoDB. One pipeline over the
+ * {@code (userId, completedAt)} index: {@code $match} the window, truncate {@code completedAt}
+ * to the week (Monday) or month in the caller's zone with {@code $dateTrunc}, and {@code $group}
+ * by (bucket, sport) summing TSS, duration and distance. Only those buckets cross the wire —
+ * never the sessions with their block summaries and power curves.
+ */
+@Repository
+public class SessionVolumeRepository {
+
+    public enum Unit { WEEK, MONTH }
+
+    /** Totals of one sport in one period; {@code bucketStart} is the period's first instant in the query zone. */
+    public record VolumeBucket(Instant bucketStart, String sport, double tss, long durationSeconds,
+                               double distanceMeters) {}
+
+    private final MongoTemplate mongoTemplate;
+
+    public SessionVolumeRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Per-(period, sport) totals for {@code userId} over {@code [from, to)}, oldest period first.
+     * Sessions without a sport count as {@code CYCLING}; distance is {@code totalDistance} when
+     * positive, else the sum of block distances.
+     */
+    public List<VolumeBucket> aggregateVolume(String userId, LocalDateTime from, LocalDateTime to,
+                                              Unit unit, ZoneId zone) {
+        Document dateTrunc = new Document("date", "$completedAt")
+                .append("unit", unit == Unit.MONTH ? "month" : "week")
+                .append("timezone", zone.getId());
+        if (unit == Unit.WEEK) dateTrunc.append("startOfWeek", "monday");
+
+        Document blockDistance = new Document("$sum",
+                new Document("$ifNull", List.of("$blockSummaries.distanceMeters", List.of())));
+        Document distance = new Document("$cond", List.of(
+                new Document("$gt", List.of(new Document("$ifNull", List.of("$totalDistance", 0)), 0)),
+                "$totalDistance",
+                blockDistance));
+
+        AggregationOperation project = context -> new Document("$project", new Document("_id", 0)
+                .append("bucket", new Document("$dateTrunc", dateTrunc))
+                .append("sport", new Document("$ifNull", List.of("$sportType", "CYCLING")))
+                .append("tss", new Document("$ifNull", List.of("$tss", 0)))
+                .append("duration", new Document("$ifNull", List.of("$totalDurationSeconds", 0)))
+                .append("distance", distance));
+        AggregationOperation group = context -> new Document("$group",
+                new Document("_id", new Document("bucket", "$bucket").append("sport", "$sport"))
+                        .append("tss", new Document("$sum", "$tss"))
+                        .append("duration", new Document("$sum", "$duration"))
+                        .append("distance", new Document("$sum", "$distance")));
+        AggregationOperation sort = context -> new Document("$sort", new Document("_id.bucket", 1));
+
+        Aggregation agg = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").is(userId)
+                        .and("completedAt").gte(from).lt(to)),
+                project, group, sort);
+
+        List<VolumeBucket> out = new ArrayList<>();
+        for (Document row : mongoTemplate.aggregate(agg, CompletedSession.class, Document.class)) {
+            Document id = row.get("_id", Document.class);
+            Date bucket = id.getDate("bucket");
+            if (bucket == null) continue;
+            out.add(new VolumeBucket(bucket.toInstant(), id.getString("sport"),
+                    number(row.get("tss")).doubleValue(),
+                    number(row.get("duration")).longValue(),
+                    number(row.get("distance")).doubleValue()));
+        }
+        return out;
+    }
+
+    private static Number number(Object value) {
+        return value instanceof Number n ? n : 0;
+    }
+}
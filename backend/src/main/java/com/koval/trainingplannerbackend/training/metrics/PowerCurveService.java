@@ -2,6 +2,8 @@ package com.koval.trainingplannerbackend.training.metrics;
 
 import com.koval.trainingplannerbackend.training.history.CompletedSession;
 import com.koval.trainingplannerbackend.training.history.CompletedSessionRepository;
+import com.koval.trainingplannerbackend.training.history.SessionVolumeRepository;
+import com.koval.trainingplannerbackend.training.history.SessionVolumeRepository.VolumeBucket;
 import com.mongodb.client.gridfs.model.GridFSFile;
 import org.bson.types.ObjectId;
 import org.slf4j.Logger;
@@ -15,13 +17,13 @@ import org.springframework.data.mongodb.gridfs.GridFsResource;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.IsoFields;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Power curve analysis and volume aggregation across completed sessions.
@@ -42,11 +44,14 @@ public class PowerCurveService {
     };
 
     private final CompletedSessionRepository sessionRepository;
+    private final SessionVolumeRepository volumeRepository;
     private final GridFsOperations gridFsOperations;
 
     public PowerCurveService(CompletedSessionRepository sessionRepository,
+                             SessionVolumeRepository volumeRepository,
                              GridFsOperations gridFsOperations) {
         this.sessionRepository = sessionRepository;
+        this.volumeRepository = volumeRepository;
         this.gridFsOperations = gridFsOperations;
     }
 
@@ -142,14 +147,25 @@ public class PowerCurveService {
                               Map<String, Double> sportDistanceMeters) {
     }
 
-    /** Aggregate training volume by week or month. */
+    /**
+     * Aggregate training volume by week ({@code yyyy-Www}, ISO week-based year) or month
+     * ({@code yyyy-MM}), oldest period first. Grouping and summing run in MongoDB; only the
+     * per-(period, sport) buckets are read back.
+     */
     public List<VolumeEntry> computeVolume(String userId, LocalDate from, LocalDate to, String groupBy) {
-        List<CompletedSession> sessions = sessionRepository.findByUserIdAndCompletedAtBetween(
-                userId, from.atStartOfDay(), to.plusDays(1).atStartOfDay());
-
-        Map<String, List<CompletedSession>> grouped = groupSessionsByPeriod(sessions, groupBy);
-
-        return grouped.entrySet().stream()
+        boolean monthly = "month".equals(groupBy);
+        // completedAt is stored as a server-local LocalDateTime, so periods are cut in the server zone.
+        ZoneId zone = ZoneId.systemDefault();
+        List<VolumeBucket> buckets = volumeRepository.aggregateVolume(userId,
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay(),
+                monthly ? SessionVolumeRepository.Unit.MONTH : SessionVolumeRepository.Unit.WEEK, zone);
+
+        Map<String, List<VolumeBucket>> byPeriod = new LinkedHashMap<>();
+        for (VolumeBucket b : buckets) {
+            String period = periodKey(b.bucketStart().atZone(zone).toLocalDate(), monthly);
+            byPeriod.computeIfAbsent(period, k -> new ArrayList<>()).add(b);
+        }
+        return byPeriod.entrySet().stream()
                 .map(e -> aggregateVolumeEntry(e.getKey(), e.getValue()))
                 .toList();
     }
@@ -242,22 +258,14 @@ public class PowerCurveService {
         }
     }
 
-    private Map<String, List<CompletedSession>> groupSessionsByPeriod(List<CompletedSession> sessions, String groupBy) {
-        return sessions.stream()
-                .filter(s -> s.getCompletedAt() != null)
-                .collect(Collectors.groupingBy(
-                        s -> periodKey(s.getCompletedAt().toLocalDate(), groupBy),
-                        LinkedHashMap::new,
-                        Collectors.toList()));
+    private static String periodKey(LocalDate periodStart, boolean monthly) {
+        return monthly
+                ? periodStart.getYear() + "-" + String.format("%02d", periodStart.getMonthValue())
+                : periodStart.get(IsoFields.WEEK_BASED_YEAR) + "-W"
+                        + String.format("%02d", periodStart.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
     }
 
-    private String periodKey(LocalDate date, String groupBy) {
-        return "month".equals(groupBy)
-                ? date.getYear() + "-" + String.format("%02d", date.getMonthValue())
-                : date.getYear() + "-W" + String.format("%02d", getIsoWeek(date));
-    }
-
-    private VolumeEntry aggregateVolumeEntry(String period, List<CompletedSession> sessions) {
+    private static VolumeEntry aggregateVolumeEntry(String period, List<VolumeBucket> sportBuckets) {
         double totalTss = 0;
         long totalDuration = 0;
         double totalDistance = 0;
@@ -265,33 +273,16 @@ public class PowerCurveService {
         Map<String, Long> sportDuration = new HashMap<>();
         Map<String, Double> sportDistance = new HashMap<>();
 
-        for (CompletedSession s : sessions) {
-            double tss = Optional.ofNullable(s.getTss()).orElse(0.0);
-            totalTss += tss;
-            totalDuration += s.getTotalDurationSeconds();
-            double dist = sessionDistance(s);
-            totalDistance += dist;
-            String sport = Optional.ofNullable(s.getSportType()).orElse("CYCLING");
-            sportTss.merge(sport, tss, Double::sum);
-            sportDuration.merge(sport, (long) s.getTotalDurationSeconds(), Long::sum);
-            sportDistance.merge(sport, dist, Double::sum);
+        for (VolumeBucket b : sportBuckets) {
+            totalTss += b.tss();
+            totalDuration += b.durationSeconds();
+            totalDistance += b.distanceMeters();
+            sportTss.merge(b.sport(), b.tss(), Double::sum);
+            sportDuration.merge(b.sport(), b.durationSeconds(), Long::sum);
+            sportDistance.merge(b.sport(), b.distanceMeters(), Double::sum);
         }
 
         return new VolumeEntry(period, Math.round(totalTss * 10.0) / 10.0,
                 totalDuration, totalDistance, sportTss, sportDuration, sportDistance);
     }
-
-    private double sessionDistance(CompletedSession s) {
-        if (s.getTotalDistance() != null && s.getTotalDistance() > 0) return s.getTotalDistance();
-        if (s.getBlockSummaries() == null) return 0;
-        return s.getBlockSummaries().stream()
-                .map(CompletedSession.BlockSummary::distanceMeters)
-                .filter(java.util.Objects::nonNull)
-                .mapToDouble(Double::doubleValue)
-                .sum();
-    }
-
-    private int getIsoWeek(LocalDate date) {
-        return date.get(java.time.temporal.IsoFields.WEEK_OF_WEEK_BASED_YEAR);
-    }
 }
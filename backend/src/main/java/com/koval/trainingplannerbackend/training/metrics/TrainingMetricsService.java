@@ -1,7 +1,10 @@
 package com.koval.trainingplannerbackend.training.metrics;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.koval.trainingplannerbackend.auth.User;
 import com.koval.trainingplannerbackend.auth.UserRepository;
+import com.koval.trainingplannerbackend.coach.calendar.CalendarProjector;
 import com.koval.trainingplannerbackend.training.group.GroupService;
 import com.koval.trainingplannerbackend.training.model.SportType;
 import com.koval.trainingplannerbackend.training.model.Training;
@@ -9,8 +12,17 @@ import com.koval.trainingplannerbackend.training.model.WorkoutElement;
 import com.koval.trainingplannerbackend.training.model.WorkoutElementFlattener;
 import com.koval.trainingplannerbackend.training.zone.ZoneSystem;
 import com.koval.trainingplannerbackend.training.zone.ZoneSystemService;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,23 +32,45 @@ import java.util.stream.Collectors;
 
 /**
  * Handles training enrichment: zone resolution, TSS/IF/duration/distance estimation.
+ *
+ * <p>List endpoints enrich the same trainings on every render, so the outcome is memoised per
+ * {@link EnrichmentKey}: training id and revision, a hash of the zone system the training
+ * resolves to, and the threshold its sport's speed estimate reads. Editing a training bumps its
+ * revision and editing a zone system changes its hash, so stale entries are simply never hit
+ * again and age out of the size-bounded cache. When the enrichment runs in the creator's own
+ * context its estimates are also written back to the training, stamped with the key, so the
+ * stored values (used by calendars and inboxes) stay current and later renders skip the
+ * recalculation even on a cold cache.
  */
 @Service
 public class TrainingMetricsService {
 
+    private static final Logger log = LoggerFactory.getLogger(TrainingMetricsService.class);
+
     private static final int DEFAULT_FTP_PACE_SEC_PER_KM = 300;
     private static final int DEFAULT_CSS_SEC_PER_100M = 120;
+    private static final int MAX_CACHED_ENRICHMENTS = 20_000;
 
     private final UserRepository userRepository;
     private final ZoneSystemService zoneSystemService;
     private final GroupService groupService;
+    private final MongoTemplate mongoTemplate;
+    private final CalendarProjector calendarProjector;
+
+    private final Cache<EnrichmentKey, Enrichment> enrichments = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_ENRICHMENTS)
+            .build();
 
     public TrainingMetricsService(UserRepository userRepository,
                                   ZoneSystemService zoneSystemService,
-                                  GroupService groupService) {
+                                  GroupService groupService,
+                                  MongoTemplate mongoTemplate,
+                                  CalendarProjector calendarProjector) {
         this.userRepository = userRepository;
         this.zoneSystemService = zoneSystemService;
         this.groupService = groupService;
+        this.mongoTemplate = mongoTemplate;
+        this.calendarProjector = calendarProjector;
     }
 
     /**
@@ -57,14 +91,126 @@ public class TrainingMetricsService {
         User user = userRepository.findById(userId).orElse(null);
         List<String> athleteCoachIds = groupService.getCoachIdsForAthlete(userId);
         Map<String, ZoneSystem> zoneCache = new HashMap<>();
-        trainings.forEach(t -> enrichOne(t, userId, user, athleteCoachIds, zoneCache));
+        List<Training> refreshed = new ArrayList<>();
+        trainings.forEach(t -> enrichOne(t, userId, user, athleteCoachIds, zoneCache, refreshed));
+        storeEstimates(refreshed);
     }
 
-    private void enrichOne(Training training, String userId, User user,
-                           List<String> athleteCoachIds, Map<String, ZoneSystem> zoneCache) {
+    private void enrichOne(Training training, String userId, User user, List<String> athleteCoachIds,
+                           Map<String, ZoneSystem> zoneCache, List<Training> refreshed) {
         if (training.getBlocks() == null || training.getBlocks().isEmpty()) return;
-        resolveZoneTargetsCached(training, userId, athleteCoachIds, zoneCache);
-        if (user != null) applyMetricsForUser(training, user);
+        ZoneSystem zoneSystem = hasZoneTargetsRecursive(training.getBlocks())
+                ? zoneCache.computeIfAbsent(zoneCacheKey(training, userId),
+                        k -> resolveZoneSystem(training, userId, athleteCoachIds))
+                : null;
+        if (user == null || training.getId() == null) {
+            resolveZoneTargets(training, zoneSystem);
+            if (user != null) applyMetricsForUser(training, user);
+            return;
+        }
+
+        EnrichmentKey key = EnrichmentKey.of(training, zoneSystem, user);
+        boolean ownContext = userId.equals(training.getCreatedBy());
+        boolean storedIsCurrent = ownContext && key.stamp().equals(training.getMetricsKey());
+        Enrichment enrichment = enrichments.getIfPresent(key);
+        if (enrichment != null) {
+            enrichment.applyTo(training);
+        } else {
+            boolean resolved = resolveZoneTargets(training, zoneSystem);
+            if (!storedIsCurrent) applyMetricsForUser(training, user);
+            enrichments.put(key, Enrichment.of(training, resolved));
+        }
+        if (ownContext && !storedIsCurrent) {
+            training.setMetricsKey(key.stamp());
+            refreshed.add(training);
+        }
+    }
+
+    /**
+     * Writes the estimates enriched in the creator's context back to their trainings, unless the
+     * training was saved again meanwhile. A failure only costs a recalculation on a later render.
+     */
+    private void storeEstimates(List<Training> trainings) {
+        if (trainings.isEmpty()) return;
+        try {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Training.class);
+            for (Training t : trainings) {
+                // A training never saved since revisions were introduced has no revision field yet.
+                bulk.updateOne(new Query(Criteria.where("_id").is(t.getId()).and("revision").in(t.getRevision(), null)),
+                        new Update()
+                                .set("estimatedTss", t.getEstimatedTss())
+                                .set("estimatedIf", t.getEstimatedIf())
+                                .set("estimatedDurationSeconds", t.getEstimatedDurationSeconds())
+                                .set("estimatedDistance", t.getEstimatedDistance())
+                                .set("metricsKey", t.getMetricsKey()));
+            }
+            int modified = bulk.execute().getModifiedCount();
+            if (modified == 0) return;
+            // Field updates raise no save event, so the calendar snapshots are refreshed here, but
+            // only for the trainings whose guarded update matched: any other one was saved since it
+            // was loaded, and that save already re-projected it.
+            calendarProjector.trainingEstimatesChanged(modified == trainings.size() ? trainings : stored(trainings));
+        } catch (RuntimeException e) {
+            log.warn("Failed to store estimates of {} training(s): {}", trainings.size(), e.getMessage());
+        }
+    }
+
+    /** The trainings whose document now carries their metrics key at their revision, when some update missed. */
+    private List<Training> stored(List<Training> trainings) {
+        Map<String, Training> byId = trainings.stream()
+                .collect(Collectors.toMap(Training::getId, t -> t, (a, b) -> a));
+        Query query = new Query(Criteria.where("_id").in(byId.keySet()));
+        query.fields().include("metricsKey", "revision");
+        List<Training> stored = new ArrayList<>();
+        for (Document doc : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Training.class))) {
+            Training t = byId.get(String.valueOf(doc.get("_id")));
+            Number revision = doc.get("revision", Number.class);
+            if (t != null && Objects.equals(t.getMetricsKey(), doc.getString("metricsKey"))
+                    && (revision == null || revision.longValue() == t.getRevision())) {
+                stored.add(t);
+            }
+        }
+        return stored;
+    }
+
+    /** Inputs enrichment depends on besides the training's own content, which its revision stands for. */
+    private record EnrichmentKey(String trainingId, long revision, int zoneHash, int speedThreshold) {
+
+        static EnrichmentKey of(Training training, ZoneSystem zoneSystem, User user) {
+            int zoneHash = zoneSystem == null || zoneSystem.getZones() == null || zoneSystem.getZones().isEmpty()
+                    ? 0 : Objects.hash(zoneSystem.getId(), zoneSystem.getZones());
+            SportType sport = Optional.ofNullable(training.getSportType()).orElse(SportType.CYCLING);
+            // Only running and swimming estimates read the user's thresholds.
+            int speedThreshold = switch (sport) {
+                case RUNNING -> Optional.ofNullable(user.getFunctionalThresholdPace()).orElse(DEFAULT_FTP_PACE_SEC_PER_KM);
+                case SWIMMING -> Optional.ofNullable(user.getCriticalSwimSpeed()).orElse(DEFAULT_CSS_SEC_PER_100M);
+                case CYCLING, BRICK -> 0;
+            };
+            return new EnrichmentKey(training.getId(), training.getRevision(), zoneHash, speedThreshold);
+        }
+
+        /** Stored as {@link Training#getMetricsKey()}; the training id is implied by the document. */
+        String stamp() {
+            return revision + ":" + zoneHash + ":" + speedThreshold;
+        }
+    }
+
+    /** What enrichment sets on a training; {@code blocks} is null when no zone target was resolved. */
+    private record Enrichment(List<WorkoutElement> blocks, Integer estimatedTss, Double estimatedIf,
+                              Integer estimatedDurationSeconds, Integer estimatedDistance) {
+
+        static Enrichment of(Training training, boolean zonesResolved) {
+            return new Enrichment(zonesResolved ? training.getBlocks() : null, training.getEstimatedTss(),
+                    training.getEstimatedIf(), training.getEstimatedDurationSeconds(), training.getEstimatedDistance());
+        }
+
+        void applyTo(Training training) {
+            if (blocks != null) training.setBlocks(blocks);
+            training.setEstimatedTss(estimatedTss);
+            training.setEstimatedIf(estimatedIf);
+            training.setEstimatedDurationSeconds(estimatedDurationSeconds);
+            training.setEstimatedDistance(estimatedDistance);
+        }
     }
 
     /**
@@ -99,20 +245,15 @@ public class TrainingMetricsService {
 
     // ── Zone resolution ─────────────────────────────────────────────────────
 
-    private void resolveZoneTargetsCached(Training training, String userId,
-                                          List<String> athleteCoachIds,
-                                          Map<String, ZoneSystem> zoneCache) {
-        if (!hasZoneTargetsRecursive(training.getBlocks())) return;
-
-        ZoneSystem zoneSystem = zoneCache.computeIfAbsent(
-                zoneCacheKey(training, userId),
-                k -> resolveZoneSystem(training, userId, athleteCoachIds));
-        if (zoneSystem == null || zoneSystem.getZones() == null || zoneSystem.getZones().isEmpty()) return;
+    /** Resolves zone targets against {@code zoneSystem}; whether any zone could be resolved. */
+    private boolean resolveZoneTargets(Training training, ZoneSystem zoneSystem) {
+        if (zoneSystem == null || zoneSystem.getZones() == null || zoneSystem.getZones().isEmpty()) return false;
 
         Map<String, ZoneResolution> zoneMap = buildZoneMap(zoneSystem);
         training.setBlocks(training.getBlocks().stream()
                 .map(block -> resolveElementZones(block, zoneMap))
                 .toList());
+        return true;
     }
 
     private static String zoneCacheKey(Training training, String userId) {
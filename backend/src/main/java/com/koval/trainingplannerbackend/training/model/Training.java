@@ -1,5 +1,6 @@
 package com.koval.trainingplannerbackend.training.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import jakarta.validation.constraints.NotBlank;
@@ -67,6 +68,13 @@ public abstract sealed class Training
     private LocalDateTime nolioLastSyncedAt;
     private String nolioSyncError;
 
+    // Enrichment memo state (TrainingMetricsService): bumped on every save, and the context the
+    // stored estimates were last computed for in the creator's own zones and thresholds.
+    @JsonIgnore
+    private long revision;
+    @JsonIgnore
+    private String metricsKey;
+
     /** Adds the given club ID to this training's club list (idempotent, null-safe). */
     public void addClubId(String clubId) {
         if (clubId != null && !this.clubIds.contains(clubId)) {
@@ -0,0 +1,93 @@
+package com.koval.trainingplannerbackend;
+
+import com.koval.trainingplannerbackend.race.DistanceCategory;
+import com.koval.trainingplannerbackend.race.Race;
+import com.koval.trainingplannerbackend.race.RaceController.CountryFacet;
+import com.koval.trainingplannerbackend.race.RaceController.SportFacet;
+import com.koval.trainingplannerbackend.race.RaceController.ValueFacet;
+import com.koval.trainingplannerbackend.race.RaceRepository;
+import com.koval.trainingplannerbackend.race.RaceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Materialised race facets follow creates, updates and deletes without re-aggregating the
+ * catalogue.
+ */
+class RaceFacetIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private RaceService raceService;
+
+    @Autowired
+    private RaceRepository raceRepository;
+
+    private String nice;
+
+    @BeforeEach
+    void setup() {
+        super.cleanDatabase();
+        nice = create("Ironman Nice", "TRIATHLON", "France", "2026-06-28");
+        create("Ironman Frankfurt", "TRIATHLON", "Germany", "2026-06-28");
+        create("Marathon de Paris", "running", "France", "2026-04-12");
+    }
+
+    @Test
+    @DisplayName("Creates count towards sport, country and month facets")
+    void createsAreCounted() {
+        List<SportFacet> sports = raceService.getSportFacets();
+        assertEquals(new SportFacet("TRIATHLON", 2, 2), sports.getFirst());
+        assertEquals(new SportFacet("RUNNING", 1, 1), sports.get(1));
+
+        assertEquals(List.of(new CountryFacet("France", 1)), raceService.getCountryFacets("Running"));
+        assertEquals(List.of(new ValueFacet("2026-06", 2), new ValueFacet("2026-04", 1)),
+                raceService.getMonthFacets(null));
+    }
+
+    @Test
+    @DisplayName("Updates move counts between buckets and deletes remove them")
+    void updatesAndDeletesMoveCounts() {
+        Race updates = new Race();
+        updates.setCountry("Italy");
+        updates.setDistanceCategory(DistanceCategory.TRI_IRONMAN);
+        raceService.updateRace(nice, updates);
+
+        assertEquals(List.of("Germany", "Italy"), raceService.getCountryFacets("TRIATHLON").stream()
+                .map(CountryFacet::country).sorted().toList());
+        assertEquals(List.of(new ValueFacet("TRI_IRONMAN", 1)), raceService.getDistanceCategoryFacets("triathlon"));
+
+        raceRepository.deleteById(nice);
+
+        assertEquals(List.of(new CountryFacet("Germany", 1)), raceService.getCountryFacets("TRIATHLON"));
+        assertEquals(new SportFacet("TRIATHLON", 1, 1), raceService.getSportFacets().stream()
+                .filter(f -> f.sport().equals("TRIATHLON")).findFirst().orElseThrow());
+        assertTrue(raceService.getDistanceCategoryFacets(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Races without a sport are counted and browsed under OTHER")
+    void otherBucketBrowsesRacesWithoutSport() {
+        create("Gravel des Alpes", null, "France", "2026-09-05");
+
+        assertEquals(new SportFacet("OTHER", 1, 1), raceService.getSportFacets().stream()
+                .filter(f -> f.sport().equals("OTHER")).findFirst().orElseThrow());
+        assertEquals(List.of("Gravel des Alpes"), raceService.browse("OTHER", "France", PageRequest.of(0, 20))
+                .map(Race::getTitle).getContent());
+    }
+
+    private String create(String title, String sport, String country, String date) {
+        Race race = new Race();
+        race.setTitle(title);
+        race.setSport(sport);
+        race.setCountry(country);
+        race.setScheduledDate(date);
+        return raceService.createRace("creator", race).getId();
+    }
+}
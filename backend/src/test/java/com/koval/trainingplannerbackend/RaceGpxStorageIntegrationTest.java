@@ -0,0 +1,84 @@
+package com.koval.trainingplannerbackend;
+
+import com.koval.trainingplannerbackend.race.Race;
+import com.koval.trainingplannerbackend.race.RaceRepository;
+import com.koval.trainingplannerbackend.race.RaceService;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Race GPX courses are stored once in GridFS per distinct content, referenced from the race
+ * document, and deleted only when the last referencing race lets go.
+ */
+class RaceGpxStorageIntegrationTest extends BaseIntegrationTest {
+
+    private static final byte[] GPX = """
+            <?xml version="1.0"?><gpx version="1.1"><trk><trkseg>
+            <trkpt lat="45.0" lon="6.0"><ele>100</ele></trkpt>
+            <trkpt lat="45.01" lon="6.01"><ele>120</ele></trkpt>
+            </trkseg></trk></gpx>""".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private RaceService raceService;
+
+    @Autowired
+    private RaceRepository raceRepository;
+
+    private String raceA;
+    private String raceB;
+
+    @BeforeEach
+    void setup() {
+        super.cleanDatabase();
+        raceA = create("Alpe Climb 2025");
+        raceB = create("Alpe Climb 2026");
+    }
+
+    @Test
+    @DisplayName("Uploaded GPX is referenced, not embedded, and streams back intact")
+    void uploadStoresReference() throws Exception {
+        raceService.uploadGpx(raceA, "bike", GPX);
+
+        Race race = raceRepository.findById(raceA).orElseThrow();
+        assertNotNull(race.getBikeGpxFile());
+        assertEquals(GPX.length, race.getBikeGpxFile().sizeBytes());
+        Document raw = mongoTemplate.getCollection("races").find(new Document("_id", new ObjectId(raceA))).first();
+        assertFalse(raw.containsKey("bikeGpx"));
+        assertArrayEquals(GPX, raceService.getGpx(raceA, "bike").getInputStream().readAllBytes());
+    }
+
+    @Test
+    @DisplayName("Identical courses share one GridFS file until the last reference is removed")
+    void identicalContentIsDeduplicated() {
+        raceService.uploadGpx(raceA, "bike", GPX);
+        raceService.uploadGpx(raceB, "bike", GPX);
+
+        String fileA = raceRepository.findById(raceA).orElseThrow().getBikeGpxFile().fileId();
+        String fileB = raceRepository.findById(raceB).orElseThrow().getBikeGpxFile().fileId();
+        assertEquals(fileA, fileB);
+        assertEquals(1, mongoTemplate.getCollection("fs.files").countDocuments());
+
+        raceService.deleteGpx(raceA, "bike");
+        assertEquals(1, mongoTemplate.getCollection("fs.files").countDocuments());
+        assertThrows(NoSuchElementException.class, () -> raceService.getGpx(raceA, "bike"));
+
+        raceService.deleteGpx(raceB, "bike");
+        assertEquals(0, mongoTemplate.getCollection("fs.files").countDocuments());
+    }
+
+    private String create(String title) {
+        Race race = new Race();
+        race.setTitle(title);
+        race.setSport("CYCLING");
+        return raceService.createRace("creator", race).getId();
+    }
+}
@@ -0,0 +1,103 @@
+package com.koval.trainingplannerbackend;
+
+import com.koval.trainingplannerbackend.race.Race;
+import com.koval.trainingplannerbackend.race.RaceRepository;
+import com.koval.trainingplannerbackend.race.RaceSearchService;
+import com.koval.trainingplannerbackend.race.RaceSearchService.Filters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Race typeahead over the accent-folded token index: ranked prefix matching, structured
+ * filters and the trigram fallback for typos.
+ */
+class RaceSearchIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private RaceRepository raceRepository;
+
+    @Autowired
+    private RaceSearchService raceSearchService;
+
+    @BeforeEach
+    void setup() {
+        super.cleanDatabase();
+        save("Ironman Zürich", "TRIATHLON", "Zürich", "Switzerland", "2026-07-19");
+        save("Zurich Marathon", "RUNNING", "Zürich", "Switzerland", "2026-04-19");
+        save("Marathon de Paris", "RUNNING", "Paris", "France", "2026-04-12");
+        save("Ironman Nice", "TRIATHLON", "Nice", "France", "2026-06-28");
+    }
+
+    @Test
+    @DisplayName("Saving a race indexes accent-folded tokens")
+    void indexesTokensOnSave() {
+        Race race = raceRepository.findAll().stream()
+                .filter(r -> r.getTitle().equals("Ironman Zürich")).findFirst().orElseThrow();
+
+        assertTrue(race.getSearchTokens().containsAll(List.of("ironman", "zurich", "switzerland")));
+        assertFalse(race.getSearchTrigrams().isEmpty());
+        assertEquals("switzerland", race.getCountryKey());
+    }
+
+    @Test
+    @DisplayName("Sport and region filters match the keys normalised on save")
+    void filtersMatchNormalisedKeys() {
+        save("Swissman", " triathlon", "Brig", "SWITZERLAND", "2026-06-20");
+
+        Filters swissTriathlons = new Filters("Triathlon", "switzerland", null, null);
+        assertEquals(List.of("Swissman", "Ironman Zürich"),
+                titles(raceSearchService.search("", swissTriathlons, PageRequest.of(0, 10, Sort.by("title").descending()))
+                        .getContent()));
+    }
+
+    @Test
+    @DisplayName("Prefix query ignores accents and ranks title matches first")
+    void prefixMatchesAreRanked() {
+        List<String> titles = titles(raceSearchService.search("zur", null, PageRequest.of(0, 10)).getContent());
+
+        assertEquals(List.of("Zurich Marathon", "Ironman Zürich"), titles);
+    }
+
+    @Test
+    @DisplayName("Every query word must match and filters combine with the text")
+    void multiWordQueryWithFilters() {
+        assertEquals(List.of("Marathon de Paris"),
+                titles(raceSearchService.search("mara par", null, PageRequest.of(0, 10)).getContent()));
+
+        Filters franceSpring = new Filters("running", "France", LocalDate.of(2026, 4, 1), LocalDate.of(2026, 4, 30));
+        assertEquals(List.of("Marathon de Paris"),
+                titles(raceSearchService.search("marathon", franceSpring, PageRequest.of(0, 10)).getContent()));
+    }
+
+    @Test
+    @DisplayName("Misspelt query falls back to trigram similarity")
+    void typoFallsBackToTrigrams() {
+        List<String> titles = titles(raceSearchService.search("ironmn", null, PageRequest.of(0, 10)).getContent());
+
+        assertTrue(titles.containsAll(List.of("Ironman Zürich", "Ironman Nice")));
+        assertFalse(titles.contains("Marathon de Paris"));
+    }
+
+    private void save(String title, String sport, String location, String country, String date) {
+        Race race = new Race();
+        race.setTitle(title);
+        race.setSport(sport);
+        race.setLocation(location);
+        race.setCountry(country);
+        race.setScheduledDate(date);
+        raceRepository.save(race);
+    }
+
+    private static List<String> titles(List<Race> races) {
+        return races.stream().map(Race::getTitle).toList();
+    }
+}
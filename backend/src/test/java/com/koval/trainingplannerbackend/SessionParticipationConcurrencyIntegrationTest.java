@@ -0,0 +1,126 @@
+package com.koval.trainingplannerbackend;
+
+import com.koval.trainingplannerbackend.club.session.ClubTrainingSession;
+import com.koval.trainingplannerbackend.club.session.SessionParticipationService;
+import com.koval.trainingplannerbackend.club.session.WaitingListEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests for capacity-safe session participation: many athletes hitting
+ * join/leave on the same session at once must never exceed {@code maxParticipants}
+ * and must never lose or duplicate a registration.
+ */
+class SessionParticipationConcurrencyIntegrationTest extends BaseIntegrationTest {
+
+    private static final int CAPACITY = 10;
+    private static final int ATHLETES = 80;
+
+    @Autowired
+    private SessionParticipationService participationService;
+
+    private String sessionId;
+
+    @BeforeEach
+    void setup() {
+        super.cleanDatabase();
+        ClubTrainingSession session = new ClubTrainingSession();
+        session.setClubId("club-1");
+        session.setTitle("Track Tuesday");
+        session.setScheduledAt(LocalDateTime.now().plusDays(3));
+        session.setMaxParticipants(CAPACITY);
+        session.setCreatedAt(LocalDateTime.now());
+        sessionId = mongoTemplate.insert(session).getId();
+    }
+
+    @Test
+    @DisplayName("Concurrent joins fill capacity exactly and queue the rest")
+    void concurrentJoins_neverExceedCapacity() throws Exception {
+        runConcurrently(IntStream.range(0, ATHLETES).mapToObj(i -> "athlete-" + i).toList(),
+                userId -> participationService.joinSession(userId, sessionId));
+
+        ClubTrainingSession session = reload();
+        assertEquals(CAPACITY, session.getParticipantIds().size());
+        assertEquals(ATHLETES - CAPACITY, session.getWaitingList().size());
+        assertNoDuplicates(session);
+    }
+
+    @Test
+    @DisplayName("Concurrent joins and leaves keep capacity and promote from the waiting list")
+    void concurrentJoinsAndLeaves_neverExceedCapacity() throws Exception {
+        runConcurrently(IntStream.range(0, ATHLETES).mapToObj(i -> "athlete-" + i).toList(),
+                userId -> participationService.joinSession(userId, sessionId));
+
+        // Half the current participants leave while late-comers keep joining.
+        List<String> leavers = new ArrayList<>(reload().getParticipantIds().subList(0, CAPACITY / 2));
+        List<String> queueHeads = reload().getWaitingList().stream().map(WaitingListEntry::userId)
+                .limit(leavers.size()).toList();
+        List<String> actions = new ArrayList<>();
+        leavers.forEach(u -> actions.add("leave:" + u));
+        IntStream.range(ATHLETES, ATHLETES + 40).forEach(i -> actions.add("join:athlete-" + i));
+
+        runConcurrently(actions, action -> {
+            String userId = action.substring(action.indexOf(':') + 1);
+            if (action.startsWith("leave:")) {
+                participationService.cancelSessionParticipation(userId, sessionId);
+            } else {
+                participationService.joinSession(userId, sessionId);
+            }
+        });
+
+        ClubTrainingSession session = reload();
+        assertEquals(CAPACITY, session.getParticipantIds().size());
+        assertEquals(ATHLETES + 40 - CAPACITY - leavers.size(), session.getWaitingList().size());
+        leavers.forEach(u -> assertFalse(session.getParticipantIds().contains(u)));
+        // Freed spots go to the head of the queue, never to a late-comer jumping it.
+        assertTrue(session.getParticipantIds().containsAll(queueHeads), session.getParticipantIds().toString());
+        assertNoDuplicates(session);
+    }
+
+    private ClubTrainingSession reload() {
+        return mongoTemplate.findById(sessionId, ClubTrainingSession.class);
+    }
+
+    private static void assertNoDuplicates(ClubTrainingSession session) {
+        List<String> all = new ArrayList<>(session.getParticipantIds());
+        session.getWaitingList().stream().map(WaitingListEntry::userId).forEach(all::add);
+        assertEquals(all.size(), new HashSet<>(all).size(), "user registered twice: " + all);
+    }
+
+    private static void runConcurrently(List<String> inputs, ThrowingConsumer action) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = inputs.stream()
+                    .map(input -> pool.submit(() -> {
+                        start.await();
+                        action.accept(input);
+                        return null;
+                    }))
+                    .toList();
+            start.countDown();
+            for (Future<?> f : futures) f.get();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingConsumer {
+        void accept(String input) throws Exception;
+    }
+}
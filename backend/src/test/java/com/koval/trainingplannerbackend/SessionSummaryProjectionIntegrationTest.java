@@ -0,0 +1,92 @@
+package com.koval.trainingplannerbackend;
+
+import com.koval.trainingplannerbackend.training.history.CompletedSession;
+import com.koval.trainingplannerbackend.training.history.CompletedSessionRepository;
+import com.koval.trainingplannerbackend.training.history.SessionHistoryQueryService;
+import com.koval.trainingplannerbackend.training.history.SessionHistoryQueryService.SessionWindowResult;
+import com.koval.trainingplannerbackend.training.history.SessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Listing reads return session summaries without block summaries or power curves;
+ * only the single-session read returns the full document.
+ */
+class SessionSummaryProjectionIntegrationTest extends BaseIntegrationTest {
+
+    private static final String USER = "summary-athlete";
+
+    @Autowired
+    private SessionHistoryQueryService historyQueryService;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private CompletedSessionRepository sessionRepository;
+
+    private String sessionId;
+
+    @BeforeEach
+    void setup() {
+        super.cleanDatabase();
+        CompletedSession s = new CompletedSession();
+        s.setUserId(USER);
+        s.setTitle("Threshold");
+        s.setSportType("CYCLING");
+        s.setCompletedAt(LocalDateTime.of(2026, 3, 10, 0, 0));
+        s.setTotalDurationSeconds(3600);
+        s.setTss(75.0);
+        s.setBlockSummaries(List.of(new CompletedSession.BlockSummary(
+                "Main", "STEADY", 3600, 250, 248, 90, 150, 35_000.0)));
+        s.setPowerCurve(Map.of(5, 900.0, 60, 400.0, 1200, 280.0));
+        sessionId = mongoTemplate.insert(s).getId();
+    }
+
+    @Test
+    @DisplayName("Window listing keeps summary fields and drops detail-only fields")
+    void windowReturnsSummaries() {
+        SessionWindowResult result = historyQueryService.listWindow(
+                USER, LocalDate.of(2026, 3, 16), 1, null);
+
+        assertEquals(1, result.sessions().size());
+        CompletedSession summary = result.sessions().getFirst();
+        assertEquals("Threshold", summary.getTitle());
+        assertEquals(3600, summary.getTotalDurationSeconds());
+        assertEquals(75.0, summary.getTss());
+        assertNull(summary.getBlockSummaries());
+        assertNull(summary.getPowerCurve());
+    }
+
+    @Test
+    @DisplayName("Calendar and recent-session reads return summaries, including midnight starts")
+    void calendarAndRecentReturnSummaries() {
+        List<CompletedSession> calendar = sessionService.listForCalendar(
+                USER, LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 10));
+        assertEquals(1, calendar.size());
+        assertNull(calendar.getFirst().getBlockSummaries());
+
+        List<CompletedSession> recent = sessionRepository.findSummariesByUserId(USER, PageRequest.of(0, 5));
+        assertEquals(1, recent.size());
+        assertNull(recent.getFirst().getPowerCurve());
+    }
+
+    @Test
+    @DisplayName("Single-session read still returns the full document")
+    void detailReturnsFullDocument() {
+        CompletedSession full = sessionService.getSession(USER, sessionId).orElseThrow();
+
+        assertEquals(1, full.getBlockSummaries().size());
+        assertEquals(3, full.getPowerCurve().size());
+    }
+}
@@ -0,0 +1,92 @@
+package com.koval.trainingplannerbackend;
+
+import com.koval.trainingplannerbackend.training.history.CompletedSession;
+import com.koval.trainingplannerbackend.training.metrics.PowerCurveService;
+import com.koval.trainingplannerbackend.training.metrics.PowerCurveService.VolumeEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Volume summaries computed by the MongoDB aggregation must match the per-session rules:
+ * Monday-aligned ISO weeks, calendar months, missing sport counted as cycling, and
+ * {@code totalDistance} preferred over block distances.
+ */
+class TrainingVolumeIntegrationTest extends BaseIntegrationTest {
+
+    private static final String USER = "volume-athlete";
+
+    @Autowired
+    private PowerCurveService powerCurveService;
+
+    @BeforeEach
+    void setup() {
+        super.cleanDatabase();
+        // Sunday 2025-12-28 closes ISO week 2025-W52; Monday 2025-12-29 opens 2026-W01.
+        insert(LocalDateTime.of(2025, 12, 28, 18, 0), "RUNNING", 50.0, 3600, 10_000.0, null);
+        insert(LocalDateTime.of(2025, 12, 29, 7, 0), "CYCLING", 80.0, 7200, null, 40_000.0);
+        insert(LocalDateTime.of(2026, 1, 2, 7, 0), null, 20.0, 1800, 15_000.0, null);
+        insert(LocalDateTime.of(2026, 1, 2, 9, 0), "RUNNING", 30.0, 2400, 8_000.0, null);
+        insert(LocalDateTime.of(2026, 2, 1, 9, 0), "RUNNING", 40.0, 3000, 9_000.0, null);
+        insert(LocalDateTime.of(2026, 2, 1, 9, 0), "RUNNING", 99.0, 3000, 9_000.0, null, "someone-else");
+    }
+
+    @Test
+    @DisplayName("Weekly buckets follow ISO weeks across the year boundary")
+    void weeklyVolume() {
+        List<VolumeEntry> weeks = powerCurveService.computeVolume(
+                USER, LocalDate.of(2025, 12, 1), LocalDate.of(2026, 2, 28), "week");
+
+        assertEquals(List.of("2025-W52", "2026-W01", "2026-W05"),
+                weeks.stream().map(VolumeEntry::period).toList());
+
+        VolumeEntry w1 = weeks.get(1);
+        assertEquals(130.0, w1.totalTss(), 0.001);
+        assertEquals(7200 + 1800 + 2400, w1.totalDurationSeconds());
+        assertEquals(40_000 + 15_000 + 8_000, w1.totalDistanceMeters(), 0.001);
+        assertEquals(100.0, w1.sportTss().get("CYCLING"), 0.001);
+        assertEquals(30.0, w1.sportTss().get("RUNNING"), 0.001);
+        assertEquals(55_000, w1.sportDistanceMeters().get("CYCLING"), 0.001);
+    }
+
+    @Test
+    @DisplayName("Monthly buckets sum every session of the calendar month")
+    void monthlyVolume() {
+        List<VolumeEntry> months = powerCurveService.computeVolume(
+                USER, LocalDate.of(2025, 12, 1), LocalDate.of(2026, 2, 28), "month");
+
+        assertEquals(List.of("2025-12", "2026-01", "2026-02"),
+                months.stream().map(VolumeEntry::period).toList());
+        assertEquals(130.0, months.get(0).totalTss(), 0.001);
+        assertEquals(50.0, months.get(1).totalTss(), 0.001);
+        assertEquals(40.0, months.get(2).totalTss(), 0.001);
+    }
+
+    private void insert(LocalDateTime completedAt, String sport, double tss, int durationSec,
+                        Double totalDistance, Double blockDistance) {
+        insert(completedAt, sport, tss, durationSec, totalDistance, blockDistance, USER);
+    }
+
+    private void insert(LocalDateTime completedAt, String sport, double tss, int durationSec,
+                        Double totalDistance, Double blockDistance, String userId) {
+        CompletedSession s = new CompletedSession();
+        s.setUserId(userId);
+        s.setCompletedAt(completedAt);
+        s.setSportType(sport);
+        s.setTss(tss);
+        s.setTotalDurationSeconds(durationSec);
+        s.setTotalDistance(totalDistance);
+        if (blockDistance != null) {
+            s.setBlockSummaries(List.of(new CompletedSession.BlockSummary(
+                    "Main", "STEADY", 7200, 200, 200, 90, 140, blockDistance)));
+        }
+        mongoTemplate.insert(s);
+    }
+}
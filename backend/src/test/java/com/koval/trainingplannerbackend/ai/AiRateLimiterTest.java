@@ -5,10 +5,32 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
 
 class AiRateLimiterTest {
 
+    /** Counters shared by every limiter created in a test, standing in for {@code ai_rate_limits}. */
+    private final Map<String, Long> counters = new ConcurrentHashMap<>();
+    private AiRateLimitRepository repository;
+
+    @BeforeEach
+    void setUpRepository() {
+        repository = mock(AiRateLimitRepository.class);
+        when(repository.add(anyString(), anyLong(), any(Instant.class)))
+                .thenAnswer(inv -> counters.merge(inv.getArgument(0), inv.<Long>getArgument(1), Long::sum));
+        when(repository.count(anyString())).thenAnswer(inv -> counters.getOrDefault(inv.<String>getArgument(0), 0L));
+    }
+
     @Nested
     class PerMinuteLimit {
 
@@ -16,7 +38,7 @@ class AiRateLimiterTest {
 
         @BeforeEach
         void setUp() {
-            limiter = new AiRateLimiter(5, 100); // 5/min, 100/hour
+            limiter = new AiRateLimiter(repository, 5, 100); // 5/min, 100/hour
         }
 
         @Test
@@ -51,7 +73,7 @@ class AiRateLimiterTest {
 
         @Test
         void blocksWhenHourLimitExceeded() {
-            AiRateLimiter limiter = new AiRateLimiter(1000, 3); // high per-minute, low per-hour
+            AiRateLimiter limiter = new AiRateLimiter(repository, 1000, 3); // high per-minute, low per-hour
 
             for (int i = 0; i < 3; i++) {
                 limiter.checkLimit("user1");
@@ -68,11 +90,67 @@ class AiRateLimiterTest {
 
         @Test
         void exceptionHasCorrectCode() {
-            AiRateLimiter limiter = new AiRateLimiter(1, 100);
+            AiRateLimiter limiter = new AiRateLimiter(repository, 1, 100);
             limiter.checkLimit("user1");
 
             RateLimitException ex = assertThrows(RateLimitException.class, () -> limiter.checkLimit("user1"));
             assertEquals("RATE_LIMIT_EXCEEDED", ex.getCode());
         }
     }
+
+    @Nested
+    class ClusterWide {
+
+        @Test
+        void nodesShareOneLimit() {
+            AiRateLimiter nodeA = new AiRateLimiter(repository, 10, 100);
+            AiRateLimiter nodeB = new AiRateLimiter(repository, 10, 100);
+
+            int admitted = 0;
+            for (int i = 0; i < 20; i++) {
+                try {
+                    (i % 2 == 0 ? nodeA : nodeB).checkLimit("user1");
+                    admitted++;
+                } catch (RateLimitException e) {
+                    // over the shared limit
+                }
+            }
+            assertTrue(admitted <= 10, "admitted " + admitted + " requests across two nodes");
+        }
+
+        @Test
+        void claimsAheadToSkipRoundTrips() {
+            AiRateLimiter limiter = new AiRateLimiter(repository, 100, 1000);
+            for (int i = 0; i < 20; i++) {
+                limiter.checkLimit("user1");
+            }
+
+            long writes = mockingDetails(repository).getInvocations().stream()
+                    .filter(inv -> inv.getMethod().getName().equals("add"))
+                    .count();
+            assertTrue(writes < 20, "expected fewer counter writes than requests, got " + writes);
+        }
+
+        @Test
+        void rejectedRequestsAreNotCounted() {
+            AiRateLimiter limiter = new AiRateLimiter(repository, 2, 100);
+            limiter.checkLimit("user1");
+            limiter.checkLimit("user1");
+            for (int i = 0; i < 5; i++) {
+                assertThrows(RateLimitException.class, () -> limiter.checkLimit("user1"));
+            }
+            long minuteTotal = counters.entrySet().stream()
+                    .filter(e -> e.getKey().startsWith("user1|m|"))
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            assertEquals(2, minuteTotal);
+        }
+    }
+
+    @Test
+    void previousBucketWeighsInByRemainingOverlap() {
+        assertEquals(10, AiRateLimiter.estimate(0, 10, 0.3), 1e-9);
+        assertEquals(7 + 3, AiRateLimiter.estimate(10, 3, 0.3), 1e-9);
+        assertEquals(3, AiRateLimiter.estimate(10, 3, 1.0), 1e-9);
+    }
 }
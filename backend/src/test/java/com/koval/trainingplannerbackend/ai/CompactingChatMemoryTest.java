@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.chat.messages.AssistantMessage;
 import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
 import org.springframework.ai.chat.messages.UserMessage;
 
 import java.util.ArrayList;
@@ -57,34 +58,56 @@ class CompactingChatMemoryTest {
     @Nested
     class LongConversations {
 
+        private final String longText = repeat("x", 500);
+        private final int full = TokenEstimator.estimate(new UserMessage(longText));
+        private final int compact = TokenEstimator.estimate(new UserMessage(repeat("x", 200) + "…"));
+
         @Test
-        void olderMessages_compactedTo200CharsPlusEllipsis() {
-            String longText = repeat("x", 500);
-            // 6 messages: oldest 2 should be compacted, newest 4 kept full
-            List<Message> messages = new ArrayList<>();
-            for (int i = 0; i < 6; i++) {
-                messages.add(i % 2 == 0 ? new UserMessage(longText) : new AssistantMessage(longText));
-            }
-            memory.add("conv-1", messages);
+        void newestKeptFull_olderCompactedOnceBudgetIsSpent() {
+            memory = new CompactingChatMemory(delegate, 5 * full + compact);
+            memory.add("conv-1", alternating(6, longText));
 
             List<Message> result = memory.get("conv-1");
 
             assertEquals(6, result.size());
-            // First 2 compacted (200 chars + ellipsis)
             assertEquals(201, result.get(0).getText().length());
             assertTrue(result.get(0).getText().endsWith("…"));
-            assertEquals(201, result.get(1).getText().length());
-            // Last 4 kept full
-            for (int i = 2; i < 6; i++) {
+            for (int i = 1; i < 6; i++) {
                 assertEquals(500, result.get(i).getText().length());
             }
         }
 
+        @Test
+        void historyStaysWithinBudget_droppingOldestAndOpeningOnAUserMessage() {
+            int budget = 5 * full + compact;
+            memory = new CompactingChatMemory(delegate, budget);
+            List<Message> messages = alternating(20, longText);
+            memory.add("conv-1", messages);
+
+            List<Message> result = memory.get("conv-1");
+
+            assertTrue(result.size() < 20);
+            assertTrue(result.stream().mapToInt(TokenEstimator::estimate).sum() <= budget);
+            assertTrue(result.get(0) instanceof UserMessage);
+            assertEquals(messages.get(19).getText(), result.get(result.size() - 1).getText());
+        }
+
+        @Test
+        void generousBudget_keepsEarlyMessagesIntact() {
+            memory = new CompactingChatMemory(delegate, 100 * full);
+            memory.add("conv-1", alternating(12, longText));
+
+            List<Message> result = memory.get("conv-1");
+
+            assertEquals(12, result.size());
+            result.forEach(m -> assertEquals(500, m.getText().length()));
+        }
+
         @Test
         void shortOldMessages_notCompactedEvenIfOlder() {
             // Even though older, short messages already fit and shouldn't get an ellipsis appended.
             String shortText = "ok";
-            String longText = repeat("z", 500);
+            memory = new CompactingChatMemory(delegate, 4 * full + 10);
             List<Message> messages = new ArrayList<>();
             messages.add(new UserMessage(shortText));   // short, older
             for (int i = 0; i < 4; i++) {
@@ -100,14 +123,8 @@ class CompactingChatMemoryTest {
 
         @Test
         void compactPreservesMessageType() {
-            String longText = repeat("k", 400);
-            List<Message> messages = List.of(
-                    new UserMessage(longText),
-                    new AssistantMessage(longText),
-                    new UserMessage(longText),
-                    new AssistantMessage(longText),
-                    new UserMessage(longText));
-            memory.add("conv-1", messages);
+            memory = new CompactingChatMemory(delegate, 4 * full + compact);
+            memory.add("conv-1", alternating(5, longText));
 
             List<Message> result = memory.get("conv-1");
 
@@ -117,22 +134,76 @@ class CompactingChatMemoryTest {
             assertEquals(201, result.get(0).getText().length());
         }
 
+        @Test
+        void olderToolResults_collapsedToReference() {
+            String rows = repeat("2026-03-02,Sweet spot,85\n", 100);
+            memory.add("conv-1", List.of(
+                    new UserMessage("how was last week?"),
+                    toolResponse("getRecentSessions", rows),
+                    new AssistantMessage("Solid week."),
+                    new UserMessage("and this week?"),
+                    toolResponse("getSessionsByDateRange", rows),
+                    new AssistantMessage("Lighter so far.")));
+
+            List<Message> result = memory.get("conv-1");
+
+            String older = ((ToolResponseMessage) result.get(1)).getResponses().get(0).responseData();
+            assertTrue(older.contains("call getRecentSessions again"), older);
+            String latest = ((ToolResponseMessage) result.get(4)).getResponses().get(0).responseData();
+            assertEquals(rows, latest, "results of the latest turn are kept");
+        }
+
         @Test
         void getFullMessages_alwaysReturnsUncompacted() {
-            String longText = repeat("a", 500);
+            memory = new CompactingChatMemory(delegate, full);
             List<Message> messages = new ArrayList<>();
             for (int i = 0; i < 8; i++) {
                 messages.add(new UserMessage(longText));
             }
             memory.add("conv-1", messages);
 
-            List<Message> full = memory.getFullMessages("conv-1");
+            List<Message> originals = memory.getFullMessages("conv-1");
 
-            assertEquals(8, full.size());
-            for (Message m : full) {
+            assertEquals(8, originals.size());
+            for (Message m : originals) {
                 assertEquals(500, m.getText().length());
             }
         }
+
+        @Test
+        void budgetViews_shareTheSameConversations() {
+            CompactingChatMemory small = memory.withTokenBudget(full + compact);
+            memory.add("conv-1", alternating(6, longText));
+
+            assertEquals(6, memory.get("conv-1").size());
+            assertEquals(2, small.get("conv-1").size());
+        }
+
+        private static List<Message> alternating(int count, String text) {
+            List<Message> messages = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                messages.add(i % 2 == 0 ? new UserMessage(text) : new AssistantMessage(text));
+            }
+            return messages;
+        }
+
+        private static ToolResponseMessage toolResponse(String name, String data) {
+            return ToolResponseMessage.builder()
+                    .responses(List.of(new ToolResponseMessage.ToolResponse("call-" + name, name, data)))
+                    .build();
+        }
+    }
+
+    @Nested
+    class Estimator {
+
+        @Test
+        void countsWordsNumbersAndSymbols() {
+            assertEquals(0, TokenEstimator.estimate(""));
+            assertEquals(2, TokenEstimator.estimate("hello world"));
+            assertEquals(3, TokenEstimator.estimate("threshold 250"));
+            assertEquals(5, TokenEstimator.estimate("{\"ftp\":"));
+        }
     }
 
     @Nested
@@ -0,0 +1,132 @@
+package com.koval.trainingplannerbackend.ai;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ConversationSummarizerTest {
+
+    private static final String CONV = "conv-1";
+
+    private final List<Message> messages = new ArrayList<>();
+    private final Map<String, ConversationSummary> stored = new HashMap<>();
+
+    private ChatClient.ChatClientRequestSpec spec;
+    private ChatMemory chatMemory;
+    private ChatHistoryRepository chatHistoryRepository;
+    private ConversationSummaryRepository summaryRepository;
+    private ConversationSummarizer summarizer;
+
+    @BeforeEach
+    void setUp() {
+        ChatClient client = mock(ChatClient.class);
+        spec = mock(ChatClient.ChatClientRequestSpec.class);
+        ChatClient.CallResponseSpec call = mock(ChatClient.CallResponseSpec.class);
+        when(client.prompt()).thenReturn(spec);
+        when(spec.system(anyString())).thenReturn(spec);
+        when(spec.user(anyString())).thenReturn(spec);
+        when(spec.call()).thenReturn(call);
+        when(call.content()).thenReturn("summary 1", "summary 2", "summary 3");
+
+        chatMemory = mock(ChatMemory.class);
+        when(chatMemory.get(CONV)).thenAnswer(inv -> List.copyOf(messages));
+
+        chatHistoryRepository = mock(ChatHistoryRepository.class);
+        when(chatHistoryRepository.findById(anyString())).thenReturn(Optional.empty());
+        summaryRepository = mock(ConversationSummaryRepository.class);
+        when(summaryRepository.findById(anyString())).thenAnswer(inv -> Optional.ofNullable(stored.get(inv.<String>getArgument(0))));
+        when(summaryRepository.save(any())).thenAnswer(inv -> {
+            ConversationSummary s = inv.getArgument(0);
+            stored.put(s.getId(), s);
+            return s;
+        });
+
+        summarizer = new ConversationSummarizer(client, chatMemory, chatHistoryRepository, summaryRepository);
+    }
+
+    @Test
+    void shortConversationsAreNotSummarised() {
+        addMessages(8);
+        summarizer.summarizeIfNeeded(CONV);
+
+        verify(spec, never()).user(anyString());
+        assertNull(summarizer.getSummaryIfNeeded(CONV));
+    }
+
+    @Test
+    void summarisesOlderHalfOnceAndPersistsWatermark() {
+        addMessages(10);
+        summarizer.summarizeIfNeeded(CONV);
+        summarizer.summarizeIfNeeded(CONV);
+
+        verify(spec, times(1)).user(anyString());
+        assertEquals("summary 1", summarizer.getSummaryIfNeeded(CONV));
+        assertEquals(5, stored.get(CONV).getCoveredMessages());
+        assertNotNull(stored.get(CONV).getWatermark());
+    }
+
+    @Test
+    void extendsOnlyWithMessagesNewerThanTheWatermark() {
+        addMessages(10);
+        summarizer.summarizeIfNeeded(CONV);
+        addMessages(8); // 18 messages: older half now ends at m8
+
+        summarizer.summarizeIfNeeded(CONV);
+
+        ArgumentCaptor<String> prompts = ArgumentCaptor.forClass(String.class);
+        verify(spec, times(2)).user(prompts.capture());
+        String extension = prompts.getAllValues().get(1);
+        assertTrue(extension.startsWith("Previous summary: summary 1"));
+        assertFalse(extension.contains(": m4\n"), "already covered message was resent");
+        assertTrue(extension.contains(": m5\n") && extension.contains(": m8"));
+        assertEquals(9, stored.get(CONV).getCoveredMessages());
+    }
+
+    @Test
+    void storedSummarySurvivesRestartWithoutModelCall() {
+        addMessages(10);
+        summarizer.summarizeIfNeeded(CONV);
+
+        ConversationSummarizer restarted = new ConversationSummarizer(
+                mock(ChatClient.class), chatMemory, chatHistoryRepository, summaryRepository);
+        restarted.summarizeIfNeeded(CONV);
+
+        assertEquals("summary 1", restarted.getSummaryIfNeeded(CONV));
+        verify(spec, times(1)).user(anyString());
+    }
+
+    @Test
+    void forgetDropsCachedAndStoredSummary() {
+        addMessages(10);
+        summarizer.summarizeIfNeeded(CONV);
+
+        summarizer.forget(CONV);
+
+        verify(summaryRepository).deleteById(CONV);
+        stored.remove(CONV);
+        assertNull(summarizer.getSummaryIfNeeded(CONV));
+    }
+
+    private void addMessages(int count) {
+        for (int i = 0; i < count; i++) {
+            int n = messages.size();
+            messages.add(n % 2 == 0 ? new UserMessage("m" + n) : new AssistantMessage("m" + n));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.koval.trainingplannerbackend.ai;
+
+import com.koval.trainingplannerbackend.auth.User;
+import com.koval.trainingplannerbackend.auth.UserRepository;
+import com.koval.trainingplannerbackend.auth.UserRole;
+import com.koval.trainingplannerbackend.club.ClubService;
+import com.koval.trainingplannerbackend.club.group.ClubGroupService;
+import com.koval.trainingplannerbackend.coach.CoachGroupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserContextResolverTest {
+
+    private UserRepository userRepository;
+    private CoachGroupService coachGroupService;
+    private UserContextResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        coachGroupService = mock(CoachGroupService.class);
+        resolver = new UserContextResolver(userRepository, coachGroupService,
+                mock(ClubService.class), mock(ClubGroupService.class));
+
+        when(userRepository.findById("coach")).thenReturn(Optional.of(user("coach", UserRole.COACH)));
+        when(userRepository.findById("athlete")).thenReturn(Optional.of(user("athlete", UserRole.ATHLETE)));
+        when(coachGroupService.getCoachAthletes("coach")).thenReturn(List.of(user("athlete", UserRole.ATHLETE)));
+    }
+
+    @Test
+    void followUpTurnsReuseTheSnapshot() {
+        var first = resolver.resolve("athlete");
+        var second = resolver.resolve("athlete");
+
+        assertSame(first, second);
+        verify(userRepository, times(1)).findById("athlete");
+    }
+
+    @Test
+    void invalidateReloadsOnNextTurn() {
+        var first = resolver.resolve("athlete");
+        resolver.invalidate("athlete");
+        var second = resolver.resolve("athlete");
+
+        assertNotSame(first, second);
+        verify(userRepository, times(2)).findById("athlete");
+    }
+
+    @Test
+    void athleteChangeEvictsCoachesListingThem() {
+        var coach = resolver.resolve("coach");
+        assertEquals("athlete", coach.athletes().getFirst().id());
+
+        resolver.invalidateWithCoaches("athlete");
+        resolver.resolve("coach");
+
+        verify(userRepository, times(2)).findById("coach");
+    }
+
+    @Test
+    void unrelatedInvalidationKeepsOtherSnapshots() {
+        var coach = resolver.resolve("coach");
+        resolver.invalidateWithCoaches("someone-else");
+
+        assertSame(coach, resolver.resolve("coach"));
+    }
+
+    private static User user(String id, UserRole role) {
+        User u = new User();
+        u.setId(id);
+        u.setRole(role);
+        u.setDisplayName(id);
+        return u;
+    }
+}
@@ -0,0 +1,126 @@
+package com.koval.trainingplannerbackend.ai.agents;
+
+import com.koval.trainingplannerbackend.ai.ConversationSummarizer;
+import com.koval.trainingplannerbackend.ai.UserContextResolver;
+import com.koval.trainingplannerbackend.ai.UserContextResolver.AthleteSummary;
+import com.koval.trainingplannerbackend.ai.UserContextResolver.UserContext;
+import com.koval.trainingplannerbackend.ai.logger.UsageTracker;
+import com.koval.trainingplannerbackend.training.zone.ZoneSystemService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The prompt prefix Anthropic caches — system prompt and tool definitions — must not depend on who
+ * is asking; the per-user context travels in a {@code <context>} user message instead.
+ */
+class BaseAgentServiceTest {
+
+    static class Tools {
+        @Tool(description = "athlete history")
+        public String getHistory(ToolContext context) {
+            return "history";
+        }
+
+        @Tool(description = "athlete zones")
+        public String getZones(ToolContext context) {
+            return "zones";
+        }
+    }
+
+    private ChatModel chatModel;
+    private BaseAgentService agent;
+
+    @BeforeEach
+    void setUp() {
+        chatModel = mock(ChatModel.class);
+        when(chatModel.call(any(Prompt.class))).thenReturn(new ChatResponse(List.of(
+                new Generation(new AssistantMessage("ok")))));
+        ToolCallback[] tools = MethodToolCallbackProvider.builder().toolObjects(new Tools()).build()
+                .getToolCallbacks();
+        ChatClient client = ChatClient.builder(chatModel)
+                .defaultSystem("You are a coaching assistant.")
+                .defaultOptions(ToolCallingChatOptions.builder().build())
+                .defaultToolCallbacks(tools)
+                .build();
+        agent = new SpecialistAgentService(AgentType.COACH_MANAGEMENT, client, mock(ZoneSystemService.class),
+                new UsageTracker(new SimpleMeterRegistry()), mock(ConversationSummarizer.class));
+    }
+
+    @Test
+    void systemPromptAndToolsAreIdenticalAcrossUsers() {
+        agent.chat("how is my week?", "coach1", "c1", coach());
+        agent.chat("how is my week?", "athlete1", "c2", athlete());
+
+        ArgumentCaptor<Prompt> prompts = ArgumentCaptor.forClass(Prompt.class);
+        verify(chatModel, times(2)).call(prompts.capture());
+        Prompt first = prompts.getAllValues().get(0);
+        Prompt second = prompts.getAllValues().get(1);
+
+        assertEquals("You are a coaching assistant.", first.getSystemMessage().getText());
+        assertEquals(first.getSystemMessage().getText(), second.getSystemMessage().getText());
+        assertEquals(toolDefinitions(first), toolDefinitions(second));
+        assertEquals(2, toolDefinitions(first).size());
+    }
+
+    @Test
+    void perUserContextTravelsInAContextUserMessage() {
+        agent.chat("how is my week?", "coach1", "c1", coach());
+
+        ArgumentCaptor<Prompt> prompt = ArgumentCaptor.forClass(Prompt.class);
+        verify(chatModel).call(prompt.capture());
+        List<Message> userMessages = prompt.getValue().getInstructions().stream()
+                .filter(m -> m.getMessageType() == MessageType.USER)
+                .toList();
+
+        String context = userMessages.getFirst().getText();
+        assertTrue(context.startsWith("<context>\n") && context.endsWith("\n</context>"), context);
+        assertTrue(context.contains("role=COACH ftp=250W"), context);
+        assertTrue(context.contains("a1:Jane Doe"), context);
+        assertEquals("how is my week?", userMessages.getLast().getText());
+        assertFalse(prompt.getValue().getSystemMessage().getText().contains("Jane Doe"));
+    }
+
+    private static List<String> toolDefinitions(Prompt prompt) {
+        ToolCallingChatOptions options = (ToolCallingChatOptions) prompt.getOptions();
+        return options.getToolCallbacks().stream()
+                .map(c -> c.getToolDefinition().name() + "|" + c.getToolDefinition().description()
+                        + "|" + c.getToolDefinition().inputSchema())
+                .toList();
+    }
+
+    private static UserContext coach() {
+        return new UserContext("coach1", UserContextResolver.COACH_ROLE, 250, "Keep it short.",
+                "Coach Carter", null, null, 60.0, 70.0, -10.0,
+                List.of(new AthleteSummary("a1", "Jane Doe")), List.of(), List.of());
+    }
+
+    private static UserContext athlete() {
+        return new UserContext("athlete1", "ATHLETE", 180, null,
+                "Sam Runner", 95, 270, null, null, null,
+                List.of(), List.of(), List.of());
+    }
+}
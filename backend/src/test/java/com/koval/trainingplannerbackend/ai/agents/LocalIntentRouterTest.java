@@ -0,0 +1,70 @@
+package com.koval.trainingplannerbackend.ai.agents;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Offline evaluation of the local router against the held-out {@code router/intent-eval.tsv}:
+ * messages it routes must almost always match the label, and it must route enough of them to be
+ * worth having. Accuracy and the fraction of LLM router calls avoided are printed for tuning.
+ */
+class LocalIntentRouterTest {
+
+    private static final double MIN_CONFIDENCE = 0.9;
+
+    private LocalIntentRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = new LocalIntentRouter(MIN_CONFIDENCE);
+    }
+
+    @Test
+    void heldOutSetIsRoutedAccuratelyWithoutTheLlm() {
+        List<LocalIntentRouter.Example> eval = LocalIntentRouter.loadExamples("router/intent-eval.tsv");
+        int routed = 0;
+        int correct = 0;
+        for (LocalIntentRouter.Example e : eval) {
+            Optional<AgentType> agent = router.route(e.text());
+            if (agent.isEmpty()) continue;
+            routed++;
+            if (agent.get() == e.label()) correct++;
+        }
+
+        double accuracy = routed == 0 ? 0 : (double) correct / routed;
+        double avoided = (double) routed / eval.size();
+        System.out.printf("Local router: accuracy=%.3f on %d routed, LLM calls avoided=%.1f%% of %d%n",
+                accuracy, routed, avoided * 100, eval.size());
+
+        assertTrue(accuracy >= 0.95, "accuracy of locally routed messages was " + accuracy);
+        assertTrue(avoided >= 0.6, "fraction of LLM router calls avoided was " + avoided);
+    }
+
+    @Test
+    void followUpsDeferToTheLlmRouter() {
+        for (String message : List.of("now schedule it", "delete that one", "make it harder", "yes",
+                "ok do it", "and for Sunday?", "same for next week", "move it to friday")) {
+            assertEquals(Optional.empty(), router.route(message), message);
+        }
+    }
+
+    @Test
+    void greetingsAreRoutedLocally() {
+        assertEquals(Optional.of(AgentType.GENERAL), router.route("Hi!"));
+        assertEquals(Optional.of(AgentType.GENERAL), router.route("thank you"));
+    }
+
+    @Test
+    void predictionIsDeterministic() {
+        var first = router.predict("Create a club ride on Sunday at 9");
+        var second = new LocalIntentRouter(MIN_CONFIDENCE).predict("Create a club ride on Sunday at 9");
+
+        assertEquals(AgentType.CLUB_MANAGEMENT, first.agent());
+        assertEquals(first, second);
+    }
+}
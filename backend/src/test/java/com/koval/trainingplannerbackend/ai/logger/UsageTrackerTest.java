@@ -0,0 +1,72 @@
+package com.koval.trainingplannerbackend.ai.logger;
+
+import com.koval.trainingplannerbackend.ai.logger.UsageTracker.UsageSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.anthropic.api.AnthropicApi;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsageTrackerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UsageTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new UsageTracker(meterRegistry);
+    }
+
+    @Test
+    void cacheTokensAreReadFromTheAnthropicUsage() {
+        UsageSnapshot usage = tracker.extractUsage(response(120, 40, 3000, 500));
+
+        assertEquals(new UsageSnapshot(120, 40, 160, 3000, 500), usage);
+        assertEquals(3000.0 / 3620, usage.cacheHitRatio(), 1e-9);
+    }
+
+    @Test
+    void missingNativeUsageCountsNoCacheTokens() {
+        ChatResponse response = new ChatResponse(List.of(new Generation(new AssistantMessage("ok"))),
+                ChatResponseMetadata.builder().usage(new DefaultUsage(120, 40, 160)).build());
+
+        assertEquals(new UsageSnapshot(120, 40, 160, 0, 0), tracker.extractUsage(response));
+        assertEquals(UsageSnapshot.EMPTY, tracker.extractUsage(null));
+    }
+
+    @Test
+    void streamedChunksKeepPromptAndCacheTokensAndSumCompletions() {
+        UsageSnapshot total = UsageSnapshot.EMPTY;
+        total = tracker.mergeStreamed(total, response(120, 0, 3000, 500));
+        total = tracker.mergeStreamed(total, response(0, 25, 0, 0));
+        total = tracker.mergeStreamed(total, response(0, 15, 3000, 500));
+
+        assertEquals(new UsageSnapshot(120, 40, 160, 3000, 500), total);
+    }
+
+    @Test
+    void cacheTokensAreCountedPerAgent() {
+        tracker.logUsage("ANALYSIS", "c1", tracker.extractUsage(response(120, 40, 3000, 500)));
+
+        assertEquals(3000, meterRegistry.counter("koval.ai.tokens", "agent", "ANALYSIS", "kind", "cache_read").count());
+        assertEquals(500, meterRegistry.counter("koval.ai.tokens", "agent", "ANALYSIS", "kind", "cache_write").count());
+        assertEquals(120, meterRegistry.counter("koval.ai.tokens", "agent", "ANALYSIS", "kind", "input").count());
+    }
+
+    private static ChatResponse response(int input, int output, int cacheRead, int cacheWrite) {
+        AnthropicApi.Usage nativeUsage = new AnthropicApi.Usage(input, output, cacheWrite, cacheRead);
+        return new ChatResponse(List.of(new Generation(new AssistantMessage("ok"))),
+                ChatResponseMetadata.builder()
+                        .usage(new DefaultUsage(input, output, input + output, nativeUsage))
+                        .build());
+    }
+}
@@ -0,0 +1,189 @@
+package com.koval.trainingplannerbackend.ai.tools;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.execution.DefaultToolExecutionExceptionProcessor;
+import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+import org.springframework.ai.tool.observation.ToolCallingObservationContext;
+import org.springframework.ai.tool.resolution.StaticToolCallbackResolver;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ParallelToolCallingManagerTest {
+
+    static class Tools {
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger maxActive = new AtomicInteger();
+
+        @ReadOnlyTool
+        @Tool(description = "history")
+        public String getHistory(ToolContext context) {
+            return work("history", 300);
+        }
+
+        @ReadOnlyTool
+        @Tool(description = "zones")
+        public String getZones(ToolContext context) {
+            return work("zones", 200);
+        }
+
+        @ReadOnlyTool
+        @Tool(description = "schedule")
+        public String getSchedule(ToolContext context) {
+            return work("schedule", 100);
+        }
+
+        @Tool(description = "write")
+        public String createThing(ToolContext context) {
+            return work("created", 100);
+        }
+
+        private String work(String result, long millis) {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+            }
+            return result;
+        }
+    }
+
+    private Tools tools;
+    private ToolCallback[] callbacks;
+    private final Queue<ToolCallingObservationContext> observed = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        tools = new Tools();
+        ToolResultCache cache = new ToolResultCache(Duration.ofMinutes(2), new SimpleMeterRegistry());
+        callbacks = cache.memoize(
+                MethodToolCallbackProvider.builder().toolObjects(tools).build().getToolCallbacks(), tools);
+    }
+
+    @Test
+    void readOnlyCallsRunConcurrentlyAndKeepTheirOrder() {
+        Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().replay().all();
+
+        long start = System.nanoTime();
+        ToolExecutionResult result = manager(4).executeToolCalls(
+                prompt(Map.of("toolSink", sink)), response("getHistory", "getZones", "getSchedule"));
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertEquals(List.of("history", "zones", "schedule"), results(result));
+        assertEquals(3, tools.maxActive.get());
+        assertTrue(elapsedMs < 550, "took " + elapsedMs + " ms, the sum of the tools is 600 ms");
+
+        // Read-only lookups are not actions; the chat stream only shows what write tools report.
+        sink.tryEmitComplete();
+        assertEquals(List.of(), sink.asFlux().map(ServerSentEvent::event).collectList().block());
+    }
+
+    @Test
+    void eachParallelCallIsObserved() {
+        manager(4).executeToolCalls(prompt(Map.of()), response("getHistory", "getZones"));
+
+        assertEquals(List.of("getHistory", "getZones"), observed.stream()
+                .map(ctx -> ctx.getToolDefinition().name()).sorted().toList());
+        assertTrue(observed.stream().allMatch(ctx -> ctx.getToolCallResult() != null));
+    }
+
+    @Test
+    void concurrencyIsCappedPerTurn() {
+        ToolExecutionResult result = manager(2).executeToolCalls(
+                prompt(Map.of()), response("getHistory", "getZones", "getSchedule"));
+
+        assertEquals(List.of("history", "zones", "schedule"), results(result));
+        assertEquals(2, tools.maxActive.get());
+    }
+
+    @Test
+    void turnsWithAWriteToolRunSequentially() {
+        ToolExecutionResult result = manager(4).executeToolCalls(
+                prompt(Map.of()), response("getHistory", "createThing", "getZones"));
+
+        assertEquals(List.of("history", "created", "zones"), results(result));
+        assertEquals(1, tools.maxActive.get());
+    }
+
+    private ParallelToolCallingManager manager(int maxParallel) {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ObservationRegistry> registry = mock(ObjectProvider.class);
+        when(registry.getIfUnique(any())).thenReturn(observationRegistry());
+        return new ParallelToolCallingManager(new StaticToolCallbackResolver(List.of(callbacks)),
+                DefaultToolExecutionExceptionProcessor.builder().build(), registry, maxParallel);
+    }
+
+    private ObservationRegistry observationRegistry() {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<Observation.Context>() {
+            @Override
+            public void onStop(Observation.Context context) {
+                observed.add((ToolCallingObservationContext) context);
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return context instanceof ToolCallingObservationContext;
+            }
+        });
+        return registry;
+    }
+
+    private Prompt prompt(Map<String, Object> extraContext) {
+        Map<String, Object> context = new HashMap<>(extraContext);
+        context.put("userId", "u1");
+        context.put(ToolResultCache.CONVERSATION_ID_KEY, "c1");
+        return new Prompt(List.of(new UserMessage("how am I doing?")),
+                ToolCallingChatOptions.builder().toolCallbacks(callbacks).toolContext(context).build());
+    }
+
+    private static ChatResponse response(String... toolNames) {
+        List<AssistantMessage.ToolCall> calls = Stream.of(toolNames)
+                .map(name -> new AssistantMessage.ToolCall("call-" + name, "function", name, "{}"))
+                .toList();
+        return new ChatResponse(List.of(new Generation(
+                AssistantMessage.builder().content("").toolCalls(calls).build())));
+    }
+
+    private static List<String> results(ToolExecutionResult result) {
+        List<Message> history = result.conversationHistory();
+        ToolResponseMessage responses = (ToolResponseMessage) history.get(history.size() - 1);
+        return responses.getResponses().stream().map(ToolResponseMessage.ToolResponse::responseData)
+                .map(data -> data.replace("\"", ""))
+                .toList();
+    }
+}
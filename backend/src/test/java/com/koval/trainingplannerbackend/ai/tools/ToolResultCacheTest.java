@@ -0,0 +1,132 @@
+package com.koval.trainingplannerbackend.ai.tools;
+
+import com.koval.trainingplannerbackend.ai.ToolEventEmitter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ToolResultCacheTest {
+
+    static class Tools {
+        int reads;
+        int writes;
+        Runnable duringRead;
+
+        @ReadOnlyTool
+        @Tool(description = "read")
+        public String listThings(String from, String to, ToolContext context) {
+            reads++;
+            ToolEventEmitter.emitToolCall(context, "listThings", from + ".." + to);
+            if (duringRead != null) duringRead.run();
+            return from + ".." + to + "#" + reads;
+        }
+
+        @Tool(description = "write")
+        public String createThing(String name, ToolContext context) {
+            writes++;
+            return "created " + name;
+        }
+    }
+
+    private Tools tools;
+    private ToolCallback read;
+    private ToolCallback write;
+
+    @BeforeEach
+    void setUp() {
+        tools = new Tools();
+        ToolResultCache cache = new ToolResultCache(Duration.ofMinutes(2), new SimpleMeterRegistry());
+        ToolCallback[] callbacks = cache.memoize(
+                MethodToolCallbackProvider.builder().toolObjects(tools).build().getToolCallbacks(), tools);
+        read = byName(callbacks, "listThings");
+        write = byName(callbacks, "createThing");
+    }
+
+    @Test
+    void repeatedReadWithReorderedArgumentsIsServedFromCache() {
+        String first = read.call("{\"from\":\"a\",\"to\":\"b\"}", conversation("c1"));
+        String second = read.call("{ \"to\": \"b\", \"from\": \"a\" }", conversation("c1"));
+
+        assertEquals(first, second);
+        assertEquals(1, tools.reads);
+    }
+
+    @Test
+    void differentArgumentsOrConversationsAreNotShared() {
+        read.call("{\"from\":\"a\",\"to\":\"b\"}", conversation("c1"));
+        read.call("{\"from\":\"a\",\"to\":\"c\"}", conversation("c1"));
+        read.call("{\"from\":\"a\",\"to\":\"b\"}", conversation("c2"));
+
+        assertEquals(3, tools.reads);
+    }
+
+    @Test
+    void writeToolInvalidatesItsConversationOnly() {
+        read.call("{\"from\":\"a\",\"to\":\"b\"}", conversation("c1"));
+        read.call("{\"from\":\"a\",\"to\":\"b\"}", conversation("c2"));
+
+        write.call("{\"name\":\"x\"}", conversation("c1"));
+        write.call("{\"name\":\"x\"}", conversation("c1"));
+        read.call("{\"from\":\"a\",\"to\":\"b\"}", conversation("c1"));
+        read.call("{\"from\":\"a\",\"to\":\"b\"}", conversation("c2"));
+
+        assertEquals(2, tools.writes, "writes are never memoised");
+        assertEquals(3, tools.reads);
+    }
+
+    @Test
+    void readOverlappingAWriteIsNotCached() {
+        tools.duringRead = () -> write.call("{\"name\":\"x\"}", conversation("c1"));
+        read.call("{\"from\":\"a\",\"to\":\"b\"}", conversation("c1"));
+        tools.duringRead = null;
+        read.call("{\"from\":\"a\",\"to\":\"b\"}", conversation("c1"));
+        read.call("{\"from\":\"a\",\"to\":\"b\"}", conversation("c1"));
+
+        assertEquals(2, tools.reads);
+    }
+
+    @Test
+    void cacheHitReplaysTheToolEventsOfTheOriginalCall() {
+        Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().replay().all();
+        ToolContext context = new ToolContext(Map.of("userId", "u1",
+                ToolResultCache.CONVERSATION_ID_KEY, "c1", "toolSink", sink));
+
+        read.call("{\"from\":\"a\",\"to\":\"b\"}", context);
+        read.call("{\"from\":\"a\",\"to\":\"b\"}", context);
+        sink.tryEmitComplete();
+
+        List<ServerSentEvent<String>> events = sink.asFlux().collectList().block();
+        assertEquals(1, tools.reads);
+        assertEquals(2, events.size());
+        assertEquals(events.get(0).data(), events.get(1).data());
+        assertEquals("tool_call", events.get(1).event());
+    }
+
+    @Test
+    void argumentsAreCanonicalisedByKeyOrder() {
+        assertEquals(ToolResultCache.canonical("{\"b\":{\"y\":1,\"x\":2},\"a\":[3]}"),
+                ToolResultCache.canonical("{\"a\":[3],\"b\":{\"x\":2,\"y\":1}}"));
+        assertEquals("not json", ToolResultCache.canonical("not json"));
+    }
+
+    private static ToolContext conversation(String id) {
+        return new ToolContext(Map.of("userId", "u1", ToolResultCache.CONVERSATION_ID_KEY, id));
+    }
+
+    private static ToolCallback byName(ToolCallback[] callbacks, String name) {
+        return Stream.of(callbacks).filter(c -> c.getToolDefinition().name().equals(name)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,99 @@
+package com.koval.trainingplannerbackend.ai.toon;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.koval.trainingplannerbackend.config.JacksonConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The direct writer must produce exactly what the JSON round trip through {@link ToonConverter}
+ * produced for the same tool result.
+ */
+class ToonWriterTest {
+
+    private final ObjectMapper json = new JacksonConfig().objectMapper();
+    private final ToonWriter writer = new ToonWriter(json);
+
+    record Session(String id, String title, LocalDate date, LocalDateTime completedAt, Double tss,
+                   Integer durationSec, boolean manual, Sport sport, List<Block> blocks) {}
+
+    record Block(String label, int durationSec) {}
+
+    record Summary(String name, int count) {}
+
+    record Annotated(String id, @JsonIgnore String secret) {}
+
+    enum Sport { CYCLING, RUNNING }
+
+    public static class Bean {
+        private final String name;
+        private final int ftp;
+
+        Bean(String name, int ftp) {
+            this.name = name;
+            this.ftp = ftp;
+        }
+
+        public String getName() { return name; }
+        public int getFtp() { return ftp; }
+    }
+
+    @Test
+    void listOfRecordsMatchesJsonRoundTrip() throws Exception {
+        List<Session> sessions = List.of(
+                new Session("s1", "Sweet spot, 3x12", LocalDate.of(2026, 3, 2),
+                        LocalDateTime.of(2026, 3, 2, 7, 0), 85.5, 3600, false, Sport.CYCLING,
+                        List.of(new Block("Warmup", 600), new Block("Main", 2160))),
+                new Session("s2", "", null, LocalDateTime.of(2026, 3, 3, 18, 30, 15), null, null, true,
+                        Sport.RUNNING, List.of()),
+                new Session("s3", "Says \"easy\"\nthen hard", LocalDate.of(2026, 3, 4), null, 40.0, 1800,
+                        false, null, null));
+
+        assertMatchesRoundTrip(sessions);
+    }
+
+    @Test
+    void singleRecordAndMapMatchJsonRoundTrip() throws Exception {
+        assertMatchesRoundTrip(new Summary("Week 10", 4));
+
+        Map<Integer, Object> byZone = new LinkedHashMap<>();
+        byZone.put(1, 1200);
+        byZone.put(2, new Summary("Z2", 3));
+        assertMatchesRoundTrip(byZone);
+    }
+
+    @Test
+    void mixedAndAnnotatedTypesMatchJsonRoundTrip() throws Exception {
+        assertMatchesRoundTrip(List.of(new Summary("a", 1), Map.of("name", "b", "extra", true)));
+        assertMatchesRoundTrip(List.of(new Annotated("x", "hidden")));
+        assertMatchesRoundTrip(new Bean("Alice", 250));
+        assertMatchesRoundTrip(List.of(new Bean("Alice", 250), new Bean("Bob", 280)));
+    }
+
+    @Test
+    void nonObjectArraysStayJson() throws Exception {
+        assertMatchesRoundTrip(List.of("a", "b"));
+        assertMatchesRoundTrip(List.of(new Summary("a", 1), "b"));
+        assertEquals("[]", writer.write(List.of()));
+    }
+
+    @Test
+    void scalarsAreLeftToTheDefaultConverter() {
+        assertNull(writer.write("already text"));
+        assertNull(writer.write(42));
+        assertNull(writer.write(null));
+    }
+
+    private void assertMatchesRoundTrip(Object value) throws Exception {
+        String expected = ToonConverter.convert(json.writeValueAsString(value));
+        assertEquals(expected, writer.write(value));
+    }
+}
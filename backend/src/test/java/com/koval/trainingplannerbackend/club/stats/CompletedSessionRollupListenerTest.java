@@ -0,0 +1,113 @@
+package com.koval.trainingplannerbackend.club.stats;
+
+import com.koval.trainingplannerbackend.training.history.CompletedSession;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeConvertEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CompletedSessionRollupListenerTest {
+
+    private static final String COLLECTION = "completed_sessions";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private MemberWeeklyRollupRepository rollups;
+
+    private CompletedSessionRollupListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new CompletedSessionRollupListener(mongoTemplate, rollups);
+    }
+
+    @Test
+    void insertAddsContributionToItsIsoWeek() {
+        // Sunday evening still belongs to the week starting the previous Monday.
+        CompletedSession s = session(null, LocalDateTime.of(2026, 3, 15, 20, 0), 80.0);
+
+        listener.onBeforeConvert(new BeforeConvertEvent<>(s, COLLECTION));
+        listener.onAfterSave(new AfterSaveEvent<>(s, new Document(), COLLECTION));
+
+        ArgumentCaptor<WeeklyContribution> captor = ArgumentCaptor.forClass(WeeklyContribution.class);
+        verify(rollups).apply(captor.capture(), eq(1));
+        assertEquals(LocalDate.of(2026, 3, 9), captor.getValue().weekStart());
+        assertEquals(80.0, captor.getValue().tss());
+        assertEquals(40_000, captor.getValue().bikeMeters());
+        verify(mongoTemplate, never()).find(any(Query.class), eq(CompletedSession.class));
+    }
+
+    @Test
+    void updateMovesContributionBetweenWeeks() {
+        CompletedSession stored = session("s1", LocalDateTime.of(2026, 3, 15, 20, 0), 80.0);
+        CompletedSession updated = session("s1", LocalDateTime.of(2026, 3, 16, 7, 0), 90.0);
+        when(mongoTemplate.find(any(Query.class), eq(CompletedSession.class))).thenReturn(List.of(stored));
+
+        listener.onBeforeConvert(new BeforeConvertEvent<>(updated, COLLECTION));
+        listener.onAfterSave(new AfterSaveEvent<>(updated, new Document(), COLLECTION));
+
+        verify(rollups).apply(WeeklyContribution.of(stored), -1);
+        verify(rollups).apply(WeeklyContribution.of(updated), 1);
+    }
+
+    @Test
+    void unchangedUpdateDoesNotTouchRollups() {
+        CompletedSession stored = session("s1", LocalDateTime.of(2026, 3, 15, 20, 0), 80.0);
+        CompletedSession same = session("s1", LocalDateTime.of(2026, 3, 15, 20, 0), 80.0);
+        when(mongoTemplate.find(any(Query.class), eq(CompletedSession.class))).thenReturn(List.of(stored));
+
+        listener.onBeforeConvert(new BeforeConvertEvent<>(same, COLLECTION));
+        listener.onAfterSave(new AfterSaveEvent<>(same, new Document(), COLLECTION));
+
+        verify(rollups, never()).apply(any(), anyInt());
+    }
+
+    @Test
+    void deleteSubtractsEveryMatchedSession() {
+        CompletedSession a = session("a", LocalDateTime.of(2026, 3, 10, 8, 0), 50.0);
+        CompletedSession b = session("b", LocalDateTime.of(2026, 3, 17, 8, 0), 60.0);
+        when(mongoTemplate.find(any(Query.class), eq(CompletedSession.class))).thenReturn(List.of(a, b));
+        Document query = new Document("userId", "u1");
+
+        listener.onBeforeDelete(new BeforeDeleteEvent<>(query, CompletedSession.class, COLLECTION));
+        listener.onAfterDelete(new AfterDeleteEvent<>(query, CompletedSession.class, COLLECTION));
+
+        verify(rollups, times(2)).apply(any(), eq(-1));
+    }
+
+    private static CompletedSession session(String id, LocalDateTime completedAt, double tss) {
+        CompletedSession s = new CompletedSession();
+        s.setId(id);
+        s.setUserId("u1");
+        s.setCompletedAt(completedAt);
+        s.setSportType("CYCLING");
+        s.setTss(tss);
+        s.setTotalDurationSeconds(3600);
+        s.setTotalDistance(40_000.0);
+        return s;
+    }
+}
@@ -0,0 +1,111 @@
+package com.koval.trainingplannerbackend.club.test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClubTestRankingServiceTest {
+
+    @Mock
+    private ClubTestResultRepository resultRepository;
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private ClubTestRankingService rankingService;
+
+    @BeforeEach
+    void setUp() {
+        rankingService = new ClubTestRankingService(resultRepository, mongoTemplate);
+    }
+
+    @Test
+    void rankValueIsNegatedForDescendingTests() {
+        ClubTestResult r = result("a", null);
+        r.setSegmentResults(Map.of("ftp", segment(300)));
+
+        assertEquals(300.0, ClubTestRankingService.rankValueFor(test(RankingDirection.ASC), r));
+        assertEquals(-300.0, ClubTestRankingService.rankValueFor(test(RankingDirection.DESC), r));
+    }
+
+    @Test
+    void rankValueIsNullWhenNotCompetitionOrScoreMissing() {
+        ClubTest t = test(RankingDirection.ASC);
+        assertNull(ClubTestRankingService.rankValueFor(t, result("a", null)));
+
+        t.setCompetitionMode(false);
+        ClubTestResult r = result("a", null);
+        r.setSegmentResults(Map.of("ftp", segment(300)));
+        assertNull(ClubTestRankingService.rankValueFor(t, r));
+    }
+
+    @Test
+    void topNAssignsSharedRanksToTies() {
+        when(resultRepository.findByIterationIdAndRankValueNotNull(eq("it"), any(Pageable.class)))
+                .thenReturn(List.of(result("a", 10.0), result("b", 10.0), result("c", 12.0)));
+
+        List<ClubTestResult> board = rankingService.leaderboard("it", 3);
+
+        assertEquals(List.of(1, 1, 3), board.stream().map(ClubTestResult::getRank).toList());
+        verify(resultRepository, never()).findByIterationIdAndRankValueIsNull(any());
+    }
+
+    @Test
+    void fullLeaderboardAppendsUnrankedResults() {
+        when(resultRepository.findByIterationIdAndRankValueNotNull(eq("it"), any(Pageable.class)))
+                .thenReturn(List.of(result("a", 10.0)));
+        when(resultRepository.findByIterationIdAndRankValueIsNull("it"))
+                .thenReturn(List.of(result("b", null)));
+
+        List<ClubTestResult> board = rankingService.leaderboard("it", null);
+
+        assertEquals(List.of("a", "b"), board.stream().map(ClubTestResult::getAthleteId).toList());
+        assertNull(board.get(1).getRank());
+    }
+
+    @Test
+    void myRankCountsStrictlyBetterResults() {
+        ClubTestResult mine = result("me", 42.0);
+        when(resultRepository.countByIterationIdAndRankValueLessThan("it", 42.0)).thenReturn(4L);
+
+        assertEquals(5, rankingService.withRank(mine).getRank());
+    }
+
+    private static ClubTest test(RankingDirection direction) {
+        ClubTest t = new ClubTest();
+        t.setCompetitionMode(true);
+        t.setRankingMetric(RankingMetric.TIME_OF_SEGMENT);
+        t.setRankingTarget("ftp");
+        t.setRankingDirection(direction);
+        return t;
+    }
+
+    private static ClubTestResult result(String athleteId, Double rankValue) {
+        ClubTestResult r = new ClubTestResult();
+        r.setIterationId("it");
+        r.setAthleteId(athleteId);
+        r.setRankValue(rankValue);
+        return r;
+    }
+
+    private static SegmentResultValue segment(double value) {
+        SegmentResultValue v = new SegmentResultValue();
+        v.setValue(value);
+        return v;
+    }
+}
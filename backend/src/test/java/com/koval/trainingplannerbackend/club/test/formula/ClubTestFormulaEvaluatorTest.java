@@ -82,6 +82,33 @@ class ClubTestFormulaEvaluatorTest {
                 () -> evaluator.validate("@someBean.something()", segments));
     }
 
+    @Test
+    void parsedFormulaIsReusedAcrossAthletes() {
+        String formula = "#round(#seg_ftp20 * 0.95)";
+        for (int athlete = 0; athlete < 500; athlete++) {
+            assertEquals(Math.round((200.0 + athlete) * 0.95),
+                    evaluator.evaluate(formula, Map.of("ftp20", 200.0 + athlete)).orElseThrow(), 0.001);
+        }
+        assertEquals(1, evaluator.cachedFormulaCount());
+    }
+
+    @Test
+    void compiledFormulaFallsBackWhenVariableMissing() {
+        String formula = "#seg_x * 2";
+        // Enough runs for the MIXED compiler to kick in.
+        for (int i = 0; i < 300; i++) {
+            assertEquals(2.0 * i, evaluator.evaluate(formula, Map.of("x", (double) i)).orElseThrow(), 0.001);
+        }
+        assertFalse(evaluator.evaluate(formula, Map.of("y", 1.0)).isPresent());
+        assertEquals(8.0, evaluator.evaluate(formula, Map.of("x", 4.0)).orElseThrow(), 0.001);
+    }
+
+    @Test
+    void parseFailuresAreNotCached() {
+        assertFalse(evaluator.evaluate("#seg_a *", Map.of("a", 1.0)).isPresent());
+        assertEquals(0, evaluator.cachedFormulaCount());
+    }
+
     private static TestSegment seg(String id) {
         TestSegment s = new TestSegment();
         s.setId(id);
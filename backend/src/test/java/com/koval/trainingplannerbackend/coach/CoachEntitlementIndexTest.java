@@ -0,0 +1,120 @@
+package com.koval.trainingplannerbackend.coach;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.koval.trainingplannerbackend.club.dto.MyClubRoleEntry;
+import com.koval.trainingplannerbackend.club.feed.ClubFeedBroadcastMessage;
+import com.koval.trainingplannerbackend.club.feed.ClubFeedBrokerPublisher;
+import com.koval.trainingplannerbackend.club.membership.ClubMemberRole;
+import com.koval.trainingplannerbackend.club.membership.ClubMemberStatus;
+import com.koval.trainingplannerbackend.club.membership.ClubMembership;
+import com.koval.trainingplannerbackend.club.membership.ClubMembershipRepository;
+import com.koval.trainingplannerbackend.club.membership.ClubMembershipService;
+import com.koval.trainingplannerbackend.coach.CoachEntitlementIndex.Change;
+import com.koval.trainingplannerbackend.training.group.GroupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CoachEntitlementIndexTest {
+
+    @Mock
+    private GroupService groupService;
+    @Mock
+    private ClubMembershipService clubMembershipService;
+    @Mock
+    private ClubMembershipRepository clubMembershipRepository;
+    @Mock
+    private ClubFeedBrokerPublisher brokerPublisher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CoachEntitlementIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CoachEntitlementIndex(groupService, clubMembershipService, clubMembershipRepository,
+                Optional.of(brokerPublisher), objectMapper);
+        when(groupService.getAthleteIdsForCoach("coach1")).thenReturn(List.of("a1"));
+        when(clubMembershipService.getMyClubRoles("coach1")).thenReturn(List.of(
+                new MyClubRoleEntry("club1", "Riders", ClubMemberRole.COACH),
+                new MyClubRoleEntry("club2", "Runners", ClubMemberRole.MEMBER)));
+        when(clubMembershipRepository.findByClubIdInAndStatus(List.of("club1"), ClubMemberStatus.ACTIVE))
+                .thenReturn(List.of(member("club1", "m1")));
+    }
+
+    @Test
+    void coversGroupAthletesAndMembersOfManagedClubsOnly() {
+        assertTrue(index.isCoachOf("coach1", "a1"));
+        assertTrue(index.isCoachOf("coach1", "m1"));
+        assertFalse(index.isCoachOf("coach1", "stranger"));
+
+        verify(groupService, times(1)).getAthleteIdsForCoach("coach1");
+    }
+
+    @Test
+    void coachChangeReloadsAndIsRelayed() throws Exception {
+        index.isCoachOf("coach1", "a1");
+
+        index.changed(Change.coaches(List.of("coach1")));
+        index.isCoachOf("coach1", "a1");
+
+        verify(groupService, times(2)).getAthleteIdsForCoach("coach1");
+        ArgumentCaptor<ClubFeedBroadcastMessage> message = ArgumentCaptor.forClass(ClubFeedBroadcastMessage.class);
+        verify(brokerPublisher).publish(message.capture());
+        assertEquals(CoachEntitlementIndex.CHANGE_EVENT, message.getValue().eventName());
+        assertEquals(Change.coaches(List.of("coach1")),
+                objectMapper.readValue(message.getValue().payloadJson(), Change.class));
+    }
+
+    @Test
+    void clubChangeOnlyEvictsCoachesManagingTheClub() {
+        index.isCoachOf("coach1", "a1");
+
+        index.changedRemotely("{\"coachIds\":[],\"clubIds\":[\"club2\"],\"all\":false}");
+        index.isCoachOf("coach1", "a1");
+        index.changedRemotely("{\"coachIds\":[],\"clubIds\":[\"club1\"],\"all\":false}");
+        index.isCoachOf("coach1", "a1");
+
+        verify(groupService, times(2)).getAthleteIdsForCoach("coach1");
+    }
+
+    @Test
+    void loadFinishingAfterAClubChangeIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+        when(groupService.getAthleteIdsForCoach("coach1")).thenAnswer(invocation -> {
+            if (loads.getAndIncrement() == 0) {
+                // club1 changes after the first load has read its members
+                index.changedRemotely("{\"coachIds\":[],\"clubIds\":[\"club1\"],\"all\":false}");
+            }
+            return List.of("a1");
+        });
+
+        assertTrue(index.isCoachOf("coach1", "m1"));
+        assertTrue(index.isCoachOf("coach1", "m1"));
+        assertTrue(index.isCoachOf("coach1", "m1"));
+
+        assertEquals(2, loads.get());
+    }
+
+    private static ClubMembership member(String clubId, String userId) {
+        ClubMembership m = new ClubMembership();
+        m.setClubId(clubId);
+        m.setUserId(userId);
+        m.setStatus(ClubMemberStatus.ACTIVE);
+        return m;
+    }
+}
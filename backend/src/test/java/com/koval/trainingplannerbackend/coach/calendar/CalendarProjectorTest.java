@@ -0,0 +1,213 @@
+package com.koval.trainingplannerbackend.coach.calendar;
+
+import com.koval.trainingplannerbackend.club.Club;
+import com.koval.trainingplannerbackend.club.ClubRepository;
+import com.koval.trainingplannerbackend.club.group.ClubGroup;
+import com.koval.trainingplannerbackend.club.group.ClubGroupRepository;
+import com.koval.trainingplannerbackend.club.membership.ClubMemberStatus;
+import com.koval.trainingplannerbackend.club.membership.ClubMembership;
+import com.koval.trainingplannerbackend.club.membership.ClubMembershipRepository;
+import com.koval.trainingplannerbackend.club.session.ClubTrainingSession;
+import com.koval.trainingplannerbackend.coach.ScheduleStatus;
+import com.koval.trainingplannerbackend.coach.ScheduledWorkout;
+import com.koval.trainingplannerbackend.coach.ScheduledWorkoutResponse;
+import com.koval.trainingplannerbackend.plan.PlanDay;
+import com.koval.trainingplannerbackend.plan.PlanWeek;
+import com.koval.trainingplannerbackend.plan.TrainingPlan;
+import com.koval.trainingplannerbackend.plan.TrainingPlanRepository;
+import com.koval.trainingplannerbackend.training.TrainingRepository;
+import com.koval.trainingplannerbackend.training.model.CyclingTraining;
+import com.koval.trainingplannerbackend.training.model.SportType;
+import com.koval.trainingplannerbackend.training.model.TrainingType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CalendarProjectorTest {
+
+    @Mock
+    private CalendarEntryRepository entries;
+    @Mock
+    private TrainingRepository trainingRepository;
+    @Mock
+    private TrainingPlanRepository planRepository;
+    @Mock
+    private ClubRepository clubRepository;
+    @Mock
+    private ClubGroupRepository clubGroupRepository;
+    @Mock
+    private ClubMembershipRepository clubMembershipRepository;
+
+    private CalendarProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        projector = new CalendarProjector(entries, trainingRepository, planRepository,
+                clubRepository, clubGroupRepository, clubMembershipRepository);
+    }
+
+    @Test
+    void workoutEntryRendersLikeTheEnrichedWorkout() {
+        ScheduledWorkout sw = workout("sw1", "plan1");
+        CyclingTraining training = training();
+        TrainingPlan plan = plan("plan1", "sw1");
+        when(trainingRepository.findAllById(List.of("t1"))).thenReturn(List.of(training));
+        when(planRepository.findAllById(List.of("plan1"))).thenReturn(List.of(plan));
+
+        projector.projectWorkouts(List.of(sw));
+
+        CalendarEntry entry = replaced().get("sw1").getFirst();
+        assertEquals("a1:sw1", entry.getId());
+        assertEquals(LocalDate.of(2026, 5, 1), entry.getDate());
+        assertEquals(
+                ScheduledWorkoutResponse.from(sw, "FTP Booster", TrainingType.THRESHOLD, 3600, SportType.CYCLING,
+                        80, 0.85, "plan1", "12-Week Build", 3, "Build 1"),
+                ScheduledWorkoutResponse.fromCalendarEntry(entry));
+    }
+
+    @Test
+    void planWeekIsOnlySetWhenThePlanListsTheWorkout() {
+        ScheduledWorkout sw = workout("sw1", "plan1");
+        when(trainingRepository.findAllById(List.of("t1"))).thenReturn(List.of());
+        when(planRepository.findAllById(List.of("plan1"))).thenReturn(List.of(plan("plan1", "other")));
+
+        projector.projectWorkouts(List.of(sw));
+
+        CalendarEntry entry = replaced().get("sw1").getFirst();
+        assertEquals("plan1", entry.getScheduledPlanId());
+        assertNull(entry.getPlan());
+    }
+
+    @Test
+    void undatedWorkoutHasNoEntry() {
+        ScheduledWorkout sw = workout("sw1", null);
+        sw.setScheduledDate(null);
+        when(trainingRepository.findAllById(List.of("t1"))).thenReturn(List.of());
+
+        projector.projectWorkouts(List.of(sw));
+
+        assertTrue(replaced().get("sw1").isEmpty());
+    }
+
+    @Test
+    void clubSessionHasOneEntryPerParticipantWithTheirVisibility() {
+        ClubTrainingSession session = clubSession();
+        Club club = new Club();
+        club.setId("club1");
+        club.setName("Riders Club");
+        ClubGroup group = new ClubGroup();
+        group.setId("g1");
+        group.setName("Pro group");
+        group.setMemberIds(new ArrayList<>(List.of("u1", "u3")));
+        when(clubRepository.findAllById(List.of("club1"))).thenReturn(List.of(club));
+        when(clubGroupRepository.findAllById(List.of("g1"))).thenReturn(List.of(group));
+        when(clubMembershipRepository.findByClubIdAndUserIdIn("club1", session.getParticipantIds()))
+                .thenReturn(List.of(membership("u1", ClubMemberStatus.ACTIVE), membership("u2", ClubMemberStatus.ACTIVE),
+                        membership("u3", ClubMemberStatus.PENDING)));
+
+        projector.projectClubSessions(List.of(session));
+
+        List<CalendarEntry> sessionEntries = replaced().get("sess1");
+        assertEquals(List.of("u1:sess1", "u2:sess1", "u3:sess1"), sessionEntries.stream().map(CalendarEntry::getId).toList());
+        assertTrue(sessionEntries.get(0).isVisible());
+        assertFalse(sessionEntries.get(1).isVisible(), "not in the session's group");
+        assertFalse(sessionEntries.get(2).isVisible(), "membership not active");
+        assertEquals(ScheduledWorkoutResponse.fromClubSession(session, "Riders Club", "Pro group", null),
+                ScheduledWorkoutResponse.fromCalendarEntry(sessionEntries.get(0)));
+    }
+
+    @Test
+    void planWeeksIndexEveryScheduledWorkoutOfThePlan() {
+        TrainingPlan plan = plan("plan1", "sw1");
+        plan.getWeeks().getFirst().getDays().getFirst().getScheduledWorkoutIds().add("sw2");
+
+        Map<String, CalendarEntry.PlanInfo> weeks = CalendarProjector.planWeeks(plan);
+
+        assertEquals(new CalendarEntry.PlanInfo("plan1", "12-Week Build", 3, "Build 1"), weeks.get("sw2"));
+        assertEquals(2, weeks.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, List<CalendarEntry>> replaced() {
+        ArgumentCaptor<Map<String, List<CalendarEntry>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(entries).replaceAll(captor.capture());
+        return captor.getValue();
+    }
+
+    private static ScheduledWorkout workout(String id, String planId) {
+        ScheduledWorkout sw = new ScheduledWorkout();
+        sw.setId(id);
+        sw.setTrainingId("t1");
+        sw.setPlanId(planId);
+        sw.setAthleteId("a1");
+        sw.setAssignedBy("coach1");
+        sw.setScheduledDate(LocalDate.of(2026, 5, 1));
+        sw.setStatus(ScheduleStatus.PENDING);
+        sw.setNotes("notes");
+        return sw;
+    }
+
+    private static CyclingTraining training() {
+        CyclingTraining t = new CyclingTraining();
+        t.setId("t1");
+        t.setTitle("FTP Booster");
+        t.setTrainingType(TrainingType.THRESHOLD);
+        t.setEstimatedDurationSeconds(3600);
+        t.setSportType(SportType.CYCLING);
+        t.setEstimatedTss(80);
+        t.setEstimatedIf(0.85);
+        return t;
+    }
+
+    private static TrainingPlan plan(String id, String scheduledWorkoutId) {
+        PlanDay day = new PlanDay();
+        day.getScheduledWorkoutIds().add(scheduledWorkoutId);
+        PlanWeek week = new PlanWeek();
+        week.setWeekNumber(3);
+        week.setLabel("Build 1");
+        week.getDays().add(day);
+        TrainingPlan plan = new TrainingPlan();
+        plan.setId(id);
+        plan.setTitle("12-Week Build");
+        plan.getWeeks().add(week);
+        return plan;
+    }
+
+    private static ClubTrainingSession clubSession() {
+        ClubTrainingSession s = new ClubTrainingSession();
+        s.setId("sess1");
+        s.setClubId("club1");
+        s.setClubGroupId("g1");
+        s.setTitle("Saturday Group Ride");
+        s.setSport("CYCLING");
+        s.setScheduledAt(LocalDateTime.of(2026, 5, 2, 9, 0));
+        s.setDurationMinutes(120);
+        s.setParticipantIds(new ArrayList<>(List.of("u1", "u2", "u3")));
+        return s;
+    }
+
+    private static ClubMembership membership(String userId, ClubMemberStatus status) {
+        ClubMembership m = new ClubMembership();
+        m.setClubId("club1");
+        m.setUserId(userId);
+        m.setStatus(status);
+        return m;
+    }
+}
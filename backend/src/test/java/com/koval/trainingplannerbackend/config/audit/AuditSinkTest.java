@@ -0,0 +1,109 @@
+package com.koval.trainingplannerbackend.config.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditSinkTest {
+
+    @Mock
+    private AuditEntryRepository repository;
+
+    private AuditSink sink;
+
+    @AfterEach
+    void tearDown() {
+        if (sink != null) sink.stop();
+    }
+
+    private AuditSink newSink(int capacity, int batchSize, long flushMs, AuditSink.OverflowPolicy policy) {
+        return new AuditSink(repository, new SimpleMeterRegistry(), capacity, batchSize, flushMs, policy, 5);
+    }
+
+    @Test
+    void submit_fullBufferWithDropPolicy_countsDrops() {
+        // Writer not started: nothing drains the buffer.
+        sink = newSink(4, 100, 1_000, AuditSink.OverflowPolicy.DROP);
+
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (sink.submit(new AuditEntry())) accepted++;
+        }
+
+        assertEquals(4, accepted);
+        assertEquals(6.0, sink.droppedCount());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void writer_flushesInBatches() {
+        List<Integer> batchSizes = new ArrayList<>();
+        when(repository.insert(anyList())).thenAnswer(inv -> {
+            batchSizes.add(((List<?>) inv.getArgument(0)).size());
+            return inv.getArgument(0);
+        });
+        sink = newSink(1_024, 50, 60_000, AuditSink.OverflowPolicy.DROP);
+        for (int i = 0; i < 120; i++) sink.submit(new AuditEntry());
+
+        sink.start();
+        sink.stop();
+
+        assertEquals(120, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 50));
+    }
+
+    @Test
+    void concurrentProducers_neverLoseAcceptedEntries() throws Exception {
+        List<Integer> written = new ArrayList<>();
+        when(repository.insert(anyList())).thenAnswer(inv -> {
+            synchronized (written) {
+                written.add(((List<?>) inv.getArgument(0)).size());
+            }
+            return inv.getArgument(0);
+        });
+        sink = newSink(256, 32, 5, AuditSink.OverflowPolicy.BLOCK);
+        sink.start();
+
+        int producers = 8;
+        int perProducer = 2_000;
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        int[] accepted = new int[producers];
+        for (int p = 0; p < producers; p++) {
+            int idx = p;
+            pool.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    if (sink.submit(new AuditEntry())) accepted[idx]++;
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        pool.shutdown();
+        sink.stop();
+
+        int totalAccepted = 0;
+        for (int a : accepted) totalAccepted += a;
+        int totalWritten;
+        synchronized (written) {
+            totalWritten = written.stream().mapToInt(Integer::intValue).sum();
+        }
+        assertEquals(totalAccepted, totalWritten);
+        assertEquals(producers * perProducer, totalAccepted + (int) sink.droppedCount());
+    }
+}
@@ -0,0 +1,109 @@
+package com.koval.trainingplannerbackend.notification;
+
+import com.koval.trainingplannerbackend.auth.User;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PushDeliveryPipelineTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private StubFcmTransport transport;
+    private SimpleMeterRegistry meterRegistry;
+    private PushDeliveryPipeline pipeline;
+
+    private static final PushMessage MESSAGE = new PushMessage("Title", "Body", Map.of("type", "CLUB_ANNOUNCEMENT"));
+
+    @BeforeEach
+    void setUp() {
+        transport = new StubFcmTransport();
+        meterRegistry = new SimpleMeterRegistry();
+        pipeline = new PushDeliveryPipeline(transport, mongoTemplate, meterRegistry);
+    }
+
+    @Test
+    void deliver_splitsIntoChunksOfAtMost500() {
+        List<String> tokens = IntStream.range(0, 1_200).mapToObj(i -> "tok-" + i).toList();
+
+        PushDeliveryPipeline.DeliveryReport report = pipeline.deliver(tokens, MESSAGE);
+
+        assertEquals(List.of(500, 500, 200), transport.chunkSizes);
+        assertEquals(1_200, report.successCount());
+        assertEquals(0, report.failureCount());
+        assertEquals(1_200.0, meterRegistry.counter("koval.push.tokens", "outcome", "success").count());
+        assertEquals(3, meterRegistry.timer("koval.push.chunk.latency").count());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void deliver_deduplicatesTokensSharedByRecipients() {
+        pipeline.deliver(List.of("a", "b", "a", "c", "b"), MESSAGE);
+
+        assertEquals(List.of(3), transport.chunkSizes);
+    }
+
+    @Test
+    void deliver_prunesAllInvalidTokensInOneUpdate() {
+        transport.invalid.addAll(List.of("tok-3", "tok-700"));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(User.class)))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null));
+        List<String> tokens = IntStream.range(0, 800).mapToObj(i -> "tok-" + i).toList();
+
+        PushDeliveryPipeline.DeliveryReport report = pipeline.deliver(tokens, MESSAGE);
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(1)).updateMulti(any(Query.class), update.capture(), eq(User.class));
+        assertTrue(update.getValue().getUpdateObject().toJson().contains("$pullAll"));
+        assertEquals(798, report.successCount());
+        assertEquals(2, report.failureCount());
+        assertEquals(2, report.prunedCount());
+        assertEquals(2.0, meterRegistry.counter("koval.push.tokens", "outcome", "pruned").count());
+    }
+
+    @Test
+    void deliver_noTokens_doesNotCallTransport() {
+        pipeline.deliver(List.of(), MESSAGE);
+
+        assertTrue(transport.chunkSizes.isEmpty());
+    }
+
+    /** In-memory FCM stand-in: records chunk sizes, fails tokens listed in {@link #invalid}. */
+    private static final class StubFcmTransport implements FcmTransport {
+        final List<Integer> chunkSizes = new ArrayList<>();
+        final List<String> invalid = new ArrayList<>();
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public MulticastResult sendMulticast(List<String> tokens, PushMessage message) {
+            assertTrue(tokens.size() <= MAX_TOKENS_PER_MULTICAST);
+            chunkSizes.add(tokens.size());
+            List<String> rejected = tokens.stream().filter(invalid::contains).toList();
+            return new MulticastResult(tokens.size() - rejected.size(), rejected.size(), rejected);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.koval.trainingplannerbackend.notification;
+
+import com.koval.trainingplannerbackend.auth.User;
+import com.koval.trainingplannerbackend.coach.ScheduledWorkout;
+import com.koval.trainingplannerbackend.maintenance.JobLeaseService;
+import com.koval.trainingplannerbackend.notification.ScheduledNotificationJob.UserRef;
+import com.koval.trainingplannerbackend.notification.ScheduledNotificationJob.WorkoutRef;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ScheduledNotificationJobTest {
+
+    private static final ZoneId BRUSSELS = ZoneId.of("Europe/Brussels");
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+    private static final ZoneId KOLKATA = ZoneId.of("Asia/Kolkata");
+    private static final ZoneId AUCKLAND = ZoneId.of("Pacific/Auckland");
+
+    @Test
+    void dueZones_picksOnlyZonesAtSevenLocal() {
+        // 2026-06-15T05:00Z = 07:00 in Brussels (CEST), 01:00 in New York.
+        Map<LocalDate, List<ZoneId>> due = ScheduledNotificationJob.dueZones(
+                Instant.parse("2026-06-15T05:00:00Z"), List.of(BRUSSELS, NEW_YORK, KOLKATA));
+
+        assertEquals(Map.of(LocalDate.of(2026, 6, 15), List.of(BRUSSELS)), due);
+    }
+
+    @Test
+    void dueZones_handlesHalfHourOffsets() {
+        // 01:30Z = 07:00 IST (+05:30) — only reachable on a quarter-hour tick.
+        Map<LocalDate, List<ZoneId>> due = ScheduledNotificationJob.dueZones(
+                Instant.parse("2026-06-15T01:30:00Z"), List.of(BRUSSELS, KOLKATA));
+
+        assertEquals(List.of(KOLKATA), due.get(LocalDate.of(2026, 6, 15)));
+        assertTrue(ScheduledNotificationJob.dueZones(
+                Instant.parse("2026-06-15T01:45:00Z"), List.of(KOLKATA)).isEmpty());
+    }
+
+    @Test
+    void dueZones_usesEachZonesLocalDate() {
+        // 19:00Z on the 14th = 07:00 on the 15th in Auckland (NZST, +12).
+        Map<LocalDate, List<ZoneId>> due = ScheduledNotificationJob.dueZones(
+                Instant.parse("2026-06-14T19:00:00Z"), List.of(AUCKLAND));
+
+        assertEquals(Map.of(LocalDate.of(2026, 6, 15), List.of(AUCKLAND)), due);
+    }
+
+    // 05:00Z is 07:00 in Brussels; "a1" hashes to shard 0 and "a2" to shard 1 of 2.
+    private static final Instant SLOT = Instant.parse("2026-06-15T05:00:00Z");
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 15);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final JobLeaseService jobLeaseService = mock(JobLeaseService.class);
+    private final List<String> leaseEvents = new ArrayList<>();
+    private final Set<String> completed = new HashSet<>();
+
+    @Test
+    void shardsAreClaimedOneAtATime() {
+        job().sendRemindersForSlot(SLOT);
+
+        assertEquals(4, leaseEvents.size());
+        for (int i = 0; i < leaseEvents.size(); i += 2) {
+            String leaseId = leaseEvents.get(i).substring("acquire ".length());
+            assertEquals("complete " + leaseId, leaseEvents.get(i + 1));
+        }
+        verify(notificationService).sendToUsers(eq(List.of("a1")), anyString(), anyString(), anyMap(), anyString());
+        verify(notificationService).sendToUsers(eq(List.of("a2")), anyString(), anyString(), anyMap(), anyString());
+    }
+
+    @Test
+    void failedShardIsRetriedInTheNextSlot() {
+        doThrow(new IllegalStateException("push down")).doNothing().when(notificationService)
+                .sendToUsers(anyList(), anyString(), anyString(), anyMap(), anyString());
+        ScheduledNotificationJob job = job();
+
+        job.sendRemindersForSlot(SLOT);
+        assertEquals(1, completed.size());
+        leaseEvents.clear();
+
+        job.sendRemindersForSlot(SLOT.plus(Duration.ofMinutes(15)));
+        assertEquals(2, completed.size());
+        assertEquals(2, leaseEvents.size(), leaseEvents.toString());
+        assertTrue(leaseEvents.getFirst().startsWith("acquire workout-reminder:" + SLOT));
+    }
+
+    private ScheduledNotificationJob job() {
+        ScheduledNotificationJob job = new ScheduledNotificationJob(mongoTemplate, notificationService, jobLeaseService);
+        ReflectionTestUtils.setField(job, "shardCount", 2);
+        ReflectionTestUtils.setField(job, "batchSize", 500);
+        ReflectionTestUtils.setField(job, "leaseTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(job, "retrySlots", 1);
+        ReflectionTestUtils.setField(job, "defaultZone", BRUSSELS.getId());
+
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        when(mongoTemplate.getCollectionName(ScheduledWorkout.class)).thenReturn("scheduled_workouts");
+        when(mongoTemplate.findDistinct(any(Query.class), eq("timezone"), eq(User.class), eq(String.class)))
+                .thenReturn(List.of());
+        when(mongoTemplate.stream(any(Query.class), eq(UserRef.class), eq("users")))
+                .thenAnswer(inv -> Stream.of(new UserRef("a1", null), new UserRef("a2", null)));
+        when(mongoTemplate.find(any(Query.class), eq(WorkoutRef.class), eq("scheduled_workouts")))
+                .thenReturn(List.of(new WorkoutRef("a1", TODAY), new WorkoutRef("a2", TODAY)));
+
+        // Completed leases are never handed out again, as in JobLeaseService.
+        when(jobLeaseService.tryAcquire(anyString(), any(Duration.class))).thenAnswer(inv -> {
+            String leaseId = inv.getArgument(0);
+            if (completed.contains(leaseId)) return false;
+            leaseEvents.add("acquire " + leaseId);
+            return true;
+        });
+        doAnswer(inv -> {
+            String leaseId = inv.getArgument(0);
+            completed.add(leaseId);
+            leaseEvents.add("complete " + leaseId);
+            return null;
+        }).when(jobLeaseService).complete(anyString());
+        return job;
+    }
+}
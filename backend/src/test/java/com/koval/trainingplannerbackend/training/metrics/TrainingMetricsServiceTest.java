@@ -0,0 +1,140 @@
+package com.koval.trainingplannerbackend.training.metrics;
+
+import com.koval.trainingplannerbackend.auth.User;
+import com.koval.trainingplannerbackend.auth.UserRepository;
+import com.koval.trainingplannerbackend.coach.calendar.CalendarProjector;
+import com.koval.trainingplannerbackend.training.group.GroupService;
+import com.koval.trainingplannerbackend.training.model.BlockType;
+import com.koval.trainingplannerbackend.training.model.CyclingTraining;
+import com.koval.trainingplannerbackend.training.model.SportType;
+import com.koval.trainingplannerbackend.training.model.Training;
+import com.koval.trainingplannerbackend.training.model.WorkoutElement;
+import com.koval.trainingplannerbackend.training.zone.Zone;
+import com.koval.trainingplannerbackend.training.zone.ZoneSystem;
+import com.koval.trainingplannerbackend.training.zone.ZoneSystemService;
+import com.mongodb.bulk.BulkWriteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrainingMetricsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ZoneSystemService zoneSystemService;
+    @Mock
+    private GroupService groupService;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private CalendarProjector calendarProjector;
+    @Mock
+    private BulkOperations bulkOperations;
+    @Mock
+    private BulkWriteResult bulkWriteResult;
+
+    private TrainingMetricsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TrainingMetricsService(userRepository, zoneSystemService, groupService,
+                mongoTemplate, calendarProjector);
+        User athlete = new User();
+        athlete.setId("a1");
+        when(userRepository.findById("a1")).thenReturn(Optional.of(athlete));
+    }
+
+    @Test
+    void sameRevisionIsServedFromTheMemo() {
+        Training first = training(3, block(80, null));
+        service.enrichTrainings(List.of(first), "a1");
+
+        Training sameRevision = training(3, block(100, null));
+        service.enrichTrainings(List.of(sameRevision), "a1");
+        Training nextRevision = training(4, block(100, null));
+        service.enrichTrainings(List.of(nextRevision), "a1");
+
+        assertEquals(first.getEstimatedTss(), sameRevision.getEstimatedTss());
+        assertNotEquals(first.getEstimatedTss(), nextRevision.getEstimatedTss());
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), any(Class.class));
+    }
+
+    @Test
+    void zoneEditRecomputesTheResolvedIntensity() {
+        ZoneSystem zones = new ZoneSystem();
+        zones.setId("zs1");
+        zones.setZones(List.of(new Zone("Z2", 56, 75, "Endurance")));
+        when(zoneSystemService.getDefaultZoneSystem("coach1", SportType.CYCLING)).thenReturn(Optional.of(zones));
+
+        Training before = training(1, block(null, "Z2"));
+        service.enrichTrainings(List.of(before), "a1");
+        zones.setZones(List.of(new Zone("Z2", 76, 90, "Endurance")));
+        Training after = training(1, block(null, "Z2"));
+        service.enrichTrainings(List.of(after), "a1");
+
+        assertEquals(65, before.getBlocks().getFirst().intensityTarget());
+        assertEquals(83, after.getBlocks().getFirst().intensityTarget());
+        assertNotEquals(before.getEstimatedTss(), after.getEstimatedTss());
+    }
+
+    @Test
+    void creatorEstimatesAreStoredOncePerKey() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Training.class)).thenReturn(bulkOperations);
+        when(bulkOperations.execute()).thenReturn(bulkWriteResult);
+        when(bulkWriteResult.getModifiedCount()).thenReturn(1);
+        Training own = training(2, block(80, null));
+        own.setCreatedBy("a1");
+
+        service.enrichTrainings(List.of(own), "a1");
+
+        assertNotNull(own.getMetricsKey());
+        verify(bulkOperations).updateOne(any(Query.class), any(Update.class));
+        verify(bulkOperations).execute();
+        verify(calendarProjector).trainingEstimatesChanged(List.of(own));
+
+        Training reloaded = training(2, block(80, null));
+        reloaded.setCreatedBy("a1");
+        reloaded.setMetricsKey(own.getMetricsKey());
+        service.enrichTrainings(List.of(reloaded), "a1");
+
+        verify(mongoTemplate, times(1)).bulkOps(BulkOperations.BulkMode.UNORDERED, Training.class);
+        assertEquals(own.getEstimatedTss(), reloaded.getEstimatedTss());
+    }
+
+    private static Training training(long revision, WorkoutElement block) {
+        CyclingTraining t = new CyclingTraining();
+        t.setId("t1");
+        t.setRevision(revision);
+        t.setCreatedBy("coach1");
+        t.setBlocks(new ArrayList<>(List.of(block)));
+        return t;
+    }
+
+    private static WorkoutElement block(Integer intensity, String zone) {
+        return new WorkoutElement(null, null, null, null,
+                BlockType.STEADY, 3600, null, "Steady", null,
+                intensity, null, null, null, zone, null,
+                null, null, null, null);
+    }
+}
@@ -104,6 +104,8 @@ export class HistoryService {
 
   private selectedSessionSubject = new BehaviorSubject<SavedSession | null>(null);
   selectedSession$ = this.selectedSessionSubject.asObservable();
+  /** Id of the selected session once its full document (with block summaries) has loaded. */
+  private detailLoadedId: string | null = null;
 
   private loadingSubject = new BehaviorSubject<boolean>(true);
   loading$ = this.loadingSubject.asObservable();
@@ -220,14 +222,34 @@ export class HistoryService {
       });
   }
 
+  /**
+   * Window listings carry summaries only (no block summaries or power curve), so selecting
+   * a session shows the summary immediately and then swaps in the full document.
+   */
   selectSession(session: SavedSession | null) {
+    if (session && session.id === this.detailLoadedId && this.selectedSessionSubject.value?.id === session.id) {
+      return;
+    }
+    this.detailLoadedId = null;
     this.selectedSessionSubject.next(session);
+    if (session?.id) this.loadSessionDetail(session.id);
   }
 
   setSelectedSession(session: SavedSession) {
+    this.detailLoadedId = session.id;
     this.selectedSessionSubject.next(session);
   }
 
+  private loadSessionDetail(id: string): void {
+    this.http.get<RawSavedSession>(`${this.apiUrl}/${id}`).subscribe({
+      next: (raw) => {
+        if (this.selectedSessionSubject.value?.id !== id) return;
+        this.detailLoadedId = id;
+        this.selectedSessionSubject.next(this.parseSession(raw));
+      },
+    });
+  }
+
   saveSession(summary: SessionSummary, fitBuffer?: ArrayBuffer): void {
     const payload = {
       title: summary.title,
@@ -389,7 +411,10 @@ export class HistoryService {
     const current = this.selectedSessionSubject.value;
     if (current) {
       const refreshed = parsed.find((s) => s.id === current.id);
-      if (refreshed) this.selectedSessionSubject.next(refreshed);
+      if (refreshed) {
+        this.detailLoadedId = null;
+        this.selectSession(refreshed);
+      }
     }
   }
 }
@@ -61,7 +61,9 @@ export class NotificationService {
 
       if (token && token !== this.currentToken) {
         this.currentToken = token;
-        this.http.post(`${this.apiUrl}/register-token`, { token }).subscribe({
+        // The backend schedules daily reminders at 07:00 in this zone.
+        const timezone = Intl.DateTimeFormat().resolvedOptions().timeZone;
+        this.http.post(`${this.apiUrl}/register-token`, { token, timezone }).subscribe({
           error: (err) => console.warn('Failed to register FCM token:', err),
         });
       }